@@ -0,0 +1,57 @@
+
+/* 
+ * ===========================================================
+ * AtomicJ : a free application for analysis of AFM data
+ * ===========================================================
+ *
+ * (C) Copyright 2013-2022 by Paweł Hermanowicz
+ *
+ * 
+ * This program is free software; you can redistribute it and/or modify 
+ * it under the terms of the GNU General Public License as published by 
+ * the Free Software Foundation; either version 3 of the License, or (at your option) any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without 
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU 
+ * General Public License for more details.
+ * You should have received a copy of the GNU General Public License along with this program; if not, 
+ * see http://www.gnu.org/licenses/*/
+
+package atomicJ.benchmark;
+
+import java.util.Random;
+
+import atomicJ.utilities.Validation;
+
+public abstract class AbstractBenchmark implements Benchmark
+{
+    //all benchmarks draw their inputs from generators seeded with the same value, so that the inputs are identical in every run
+    public static final long SEED = 20220517L;
+
+    private final String name;
+
+    public AbstractBenchmark(String name)
+    {
+        this.name = Validation.requireNonNullParameterName(name, "name");
+    }
+
+    @Override
+    public String getName()
+    {
+        return name;
+    }
+
+    @Override
+    public void setUp() throws Exception
+    {
+    }
+
+    @Override
+    public void tearDown() throws Exception
+    {
+    }
+
+    protected static Random createRandom()
+    {
+        return new Random(SEED);
+    }
+}
@@ -0,0 +1,33 @@
+
+/* 
+ * ===========================================================
+ * AtomicJ : a free application for analysis of AFM data
+ * ===========================================================
+ *
+ * (C) Copyright 2013-2022 by Paweł Hermanowicz
+ *
+ * 
+ * This program is free software; you can redistribute it and/or modify 
+ * it under the terms of the GNU General Public License as published by 
+ * the Free Software Foundation; either version 3 of the License, or (at your option) any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without 
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU 
+ * General Public License for more details.
+ * You should have received a copy of the GNU General Public License along with this program; if not, 
+ * see http://www.gnu.org/licenses/*/
+
+package atomicJ.benchmark;
+
+/*
+ * A single measured operation. The runner calls setUp() once, then run() repeatedly during warmup and measurement,
+ * and finally tearDown(). The value returned by run() is consumed by the runner, so that the JIT cannot eliminate
+ * the computation as dead code.
+ */
+
+public interface Benchmark
+{
+    public String getName();
+    public void setUp() throws Exception;
+    public Object run() throws Exception;
+    public void tearDown() throws Exception;
+}
@@ -0,0 +1,119 @@
+
+/* 
+ * ===========================================================
+ * AtomicJ : a free application for analysis of AFM data
+ * ===========================================================
+ *
+ * (C) Copyright 2013-2022 by Paweł Hermanowicz
+ *
+ * 
+ * This program is free software; you can redistribute it and/or modify 
+ * it under the terms of the GNU General Public License as published by 
+ * the Free Software Foundation; either version 3 of the License, or (at your option) any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without 
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU 
+ * General Public License for more details.
+ * You should have received a copy of the GNU General Public License along with this program; if not, 
+ * see http://www.gnu.org/licenses/*/
+
+package atomicJ.benchmark;
+
+import java.util.Arrays;
+
+import atomicJ.utilities.Validation;
+
+/*
+ * Scores of the measured iterations of a benchmark, in nanoseconds per call. The error is the half-width
+ * of the 99.9 % confidence interval of the mean, computed from the normal approximation, as reported by JMH.
+ */
+
+public class BenchmarkResult
+{
+    private static final double Z_999 = 3.2905;
+
+    private final String name;
+    private final double[] scores;
+
+    public BenchmarkResult(String name, double[] scores)
+    {
+        this.name = Validation.requireNonNullParameterName(name, "name");
+        this.scores = Arrays.copyOf(Validation.requireNonNullParameterName(scores, "scores"), scores.length);
+    }
+
+    public String getName()
+    {
+        return name;
+    }
+
+    public double[] getScores()
+    {
+        return Arrays.copyOf(scores, scores.length);
+    }
+
+    public double getMean()
+    {
+        double sum = 0;
+        for(double score : scores)
+        {
+            sum += score;
+        }
+
+        return sum/scores.length;
+    }
+
+    public double getStandardDeviation()
+    {
+        int n = scores.length;
+        if(n < 2)
+        {
+            return Double.NaN;
+        }
+
+        double mean = getMean();
+        double sumOfSquares = 0;
+
+        for(double score : scores)
+        {
+            double d = score - mean;
+            sumOfSquares += d*d;
+        }
+
+        return Math.sqrt(sumOfSquares/(n - 1));
+    }
+
+    public double getError()
+    {
+        return Z_999*getStandardDeviation()/Math.sqrt(scores.length);
+    }
+
+    public double getMinimum()
+    {
+        double min = Double.POSITIVE_INFINITY;
+        for(double score : scores)
+        {
+            min = Math.min(min, score);
+        }
+
+        return min;
+    }
+
+    public static String getTableHeader()
+    {
+        return String.format("%-40s %5s %14s %12s %14s", "Benchmark", "Cnt", "Score (us/op)", "Error", "Min (us/op)");
+    }
+
+    public String toTableRow()
+    {
+        return String.format("%-40s %5d %14.3f %12.3f %14.3f", name, scores.length, 1e-3*getMean(), 1e-3*getError(), 1e-3*getMinimum());
+    }
+
+    public static String getCSVHeader()
+    {
+        return "Benchmark,Count,Score (ns/op),Error (ns/op),Min (ns/op)";
+    }
+
+    public String toCSVRow()
+    {
+        return name + "," + scores.length + "," + getMean() + "," + getError() + "," + getMinimum();
+    }
+}
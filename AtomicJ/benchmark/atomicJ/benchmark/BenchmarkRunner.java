@@ -0,0 +1,303 @@
+
+/* 
+ * ===========================================================
+ * AtomicJ : a free application for analysis of AFM data
+ * ===========================================================
+ *
+ * (C) Copyright 2013-2022 by Paweł Hermanowicz
+ *
+ * 
+ * This program is free software; you can redistribute it and/or modify 
+ * it under the terms of the GNU General Public License as published by 
+ * the Free Software Foundation; either version 3 of the License, or (at your option) any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without 
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU 
+ * General Public License for more details.
+ * You should have received a copy of the GNU General Public License along with this program; if not, 
+ * see http://www.gnu.org/licenses/*/
+
+package atomicJ.benchmark;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import atomicJ.analysis.AutomaticContactEstimatorType;
+import atomicJ.analysis.InterpolationMethod2D;
+import atomicJ.gui.curveProcessing.BasicIndentationModel;
+
+/*
+ * Runs the benchmarks in a single JVM, in the manner of JMH in the average time mode: each benchmark is first warmed up
+ * for a number of timed iterations, whose results are discarded, and then measured for a number of timed iterations.
+ * Each iteration calls the benchmark repeatedly until its time elapses, and the score of the iteration is the mean time of a call.
+ * The values returned by the benchmarks are written to a volatile field, so that their computation cannot be eliminated.
+ * The arguments which are not options select the benchmarks whose names contain any of them.
+ *
+ * Usage: BenchmarkRunner [-warmup <iterations>] [-iterations <iterations>] [-time <milliseconds>] [-csv <file>] [-list] [<name fragments>]
+ */
+
+public final class BenchmarkRunner
+{
+    private static final String WARMUP_OPTION = "-warmup";
+    private static final String ITERATIONS_OPTION = "-iterations";
+    private static final String TIME_OPTION = "-time";
+    private static final String CSV_OPTION = "-csv";
+    private static final String LIST_OPTION = "-list";
+
+    private static volatile Object sink;
+
+    private final int warmupIterationCount;
+    private final int measurementIterationCount;
+    private final long iterationTimeNanos;
+
+    public BenchmarkRunner(int warmupIterationCount, int measurementIterationCount, long iterationTimeMillis)
+    {
+        if(warmupIterationCount < 0)
+        {
+            throw new IllegalArgumentException("Number of warmup iterations cannot be negative");
+        }
+        if(measurementIterationCount < 1)
+        {
+            throw new IllegalArgumentException("Number of measurement iterations must be positive");
+        }
+        if(iterationTimeMillis < 1)
+        {
+            throw new IllegalArgumentException("Iteration time must be positive");
+        }
+
+        this.warmupIterationCount = warmupIterationCount;
+        this.measurementIterationCount = measurementIterationCount;
+        this.iterationTimeNanos = 1000000L*iterationTimeMillis;
+    }
+
+    public static List<Benchmark> getAllBenchmarks()
+    {
+        List<Benchmark> benchmarks = new ArrayList<>();
+
+        BasicIndentationModel[] indentationModels = new BasicIndentationModel[] {BasicIndentationModel.PARABOLOID, BasicIndentationModel.SPHERE_SNEDDON,
+                BasicIndentationModel.CONE, BasicIndentationModel.PYRAMID, BasicIndentationModel.HYPERBOLOID};
+
+        for(BasicIndentationModel model : indentationModels)
+        {
+            benchmarks.add(new ProcessorBenchmark(model));
+        }
+        for(RegressionBenchmark.RegressionType regressionType : RegressionBenchmark.RegressionType.values())
+        {
+            benchmarks.add(new RegressionBenchmark(regressionType));
+        }
+        for(AutomaticContactEstimatorType estimatorType : AutomaticContactEstimatorType.values())
+        {
+            benchmarks.add(new ContactEstimatorBenchmark(estimatorType));
+        }
+
+        benchmarks.add(new LocalRegressionBenchmark());
+
+        for(ImageFilterBenchmark.FilterType filterType : ImageFilterBenchmark.FilterType.values())
+        {
+            benchmarks.add(new ImageFilterBenchmark(filterType));
+        }
+
+        benchmarks.add(new GriddingBenchmark(InterpolationMethod2D.SIBSON));
+
+        for(ReaderBenchmark.FileFormat format : ReaderBenchmark.FileFormat.values())
+        {
+            benchmarks.add(new ReaderBenchmark(format));
+        }
+
+        return benchmarks;
+    }
+
+    public BenchmarkResult run(Benchmark benchmark) throws Exception
+    {
+        benchmark.setUp();
+
+        try
+        {
+            for(int i = 0; i < warmupIterationCount; i++)
+            {
+                runIteration(benchmark);
+            }
+
+            double[] scores = new double[measurementIterationCount];
+
+            for(int i = 0; i < measurementIterationCount; i++)
+            {
+                scores[i] = runIteration(benchmark);
+            }
+
+            return new BenchmarkResult(benchmark.getName(), scores);
+        }
+        finally
+        {
+            benchmark.tearDown();
+        }
+    }
+
+    //returns the mean time of a single call, in nanoseconds
+    private double runIteration(Benchmark benchmark) throws Exception
+    {
+        long start = System.nanoTime();
+        long end = start + iterationTimeNanos;
+
+        long callCount = 0;
+        long now;
+
+        do
+        {
+            sink = benchmark.run();
+            callCount++;
+            now = System.nanoTime();
+        }
+        while(now < end);
+
+        return (now - start)/(double)callCount;
+    }
+
+    public static void main(String[] args)
+    {
+        Locale.setDefault(Locale.US);
+        System.setProperty("java.awt.headless", "true");
+
+        int warmupIterationCount = 5;
+        int measurementIterationCount = 10;
+        long iterationTimeMillis = 1000;
+        File csvFile = null;
+        boolean listOnly = false;
+
+        List<String> nameFragments = new ArrayList<>();
+
+        try
+        {
+            for(int i = 0; i < args.length; i++)
+            {
+                String arg = args[i];
+
+                if(WARMUP_OPTION.equals(arg))
+                {
+                    warmupIterationCount = Integer.parseInt(args[++i]);
+                }
+                else if(ITERATIONS_OPTION.equals(arg))
+                {
+                    measurementIterationCount = Integer.parseInt(args[++i]);
+                }
+                else if(TIME_OPTION.equals(arg))
+                {
+                    iterationTimeMillis = Long.parseLong(args[++i]);
+                }
+                else if(CSV_OPTION.equals(arg))
+                {
+                    csvFile = new File(args[++i]);
+                }
+                else if(LIST_OPTION.equals(arg))
+                {
+                    listOnly = true;
+                }
+                else
+                {
+                    nameFragments.add(arg);
+                }
+            }
+        }
+        catch(ArrayIndexOutOfBoundsException | NumberFormatException e)
+        {
+            printUsage();
+            System.exit(2);
+        }
+
+        List<Benchmark> benchmarks = selectBenchmarks(getAllBenchmarks(), nameFragments);
+
+        if(listOnly)
+        {
+            for(Benchmark benchmark : benchmarks)
+            {
+                System.out.println(benchmark.getName());
+            }
+            return;
+        }
+
+        BenchmarkRunner runner = new BenchmarkRunner(warmupIterationCount, measurementIterationCount, iterationTimeMillis);
+        List<BenchmarkResult> results = new ArrayList<>();
+
+        System.out.println(BenchmarkResult.getTableHeader());
+
+        int failureCount = 0;
+
+        for(Benchmark benchmark : benchmarks)
+        {
+            try
+            {
+                BenchmarkResult result = runner.run(benchmark);
+                results.add(result);
+                System.out.println(result.toTableRow());
+            }
+            catch(Exception e)
+            {
+                failureCount++;
+                System.err.println(benchmark.getName() + " failed: " + e.getMessage());
+                e.printStackTrace();
+            }
+        }
+
+        if(csvFile != null)
+        {
+            try
+            {
+                writeCSV(results, csvFile);
+            }
+            catch(IOException e)
+            {
+                System.err.println(e.getMessage());
+                System.exit(2);
+            }
+        }
+
+        System.exit(failureCount > 0 ? 1 : 0);
+    }
+
+    private static List<Benchmark> selectBenchmarks(List<Benchmark> benchmarks, List<String> nameFragments)
+    {
+        if(nameFragments.isEmpty())
+        {
+            return benchmarks;
+        }
+
+        List<Benchmark> selected = new ArrayList<>();
+
+        for(Benchmark benchmark : benchmarks)
+        {
+            for(String fragment : nameFragments)
+            {
+                if(benchmark.getName().contains(fragment))
+                {
+                    selected.add(benchmark);
+                    break;
+                }
+            }
+        }
+
+        return selected;
+    }
+
+    private static void writeCSV(List<BenchmarkResult> results, File f) throws IOException
+    {
+        try(PrintWriter writer = new PrintWriter(new FileWriter(f)))
+        {
+            writer.println(BenchmarkResult.getCSVHeader());
+
+            for(BenchmarkResult result : results)
+            {
+                writer.println(result.toCSVRow());
+            }
+        }
+    }
+
+    private static void printUsage()
+    {
+        System.err.println("Usage: " + BenchmarkRunner.class.getName() + " [" + WARMUP_OPTION + " <iterations>] [" + ITERATIONS_OPTION + " <iterations>] ["
+                + TIME_OPTION + " <milliseconds>] [" + CSV_OPTION + " <file>] [" + LIST_OPTION + "] [<name fragments>]");
+    }
+}
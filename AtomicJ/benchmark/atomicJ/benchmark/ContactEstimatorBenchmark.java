@@ -0,0 +1,68 @@
+
+/* 
+ * ===========================================================
+ * AtomicJ : a free application for analysis of AFM data
+ * ===========================================================
+ *
+ * (C) Copyright 2013-2022 by Paweł Hermanowicz
+ *
+ * 
+ * This program is free software; you can redistribute it and/or modify 
+ * it under the terms of the GNU General Public License as published by 
+ * the Free Software Foundation; either version 3 of the License, or (at your option) any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without 
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU 
+ * General Public License for more details.
+ * You should have received a copy of the GNU General Public License along with this program; if not, 
+ * see http://www.gnu.org/licenses/*/
+
+package atomicJ.benchmark;
+
+import java.awt.geom.Point2D;
+
+import atomicJ.analysis.AutomaticContactEstimatorType;
+import atomicJ.analysis.BasicPrecontactInteractionsModel;
+import atomicJ.analysis.ContactEstimationGuide;
+import atomicJ.analysis.ContactEstimator;
+import atomicJ.analysis.indentation.IndentationIndependentContactEstimationGuide;
+import atomicJ.data.Channel1DData;
+import atomicJ.utilities.Validation;
+
+/*
+ * Automatic estimation of the contact point on the approach branch of a force curve, by the ClassicalFlexibleEstimator
+ * and RobustFlexibleEstimator with each of the minimum search strategies offered to the users.
+ */
+
+public class ContactEstimatorBenchmark extends AbstractBenchmark
+{
+    private static final int POINT_COUNT = 1024;
+    private static final int BASELINE_DEGREE = 1;
+    private static final int POSTCONTACT_DEGREE = 2;
+
+    private final AutomaticContactEstimatorType estimatorType;
+
+    private ContactEstimator estimator;
+    private Channel1DData approach;
+    private final Point2D recordingPoint = new Point2D.Double(0, 0);
+
+    public ContactEstimatorBenchmark(AutomaticContactEstimatorType estimatorType)
+    {
+        super("contactEstimator." + Validation.requireNonNullParameterName(estimatorType, "estimatorType").name());
+        this.estimatorType = estimatorType;
+    }
+
+    @Override
+    public void setUp()
+    {
+        ContactEstimationGuide guide = new IndentationIndependentContactEstimationGuide(new BasicPrecontactInteractionsModel(BASELINE_DEGREE, false), POSTCONTACT_DEGREE);
+
+        this.estimator = estimatorType.getContactEstimator(BASELINE_DEGREE, guide);
+        this.approach = SyntheticData.createApproach(createRandom(), POINT_COUNT);
+    }
+
+    @Override
+    public Object run()
+    {
+        return estimator.getContactPoint(approach, recordingPoint, SyntheticData.SPRING_CONSTANT);
+    }
+}
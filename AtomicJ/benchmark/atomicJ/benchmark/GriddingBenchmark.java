@@ -0,0 +1,56 @@
+
+/* 
+ * ===========================================================
+ * AtomicJ : a free application for analysis of AFM data
+ * ===========================================================
+ *
+ * (C) Copyright 2013-2022 by Paweł Hermanowicz
+ *
+ * 
+ * This program is free software; you can redistribute it and/or modify 
+ * it under the terms of the GNU General Public License as published by 
+ * the Free Software Foundation; either version 3 of the License, or (at your option) any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without 
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU 
+ * General Public License for more details.
+ * You should have received a copy of the GNU General Public License along with this program; if not, 
+ * see http://www.gnu.org/licenses/*/
+
+package atomicJ.benchmark;
+
+import atomicJ.analysis.InterpolationMethod2D;
+import atomicJ.data.Channel2DData;
+import atomicJ.utilities.Validation;
+
+/*
+ * Gridding of values recorded at irregular positions, as done when a map of force curves recorded at
+ * arbitrary points is displayed. For SIBSON, the construction of the interpolator is a part of each call.
+ */
+
+public class GriddingBenchmark extends AbstractBenchmark
+{
+    private static final int POINT_COUNT = 1024;
+    private static final int ROW_COUNT = 64;
+    private static final int COLUMN_COUNT = 64;
+
+    private final InterpolationMethod2D interpolationMethod;
+    private Channel2DData channel;
+
+    public GriddingBenchmark(InterpolationMethod2D interpolationMethod)
+    {
+        super("gridding." + Validation.requireNonNullParameterName(interpolationMethod, "interpolationMethod").name());
+        this.interpolationMethod = interpolationMethod;
+    }
+
+    @Override
+    public void setUp()
+    {
+        this.channel = SyntheticData.createScatteredChannel(SyntheticData.createScatteredPoints(createRandom(), POINT_COUNT));
+    }
+
+    @Override
+    public Object run()
+    {
+        return interpolationMethod.getGriddedData(channel, ROW_COUNT, COLUMN_COUNT);
+    }
+}
@@ -0,0 +1,82 @@
+
+/* 
+ * ===========================================================
+ * AtomicJ : a free application for analysis of AFM data
+ * ===========================================================
+ *
+ * (C) Copyright 2013-2022 by Paweł Hermanowicz
+ *
+ * 
+ * This program is free software; you can redistribute it and/or modify 
+ * it under the terms of the GNU General Public License as published by 
+ * the Free Software Foundation; either version 3 of the License, or (at your option) any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without 
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU 
+ * General Public License for more details.
+ * You should have received a copy of the GNU General Public License along with this program; if not, 
+ * see http://www.gnu.org/licenses/*/
+
+package atomicJ.benchmark;
+
+import atomicJ.data.Channel2DData;
+import atomicJ.imageProcessing.Channel2DDataTransformation;
+import atomicJ.imageProcessing.KernelConvolution;
+import atomicJ.imageProcessing.KernelSampledGaussian2D;
+import atomicJ.imageProcessing.MedianFilter2D;
+import atomicJ.utilities.Validation;
+
+/*
+ * Filtering of a 512 x 512 height image, the typical size of AFM images.
+ */
+
+public class ImageFilterBenchmark extends AbstractBenchmark
+{
+    private static final int ROW_COUNT = 512;
+    private static final int COLUMN_COUNT = 512;
+
+    public static enum FilterType
+    {
+        MEDIAN
+        {
+            @Override
+            Channel2DDataTransformation buildFilter()
+            {
+                return new MedianFilter2D(2, 2);
+            }
+        },
+        GAUSSIAN_CONVOLUTION
+        {
+            @Override
+            Channel2DDataTransformation buildFilter()
+            {
+                return new KernelConvolution(new KernelSampledGaussian2D(2));
+            }
+        };
+
+        abstract Channel2DDataTransformation buildFilter();
+    }
+
+    private final FilterType filterType;
+
+    private Channel2DDataTransformation filter;
+    private Channel2DData image;
+
+    public ImageFilterBenchmark(FilterType filterType)
+    {
+        super("imageFilter." + Validation.requireNonNullParameterName(filterType, "filterType").name());
+        this.filterType = filterType;
+    }
+
+    @Override
+    public void setUp()
+    {
+        this.filter = filterType.buildFilter();
+        this.image = SyntheticData.createImage(createRandom(), ROW_COUNT, COLUMN_COUNT);
+    }
+
+    @Override
+    public Object run()
+    {
+        return filter.transform(image);
+    }
+}
@@ -0,0 +1,57 @@
+
+/* 
+ * ===========================================================
+ * AtomicJ : a free application for analysis of AFM data
+ * ===========================================================
+ *
+ * (C) Copyright 2013-2022 by Paweł Hermanowicz
+ *
+ * 
+ * This program is free software; you can redistribute it and/or modify 
+ * it under the terms of the GNU General Public License as published by 
+ * the Free Software Foundation; either version 3 of the License, or (at your option) any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without 
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU 
+ * General Public License for more details.
+ * You should have received a copy of the GNU General Public License along with this program; if not, 
+ * see http://www.gnu.org/licenses/*/
+
+package atomicJ.benchmark;
+
+import atomicJ.statistics.LocalRegression;
+import atomicJ.statistics.LocalRegressionWeightFunction;
+import atomicJ.statistics.SpanGeometry;
+
+/*
+ * Robust LOESS smoothing of a force curve branch, with the accuracy used by LocalRegressionTransformation.
+ */
+
+public class LocalRegressionBenchmark extends AbstractBenchmark
+{
+    private static final int POINT_COUNT = 2048;
+    private static final double SPAN = 0.05;
+    private static final int ROBUSTNESS_ITERATIONS = 2;
+    private static final double ACCURACY = 1e-6;
+    private static final int DEGREE = 2;
+
+    private double[][] points;
+    private int windowWidth;
+
+    public LocalRegressionBenchmark()
+    {
+        super("localRegression.smooth");
+    }
+
+    @Override
+    public void setUp()
+    {
+        this.points = SyntheticData.createCurvePoints(createRandom(), POINT_COUNT);
+        this.windowWidth = (int)Math.ceil(SPAN*POINT_COUNT);
+    }
+
+    @Override
+    public Object run()
+    {
+        return LocalRegression.smooth(points, SpanGeometry.NEAREST_NEIGHBOUR, windowWidth, ROBUSTNESS_ITERATIONS, ACCURACY, DEGREE, LocalRegressionWeightFunction.TRICUBE);
+    }
+}
@@ -0,0 +1,135 @@
+
+/* 
+ * ===========================================================
+ * AtomicJ : a free application for analysis of AFM data
+ * ===========================================================
+ *
+ * (C) Copyright 2013-2022 by Paweł Hermanowicz
+ *
+ * 
+ * This program is free software; you can redistribute it and/or modify 
+ * it under the terms of the GNU General Public License as published by 
+ * the Free Software Foundation; either version 3 of the License, or (at your option) any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without 
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU 
+ * General Public License for more details.
+ * You should have received a copy of the GNU General Public License along with this program; if not, 
+ * see http://www.gnu.org/licenses/*/
+
+package atomicJ.benchmark;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import atomicJ.analysis.AutomaticContactEstimatorType;
+import atomicJ.analysis.ProcessableSpectroscopyPack;
+import atomicJ.analysis.StandardSpectroscopyProcessor;
+import atomicJ.analysis.VisualizationChartSettings;
+import atomicJ.analysis.VisualizationSettings;
+import atomicJ.gui.curveProcessing.BasicIndentationModel;
+import atomicJ.gui.curveProcessing.ProcessingBatchModel;
+import atomicJ.sources.SimpleSpectroscopySource;
+import atomicJ.sources.synthetic.SyntheticContactModel;
+import atomicJ.sources.synthetic.SyntheticForceMapGenerator;
+import atomicJ.sources.synthetic.SyntheticForceMapSettings;
+import atomicJ.utilities.Validation;
+
+/*
+ * Processing of a single force curve by StandardSpectroscopyProcessor, i.e. trimming, contact point estimation,
+ * fit of the contact model and estimation of adhesion. Charts are not built, as in the batch processing mode.
+ * Each call processes the next of a fixed set of curves, so that the measurement is not tied to a single shape of a curve.
+ */
+
+public class ProcessorBenchmark extends AbstractBenchmark
+{
+    private static final int CURVE_COUNT = 32;
+    private static final int POINT_COUNT = 1024;
+
+    private final BasicIndentationModel indentationModel;
+    private final StandardSpectroscopyProcessor processor = StandardSpectroscopyProcessor.getInstance();
+
+    private List<ProcessableSpectroscopyPack> packs;
+    private int index;
+
+    public ProcessorBenchmark(BasicIndentationModel indentationModel)
+    {
+        super("processor." + Validation.requireNonNullParameterName(indentationModel, "indentationModel").name());
+        this.indentationModel = indentationModel;
+    }
+
+    @Override
+    public void setUp() throws Exception
+    {
+        List<SimpleSpectroscopySource> sources = buildSources(indentationModel);
+
+        ProcessingBatchModel batchModel = new ProcessingBatchModel(null, "1", 0);
+        batchModel.setSources(sources);
+        batchModel.setIndentationModel(indentationModel);
+        batchModel.setPoissonRatio(0.5);
+        batchModel.setTipRadius(2);
+        batchModel.setTipHalfAngle(20);
+        batchModel.setSpringConstant(SyntheticData.SPRING_CONSTANT);
+        batchModel.setUseReadInSpringConstant(false);
+        batchModel.setContactPointAutomatic(true);
+        batchModel.setAutomaticContactEstimator(AutomaticContactEstimatorType.CLASSICAL_GOLDEN);
+
+        this.packs = buildPacksWithoutVisualization(batchModel.buildProcessingBatch());
+        this.index = 0;
+    }
+
+    @Override
+    public Object run()
+    {
+        ProcessableSpectroscopyPack pack = packs.get(index);
+        index = (index + 1) % packs.size();
+
+        return processor.process(pack);
+    }
+
+    //curves of the models supported by the synthetic map generator follow the fitted model, the other models are fitted to generic curves
+    private static List<SimpleSpectroscopySource> buildSources(BasicIndentationModel indentationModel)
+    {
+        for(SyntheticContactModel contactModel : SyntheticContactModel.values())
+        {
+            if(contactModel.getIndentationModel().equals(indentationModel))
+            {
+                SyntheticForceMapSettings settings = new SyntheticForceMapSettings.Builder(contactModel).seed(SEED)
+                        .gridSize(4, CURVE_COUNT/4).pointCount(POINT_COUNT).springConstant(SyntheticData.SPRING_CONSTANT).build();
+
+                return new ArrayList<>(new SyntheticForceMapGenerator(settings).generate(new File("Synthetic map")).getSources());
+            }
+        }
+
+        Random random = createRandom();
+
+        List<SimpleSpectroscopySource> sources = new ArrayList<>();
+        for(int i = 0; i < CURVE_COUNT; i++)
+        {
+            sources.add(SyntheticData.createSource(random, POINT_COUNT, i));
+        }
+
+        return sources;
+    }
+
+    private static List<ProcessableSpectroscopyPack> buildPacksWithoutVisualization(List<ProcessableSpectroscopyPack> packs)
+    {
+        VisualizationChartSettings hidden = new VisualizationChartSettings(false, false);
+        VisualizationSettings noVisualization = new VisualizationSettings(hidden, hidden, hidden);
+
+        List<ProcessableSpectroscopyPack> packsWithoutVisualization = new ArrayList<>();
+
+        for(ProcessableSpectroscopyPack pack : packs)
+        {
+            ProcessableSpectroscopyPack packNew = new ProcessableSpectroscopyPack(pack.getSourceToProcess(), pack.getProcessingSettings(), pack.getMapSettings(), noVisualization, pack.getBatchIdentityTag());
+            packNew.setContactEstimator(pack.getContactEstimator());
+            packNew.setAdhesionForceEstimator(pack.getAdhesionForceEstimator());
+            packNew.setJumpEstimator(pack.getJumpEstimator());
+
+            packsWithoutVisualization.add(packNew);
+        }
+
+        return packsWithoutVisualization;
+    }
+}
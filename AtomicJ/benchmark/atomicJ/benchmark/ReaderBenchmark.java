@@ -0,0 +1,120 @@
+
+/* 
+ * ===========================================================
+ * AtomicJ : a free application for analysis of AFM data
+ * ===========================================================
+ *
+ * (C) Copyright 2013-2022 by Paweł Hermanowicz
+ *
+ * 
+ * This program is free software; you can redistribute it and/or modify 
+ * it under the terms of the GNU General Public License as published by 
+ * the Free Software Foundation; either version 3 of the License, or (at your option) any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without 
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU 
+ * General Public License for more details.
+ * You should have received a copy of the GNU General Public License along with this program; if not, 
+ * see http://www.gnu.org/licenses/*/
+
+package atomicJ.benchmark;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Random;
+
+import atomicJ.data.PermissiveChannelFilter;
+import atomicJ.readers.SourceReader;
+import atomicJ.readers.SourceReadingDirectives;
+import atomicJ.readers.jpk.JPKSpectroscopyReader;
+import atomicJ.readers.nanoscope.NanoscopeSpectroscopyReader;
+import atomicJ.sources.SimpleSpectroscopySource;
+import atomicJ.utilities.Validation;
+
+/*
+ * Decoding of a single force curve file written to a temporary directory. The file stays in the page cache
+ * after the first read, so the measured time is dominated by parsing of the header and decoding of the data.
+ */
+
+public class ReaderBenchmark extends AbstractBenchmark
+{
+    private static final int POINT_COUNT = 4096;
+
+    public static enum FileFormat
+    {
+        JPK("jpk-force")
+        {
+            @Override
+            void write(File f, Random random) throws IOException
+            {
+                SyntheticFiles.writeJPKForceFile(f, random, POINT_COUNT);
+            }
+
+            @Override
+            SourceReader<SimpleSpectroscopySource> buildReader()
+            {
+                return new JPKSpectroscopyReader();
+            }
+        },
+        NANOSCOPE("001")
+        {
+            @Override
+            void write(File f, Random random) throws IOException
+            {
+                SyntheticFiles.writeNanoscopeForceFile(f, random, POINT_COUNT);
+            }
+
+            @Override
+            SourceReader<SimpleSpectroscopySource> buildReader()
+            {
+                return new NanoscopeSpectroscopyReader();
+            }
+        };
+
+        private final String extension;
+
+        FileFormat(String extension)
+        {
+            this.extension = extension;
+        }
+
+        abstract void write(File f, Random random) throws IOException;
+        abstract SourceReader<SimpleSpectroscopySource> buildReader();
+    }
+
+    private final FileFormat format;
+
+    private File file;
+    private SourceReader<SimpleSpectroscopySource> reader;
+    private SourceReadingDirectives readingDirectives;
+
+    public ReaderBenchmark(FileFormat format)
+    {
+        super("reader." + Validation.requireNonNullParameterName(format, "format").name());
+        this.format = format;
+    }
+
+    @Override
+    public void setUp() throws IOException
+    {
+        this.file = File.createTempFile("atomicj-benchmark", "." + format.extension);
+        format.write(file, createRandom());
+
+        this.reader = format.buildReader();
+        this.readingDirectives = new SourceReadingDirectives(PermissiveChannelFilter.getInstance(), 1);
+    }
+
+    @Override
+    public Object run() throws Exception
+    {
+        return reader.readSources(file, readingDirectives);
+    }
+
+    @Override
+    public void tearDown()
+    {
+        if(file != null)
+        {
+            file.delete();
+        }
+    }
+}
@@ -0,0 +1,85 @@
+
+/* 
+ * ===========================================================
+ * AtomicJ : a free application for analysis of AFM data
+ * ===========================================================
+ *
+ * (C) Copyright 2013-2022 by Paweł Hermanowicz
+ *
+ * 
+ * This program is free software; you can redistribute it and/or modify 
+ * it under the terms of the GNU General Public License as published by 
+ * the Free Software Foundation; either version 3 of the License, or (at your option) any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without 
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU 
+ * General Public License for more details.
+ * You should have received a copy of the GNU General Public License along with this program; if not, 
+ * see http://www.gnu.org/licenses/*/
+
+package atomicJ.benchmark;
+
+import atomicJ.statistics.L2Regression;
+import atomicJ.utilities.Validation;
+
+/*
+ * Fit of a straight line to points with 20 % of gross outliers, as in the baseline of a force curve
+ * fitted by robust contact point estimators.
+ */
+
+public class RegressionBenchmark extends AbstractBenchmark
+{
+    private static final int POINT_COUNT = 512;
+    private static final double OUTLIER_FRACTION = 0.2;
+    private static final int START_COUNT = 100;
+
+    public static enum RegressionType
+    {
+        LTS
+        {
+            @Override
+            Object fit(double[][] points)
+            {
+                return atomicJ.statistics.LTS.findFit(points, 1, true, START_COUNT);
+            }
+        },
+        LTA
+        {
+            @Override
+            Object fit(double[][] points)
+            {
+                return atomicJ.statistics.LTA.findFit(points, 1, true, START_COUNT);
+            }
+        },
+        L2
+        {
+            @Override
+            Object fit(double[][] points)
+            {
+                return L2Regression.findFit(points, 1, true);
+            }
+        };
+
+        abstract Object fit(double[][] points);
+    }
+
+    private final RegressionType regressionType;
+    private double[][] points;
+
+    public RegressionBenchmark(RegressionType regressionType)
+    {
+        super("regression." + Validation.requireNonNullParameterName(regressionType, "regressionType").name());
+        this.regressionType = regressionType;
+    }
+
+    @Override
+    public void setUp()
+    {
+        this.points = SyntheticData.createLinePoints(createRandom(), POINT_COUNT, OUTLIER_FRACTION);
+    }
+
+    @Override
+    public Object run()
+    {
+        return regressionType.fit(points);
+    }
+}
@@ -0,0 +1,220 @@
+
+/* 
+ * ===========================================================
+ * AtomicJ : a free application for analysis of AFM data
+ * ===========================================================
+ *
+ * (C) Copyright 2013-2022 by Paweł Hermanowicz
+ *
+ * 
+ * This program is free software; you can redistribute it and/or modify 
+ * it under the terms of the GNU General Public License as published by 
+ * the Free Software Foundation; either version 3 of the License, or (at your option) any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without 
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU 
+ * General Public License for more details.
+ * You should have received a copy of the GNU General Public License along with this program; if not, 
+ * see http://www.gnu.org/licenses/*/
+
+package atomicJ.benchmark;
+
+import java.awt.geom.Point2D;
+import java.io.File;
+import java.util.Random;
+
+import atomicJ.analysis.SortedArrayOrder;
+import atomicJ.data.ChannelDomainIdentifier;
+import atomicJ.data.FlexibleChannel2DData;
+import atomicJ.data.FlexibleFlatChannel1DData;
+import atomicJ.data.Grid2D;
+import atomicJ.data.GridChannel2DData;
+import atomicJ.data.Quantities;
+import atomicJ.sources.StandardSimpleSpectroscopySource;
+
+/*
+ * Generates the inputs of the benchmarks. All values are drawn from the Random passed as an argument,
+ * so the inputs depend only on its seed. Force curves are recorded in the LEFT orientation, i.e. the approach
+ * branch starts far from the sample, at the highest Z, and the deflection grows when the Z decreases below the contact point.
+ * Positions and deflections are in micrometers.
+ */
+
+public final class SyntheticData
+{
+    public static final double SPRING_CONSTANT = 0.05;
+
+    private static final double Z_RANGE = 2.;
+    private static final double DEFLECTION_NOISE = 1e-3;
+    private static final double ADHESION_DEPTH = 0.02;
+    private static final double ADHESION_RANGE = 0.1;
+
+    private SyntheticData() {}
+
+    public static StandardSimpleSpectroscopySource createSource(Random random, int pointCount, int index)
+    {
+        double contact = 0.8 + 0.4*random.nextDouble();
+        double stiffness = 0.1 + 0.1*random.nextDouble();
+
+        FlexibleFlatChannel1DData approach = createBranch(random, pointCount, contact, stiffness, true);
+        FlexibleFlatChannel1DData withdraw = createBranch(random, pointCount, contact, stiffness, false);
+
+        String name = "Curve " + index;
+        StandardSimpleSpectroscopySource source = new StandardSimpleSpectroscopySource(new File(name), name, name, approach, withdraw);
+        source.setSpringConstant(SPRING_CONSTANT);
+        source.setRecordingPoint(new Point2D.Double(index, 0));
+
+        return source;
+    }
+
+    //the approach branch sorted in the descending order of Z, as passed to contact estimators by the processor
+    public static FlexibleFlatChannel1DData createApproach(Random random, int pointCount)
+    {
+        double contact = 0.8 + 0.4*random.nextDouble();
+        double stiffness = 0.1 + 0.1*random.nextDouble();
+
+        return createBranch(random, pointCount, contact, stiffness, true);
+    }
+
+    private static FlexibleFlatChannel1DData createBranch(Random random, int pointCount, double contact, double stiffness, boolean approach)
+    {
+        double[] zs = new double[pointCount];
+        double[] deflections = new double[pointCount];
+
+        double step = Z_RANGE/(pointCount - 1);
+
+        for(int i = 0; i < pointCount; i++)
+        {
+            double z = approach ? Z_RANGE - i*step : i*step;
+            double deflection = getDeflection(z, contact, stiffness) + DEFLECTION_NOISE*random.nextGaussian();
+
+            if(!approach && z > contact && z < contact + ADHESION_RANGE)
+            {
+                deflection -= ADHESION_DEPTH*(1 - (z - contact)/ADHESION_RANGE);
+            }
+
+            zs[i] = z;
+            deflections[i] = deflection;
+        }
+
+        SortedArrayOrder order = approach ? SortedArrayOrder.DESCENDING : SortedArrayOrder.ASCENDING;
+        return new FlexibleFlatChannel1DData(zs, deflections, Quantities.DISTANCE_MICRONS, Quantities.DEFLECTION_MICRONS, order);
+    }
+
+    //slightly tilted baseline before the contact, Hertz-like growth of the deflection after the contact
+    public static double getDeflection(double z, double contact, double stiffness)
+    {
+        double baseline = 0.002*z;
+        return z < contact ? baseline + stiffness*Math.pow(contact - z, 1.5) : baseline;
+    }
+
+    //points of a straight line, with a given fraction of gross outliers, sorted in the ascending order of x
+    public static double[][] createLinePoints(Random random, int pointCount, double outlierFraction)
+    {
+        double[][] points = new double[pointCount][];
+
+        for(int i = 0; i < pointCount; i++)
+        {
+            double x = i/(double)pointCount;
+            double y = 0.5 + 2*x + 0.01*random.nextGaussian();
+
+            if(random.nextDouble() < outlierFraction)
+            {
+                y += 1 + random.nextDouble();
+            }
+
+            points[i] = new double[] {x, y};
+        }
+
+        return points;
+    }
+
+    //points of the approach branch of a force curve, sorted in the ascending order of Z
+    public static double[][] createCurvePoints(Random random, int pointCount)
+    {
+        double contact = 0.8 + 0.4*random.nextDouble();
+        double stiffness = 0.1 + 0.1*random.nextDouble();
+
+        double[][] points = new double[pointCount][];
+        double step = Z_RANGE/(pointCount - 1);
+
+        for(int i = 0; i < pointCount; i++)
+        {
+            double z = i*step;
+            points[i] = new double[] {z, getDeflection(z, contact, stiffness) + DEFLECTION_NOISE*random.nextGaussian()};
+        }
+
+        return points;
+    }
+
+    //height image with a few gaussian features on a tilted plane, with additive noise and occasional spikes
+    public static GridChannel2DData createImage(Random random, int rowCount, int columnCount)
+    {
+        int featureCount = 8;
+
+        double[] featureXs = new double[featureCount];
+        double[] featureYs = new double[featureCount];
+        double[] featureWidths = new double[featureCount];
+
+        for(int k = 0; k < featureCount; k++)
+        {
+            featureXs[k] = columnCount*random.nextDouble();
+            featureYs[k] = rowCount*random.nextDouble();
+            featureWidths[k] = 2 + 0.1*Math.min(rowCount, columnCount)*random.nextDouble();
+        }
+
+        double[][] data = new double[rowCount][columnCount];
+
+        for(int i = 0; i < rowCount; i++)
+        {
+            for(int j = 0; j < columnCount; j++)
+            {
+                double z = 1e-3*(i + j) + 0.005*random.nextGaussian();
+
+                for(int k = 0; k < featureCount; k++)
+                {
+                    double dx = j - featureXs[k];
+                    double dy = i - featureYs[k];
+                    double w = featureWidths[k];
+
+                    z += 0.2*Math.exp(-(dx*dx + dy*dy)/(2*w*w));
+                }
+
+                if(random.nextDouble() < 0.001)
+                {
+                    z += 1;
+                }
+
+                data[i][j] = z;
+            }
+        }
+
+        Grid2D grid = new Grid2D(0.01, 0.01, 0, 0, rowCount, columnCount, Quantities.DISTANCE_MICRONS, Quantities.DISTANCE_MICRONS);
+        return new GridChannel2DData(data, grid, Quantities.HEIGHT_MICRONS);
+    }
+
+    //heights sampled at random positions in a unit square, as in force maps recorded at irregular positions
+    public static double[][] createScatteredPoints(Random random, int pointCount)
+    {
+        double[] xs = new double[pointCount];
+        double[] ys = new double[pointCount];
+        double[] zs = new double[pointCount];
+
+        for(int i = 0; i < pointCount; i++)
+        {
+            double x = random.nextDouble();
+            double y = random.nextDouble();
+
+            xs[i] = x;
+            ys[i] = y;
+            zs[i] = Math.sin(6*x)*Math.cos(4*y) + 0.01*random.nextGaussian();
+        }
+
+        return new double[][] {xs, ys, zs};
+    }
+
+    public static FlexibleChannel2DData createScatteredChannel(double[][] points)
+    {
+        ChannelDomainIdentifier domain = new ChannelDomainIdentifier(FlexibleChannel2DData.calculateProbingDensity(points[0], points[1]), ChannelDomainIdentifier.getNewDomainKey());
+
+        return new FlexibleChannel2DData(points, domain, Quantities.DISTANCE_MICRONS, Quantities.DISTANCE_MICRONS, Quantities.HEIGHT_MICRONS);
+    }
+}
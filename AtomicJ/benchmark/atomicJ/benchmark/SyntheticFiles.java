@@ -0,0 +1,199 @@
+
+/* 
+ * ===========================================================
+ * AtomicJ : a free application for analysis of AFM data
+ * ===========================================================
+ *
+ * (C) Copyright 2013-2022 by Paweł Hermanowicz
+ *
+ * 
+ * This program is free software; you can redistribute it and/or modify 
+ * it under the terms of the GNU General Public License as published by 
+ * the Free Software Foundation; either version 3 of the License, or (at your option) any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without 
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU 
+ * General Public License for more details.
+ * You should have received a copy of the GNU General Public License along with this program; if not, 
+ * see http://www.gnu.org/licenses/*/
+
+package atomicJ.benchmark;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.Charset;
+import java.util.Locale;
+import java.util.Random;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/*
+ * Writes minimal force curve files in the formats of JPK and Bruker (Nanoscope) instruments. The files contain only
+ * the entries and header fields needed by the readers, and one force curve generated by SyntheticData.
+ */
+
+public final class SyntheticFiles
+{
+    private static final String LINE_SEPARATOR = "\r\n";
+    private static final Charset HEADER_CHARSET = Charset.forName("ISO-8859-1");
+
+    private static final int NANOSCOPE_DATA_OFFSET = 40960;
+    private static final double NANOSCOPE_Z_SENSITIVITY = 25.;
+    private static final double NANOSCOPE_DEFLECTION_SENSITIVITY = 50.;
+    private static final double NANOSCOPE_VOLTS_PER_LSB = 0.000375;
+
+    private static final double JPK_HEIGHT_MULTIPLIER = 1e-6;
+    private static final double JPK_DEFLECTION_MULTIPLIER = 50e-9;
+
+    private SyntheticFiles() {}
+
+    //JPK force file is a zip archive, with one properties entry and one binary entry per channel in each segment
+    public static void writeJPKForceFile(File f, Random random, int pointCount) throws IOException
+    {
+        double contact = 0.8 + 0.4*random.nextDouble();
+        double stiffness = 0.1 + 0.1*random.nextDouble();
+
+        try(ZipOutputStream out = new ZipOutputStream(new FileOutputStream(f)))
+        {
+            writeJPKSegment(out, 0, "extend", random, pointCount, contact, stiffness);
+            writeJPKSegment(out, 1, "retract", random, pointCount, contact, stiffness);
+        }
+    }
+
+    private static void writeJPKSegment(ZipOutputStream out, int segmentIndex, String style, Random random, int pointCount, double contact, double stiffness) throws IOException
+    {
+        boolean extend = "extend".equals(style);
+
+        ByteBuffer heights = ByteBuffer.allocate(4*pointCount).order(ByteOrder.BIG_ENDIAN);
+        ByteBuffer deflections = ByteBuffer.allocate(4*pointCount).order(ByteOrder.BIG_ENDIAN);
+
+        double step = 2./(pointCount - 1);
+
+        for(int i = 0; i < pointCount; i++)
+        {
+            double z = extend ? 2 - i*step : i*step;
+            double deflection = SyntheticData.getDeflection(z, contact, stiffness) + 1e-3*random.nextGaussian();
+
+            //raw values are in volts, the multipliers of the conversion sets convert them to meters
+            heights.putFloat((float)(1e-6*z/JPK_HEIGHT_MULTIPLIER));
+            deflections.putFloat((float)(1e-6*deflection/JPK_DEFLECTION_MULTIPLIER));
+        }
+
+        String segmentPath = "segments/" + segmentIndex + "/";
+
+        StringBuilder header = new StringBuilder();
+        appendProperty(header, "channels.list", "height vDeflection");
+        appendProperty(header, "force-segment-header.settings.segment-settings.style", style);
+        appendProperty(header, "force-segment-header.num-points", Integer.toString(pointCount));
+        appendProperty(header, "force-segment-header.position.x", "0.0");
+        appendProperty(header, "force-segment-header.position.y", "0.0");
+
+        appendProperty(header, "channel.vDeflection.data.file.name", "channels/vDeflection.dat");
+        appendProperty(header, "channel.vDeflection.data.type", "float-data");
+        appendProperty(header, "channel.vDeflection.conversion-set.conversions.base", "volts");
+        appendProperty(header, "channel.vDeflection.conversion-set.conversion.distance.defined", "true");
+        appendProperty(header, "channel.vDeflection.conversion-set.conversion.distance.base-calibration-slot", "volts");
+        appendProperty(header, "channel.vDeflection.conversion-set.conversion.distance.scaling.multiplier", Double.toString(JPK_DEFLECTION_MULTIPLIER));
+        appendProperty(header, "channel.vDeflection.conversion-set.conversion.distance.scaling.offset", "0.0");
+        appendProperty(header, "channel.vDeflection.conversion-set.conversion.distance.scaling.unit.unit", "m");
+        appendProperty(header, "channel.vDeflection.conversion-set.conversion.force.defined", "true");
+        appendProperty(header, "channel.vDeflection.conversion-set.conversion.force.scaling.multiplier", Double.toString(SyntheticData.SPRING_CONSTANT));
+        appendProperty(header, "channel.vDeflection.conversion-set.conversion.force.scaling.offset", "0.0");
+        appendProperty(header, "channel.vDeflection.conversion-set.conversion.force.scaling.unit.unit", "N");
+
+        appendProperty(header, "channel.height.data.file.name", "channels/height.dat");
+        appendProperty(header, "channel.height.data.type", "float-data");
+        appendProperty(header, "channel.height.conversion-set.conversions.base", "volts");
+        appendProperty(header, "channel.height.conversion-set.conversions.default", "nominal");
+        appendProperty(header, "channel.height.conversion-set.conversion.nominal.base-calibration-slot", "volts");
+        appendProperty(header, "channel.height.conversion-set.conversion.nominal.scaling.multiplier", Double.toString(JPK_HEIGHT_MULTIPLIER));
+        appendProperty(header, "channel.height.conversion-set.conversion.nominal.scaling.offset", "0.0");
+        appendProperty(header, "channel.height.conversion-set.conversion.nominal.scaling.unit.unit", "m");
+
+        writeEntry(out, segmentPath + "segment-header.properties", header.toString().getBytes(HEADER_CHARSET));
+        writeEntry(out, segmentPath + "channels/height.dat", heights.array());
+        writeEntry(out, segmentPath + "channels/vDeflection.dat", deflections.array());
+    }
+
+    private static void appendProperty(StringBuilder builder, String key, String value)
+    {
+        builder.append(key).append('=').append(value).append('\n');
+    }
+
+    private static void writeEntry(ZipOutputStream out, String name, byte[] content) throws IOException
+    {
+        out.putNextEntry(new ZipEntry(name));
+        out.write(content);
+        out.closeEntry();
+    }
+
+    //Nanoscope force file consists of a text header padded with zeros to the data offset, followed by the deflection
+    //of the approach and of the withdraw as little endian 32-bit integers
+    public static void writeNanoscopeForceFile(File f, Random random, int pointCount) throws IOException
+    {
+        double contact = 0.8 + 0.4*random.nextDouble();
+        double stiffness = 0.1 + 0.1*random.nextDouble();
+
+        int dataLength = 2*4*pointCount;
+        double rampSizeInVolts = 2000./NANOSCOPE_Z_SENSITIVITY;
+
+        StringBuilder header = new StringBuilder();
+        appendLine(header, "\\*Force file list");
+        appendLine(header, "\\Version: 0x09300201");
+        appendLine(header, "\\Data length: " + NANOSCOPE_DATA_OFFSET);
+        appendLine(header, "\\*Scanner list");
+        appendLine(header, "\\@Sens. Zsens: V " + NANOSCOPE_Z_SENSITIVITY + " nm/V");
+        appendLine(header, "\\*Ciao scan list");
+        appendLine(header, "\\@Sens. DeflSens: V " + NANOSCOPE_DEFLECTION_SENSITIVITY + " nm/V");
+        appendLine(header, "\\*Ciao force list");
+        appendLine(header, "\\*Ciao force image list");
+        appendLine(header, "\\Data offset: " + NANOSCOPE_DATA_OFFSET);
+        appendLine(header, "\\Data length: " + dataLength);
+        appendLine(header, "\\Bytes/pixel: 4");
+        appendLine(header, "\\Samps/line: " + pointCount + " " + pointCount);
+        appendLine(header, "\\Spring Constant: " + SyntheticData.SPRING_CONSTANT);
+        appendLine(header, "\\@4:Image Data: S [DeflectionError] \"Deflection Error\"");
+        appendLine(header, "\\@4:Z scale: V [Sens. DeflSens] (" + String.format(Locale.US, "%.10f", NANOSCOPE_VOLTS_PER_LSB) + " V/LSB) 20.00000 V");
+        appendLine(header, "\\@4:Ramp size: V [Sens. Zsens] " + rampSizeInVolts + " V");
+        appendLine(header, "\\*File list end");
+
+        byte[] headerBytes = header.toString().getBytes(HEADER_CHARSET);
+
+        ByteArrayOutputStream content = new ByteArrayOutputStream(NANOSCOPE_DATA_OFFSET + dataLength);
+        content.write(headerBytes);
+        content.write(new byte[NANOSCOPE_DATA_OFFSET - headerBytes.length]);
+
+        ByteBuffer data = ByteBuffer.allocate(dataLength).order(ByteOrder.LITTLE_ENDIAN);
+
+        double step = 2./(pointCount - 1);
+        double lsbPerMicron = 1000./(NANOSCOPE_DEFLECTION_SENSITIVITY*NANOSCOPE_VOLTS_PER_LSB);
+
+        //the reader reverses the approach, so it is stored from the closest to the farthest position
+        for(int i = 0; i < pointCount; i++)
+        {
+            double deflection = SyntheticData.getDeflection(i*step, contact, stiffness) + 1e-3*random.nextGaussian();
+            data.putInt((int)Math.round(lsbPerMicron*deflection));
+        }
+        for(int i = 0; i < pointCount; i++)
+        {
+            double deflection = SyntheticData.getDeflection(2 - i*step, contact, stiffness) + 1e-3*random.nextGaussian();
+            data.putInt((int)Math.round(lsbPerMicron*deflection));
+        }
+
+        content.write(data.array());
+
+        try(OutputStream out = new FileOutputStream(f))
+        {
+            content.writeTo(out);
+        }
+    }
+
+    private static void appendLine(StringBuilder builder, String line)
+    {
+        builder.append(line).append(LINE_SEPARATOR);
+    }
+}
@@ -50,12 +50,12 @@ public final class AbscissaEstimator implements ContactEstimator
             return getContactPointSinusoidalChannel1DData((SinusoidalChannel1DData) deflectionCurveBranch, recordingPosition, springConstant);
         }
 
-        double[][] points = deflectionCurveBranch.getPoints();
+        double[] deflections = deflectionCurveBranch.getYs();
 
         PrefixedUnit branchUnit = deflectionCurveBranch.getYQuantity().getUnit();
         double delfectionValIntBranchUnits = deflection.derive(branchUnit).getValue();
 
-        int index = ArrayUtilities.getIndexOfPointWithYCoordinateClosestTo(points, delfectionValIntBranchUnits);
+        int index = ArrayUtilities.getIndexOfValueClosestTo(deflections, delfectionValIntBranchUnits);
 
         return deflectionCurveBranch.getPoint(index);
     }
@@ -88,4 +88,21 @@ public final class AbscissaEstimator implements ContactEstimator
     public boolean isAutomatic() {
         return false;
     }
+
+    @Override
+    public int hashCode()
+    {
+        return deflection.hashCode();
+    }
+
+    @Override
+    public boolean equals(Object other)
+    {
+        if(other instanceof AbscissaEstimator)
+        {
+            return this.deflection.equals(((AbscissaEstimator)other).deflection);
+        }
+
+        return false;
+    }
 }
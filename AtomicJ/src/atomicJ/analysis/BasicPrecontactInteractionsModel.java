@@ -19,6 +19,16 @@ public class BasicPrecontactInteractionsModel implements PrecontactInteractionsM
         this.p = deg + MathUtilities.boole(constant);
     }
 
+    public int getDegree()
+    {
+        return deg;
+    }
+
+    public boolean isConstant()
+    {
+        return constant;
+    }
+
     @Override
     public double getPrecontactObjectiveFunctionMinimum(double[][] forceSeparationData, Point2D recordingPoint, RegressionStrategy regressionStrategy) 
     {
@@ -63,4 +73,28 @@ public class BasicPrecontactInteractionsModel implements PrecontactInteractionsM
         FittedUnivariateFunction reg = regressionStrategy.getFitFunction(dValues, zValues, deg, constant);
         return reg;
     }
+
+    @Override
+    public int hashCode()
+    {
+        int result = 17;
+
+        result = 31*result + deg;
+        result = 31*result + Boolean.hashCode(constant);
+
+        return result;
+    }
+
+    @Override
+    public boolean equals(Object other)
+    {
+        if(other instanceof BasicPrecontactInteractionsModel)
+        {
+            BasicPrecontactInteractionsModel that = (BasicPrecontactInteractionsModel)other;
+
+            return this.deg == that.deg && this.constant == that.constant;
+        }
+
+        return false;
+    }
 }
@@ -0,0 +1,85 @@
+
+/* 
+ * ===========================================================
+ * AtomicJ : a free application for analysis of AFM data
+ * ===========================================================
+ *
+ * (C) Copyright 2013-2022 by Paweł Hermanowicz
+ *
+ * 
+ * This program is free software; you can redistribute it and/or modify 
+ * it under the terms of the GNU General Public License as published by 
+ * the Free Software Foundation; either version 3 of the License, or (at your option) any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without 
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU 
+ * General Public License for more details.
+ * You should have received a copy of the GNU General Public License along with this program; if not, 
+ * see http://www.gnu.org/licenses/*/
+
+package atomicJ.analysis;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+import atomicJ.sources.IdentityTag;
+import atomicJ.utilities.Validation;
+
+/**
+ * Statistics of all processing stages, accumulated over the force curves of one batch
+ */
+
+public class BatchProcessingProfile
+{
+    private final IdentityTag batchIdTag;
+    private final Map<ProcessingStage, ProcessingStageStatistics> stageStatistics = new EnumMap<>(ProcessingStage.class);
+
+    public BatchProcessingProfile(IdentityTag batchIdTag)
+    {
+        this.batchIdTag = Validation.requireNonNullParameterName(batchIdTag, "batchIdTag");
+
+        //the map is filled in advance and never modified afterwards, so it can be read by many threads without synchronization
+        for(ProcessingStage stage : ProcessingStage.values())
+        {
+            stageStatistics.put(stage, new ProcessingStageStatistics(stage));
+        }
+    }
+
+    public IdentityTag getBatchIdTag()
+    {
+        return batchIdTag;
+    }
+
+    public long getCurveCount()
+    {
+        return stageStatistics.get(ProcessingStage.TOTAL).getCount();
+    }
+
+    public ProcessingStageStatistics getStatistics(ProcessingStage stage)
+    {
+        return stageStatistics.get(stage);
+    }
+
+    //returns statistics of the stages that were recorded at least once, in the order of stages
+    public List<ProcessingStageStatistics> getRecordedStatistics()
+    {
+        List<ProcessingStageStatistics> recorded = new ArrayList<>();
+
+        for(ProcessingStageStatistics statistics : stageStatistics.values())
+        {
+            if(statistics.getCount() > 0)
+            {
+                recorded.add(statistics);
+            }
+        }
+
+        return Collections.unmodifiableList(recorded);
+    }
+
+    void record(ProcessingStage stage, long nanos, long allocatedBytes)
+    {
+        stageStatistics.get(stage).record(nanos, allocatedBytes);
+    }
+}
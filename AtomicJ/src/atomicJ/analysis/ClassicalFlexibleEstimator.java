@@ -83,4 +83,28 @@ public final class ClassicalFlexibleEstimator implements ContactEstimator
             }
         }
     }
+
+    @Override
+    public int hashCode()
+    {
+        int result = 17;
+
+        result = 31*result + searchStrategy.hashCode();
+        result = 31*result + model.getContactEstimationKey().hashCode();
+
+        return result;
+    }
+
+    @Override
+    public boolean equals(Object other)
+    {
+        if(other instanceof ClassicalFlexibleEstimator)
+        {
+            ClassicalFlexibleEstimator that = (ClassicalFlexibleEstimator)other;
+
+            return this.searchStrategy.equals(that.searchStrategy) && this.model.getContactEstimationKey().equals(that.model.getContactEstimationKey());
+        }
+
+        return false;
+    }
 }
@@ -24,16 +24,27 @@ import java.util.concurrent.Callable;
 import java.util.concurrent.CompletionService;
 import java.util.concurrent.ExecutorCompletionService;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 import atomicJ.gui.GeneralPreferences;
+import atomicJ.gui.SharedExecutors;
+import atomicJ.gui.TaskPriority;
 import atomicJ.utilities.Validation;
 
 public class ConcurrentProcessingTask<E, Y> extends MonitoredSwingWorker<Void, Void> 
 {	
+    //marks the packs which were processed, but whose results are not held by the task, either because the processing failed
+    //or because the results were already delivered to a streaming handler
+    private static final Object NO_RESULT = new Object();
+
+    //number of packs of a static partition that are processed by one subtask, so that subtasks of higher priority 
+    //can be started by the shared executor between the chunks of a partition
+    private static final int STATIC_CHUNK_SIZE = 16;
+
     private final List<E> packs;
 
     private final Processor<E, Y> processor;
@@ -42,11 +53,20 @@ public class ConcurrentProcessingTask<E, Y> extends MonitoredSwingWorker<Void, V
     private final AtomicInteger processedCount = new AtomicInteger();
 
     private final ProcessingResultsHandler<Y> processingResultsHandler;
+    private final StreamingProcessingResultsHandler<Y> streamingResultsHandler;
 
     private final int problemSize;  
 
     private ExecutorService executor;
 
+    private AtomicReferenceArray<Object> processingResults;
+
+    private final ReentrantLock deliveryLock = new ReentrantLock();
+    //both cursors are guarded by deliveryLock
+    private int deliveryCursor;
+    private int completionCursor;
+
+    @SuppressWarnings("unchecked")
     public ConcurrentProcessingTask(List<E> packs, Processor<E, Y> processor, ProcessingResultsHandler<Y> processingResultsHandler)
     {
         super(processingResultsHandler.getAssociatedComponent(), "Computation in progress", "Computed", packs.size());
@@ -55,36 +75,22 @@ public class ConcurrentProcessingTask<E, Y> extends MonitoredSwingWorker<Void, V
         this.packs = Validation.requireNonNullParameterName(packs, "packs");
         this.processor = Validation.requireNonNullParameterName(processor, "processor");
         this.problemSize = packs.size();
+        this.streamingResultsHandler = (processingResultsHandler instanceof StreamingProcessingResultsHandler) ? (StreamingProcessingResultsHandler<Y>)processingResultsHandler : null;
     }
 
     @Override
     public Void doInBackground() 
     {	                    
-        int maxTaskNumber = GeneralPreferences.GENERAL_PREFERENCES.getTaskNumber();
+        GeneralPreferences preferences = GeneralPreferences.GENERAL_PREFERENCES;
+        int maxTaskNumber = preferences.getTaskNumber();
         int taskNumber = Math.min(Math.max(problemSize/5, 1), maxTaskNumber);
 
-        int basicTaskSize = problemSize/taskNumber;
-        int remainingPacks = problemSize%taskNumber;
-
-        executor = Executors.newFixedThreadPool(taskNumber); 
-
-        int currentIndex = 0;
+        executor = SharedExecutors.newComputeExecutor(TaskPriority.BACKGROUND); 
 
-        List<Subtask> tasks = new ArrayList<>();
-
-        for(int i = 0; i <taskNumber; i++ ) 
-        {
-            int currentTaskSize = basicTaskSize;
-            if(i<remainingPacks)
-            {
-                currentTaskSize++;
-            }
-            List<E> fileSublist = new ArrayList<>(packs.subList(currentIndex, currentIndex + currentTaskSize));
+        this.processingResults = new AtomicReferenceArray<>(problemSize);
 
-            Subtask task = new Subtask(fileSublist);
-            tasks.add(task);
-            currentIndex = currentIndex + currentTaskSize;
-        }
+        boolean dynamicScheduling = TaskSchedulingPolicy.DYNAMIC_CHUNKS.equals(preferences.getSchedulingPolicy());
+        List<Subtask> tasks = dynamicScheduling ? buildDynamicSubtasks(preferences.getChunkSize()) : buildStaticSubtasks(taskNumber);
 
         try 
         {
@@ -99,14 +105,15 @@ public class ConcurrentProcessingTask<E, Y> extends MonitoredSwingWorker<Void, V
                 completionService.take().get();
             }
 
-            List<Y> allProcessingResult = new ArrayList<>();
-
-            for(Subtask subtask: tasks)
+            if(streamingResultsHandler != null)
             {
-                allProcessingResult.addAll(subtask.getProcessingResults());
+                deliverCompletedResults(true);
+                streamingResultsHandler.completeResultStream();
+            }
+            else
+            {
+                processingResultsHandler.acceptAndSegregateResults(collectResults(0, problemSize));
             }
-
-            processingResultsHandler.acceptAndSegregateResults(allProcessingResult);
         } 
         catch (Exception e) 
         {
@@ -115,11 +122,133 @@ public class ConcurrentProcessingTask<E, Y> extends MonitoredSwingWorker<Void, V
         finally
         {
             executor.shutdown();
+            this.processingResults = null;
         }
 
         return null;	
     }	
 
+    //each partition is split into chunks, which are submitted in turns, i.e. first chunks of all partitions, then second chunks and so on,
+    //so that the partitions are processed side by side, as if each had its own thread
+    private List<Subtask> buildStaticSubtasks(int taskNumber)
+    {
+        int basicTaskSize = problemSize/taskNumber;
+        int remainingPacks = problemSize%taskNumber;
+
+        int[] partitionStarts = new int[taskNumber + 1];
+
+        for(int i = 0; i <taskNumber; i++ ) 
+        {
+            int currentTaskSize = basicTaskSize;
+            if(i<remainingPacks)
+            {
+                currentTaskSize++;
+            }
+
+            partitionStarts[i + 1] = partitionStarts[i] + currentTaskSize;
+        }
+
+        int maxPartitionSize = (remainingPacks > 0) ? basicTaskSize + 1 : basicTaskSize;
+
+        List<Subtask> tasks = new ArrayList<>();
+
+        for(int offset = 0; offset < maxPartitionSize; offset += STATIC_CHUNK_SIZE)
+        {
+            for(int i = 0; i <taskNumber; i++ ) 
+            {
+                int chunkStart = partitionStarts[i] + offset;
+                int chunkEnd = Math.min(chunkStart + STATIC_CHUNK_SIZE, partitionStarts[i + 1]);
+
+                if(chunkStart < chunkEnd)
+                {
+                    tasks.add(new Subtask(chunkStart, chunkEnd));
+                }
+            }
+        }
+
+        return tasks;
+    }
+
+    //the chunks are submitted in the order of packs, and the executor starts them in the order of submission,
+    //so a thread that finishes early takes the next chunk, while subtasks of higher priority can overtake the remaining chunks
+    private List<Subtask> buildDynamicSubtasks(int chunkSize)
+    {
+        List<Subtask> tasks = new ArrayList<>();
+
+        for(int chunkStart = 0; chunkStart < problemSize; chunkStart += chunkSize)
+        {
+            tasks.add(new Subtask(chunkStart, Math.min(chunkStart + chunkSize, problemSize)));
+        }
+
+        return tasks;
+    }
+
+    //the results are collected in the order of packs, regardless of which thread processed them
+    @SuppressWarnings("unchecked")
+    private List<Y> collectResults(int from, int to)
+    {
+        List<Y> collectedResults = new ArrayList<>(to - from);
+
+        for(int i = from; i < to; i++)
+        {
+            Object result = processingResults.get(i);
+            if(result != null && result != NO_RESULT)
+            {
+                collectedResults.add((Y)result);
+            }
+        }
+
+        return collectedResults;
+    }
+
+    //passes the longest contiguous run of completed results to the streaming handler, if it is at least as long as the batch size
+    //or if the final flush is requested. The delivered results are released from the task, so that they may be garbage collected
+    //as soon as the handler no longer needs them. If another thread is delivering results at the moment, a non-final call returns immediately
+    private void deliverCompletedResults(boolean flush)
+    {
+        if(flush)
+        {
+            deliveryLock.lock();
+        }
+        else if(!deliveryLock.tryLock())
+        {
+            return;
+        }
+
+        try
+        {
+            //the results of a cancelled task are discarded
+            if(isCancelled())
+            {
+                return;
+            }
+
+            while(completionCursor < problemSize && processingResults.get(completionCursor) != null)
+            {
+                completionCursor++;
+            }
+
+            int batchSize = Math.max(1, streamingResultsHandler.getResultBatchSize());
+
+            while(completionCursor - deliveryCursor >= batchSize || (flush && completionCursor > deliveryCursor))
+            {
+                int batchEnd = Math.min(deliveryCursor + batchSize, completionCursor);
+                List<Y> batch = collectResults(deliveryCursor, batchEnd);
+
+                for(int i = deliveryCursor; i < batchEnd; i++)
+                {
+                    processingResults.set(i, NO_RESULT);
+                }
+
+                deliveryCursor = batchEnd;
+                streamingResultsHandler.acceptResultBatch(batch);
+            }
+        }
+        finally
+        {
+            deliveryLock.unlock();
+        }
+    }
 
     @Override
     protected void done()
@@ -152,19 +281,16 @@ public class ConcurrentProcessingTask<E, Y> extends MonitoredSwingWorker<Void, V
         setStep(processedCount.incrementAndGet());
     }
 
+    //processes a single chunk of packs, each index is processed by exactly one subtask
     private class Subtask implements Callable<Void>
-    {		
-        private final List<E> processablePacks;
-        private final List<Y> processedPacks = new ArrayList<>();
-
-        public Subtask(List<E> processablePacks)
-        {
-            this.processablePacks = processablePacks;
-        }
+    {
+        private final int from;
+        private final int to;
 
-        private  List<Y> getProcessingResults()
+        public Subtask(int from, int to)
         {
-            return processedPacks;
+            this.from = from;
+            this.to = to;
         }
 
         @Override
@@ -172,35 +298,51 @@ public class ConcurrentProcessingTask<E, Y> extends MonitoredSwingWorker<Void, V
         { 
             Thread currentThread = Thread.currentThread();
 
-            for(E pack: processablePacks)
+            for(int i = from; i < to; i++)
             {	
                 if(currentThread.isInterrupted())
                 {
                     throw new InterruptedException();
                 }
 
-                try
-                {
-                    Y result = processor.process(pack);					
-                    processedPacks.add(result);	                                                
-                }			
-                catch(OutOfMemoryError e)
-                {
-                    setRunOutOfMemory();
-                    e.printStackTrace();
-                    throw e;
-                }
-                catch(Exception e)
+                processPack(i);
+            }
+
+            return null;
+        }
+
+        private void processPack(int index)
+        {
+            Object result = NO_RESULT;
+
+            try
+            {
+                Y processed = processor.process(packs.get(index));
+                if(processed != null)
                 {
-                    Logger.getLogger("").log(Level.SEVERE, e.getMessage(), e);
-                    e.printStackTrace();
-                    failures.incrementAndGet();
+                    result = processed;
                 }
-
-                incrementProgress();				
+            }			
+            catch(OutOfMemoryError e)
+            {
+                setRunOutOfMemory();
+                e.printStackTrace();
+                throw e;
+            }
+            catch(Exception e)
+            {
+                Logger.getLogger("").log(Level.SEVERE, e.getMessage(), e);
+                e.printStackTrace();
+                failures.incrementAndGet();
             }
 
-            return null;
+            processingResults.set(index, result);
+            incrementProgress();	
+
+            if(streamingResultsHandler != null)
+            {
+                deliverCompletedResults(false);
+            }
         }
     }
 
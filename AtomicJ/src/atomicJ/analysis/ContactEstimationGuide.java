@@ -9,4 +9,11 @@ public interface ContactEstimationGuide
 {
     public IndexRange getRangeOfValidTrialContactPointIndices(Channel1DData deflectionChannel, Point2D recordingPoint, double springConstant);
     public SequentialSearchAssistant getSequentialSearchAssistant(Channel1DData deflectionCurveBranch, Point2D recordingPosition, double springConstant);
+
+    //guides with equal keys give the same contact point for any curve, so that a contact point found with one of them can be reused
+    //with the other. By default only the guide itself is equal to its key
+    public default Object getContactEstimationKey()
+    {
+        return this;
+    }
 }
@@ -73,4 +73,31 @@ public class CropSettings
     {
         return bottom;
     }
+
+    @Override
+    public int hashCode()
+    {
+        int result = 17;
+
+        result = 31*result + Double.hashCode(top);
+        result = 31*result + Double.hashCode(left);
+        result = 31*result + Double.hashCode(bottom);
+        result = 31*result + Double.hashCode(right);
+
+        return result;
+    }
+
+    @Override
+    public boolean equals(Object other)
+    {
+        if(other instanceof CropSettings)
+        {
+            CropSettings that = (CropSettings)other;
+
+            return Double.compare(this.top, that.top) == 0 && Double.compare(this.left, that.left) == 0
+                    && Double.compare(this.bottom, that.bottom) == 0 && Double.compare(this.right, that.right) == 0;
+        }
+
+        return false;
+    }
 }
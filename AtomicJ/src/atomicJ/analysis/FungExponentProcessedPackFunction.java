@@ -22,6 +22,14 @@ public class FungExponentProcessedPackFunction implements ProcessedPackFunction<
     @Override
     public double evaluate(ProcessedSpectroscopyPack pack) 
     {
+        //compact packs keep the value, so that the fit does not have to be rebuilt
+        Double storedValue = pack.getStoredModelFunctionValue(this);
+
+        if(storedValue != null)
+        {
+            return storedValue;
+        }
+
         double val = Double.NaN;
 
         ContactModelFit<?> modelFit = pack.getModelFit();
@@ -0,0 +1,721 @@
+
+/* 
+ * ===========================================================
+ * AtomicJ : a free application for analysis of AFM data
+ * ===========================================================
+ *
+ * (C) Copyright 2013-2022 by Paweł Hermanowicz
+ *
+ * 
+ * This program is free software; you can redistribute it and/or modify 
+ * it under the terms of the GNU General Public License as published by 
+ * the Free Software Foundation; either version 3 of the License, or (at your option) any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without 
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU 
+ * General Public License for more details.
+ * You should have received a copy of the GNU General Public License along with this program; if not, 
+ * see http://www.gnu.org/licenses/*/
+
+package atomicJ.analysis;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import atomicJ.data.Channel2D;
+import atomicJ.data.Channel2DData;
+import atomicJ.data.PermissiveChannelFilter;
+import atomicJ.data.units.Quantity;
+import atomicJ.gui.SharedExecutors;
+import atomicJ.gui.TaskPriority;
+import atomicJ.gui.UserCommunicableException;
+import atomicJ.gui.curveProcessing.ProcessingBatchModel;
+import atomicJ.gui.curveProcessing.ProcessingBatchSettingsFile;
+import atomicJ.readers.IllegalImageException;
+import atomicJ.readers.IllegalSpectroscopySourceException;
+import atomicJ.readers.SourceReader;
+import atomicJ.readers.SourceReadingDirectives;
+import atomicJ.readers.general.GeneralSourceReader;
+import atomicJ.sources.ChannelSource;
+import atomicJ.sources.MapSource;
+import atomicJ.sources.SimpleSpectroscopySource;
+import atomicJ.sources.SpectroscopySource;
+import atomicJ.utilities.Validation;
+
+/*
+ * Reads force curves, processes them with StandardSpectroscopyProcessor and writes the results to disk
+ * without creating any Swing components, so that it can be used on machines without display.
+ * The numerical results of the batch are written to a single tab separated file, and each channel of each
+ * processed map is written to a separate tab separated file, as a list of x, y, z triples.
+ */
+
+public class HeadlessProcessingEngine
+{
+    private static final int CHUNK_SIZE = 16;
+    private static final String DELIMITER = "\t";
+    private static final String RESULTS_FILE_SUFFIX = "_results.tsv";
+    private static final String FILE_EXTENSION = ".tsv";
+    private static final int QUEUE_CAPACITY_PER_THREAD = 4*CHUNK_SIZE;
+    private static final long QUEUE_OFFER_TIMEOUT_MILLIS = 200;
+
+    private final int threadCount;
+    private int readerThreadCount = 2;
+    private boolean pipelined = false;
+    private boolean compactResults = false;
+    private final AtomicInteger failures = new AtomicInteger();
+    private final List<File> writtenFiles = new ArrayList<>();
+
+    //the shared pools are sized from the thread counts given here, without changing the preferences of the interactive application
+    public HeadlessProcessingEngine(int threadCount)
+    {
+        this.threadCount = Math.max(1, threadCount);
+    }
+
+    public int getFailureCount()
+    {
+        return failures.intValue();
+    }
+
+    public List<File> getWrittenFiles()
+    {
+        return Collections.unmodifiableList(writtenFiles);
+    }
+
+    public boolean isPipelined()
+    {
+        return pipelined;
+    }
+
+    //if the processing is pipelined, processing of force curves starts as soon as the first file is read,
+    //while the remaining files are still being read by the reader threads
+    public void setPipelined(boolean pipelined)
+    {
+        this.pipelined = pipelined;
+    }
+
+    public boolean isCompactResults()
+    {
+        return compactResults;
+    }
+
+    //if true, the processed packs keep only their numerical results, which is all that is written
+    public void setCompactResults(boolean compactResults)
+    {
+        this.compactResults = compactResults;
+    }
+
+    public int getReaderThreadCount()
+    {
+        return readerThreadCount;
+    }
+
+    public void setReaderThreadCount(int readerThreadCount)
+    {
+        this.readerThreadCount = Math.max(1, readerThreadCount);
+    }
+
+    public void process(List<File> files, Properties settings, File outputDirectory) throws UserCommunicableException, IOException, InterruptedException
+    {
+        Validation.requireNonNullParameterName(files, "files");
+        Validation.requireNonNullParameterName(settings, "settings");
+        Validation.requireNonNullParameterName(outputDirectory, "outputDirectory");
+
+        if(!outputDirectory.isDirectory() && !outputDirectory.mkdirs())
+        {
+            throw new IOException("Output directory " + outputDirectory + " cannot be created");
+        }
+
+        //curves are processed only once, so nothing would ever be taken from the cache
+        ProcessingStageCache.PROCESSING_STAGE_CACHE.setEnabled(false);
+
+        List<SpectroscopyProcessingResult> results = pipelined ? processPipelined(files, settings) : processSequentially(files, settings);
+
+        if(results.isEmpty())
+        {
+            throw new UserCommunicableException("No force curves were processed");
+        }
+
+        List<ProcessedSpectroscopyPack> processedPacks = registerInMaps(results);
+
+        String batchName = processedPacks.get(0).getBatchIdTag().getLabel();
+        writeNumericalResults(processedPacks, new File(outputDirectory, toFileName(batchName) + RESULTS_FILE_SUFFIX));
+        writeMaps(processedPacks, outputDirectory);
+    }
+
+    private List<SpectroscopyProcessingResult> processSequentially(List<File> files, Properties settings) throws UserCommunicableException, InterruptedException
+    {
+        ExecutorService readingExecutor = SharedExecutors.newIOExecutor(TaskPriority.BACKGROUND, readerThreadCount);
+        ExecutorService executor = SharedExecutors.newComputeExecutor(TaskPriority.BACKGROUND, threadCount);
+
+        try
+        {
+            List<SimpleSpectroscopySource> sources = readSources(files, readingExecutor);
+
+            if(sources.isEmpty())
+            {
+                throw new UserCommunicableException("No force curves were found in the input files");
+            }
+
+            List<ProcessableSpectroscopyPack> packs = buildPacks(new ProcessingBatchModel(null, "1", 0), sources, settings, compactResults);
+            return processPacks(packs, executor);
+        }
+        finally
+        {
+            readingExecutor.shutdownNow();
+            executor.shutdownNow();
+        }
+    }
+
+    private List<SpectroscopyProcessingResult> processPipelined(List<File> files, final Properties settings) throws UserCommunicableException, InterruptedException
+    {
+        final SourceReader<ChannelSource> reader = new GeneralSourceReader();
+        reader.prepareSourceReader(files);
+
+        final SourceReadingDirectives readingDirectives = new SourceReadingDirectives(PermissiveChannelFilter.getInstance(), files.size());
+
+        //the capacity of the queue bounds the number of read, but not yet processed curves, 
+        //so the reader threads wait when the processing threads lag behind
+        final BlockingQueue<QueuedPack> queue = new ArrayBlockingQueue<>(QUEUE_CAPACITY_PER_THREAD*threadCount);
+        final AtomicReferenceArray<SpectroscopyProcessingResult[]> resultsByFile = new AtomicReferenceArray<>(files.size());
+
+        //set when a processing thread is terminated by an error, so that the reader threads do not wait forever for space in the queue
+        final AtomicBoolean processingAborted = new AtomicBoolean();
+
+        //all files form a single batch, named and numbered as in the sequential mode
+        final ProcessingBatchModel batchModel = new ProcessingBatchModel(null, "1", 0);
+
+        ExecutorService readingExecutor = SharedExecutors.newIOExecutor(TaskPriority.BACKGROUND, readerThreadCount);
+        ExecutorService processingExecutor = SharedExecutors.newComputeExecutor(TaskPriority.BACKGROUND, threadCount);
+
+        try
+        {
+            List<Future<?>> processingFutures = new ArrayList<>();
+            for(int i = 0; i < threadCount; i++)
+            {
+                processingFutures.add(processingExecutor.submit(new PipelineProcessingTask(queue, resultsByFile, processingAborted)));
+            }
+
+            List<Future<?>> readingFutures = new ArrayList<>();
+            for(int i = 0; i < files.size(); i++)
+            {
+                readingFutures.add(readingExecutor.submit(new PipelineReadingTask(files.get(i), i, reader, readingDirectives, batchModel, settings, queue, resultsByFile, processingAborted)));
+            }
+
+            waitForCompletion(readingFutures);
+
+            //if processing was aborted, the remaining processing threads are interrupted when the executor is shut down
+            if(!processingAborted.get())
+            {
+                for(int i = 0; i < threadCount; i++)
+                {
+                    enqueue(queue, QueuedPack.END_OF_INPUT, processingAborted);
+                }
+
+                waitForCompletion(processingFutures);
+            }
+        }
+        catch(ProcessingAbortedException e)
+        {
+            //the error which terminated the processing thread has already been logged
+        }
+        finally
+        {
+            readingExecutor.shutdownNow();
+            processingExecutor.shutdownNow();
+        }
+
+        if(processingAborted.get())
+        {
+            throw new UserCommunicableException("Processing of force curves was aborted because of a fatal error");
+        }
+
+        //the results are collected in the order of files, regardless of the order in which the files were read
+        List<SpectroscopyProcessingResult> results = new ArrayList<>();
+
+        for(int i = 0; i < resultsByFile.length(); i++)
+        {
+            SpectroscopyProcessingResult[] fileResults = resultsByFile.get(i);
+            if(fileResults != null)
+            {
+                for(SpectroscopyProcessingResult result : fileResults)
+                {
+                    if(result != null)
+                    {
+                        results.add(result);
+                    }
+                }
+            }
+        }
+
+        return results;
+    }
+
+    private void waitForCompletion(List<Future<?>> futures) throws InterruptedException
+    {
+        for(Future<?> future : futures)
+        {
+            try
+            {
+                future.get();
+            }
+            catch (ExecutionException e)
+            {
+                //readers stopped because processing was aborted are not failures of their own
+                if(!(e.getCause() instanceof ProcessingAbortedException))
+                {
+                    Logger.getLogger("").log(Level.SEVERE, e.getMessage(), e);
+                    failures.incrementAndGet();
+                }
+            }
+        }
+    }
+
+    //waits for space in the queue only as long as the processing threads are alive
+    private static void enqueue(BlockingQueue<QueuedPack> queue, QueuedPack queued, AtomicBoolean processingAborted) throws InterruptedException
+    {
+        while(!queue.offer(queued, QUEUE_OFFER_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS))
+        {
+            if(processingAborted.get())
+            {
+                throw new ProcessingAbortedException();
+            }
+        }
+    }
+
+    private static List<SimpleSpectroscopySource> getSimpleSources(List<ChannelSource> sources)
+    {
+        List<SimpleSpectroscopySource> simpleSources = new ArrayList<>();
+
+        for(ChannelSource source : sources)
+        {
+            if(source instanceof SpectroscopySource)
+            {
+                simpleSources.addAll(((SpectroscopySource)source).getSimpleSources());
+            }
+        }
+
+        return simpleSources;
+    }
+
+    //builds the packs of the sources added to the batch. The settings are applied after the sources are added, because adding them
+    //initializes the settings that depend on the sources, so the batch which received the sources of all files has the same settings in both modes
+    private static List<ProcessableSpectroscopyPack> buildPacks(ProcessingBatchModel batchModel, List<SimpleSpectroscopySource> sources, Properties settings, boolean compactResults) throws UserCommunicableException
+    {
+        //addSources() also builds the map sources whose creation is delayed by the readers
+        batchModel.addSources(sources);
+        ProcessingBatchSettingsFile.apply(settings, batchModel);
+
+        if(!batchModel.isContactPointAutomatic())
+        {
+            throw new UserCommunicableException("Manual contact point selection is not available in batch mode");
+        }
+
+        return buildPacksWithoutVisualization(batchModel.buildProcessingBatch(sources), compactResults);
+    }
+
+    private List<SimpleSpectroscopySource> readSources(List<File> files, ExecutorService executor) throws UserCommunicableException, InterruptedException
+    {
+        final SourceReader<ChannelSource> reader = new GeneralSourceReader();
+        reader.prepareSourceReader(files);
+
+        final SourceReadingDirectives readingDirectives = new SourceReadingDirectives(PermissiveChannelFilter.getInstance(), files.size());
+
+        List<Callable<List<ChannelSource>>> readingTasks = new ArrayList<>();
+        for(final File f : files)
+        {
+            readingTasks.add(new Callable<List<ChannelSource>>()
+            {
+                @Override
+                public List<ChannelSource> call() throws UserCommunicableException, IllegalImageException, IllegalSpectroscopySourceException
+                {
+                    return reader.readSources(f, readingDirectives);
+                }
+            });
+        }
+
+        List<SimpleSpectroscopySource> simpleSources = new ArrayList<>();
+
+        //the futures are in the order of the files, so the sources are in the same order as in the interactive mode
+        for(Future<List<ChannelSource>> future : executor.invokeAll(readingTasks))
+        {
+            try
+            {
+                simpleSources.addAll(getSimpleSources(future.get()));
+            }
+            catch (ExecutionException e)
+            {
+                Logger.getLogger("").log(Level.SEVERE, e.getMessage(), e);
+                failures.incrementAndGet();
+            }
+        }
+
+        return simpleSources;
+    }
+
+    //visualizable packs are needed only for charts, so they are not built at all
+    private static List<ProcessableSpectroscopyPack> buildPacksWithoutVisualization(List<ProcessableSpectroscopyPack> packs, boolean compactResults) throws UserCommunicableException
+    {
+        if(packs == null)
+        {
+            throw new UserCommunicableException("The processing batch could not be built");
+        }
+
+        VisualizationChartSettings hidden = new VisualizationChartSettings(false, false);
+        VisualizationSettings noVisualization = new VisualizationSettings(hidden, hidden, hidden);
+
+        List<ProcessableSpectroscopyPack> packsWithoutVisualization = new ArrayList<>();
+
+        for(ProcessableSpectroscopyPack pack : packs)
+        {
+            ProcessableSpectroscopyPack packNew = new ProcessableSpectroscopyPack(pack.getSourceToProcess(), pack.getProcessingSettings(), pack.getMapSettings(), noVisualization, pack.getBatchIdentityTag());
+            packNew.setContactEstimator(pack.getContactEstimator());
+            packNew.setAdhesionForceEstimator(pack.getAdhesionForceEstimator());
+            packNew.setJumpEstimator(pack.getJumpEstimator());
+            packNew.setCompactResults(compactResults);
+
+            packsWithoutVisualization.add(packNew);
+        }
+
+        return packsWithoutVisualization;
+    }
+
+    private List<SpectroscopyProcessingResult> processPacks(final List<ProcessableSpectroscopyPack> packs, ExecutorService executor) throws InterruptedException
+    {
+        final Processor<ProcessableSpectroscopyPack, SpectroscopyProcessingResult> processor = StandardSpectroscopyProcessor.getInstance();
+
+        List<Callable<List<SpectroscopyProcessingResult>>> chunks = new ArrayList<>();
+
+        int packCount = packs.size();
+        for(int chunkStart = 0; chunkStart < packCount; chunkStart += CHUNK_SIZE)
+        {
+            final List<ProcessableSpectroscopyPack> chunk = packs.subList(chunkStart, Math.min(chunkStart + CHUNK_SIZE, packCount));
+
+            chunks.add(new Callable<List<SpectroscopyProcessingResult>>()
+            {
+                @Override
+                public List<SpectroscopyProcessingResult> call()
+                {
+                    List<SpectroscopyProcessingResult> results = new ArrayList<>();
+
+                    for(ProcessableSpectroscopyPack pack : chunk)
+                    {
+                        try
+                        {
+                            results.add(processor.process(pack));
+                        }
+                        catch(Exception e)
+                        {
+                            Logger.getLogger("").log(Level.SEVERE, e.getMessage(), e);
+                            failures.incrementAndGet();
+                        }
+                    }
+
+                    return results;
+                }
+            });
+        }
+
+        List<SpectroscopyProcessingResult> results = new ArrayList<>();
+
+        for(Future<List<SpectroscopyProcessingResult>> future : executor.invokeAll(chunks))
+        {
+            try
+            {
+                results.addAll(future.get());
+            }
+            catch (ExecutionException e)
+            {
+                Logger.getLogger("").log(Level.SEVERE, e.getMessage(), e);
+                failures.incrementAndGet();
+            }
+        }
+
+        return results;
+    }
+
+    private static List<ProcessedSpectroscopyPack> registerInMaps(List<SpectroscopyProcessingResult> results)
+    {
+        List<ProcessedSpectroscopyPack> processedPacks = new ArrayList<>();
+        Set<MapSource<?>> mapSources = new LinkedHashSet<>();
+
+        for(SpectroscopyProcessingResult result : results)
+        {
+            ProcessedSpectroscopyPack processedPack = result.getProcessedPack();
+            processedPacks.add(processedPack);
+
+            if(result.getMapSettings().isIncudeInMaps() && processedPack.isFromMap())
+            {
+                processedPack.registerInMap();
+                mapSources.add(processedPack.getForceMap());
+            }
+        }
+
+        for(MapSource<?> mapSource : mapSources)
+        {
+            mapSource.seal();
+        }
+
+        return processedPacks;
+    }
+
+    private void writeNumericalResults(List<ProcessedSpectroscopyPack> packs, File f) throws IOException
+    {
+        Map<String, ProcessedPackFunction<? super ProcessedSpectroscopyPack>> functions = new LinkedHashMap<>();
+
+        for(SimpleProcessedPackFunction function : SimpleProcessedPackFunction.values())
+        {
+            functions.put(getColumnName(function.getEvaluatedQuantity()), function);
+        }
+
+        for(ProcessedSpectroscopyPack pack : packs)
+        {
+            for(ProcessedPackFunction<ProcessedSpectroscopyPack> function : pack.getSpecialFunctions())
+            {
+                String columnName = getColumnName(function.getEvaluatedQuantity());
+                if(!functions.containsKey(columnName))
+                {
+                    functions.put(columnName, function);
+                }
+            }
+        }
+
+        try(PrintWriter out = new PrintWriter(new FileWriter(f)))
+        {
+            StringBuilder header = new StringBuilder("Source").append(DELIMITER).append("File").append(DELIMITER).append("X").append(DELIMITER).append("Y");
+            for(String columnName : functions.keySet())
+            {
+                header.append(DELIMITER).append(columnName);
+            }
+            out.println(header);
+
+            for(ProcessedSpectroscopyPack pack : packs)
+            {
+                SimpleSpectroscopySource source = pack.getSource();
+                File sourceFile = source.getCorrespondingFile();
+
+                boolean positionKnown = pack.isFromMap() && source.getRecordingPoint() != null;
+                double x = positionKnown ? source.getRecordingPoint().getX() : Double.NaN;
+                double y = positionKnown ? source.getRecordingPoint().getY() : Double.NaN;
+
+                StringBuilder line = new StringBuilder(source.getShortName()).append(DELIMITER).append(sourceFile != null ? sourceFile.getPath() : "")
+                        .append(DELIMITER).append(x).append(DELIMITER).append(y);
+
+                for(ProcessedPackFunction<? super ProcessedSpectroscopyPack> function : functions.values())
+                {
+                    line.append(DELIMITER).append(function.evaluate(pack));
+                }
+
+                out.println(line);
+            }
+        }
+
+        writtenFiles.add(f);
+    }
+
+    private void writeMaps(List<ProcessedSpectroscopyPack> packs, File outputDirectory) throws IOException
+    {
+        Set<MapSource<?>> mapSources = new LinkedHashSet<>();
+
+        for(ProcessedSpectroscopyPack pack : packs)
+        {
+            if(pack.isFromMap())
+            {
+                mapSources.add(pack.getForceMap());
+            }
+        }
+
+        for(MapSource<?> mapSource : mapSources)
+        {
+            if(!mapSource.isProcessed())
+            {
+                continue;
+            }
+
+            for(Channel2D channel : mapSource.getChannels())
+            {
+                String fileName = toFileName(mapSource.getShortName() + "_" + channel.getIdentifier()) + FILE_EXTENSION;
+                File f = new File(outputDirectory, fileName);
+
+                writeChannel(channel, f);
+                writtenFiles.add(f);
+            }
+        }
+    }
+
+    private static void writeChannel(Channel2D channel, File f) throws IOException
+    {
+        Channel2DData channelData = channel.getChannelData();
+        int itemCount = channelData.getItemCount();
+
+        try(PrintWriter out = new PrintWriter(new FileWriter(f)))
+        {
+            out.println(getColumnName(channelData.getXQuantity()) + DELIMITER + getColumnName(channelData.getYQuantity()) + DELIMITER + getColumnName(channelData.getZQuantity()));
+
+            for(int i = 0; i < itemCount; i++)
+            {
+                out.println(Double.toString(channelData.getX(i)) + DELIMITER + channelData.getY(i) + DELIMITER + channelData.getZ(i));
+            }
+        }
+    }
+
+    private static String getColumnName(Quantity quantity)
+    {
+        return quantity.getName() + " (" + quantity.getFullUnitName() + ")";
+    }
+
+    private static String toFileName(String name)
+    {
+        return name.replaceAll("[^A-Za-z0-9._-]", "_");
+    }
+
+    private static final class QueuedPack
+    {
+        private static final QueuedPack END_OF_INPUT = new QueuedPack(null, -1, -1);
+
+        private final ProcessableSpectroscopyPack pack;
+        private final int fileIndex;
+        private final int packIndex;
+
+        private QueuedPack(ProcessableSpectroscopyPack pack, int fileIndex, int packIndex)
+        {
+            this.pack = pack;
+            this.fileIndex = fileIndex;
+            this.packIndex = packIndex;
+        }
+    }
+
+    private class PipelineReadingTask implements Callable<Void>
+    {
+        private final File file;
+        private final int fileIndex;
+        private final SourceReader<ChannelSource> reader;
+        private final SourceReadingDirectives readingDirectives;
+        private final ProcessingBatchModel batchModel;
+        private final Properties settings;
+        private final BlockingQueue<QueuedPack> queue;
+        private final AtomicReferenceArray<SpectroscopyProcessingResult[]> resultsByFile;
+        private final AtomicBoolean processingAborted;
+
+        private PipelineReadingTask(File file, int fileIndex, SourceReader<ChannelSource> reader, SourceReadingDirectives readingDirectives, ProcessingBatchModel batchModel,
+                Properties settings, BlockingQueue<QueuedPack> queue, AtomicReferenceArray<SpectroscopyProcessingResult[]> resultsByFile, AtomicBoolean processingAborted)
+        {
+            this.file = file;
+            this.fileIndex = fileIndex;
+            this.reader = reader;
+            this.readingDirectives = readingDirectives;
+            this.batchModel = batchModel;
+            this.settings = settings;
+            this.queue = queue;
+            this.resultsByFile = resultsByFile;
+            this.processingAborted = processingAborted;
+        }
+
+        @Override
+        public Void call() throws InterruptedException
+        {
+            List<ProcessableSpectroscopyPack> packs;
+
+            try
+            {
+                List<SimpleSpectroscopySource> sources = getSimpleSources(reader.readSources(file, readingDirectives));
+
+                if(sources.isEmpty())
+                {
+                    return null;
+                }
+
+                //the sources of all files are added to the same batch model, one file at a time
+                synchronized(batchModel)
+                {
+                    packs = buildPacks(batchModel, sources, settings, compactResults);
+                }
+            }
+            catch(UserCommunicableException | IllegalImageException | IllegalSpectroscopySourceException e)
+            {
+                Logger.getLogger("").log(Level.SEVERE, file.getPath() + ": " + e.getMessage(), e);
+                failures.incrementAndGet();
+                return null;
+            }
+
+            //the array is published before the packs are queued, so it is visible to the processing threads
+            resultsByFile.set(fileIndex, new SpectroscopyProcessingResult[packs.size()]);
+
+            for(int i = 0; i < packs.size(); i++)
+            {
+                enqueue(queue, new QueuedPack(packs.get(i), fileIndex, i), processingAborted);
+            }
+
+            return null;
+        }
+    }
+
+    private class PipelineProcessingTask implements Callable<Void>
+    {
+        private final BlockingQueue<QueuedPack> queue;
+        private final AtomicReferenceArray<SpectroscopyProcessingResult[]> resultsByFile;
+        private final AtomicBoolean processingAborted;
+        private final Processor<ProcessableSpectroscopyPack, SpectroscopyProcessingResult> processor = StandardSpectroscopyProcessor.getInstance();
+
+        private PipelineProcessingTask(BlockingQueue<QueuedPack> queue, AtomicReferenceArray<SpectroscopyProcessingResult[]> resultsByFile, AtomicBoolean processingAborted)
+        {
+            this.queue = queue;
+            this.resultsByFile = resultsByFile;
+            this.processingAborted = processingAborted;
+        }
+
+        @Override
+        public Void call() throws InterruptedException
+        {
+            try
+            {
+                for(QueuedPack queued = queue.take(); queued != QueuedPack.END_OF_INPUT; queued = queue.take())
+                {
+                    try
+                    {
+                        //each slot is written by exactly one thread, and read only after all processing threads complete
+                        resultsByFile.get(queued.fileIndex)[queued.packIndex] = processor.process(queued.pack);
+                    }
+                    catch(Exception e)
+                    {
+                        Logger.getLogger("").log(Level.SEVERE, e.getMessage(), e);
+                        failures.incrementAndGet();
+                    }
+                }
+            }
+            catch(Error e)
+            {
+                Logger.getLogger("").log(Level.SEVERE, e.getMessage(), e);
+                processingAborted.set(true);
+                throw e;
+            }
+
+            return null;
+        }
+    }
+
+    private static class ProcessingAbortedException extends RuntimeException
+    {
+        private static final long serialVersionUID = 1L;
+    }
+}
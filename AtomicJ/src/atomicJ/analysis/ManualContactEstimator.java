@@ -45,4 +45,28 @@ public class ManualContactEstimator implements ContactEstimator
     {
         return false;
     }
+
+    @Override
+    public int hashCode()
+    {
+        int result = 17;
+
+        result = 31*result + Double.hashCode(contactPointX);
+        result = 31*result + Double.hashCode(contactPointY);
+
+        return result;
+    }
+
+    @Override
+    public boolean equals(Object other)
+    {
+        if(other instanceof ManualContactEstimator)
+        {
+            ManualContactEstimator that = (ManualContactEstimator)other;
+
+            return Double.compare(this.contactPointX, that.contactPointX) == 0 && Double.compare(this.contactPointY, that.contactPointY) == 0;
+        }
+
+        return false;
+    }
 }
@@ -21,6 +21,14 @@ public class OgdenExponentProcessedPackFunction implements ProcessedPackFunction
     @Override
     public double evaluate(ProcessedSpectroscopyPack pack) 
     {
+        //compact packs keep the value, so that the fit does not have to be rebuilt
+        Double storedValue = pack.getStoredModelFunctionValue(this);
+
+        if(storedValue != null)
+        {
+            return storedValue;
+        }
+
         double val = Double.NaN;
 
         ContactModelFit<?> modelFit = pack.getModelFit();
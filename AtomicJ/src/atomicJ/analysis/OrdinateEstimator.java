@@ -48,4 +48,21 @@ public final class OrdinateEstimator implements ContactEstimator
     {
         return false;
     }
+
+    @Override
+    public int hashCode()
+    {
+        return zPosition.hashCode();
+    }
+
+    @Override
+    public boolean equals(Object other)
+    {
+        if(other instanceof OrdinateEstimator)
+        {
+            return this.zPosition.equals(((OrdinateEstimator)other).zPosition);
+        }
+
+        return false;
+    }
 }
@@ -22,6 +22,8 @@ import java.awt.geom.Point2D;
 import atomicJ.curveProcessing.Channel1DDataTransformation;
 import atomicJ.curveProcessing.LimitDomain1DTransformation;
 import atomicJ.data.Channel1DData;
+import atomicJ.data.RangeChannel1DData;
+import atomicJ.statistics.FastLTS;
 import atomicJ.statistics.FittedLinearUnivariateFunction;
 import atomicJ.statistics.HighCoverageLTS;
 import atomicJ.statistics.LinearRegressionEsimator;
@@ -44,7 +46,21 @@ public class PrecontactFit implements LinearRegressionEsimator
         Channel1DDataTransformation limitTransformation = new LimitDomain1DTransformation(x0, Double.POSITIVE_INFINITY);
         Channel1DData temporaryPrecontact = limitTransformation.transform(curveBranch);
 
-        this.fit = HighCoverageLTS.findFit(temporaryPrecontact.getPointsCopy(), deg, true, 8, 200);
+        FastLTS fastLTS = FastLTS.getInstance(deg, true, 200);
+
+        //the points of a view are fitted in place, without copying them out of the backing arrays
+        if(temporaryPrecontact instanceof RangeChannel1DData)
+        {
+            RangeChannel1DData view = (RangeChannel1DData)temporaryPrecontact;
+            int from = view.getOffset();
+            int to = from + view.getItemCount();
+
+            this.fit = HighCoverageLTS.findFit(fastLTS, view.getBackingYs(), view.getBackingXs(), from, to, 8);
+        }
+        else
+        {
+            this.fit = HighCoverageLTS.findFit(fastLTS, temporaryPrecontact.getYs(), temporaryPrecontact.getXs(), 8);
+        }
     }
 
     @Override
@@ -34,6 +34,9 @@ public final class ProcessableSpectroscopyPack
     private ForceEventEstimator adhesionForceEstimator;
     private ForceEventEstimator jumpEstimator;
 
+    private boolean stageCachingEnabled;
+    private boolean compactResults;
+
     public ProcessableSpectroscopyPack(SimpleSpectroscopySource sourcesToProcess, ProcessingSettings settings,
             MapProcessingSettings mapProcessingSettings, VisualizationSettings visSettings, IdentityTag batch)
     {
@@ -74,6 +77,28 @@ public final class ProcessableSpectroscopyPack
         this.jumpEstimator = jumpEstimator;
     }
 
+    //if true, the stages of processing are stored in and taken from ProcessingStageCache, so that a later recalculation of the curve can reuse them
+    public boolean isStageCachingEnabled()
+    {
+        return stageCachingEnabled;
+    }
+
+    public void setStageCachingEnabled(boolean stageCachingEnabled)
+    {
+        this.stageCachingEnabled = stageCachingEnabled;
+    }
+
+    //if true, the processed pack keeps only the numerical results, see ProcessedSpectroscopyPack.compact()
+    public boolean isCompactResults()
+    {
+        return compactResults;
+    }
+
+    public void setCompactResults(boolean compactResults)
+    {
+        this.compactResults = compactResults;
+    }
+
     public SimpleSpectroscopySource getSourceToProcess()
     {
         return sourceToProcess;
@@ -28,9 +28,12 @@ import static atomicJ.data.Datasets.MODEL_TRANSITION_POINT_FORCE_CURVE;
 import static atomicJ.data.Datasets.WITHDRAW_SMOOTHED;
 
 import java.awt.geom.Point2D;
+import java.lang.ref.SoftReference;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 import atomicJ.analysis.indentation.ContactModelFit;
 import atomicJ.curveProcessing.Channel1DDataTransformation;
@@ -61,8 +64,13 @@ public final class ProcessedSpectroscopyPack implements Processed1DPack<Processe
     private final SimpleSpectroscopySource source;
     private final NumericalSpectroscopyProcessingResults results;
     private final ProcessingSettings processingSettings;
-    private final ContactEstimator estimator;
-    private final ContactModelFit<?> modelFit;
+    //null if the pack is compact, the estimator is needed only to process the curve
+    private volatile ContactEstimator estimator;
+    //null if the pack is compact, then the fit is rebuilt when it is needed, see compact()
+    private volatile ContactModelFit<?> modelFit;
+    private volatile SoftReference<ContactModelFit<?>> rebuiltModelFit = new SoftReference<>(null);
+    private volatile List<? extends ProcessedPackFunction<ProcessedSpectroscopyPack>> modelSpecialFunctions;
+    private volatile Map<ProcessedPackFunction<ProcessedSpectroscopyPack>, Double> modelSpecialFunctionValues = Collections.emptyMap();
     private IdentityTag batchId;
 
     public ProcessedSpectroscopyPack(SimpleSpectroscopySource source, NumericalSpectroscopyProcessingResults results, ContactModelFit<?> modelFit, ContactEstimator estimator, ProcessingSettings settings, IdentityTag batchIdTag)
@@ -72,6 +80,7 @@ public final class ProcessedSpectroscopyPack implements Processed1DPack<Processe
         this.processingSettings = settings;
         this.estimator = estimator;
         this.modelFit = modelFit;
+        this.modelSpecialFunctions = modelFit.getSpecialFunctions();
         this.batchId = batchIdTag;
     }
 
@@ -82,6 +91,9 @@ public final class ProcessedSpectroscopyPack implements Processed1DPack<Processe
         this.processingSettings = that.processingSettings;
         this.estimator = that.estimator;
         this.modelFit = that.modelFit;
+        this.rebuiltModelFit = that.rebuiltModelFit;
+        this.modelSpecialFunctions = that.modelSpecialFunctions;
+        this.modelSpecialFunctionValues = that.modelSpecialFunctionValues;
         this.batchId = null;
     }
 
@@ -103,13 +115,13 @@ public final class ProcessedSpectroscopyPack implements Processed1DPack<Processe
 
     public Channel1DData getForceIndentationChannelData()
     {
-        Channel1DData forceIndentationData = modelFit.getForceIndentation();       
+        Channel1DData forceIndentationData = getModelFit().getForceIndentation();       
         return forceIndentationData;
     }
 
     public Channel1DData getPointwiseModulus()
     {
-        return modelFit.getPointwiseModulus();
+        return getModelFit().getPointwiseModulus();
     }
 
 
@@ -125,7 +137,63 @@ public final class ProcessedSpectroscopyPack implements Processed1DPack<Processe
 
     public ContactModelFit<?> getModelFit()
     {
-        return modelFit;
+        ContactModelFit<?> fit = modelFit;
+
+        if(fit != null)
+        {
+            return fit;
+        }
+
+        fit = rebuiltModelFit.get();
+
+        if(fit == null)
+        {
+            double[] deflectionContactPoint = new double[] {results.getContactDisplacement(), results.getContactDeflection()};
+            fit = StandardSpectroscopyProcessor.fitContactModel(source, processingSettings, deflectionContactPoint);
+            rebuiltModelFit = new SoftReference<ContactModelFit<?>>(fit);
+        }
+
+        return fit;
+    }
+
+    public boolean isCompact()
+    {
+        return modelFit == null;
+    }
+
+    //releases the model fit, which holds the force-indentation and pointwise modulus data, the contact estimator 
+    //and the stages of processing of the curve stored in ProcessingStageCache, so that the pack keeps only the numerical results.
+    //The fit is deterministic for the given contact point, so it is rebuilt from the recorded curve when the curves are to be shown, 
+    //the values of model specific functions are evaluated before the fit is released.
+    //The source and the processing settings are kept, as the fit is rebuilt from them; the settings are shared by all packs of the batch
+    //and the recorded curves of the source can be moved out of the heap with MappedCurveStore
+    public void compact()
+    {
+        ContactModelFit<?> fit = modelFit;
+
+        if(fit == null)
+        {
+            return;
+        }
+
+        Map<ProcessedPackFunction<ProcessedSpectroscopyPack>, Double> values = new LinkedHashMap<>();
+
+        for(ProcessedPackFunction<ProcessedSpectroscopyPack> f : modelSpecialFunctions)
+        {
+            values.put(f, f.evaluate(this));
+        }
+
+        this.modelSpecialFunctionValues = values;
+        this.modelFit = null;
+        this.estimator = null;
+
+        ProcessingStageCache.PROCESSING_STAGE_CACHE.remove(source);
+    }
+
+    //returns null if the value was not stored when the pack was compacted
+    public Double getStoredModelFunctionValue(ProcessedPackFunction<ProcessedSpectroscopyPack> f)
+    {
+        return modelSpecialFunctionValues.get(f);
     }
 
     public List<ForceEventEstimate> getAdhesionEstimates()
@@ -160,7 +228,7 @@ public final class ProcessedSpectroscopyPack implements Processed1DPack<Processe
 
     public Channel1DData getForceIndentationData()
     {
-        return modelFit.getForceIndentation();
+        return getModelFit().getForceIndentation();
     }
 
     public NumericalSpectroscopyProcessingResults getResults()
@@ -173,6 +241,7 @@ public final class ProcessedSpectroscopyPack implements Processed1DPack<Processe
         return processingSettings;
     }
 
+    //returns null if the pack is compact
     public ContactEstimator getContactEstimator()
     {
         return estimator;
@@ -239,7 +308,7 @@ public final class ProcessedSpectroscopyPack implements Processed1DPack<Processe
     {
         List<ProcessedPackFunction<ProcessedSpectroscopyPack>> adhesionSpecialFunctions = getAdhesionSpecialFunctions();
         List<ProcessedPackFunction<ProcessedSpectroscopyPack>> jumpSpecialFunctions = getJumpSpecialFunctions();
-        List<? extends ProcessedPackFunction<ProcessedSpectroscopyPack>> modelSpecialFunctions = modelFit.getSpecialFunctions();
+        List<? extends ProcessedPackFunction<ProcessedSpectroscopyPack>> modelSpecialFunctions = this.modelSpecialFunctions;
 
         if(adhesionSpecialFunctions.isEmpty() && jumpSpecialFunctions.isEmpty())
         {
@@ -318,6 +387,7 @@ public final class ProcessedSpectroscopyPack implements Processed1DPack<Processe
             return null;
         }
 
+        ContactModelFit<?> modelFit = getModelFit();
         Channel1DData forceIndentationFit = modelFit.getForceIndentationFit(FIT_POINT_COUNT);
 
         ProcessedStaticSpectroscopyCurve recordedCurve = buildProcessedStaticSpectroscopyCurve(modelFit, forceIndentationFit, visSettings);
@@ -0,0 +1,245 @@
+
+/* 
+ * ===========================================================
+ * AtomicJ : a free application for analysis of AFM data
+ * ===========================================================
+ *
+ * (C) Copyright 2013-2022 by Paweł Hermanowicz
+ *
+ * 
+ * This program is free software; you can redistribute it and/or modify 
+ * it under the terms of the GNU General Public License as published by 
+ * the Free Software Foundation; either version 3 of the License, or (at your option) any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without 
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU 
+ * General Public License for more details.
+ * You should have received a copy of the GNU General Public License along with this program; if not, 
+ * see http://www.gnu.org/licenses/*/
+
+package atomicJ.analysis;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import atomicJ.sources.IdentityTag;
+import atomicJ.utilities.Validation;
+
+/**
+ * Opt-in profiling of StandardSpectroscopyProcessor. When the profiler is enabled, durations and allocations 
+ * of each ProcessingStage are accumulated separately for each batch, and can be exported as CSV or JSON.
+ * When it is disabled, the processor gets a recorder which does nothing, so the cost of profiling is a single volatile read per curve.
+ */
+
+public enum ProcessingProfiler 
+{
+    PROCESSING_PROFILER;
+
+    private static final String CSV_EXTENSION = "csv";
+    private static final double NANOS_PER_MILLISECOND = 1e6;
+
+    private volatile boolean enabled = false;
+
+    //guarded by itself; the order of batches is the order in which their processing started
+    private final Map<IdentityTag, BatchProcessingProfile> profiles = new LinkedHashMap<>();
+
+    public boolean isEnabled()
+    {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled)
+    {
+        this.enabled = enabled;
+    }
+
+    public ProcessingStageRecorder startRecording(IdentityTag batchIdTag)
+    {
+        if(!enabled || batchIdTag == null)
+        {
+            return ProcessingStageRecorder.DISABLED;
+        }
+
+        return new ProcessingStageRecorder(getProfile(batchIdTag));
+    }
+
+    private BatchProcessingProfile getProfile(IdentityTag batchIdTag)
+    {
+        synchronized(profiles)
+        {
+            BatchProcessingProfile profile = profiles.get(batchIdTag);
+
+            if(profile == null)
+            {
+                profile = new BatchProcessingProfile(batchIdTag);
+                profiles.put(batchIdTag, profile);
+            }
+
+            return profile;
+        }
+    }
+
+    public List<BatchProcessingProfile> getProfiles()
+    {
+        synchronized(profiles)
+        {
+            return new ArrayList<>(profiles.values());
+        }
+    }
+
+    public void clear()
+    {
+        synchronized(profiles)
+        {
+            profiles.clear();
+        }
+    }
+
+    //the format is chosen based on the extension of the file, JSON is used unless the extension is csv
+    public void export(File file) throws IOException
+    {
+        Validation.requireNonNullParameterName(file, "file");
+
+        String name = file.getName();
+        boolean csv = name.toLowerCase(Locale.ROOT).endsWith("." + CSV_EXTENSION);
+
+        try(Writer writer = new BufferedWriter(new OutputStreamWriter(Files.newOutputStream(file.toPath()), StandardCharsets.UTF_8)))
+        {
+            if(csv)
+            {
+                writeCSV(writer);
+            }
+            else
+            {
+                writeJSON(writer);
+            }
+        }
+    }
+
+    public void writeCSV(Writer writer) throws IOException
+    {
+        writer.write("Batch,Stage,Count,Total (ms),Mean (ms),Min (ms),P50 (ms),P90 (ms),P99 (ms),Max (ms),Mean allocated (kB)\n");
+
+        for(BatchProcessingProfile profile : getProfiles())
+        {
+            String batchName = escapeCSV(profile.getBatchIdTag().getLabel());
+
+            for(ProcessingStageStatistics statistics : profile.getRecordedStatistics())
+            {
+                writer.write(batchName + "," + statistics.getStage().getIdentifier() + "," + statistics.getCount() 
+                + "," + format(statistics.getTotalNanos()/NANOS_PER_MILLISECOND)
+                + "," + format(statistics.getMeanNanos()/NANOS_PER_MILLISECOND)
+                + "," + format(statistics.getMinimumNanos()/NANOS_PER_MILLISECOND)
+                + "," + format(statistics.getPercentileNanos(50)/NANOS_PER_MILLISECOND)
+                + "," + format(statistics.getPercentileNanos(90)/NANOS_PER_MILLISECOND)
+                + "," + format(statistics.getPercentileNanos(99)/NANOS_PER_MILLISECOND)
+                + "," + format(statistics.getMaximumNanos()/NANOS_PER_MILLISECOND)
+                + "," + format(statistics.getMeanAllocatedBytes()/1024.) + "\n");
+            }
+        }
+    }
+
+    public void writeJSON(Writer writer) throws IOException
+    {
+        writer.write("{\"batches\":[");
+
+        boolean firstBatch = true;
+        for(BatchProcessingProfile profile : getProfiles())
+        {
+            writer.write(firstBatch ? "\n" : ",\n");
+            firstBatch = false;
+
+            writer.write("{\"batch\":" + quoteJSON(profile.getBatchIdTag().getLabel()) + ",\"curves\":" + profile.getCurveCount() + ",\"stages\":[");
+
+            boolean firstStage = true;
+            for(ProcessingStageStatistics statistics : profile.getRecordedStatistics())
+            {
+                writer.write(firstStage ? "\n" : ",\n");
+                firstStage = false;
+
+                writer.write("{\"stage\":" + quoteJSON(statistics.getStage().getIdentifier()) 
+                + ",\"count\":" + statistics.getCount() 
+                + ",\"totalNanos\":" + statistics.getTotalNanos()
+                + ",\"meanNanos\":" + formatJSON(statistics.getMeanNanos())
+                + ",\"minNanos\":" + statistics.getMinimumNanos()
+                + ",\"p50Nanos\":" + statistics.getPercentileNanos(50)
+                + ",\"p90Nanos\":" + statistics.getPercentileNanos(90)
+                + ",\"p99Nanos\":" + statistics.getPercentileNanos(99)
+                + ",\"maxNanos\":" + statistics.getMaximumNanos()
+                + ",\"meanAllocatedBytes\":" + formatJSON(statistics.getMeanAllocatedBytes())
+                + ",\"histogram\":[");
+
+                boolean firstBucket = true;
+                for(Entry<Long, Long> bucket : statistics.getHistogram().entrySet())
+                {
+                    writer.write((firstBucket ? "" : ",") + "{\"upperNanos\":" + bucket.getKey() + ",\"count\":" + bucket.getValue() + "}");
+                    firstBucket = false;
+                }
+
+                writer.write("]}");
+            }
+
+            writer.write("]}");
+        }
+
+        writer.write("\n]}\n");
+    }
+
+    private static String format(double value)
+    {
+        return Double.isNaN(value) ? "" : String.format(Locale.ROOT, "%.4f", value);
+    }
+
+    private static String formatJSON(double value)
+    {
+        return Double.isNaN(value) ? "null" : String.format(Locale.ROOT, "%.1f", value);
+    }
+
+    private static String escapeCSV(String text)
+    {
+        String value = (text != null) ? text : "";
+
+        if(value.indexOf(',') >= 0 || value.indexOf('"') >= 0 || value.indexOf('\n') >= 0)
+        {
+            return "\"" + value.replace("\"", "\"\"") + "\"";
+        }
+
+        return value;
+    }
+
+    private static String quoteJSON(String text)
+    {
+        String value = (text != null) ? text : "";
+        StringBuilder builder = new StringBuilder("\"");
+
+        for(int i = 0; i < value.length(); i++)
+        {
+            char c = value.charAt(i);
+
+            if(c == '"' || c == '\\')
+            {
+                builder.append('\\').append(c);
+            }
+            else if(c < 0x20)
+            {
+                builder.append(String.format(Locale.ROOT, "\\u%04x", (int)c));
+            }
+            else
+            {
+                builder.append(c);
+            }
+        }
+
+        return builder.append('"').toString();
+    }
+}
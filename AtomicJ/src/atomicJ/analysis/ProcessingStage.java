@@ -0,0 +1,68 @@
+
+/* 
+ * ===========================================================
+ * AtomicJ : a free application for analysis of AFM data
+ * ===========================================================
+ *
+ * (C) Copyright 2013-2022 by Paweł Hermanowicz
+ *
+ * 
+ * This program is free software; you can redistribute it and/or modify 
+ * it under the terms of the GNU General Public License as published by 
+ * the Free Software Foundation; either version 3 of the License, or (at your option) any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without 
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU 
+ * General Public License for more details.
+ * You should have received a copy of the GNU General Public License along with this program; if not, 
+ * see http://www.gnu.org/licenses/*/
+
+package atomicJ.analysis;
+
+/**
+ * Stages of processing of a single force curve by StandardSpectroscopyProcessor, 
+ * in the order in which they are executed. TOTAL covers the whole processing of a curve.
+ */
+
+public enum ProcessingStage
+{
+    CURVE_PREPARATION("Curve preparation"), TRIMMING("Trimming"), SORTING("Sorting"), SMOOTHING("Smoothing"),
+    CONTACT_ESTIMATION("Contact estimation"), MODEL_FIT("Model fit"), ADHESION_ESTIMATION("Adhesion estimation"),
+    JUMP_ESTIMATION("Jump estimation"), RESULT_ASSEMBLY("Result assembly"), TOTAL("Total");
+
+    private final String prettyName;
+
+    ProcessingStage(String prettyName)
+    {
+        this.prettyName = prettyName;
+    }
+
+    @Override
+    public String toString()
+    {
+        return prettyName;
+    }
+
+    public String getIdentifier()
+    {
+        return name();
+    }
+
+    public static ProcessingStage getValue(String identifier, ProcessingStage fallBackValue)
+    {
+        ProcessingStage stage = fallBackValue;
+
+        if(identifier != null)
+        {
+            for(ProcessingStage s : ProcessingStage.values())
+            {
+                if(s.getIdentifier().equals(identifier))
+                {
+                    stage = s;
+                    break;
+                }
+            }
+        }
+
+        return stage;
+    }
+}
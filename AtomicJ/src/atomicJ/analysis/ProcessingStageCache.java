@@ -0,0 +1,442 @@
+
+/* 
+ * ===========================================================
+ * AtomicJ : a free application for analysis of AFM data
+ * ===========================================================
+ *
+ * (C) Copyright 2013-2022 by Paweł Hermanowicz
+ *
+ * 
+ * This program is free software; you can redistribute it and/or modify 
+ * it under the terms of the GNU General Public License as published by 
+ * the Free Software Foundation; either version 3 of the License, or (at your option) any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without 
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU 
+ * General Public License for more details.
+ * You should have received a copy of the GNU General Public License along with this program; if not, 
+ * see http://www.gnu.org/licenses/*/
+
+package atomicJ.analysis;
+
+import java.awt.geom.Point2D;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+import atomicJ.data.Channel1D;
+import atomicJ.data.Channel1DData;
+import atomicJ.data.SpectroscopyCurve;
+import atomicJ.sources.SimpleSpectroscopySource;
+
+/**
+ * Memory-bounded cache of the intermediate results of StandardSpectroscopyProcessor. For each curve it keeps the trimmed and sorted
+ * branches, the smoothed branches and the contact point, each together with the settings which produced it, so that when the curves
+ * are processed again, e.g. by the recalculation of a map, the processing restarts from the first stage whose inputs changed.
+ * Curves are identified by the name of the source and the position of the curve in a map, and the recorded data are compared
+ * before an entry is reused, so that copies of a source made for recalculation find the results stored for the original.
+ * The cache is filled already when the curves are processed for the first time in the application, so that the first recalculation
+ * reuses the stages, and it is not used by the headless processing, in which each curve is processed only once.
+ * The packs that keep only their numerical results evict the stages of their curves, see ProcessedSpectroscopyPack.compact().
+ * When the estimated size of the cache exceeds the limit, the least recently used curves are evicted.
+ */
+
+public enum ProcessingStageCache
+{
+    PROCESSING_STAGE_CACHE;
+
+    //two doubles per point, without the overhead of objects, which is accounted for per entry
+    private static final long BYTES_PER_POINT = 16;
+    private static final long ENTRY_OVERHEAD_BYTES = 512;
+
+    private volatile boolean enabled = true;
+
+    //guarded by entries, in the access order, so that the least recently used curves are evicted first
+    private final Map<CurveKey, CurveStages> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long maximalSize = Runtime.getRuntime().maxMemory()/8;
+    private long size;
+
+    public boolean isEnabled()
+    {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled)
+    {
+        this.enabled = enabled;
+
+        if(!enabled)
+        {
+            clear();
+        }
+    }
+
+    //in bytes
+    public long getMaximalSize()
+    {
+        synchronized(entries)
+        {
+            return maximalSize;
+        }
+    }
+
+    public void setMaximalSize(long maximalSize)
+    {
+        synchronized(entries)
+        {
+            this.maximalSize = maximalSize;
+            evictIfNecessary();
+        }
+    }
+
+    //estimated size of the cached data, in bytes
+    public long getSize()
+    {
+        synchronized(entries)
+        {
+            return size;
+        }
+    }
+
+    public int getCurveCount()
+    {
+        synchronized(entries)
+        {
+            return entries.size();
+        }
+    }
+
+    public void clear()
+    {
+        synchronized(entries)
+        {
+            for(CurveStages stages : entries.values())
+            {
+                stages.setCached(false);
+            }
+
+            entries.clear();
+            size = 0;
+        }
+    }
+
+    //evicts the stages of processing of the curve, e.g. when only the numerical results of its processing are to be kept
+    public void remove(SimpleSpectroscopySource source)
+    {
+        CurveKey key = new CurveKey(source);
+
+        synchronized(entries)
+        {
+            CurveStages stages = entries.remove(key);
+
+            if(stages != null)
+            {
+                size -= stages.getAccountedSize();
+                stages.setCached(false);
+            }
+        }
+    }
+
+    //returns null if the cache is disabled
+    CurveStages getStages(SimpleSpectroscopySource source)
+    {
+        if(!enabled)
+        {
+            return null;
+        }
+
+        SpectroscopyCurve<Channel1D> recordedCurve = source.getRecordedCurve();
+        Channel1DData recordedApproach = recordedCurve.getApproach().getChannelData();
+        Channel1DData recordedWithdraw = recordedCurve.getWithdraw().getChannelData();
+
+        CurveKey key = new CurveKey(source);
+
+        CurveStages stages;
+        synchronized(entries)
+        {
+            stages = entries.get(key);
+        }
+
+        //comparison of the recorded data does not need to block other threads
+        if(stages != null && stages.isRecordedDataEqual(recordedApproach, recordedWithdraw))
+        {
+            return stages;
+        }
+
+        CurveStages stagesNew = new CurveStages(this, recordedApproach, recordedWithdraw);
+
+        synchronized(entries)
+        {
+            CurveStages stagesOld = entries.put(key, stagesNew);
+
+            if(stagesOld != null)
+            {
+                size -= stagesOld.getAccountedSize();
+                stagesOld.setCached(false);
+            }
+
+            stagesNew.setCached(true);
+        }
+
+        updateSize(stagesNew);
+
+        return stagesNew;
+    }
+
+    private void updateSize(CurveStages stages)
+    {
+        synchronized(entries)
+        {
+            long sizeOld = stages.getAccountedSize();
+            long sizeNew = stages.estimateSize();
+            stages.setAccountedSize(sizeNew);
+
+            //the entry may have been evicted or replaced in the meantime, then its size is no longer accounted for
+            if(stages.isCached())
+            {
+                size += sizeNew - sizeOld;
+                evictIfNecessary();
+            }
+        }
+    }
+
+    private void evictIfNecessary()
+    {
+        Iterator<CurveStages> it = entries.values().iterator();
+
+        while(size > maximalSize && it.hasNext())
+        {
+            CurveStages eldest = it.next();
+            size -= eldest.getAccountedSize();
+            eldest.setCached(false);
+            it.remove();
+        }
+    }
+
+    private static long estimateSize(Channel1DData... data)
+    {
+        Map<Channel1DData, Boolean> distinct = new IdentityHashMap<>();
+
+        long size = ENTRY_OVERHEAD_BYTES;
+
+        for(Channel1DData d : data)
+        {
+            if(d != null && distinct.put(d, Boolean.TRUE) == null)
+            {
+                size += BYTES_PER_POINT*d.getItemCount();
+            }
+        }
+
+        return size;
+    }
+
+    private static final class CurveKey
+    {
+        private final String name;
+        private final int mapPosition;
+        private final Point2D recordingPoint;
+
+        private CurveKey(SimpleSpectroscopySource source)
+        {
+            this.name = source.getLongName();
+            this.mapPosition = source.isFromMap() ? source.getMapPosition() : -1;
+            this.recordingPoint = source.getRecordingPoint();
+        }
+
+        @Override
+        public int hashCode()
+        {
+            int result = 17;
+
+            result = 31*result + Objects.hashCode(name);
+            result = 31*result + mapPosition;
+            result = 31*result + Objects.hashCode(recordingPoint);
+
+            return result;
+        }
+
+        @Override
+        public boolean equals(Object other)
+        {
+            if(other instanceof CurveKey)
+            {
+                CurveKey that = (CurveKey)other;
+
+                return this.mapPosition == that.mapPosition && Objects.equals(this.name, that.name) && Objects.equals(this.recordingPoint, that.recordingPoint);
+            }
+
+            return false;
+        }
+    }
+
+    /*
+     * Results of the stages of processing of a single curve. Each stage is stored together with the keys of all stages it depends on,
+     * and is returned only if all of them match, so that concurrent processing of the same curve with different settings cannot mix the stages
+     */
+
+    static final class CurveStages
+    {
+        private final ProcessingStageCache cache;
+
+        //guarded by this
+        private Channel1DData recordedApproach;
+        private Channel1DData recordedWithdraw;
+
+        private Object trimmingKey;
+        private Channel1DData[] trimmedBranches;
+
+        private Object smoothingKey;
+        private Channel1DData[] smoothedBranches;
+
+        private Object contactEstimationKey;
+        private double[] contactPoint;
+
+        //guarded by cache.entries
+        private long accountedSize;
+        private boolean cached;
+
+        private CurveStages(ProcessingStageCache cache, Channel1DData recordedApproach, Channel1DData recordedWithdraw)
+        {
+            this.cache = cache;
+            this.recordedApproach = recordedApproach;
+            this.recordedWithdraw = recordedWithdraw;
+        }
+
+        //force approach, force withdraw and fitted deflection branch, trimmed, the last one also sorted
+        synchronized Channel1DData[] getTrimmedBranches(Object trimmingKey)
+        {
+            return trimmingKey.equals(this.trimmingKey) ? trimmedBranches.clone() : null;
+        }
+
+        void setTrimmedBranches(Object trimmingKey, Channel1DData[] trimmedBranches)
+        {
+            synchronized(this)
+            {
+                this.trimmingKey = trimmingKey;
+                this.trimmedBranches = trimmedBranches.clone();
+
+                this.smoothingKey = null;
+                this.smoothedBranches = null;
+                this.contactEstimationKey = null;
+                this.contactPoint = null;
+            }
+
+            cache.updateSize(this);
+        }
+
+        synchronized Channel1DData[] getSmoothedBranches(Object trimmingKey, Object smoothingKey)
+        {
+            boolean valid = trimmingKey.equals(this.trimmingKey) && smoothingKey.equals(this.smoothingKey);
+            return valid ? smoothedBranches.clone() : null;
+        }
+
+        void setSmoothedBranches(Object trimmingKey, Object smoothingKey, Channel1DData[] smoothedBranches)
+        {
+            synchronized(this)
+            {
+                if(!trimmingKey.equals(this.trimmingKey))
+                {
+                    return;
+                }
+
+                this.smoothingKey = smoothingKey;
+                this.smoothedBranches = smoothedBranches.clone();
+
+                this.contactEstimationKey = null;
+                this.contactPoint = null;
+            }
+
+            cache.updateSize(this);
+        }
+
+        synchronized double[] getContactPoint(Object trimmingKey, Object smoothingKey, Object contactEstimationKey)
+        {
+            boolean valid = trimmingKey.equals(this.trimmingKey) && smoothingKey.equals(this.smoothingKey) && contactEstimationKey.equals(this.contactEstimationKey);
+            return valid ? contactPoint.clone() : null;
+        }
+
+        synchronized void setContactPoint(Object trimmingKey, Object smoothingKey, Object contactEstimationKey, double[] contactPoint)
+        {
+            if(trimmingKey.equals(this.trimmingKey) && smoothingKey.equals(this.smoothingKey))
+            {
+                this.contactEstimationKey = contactEstimationKey;
+                this.contactPoint = contactPoint.clone();
+            }
+        }
+
+        //the recorded data of a copy of a source are equal, but not identical, to the recorded data of the original
+        private synchronized boolean isRecordedDataEqual(Channel1DData approach, Channel1DData withdraw)
+        {
+            boolean equal = haveEqualPoints(recordedApproach, approach) && haveEqualPoints(recordedWithdraw, withdraw);
+
+            if(equal)
+            {
+                //so that the original data can be garbage collected
+                this.recordedApproach = approach;
+                this.recordedWithdraw = withdraw;
+            }
+
+            return equal;
+        }
+
+        private static boolean haveEqualPoints(Channel1DData data, Channel1DData other)
+        {
+            if(data == other)
+            {
+                return true;
+            }
+
+            int n = data.getItemCount();
+
+            if(n != other.getItemCount())
+            {
+                return false;
+            }
+
+            for(int i = 0; i < n; i++)
+            {
+                if(Double.compare(data.getX(i), other.getX(i)) != 0 || Double.compare(data.getY(i), other.getY(i)) != 0)
+                {
+                    return false;
+                }
+            }
+
+            return true;
+        }
+
+        private synchronized long estimateSize()
+        {
+            Channel1DData[] trimmed = trimmedBranches != null ? trimmedBranches : new Channel1DData[] {};
+            Channel1DData[] smoothed = smoothedBranches != null ? smoothedBranches : new Channel1DData[] {};
+
+            Channel1DData[] all = new Channel1DData[2 + trimmed.length + smoothed.length];
+            all[0] = recordedApproach;
+            all[1] = recordedWithdraw;
+            System.arraycopy(trimmed, 0, all, 2, trimmed.length);
+            System.arraycopy(smoothed, 0, all, 2 + trimmed.length, smoothed.length);
+
+            return ProcessingStageCache.estimateSize(all);
+        }
+
+        private long getAccountedSize()
+        {
+            return accountedSize;
+        }
+
+        private void setAccountedSize(long accountedSize)
+        {
+            this.accountedSize = accountedSize;
+        }
+
+        private boolean isCached()
+        {
+            return cached;
+        }
+
+        private void setCached(boolean cached)
+        {
+            this.cached = cached;
+        }
+    }
+}
@@ -0,0 +1,121 @@
+
+/* 
+ * ===========================================================
+ * AtomicJ : a free application for analysis of AFM data
+ * ===========================================================
+ *
+ * (C) Copyright 2013-2022 by Paweł Hermanowicz
+ *
+ * 
+ * This program is free software; you can redistribute it and/or modify 
+ * it under the terms of the GNU General Public License as published by 
+ * the Free Software Foundation; either version 3 of the License, or (at your option) any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without 
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU 
+ * General Public License for more details.
+ * You should have received a copy of the GNU General Public License along with this program; if not, 
+ * see http://www.gnu.org/licenses/*/
+
+package atomicJ.analysis;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+/**
+ * Measures consecutive stages of processing of a single force curve. The recorder is confined to the thread 
+ * that processes the curve, as allocations are measured per thread. Each call of stageFinished() 
+ * records the time and allocations since the previous call (or since creation of the recorder).
+ * The recorder returned by ProcessingProfiler when profiling is disabled does nothing.
+ */
+
+public class ProcessingStageRecorder
+{
+    static final ProcessingStageRecorder DISABLED = new ProcessingStageRecorder(null);
+
+    private static final com.sun.management.ThreadMXBean ALLOCATION_BEAN = getAllocationBean();
+
+    private final BatchProcessingProfile profile;
+    private final long startNanos;
+    private final long startAllocatedBytes;
+
+    private long stageStartNanos;
+    private long stageStartAllocatedBytes;
+
+    ProcessingStageRecorder(BatchProcessingProfile profile)
+    {
+        this.profile = profile;
+        this.startNanos = (profile != null) ? System.nanoTime() : 0;
+        this.startAllocatedBytes = (profile != null) ? getAllocatedBytes() : -1;
+        this.stageStartNanos = startNanos;
+        this.stageStartAllocatedBytes = startAllocatedBytes;
+    }
+
+    public boolean isEnabled()
+    {
+        return profile != null;
+    }
+
+    public void stageFinished(ProcessingStage stage)
+    {
+        if(profile == null)
+        {
+            return;
+        }
+
+        long nanos = System.nanoTime();
+        long allocatedBytes = getAllocatedBytes();
+
+        profile.record(stage, nanos - stageStartNanos, getDifference(allocatedBytes, stageStartAllocatedBytes));
+
+        //the time spent on reading the allocation counter is not attributed to any stage
+        this.stageStartNanos = System.nanoTime();
+        this.stageStartAllocatedBytes = allocatedBytes;
+    }
+
+    //records the TOTAL stage
+    public void finish()
+    {
+        if(profile == null)
+        {
+            return;
+        }
+
+        profile.record(ProcessingStage.TOTAL, System.nanoTime() - startNanos, getDifference(getAllocatedBytes(), startAllocatedBytes));
+    }
+
+    private static long getDifference(long allocatedBytes, long initialAllocatedBytes)
+    {
+        return (allocatedBytes >= 0 && initialAllocatedBytes >= 0) ? allocatedBytes - initialAllocatedBytes : -1;
+    }
+
+    private static long getAllocatedBytes()
+    {
+        return ALLOCATION_BEAN != null ? ALLOCATION_BEAN.getThreadAllocatedBytes(Thread.currentThread().getId()) : -1;
+    }
+
+    //allocation counters are an extension of HotSpot JVMs, other JVMs report only the durations
+    private static com.sun.management.ThreadMXBean getAllocationBean()
+    {
+        try
+        {
+            ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+
+            if(bean instanceof com.sun.management.ThreadMXBean)
+            {
+                com.sun.management.ThreadMXBean allocationBean = (com.sun.management.ThreadMXBean)bean;
+
+                if(allocationBean.isThreadAllocatedMemorySupported())
+                {
+                    allocationBean.setThreadAllocatedMemoryEnabled(true);
+                    return allocationBean;
+                }
+            }
+        }
+        catch(RuntimeException | LinkageError e)
+        {
+            //the counters are optional, so the recorder falls back to durations only
+        }
+
+        return null;
+    }
+}
@@ -0,0 +1,202 @@
+
+/* 
+ * ===========================================================
+ * AtomicJ : a free application for analysis of AFM data
+ * ===========================================================
+ *
+ * (C) Copyright 2013-2022 by Paweł Hermanowicz
+ *
+ * 
+ * This program is free software; you can redistribute it and/or modify 
+ * it under the terms of the GNU General Public License as published by 
+ * the Free Software Foundation; either version 3 of the License, or (at your option) any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without 
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU 
+ * General Public License for more details.
+ * You should have received a copy of the GNU General Public License along with this program; if not, 
+ * see http://www.gnu.org/licenses/*/
+
+package atomicJ.analysis;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Durations and allocations of one processing stage, accumulated over all force curves of a batch.
+ * The durations are kept in a log-linear histogram, with SUB_BUCKET_COUNT buckets for each power of two,
+ * so percentiles are known with the relative error of at most 1/SUB_BUCKET_COUNT, while recording 
+ * a duration costs only a few atomic increments. The class is thread safe.
+ */
+
+public class ProcessingStageStatistics
+{
+    private static final int SUB_BUCKET_BITS = 3;
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKET_COUNT = (Long.SIZE - SUB_BUCKET_BITS + 1)*SUB_BUCKET_COUNT;
+
+    private final ProcessingStage stage;
+
+    private final AtomicLongArray histogram = new AtomicLongArray(BUCKET_COUNT);
+    private final AtomicLong count = new AtomicLong();
+    private final AtomicLong totalNanos = new AtomicLong();
+    private final AtomicLong minNanos = new AtomicLong(Long.MAX_VALUE);
+    private final AtomicLong maxNanos = new AtomicLong();
+    private final AtomicLong allocatedBytes = new AtomicLong();
+
+    //number of recordings for which the allocated bytes were known
+    private final AtomicLong allocationCount = new AtomicLong();
+
+    public ProcessingStageStatistics(ProcessingStage stage)
+    {
+        this.stage = stage;
+    }
+
+    public ProcessingStage getStage()
+    {
+        return stage;
+    }
+
+    //allocatedBytes is negative if the JVM does not measure allocations
+    void record(long nanos, long allocated)
+    {
+        long duration = Math.max(0, nanos);
+
+        histogram.incrementAndGet(getBucketIndex(duration));
+        count.incrementAndGet();
+        totalNanos.addAndGet(duration);
+        updateMinimum(duration);
+        updateMaximum(duration);
+
+        if(allocated >= 0)
+        {
+            allocatedBytes.addAndGet(allocated);
+            allocationCount.incrementAndGet();
+        }
+    }
+
+    private void updateMinimum(long duration)
+    {
+        long current = minNanos.get();
+        while(duration < current && !minNanos.compareAndSet(current, duration))
+        {
+            current = minNanos.get();
+        }
+    }
+
+    private void updateMaximum(long duration)
+    {
+        long current = maxNanos.get();
+        while(duration > current && !maxNanos.compareAndSet(current, duration))
+        {
+            current = maxNanos.get();
+        }
+    }
+
+    public long getCount()
+    {
+        return count.get();
+    }
+
+    public long getTotalNanos()
+    {
+        return totalNanos.get();
+    }
+
+    public double getMeanNanos()
+    {
+        long n = count.get();
+        return n > 0 ? (double)totalNanos.get()/n : Double.NaN;
+    }
+
+    public long getMinimumNanos()
+    {
+        return count.get() > 0 ? minNanos.get() : 0;
+    }
+
+    public long getMaximumNanos()
+    {
+        return maxNanos.get();
+    }
+
+    public long getAllocatedBytes()
+    {
+        return allocatedBytes.get();
+    }
+
+    public double getMeanAllocatedBytes()
+    {
+        long n = allocationCount.get();
+        return n > 0 ? (double)allocatedBytes.get()/n : Double.NaN;
+    }
+
+    //p is a number from the interval [0, 100]; returns the upper bound of the histogram bucket containing the percentile
+    public long getPercentileNanos(double p)
+    {
+        long n = count.get();
+
+        if(n == 0)
+        {
+            return 0;
+        }
+
+        long rank = Math.max(1, (long)Math.ceil(n*Math.min(100, Math.max(0, p))/100.));
+        long cumulative = 0;
+
+        for(int i = 0; i < BUCKET_COUNT; i++)
+        {
+            cumulative += histogram.get(i);
+            if(cumulative >= rank)
+            {
+                return Math.min(getBucketUpperBound(i), maxNanos.get());
+            }
+        }
+
+        return maxNanos.get();
+    }
+
+    //returns the counts of the non-empty histogram buckets, keyed by the upper bounds of the buckets in nanoseconds
+    public Map<Long, Long> getHistogram()
+    {
+        Map<Long, Long> nonEmptyBuckets = new LinkedHashMap<>();
+
+        for(int i = 0; i < BUCKET_COUNT; i++)
+        {
+            long bucketCount = histogram.get(i);
+            if(bucketCount > 0)
+            {
+                nonEmptyBuckets.put(getBucketUpperBound(i), bucketCount);
+            }
+        }
+
+        return nonEmptyBuckets;
+    }
+
+    private static int getBucketIndex(long value)
+    {
+        if(value < SUB_BUCKET_COUNT)
+        {
+            return (int)value;
+        }
+
+        int exponent = Long.SIZE - 1 - Long.numberOfLeadingZeros(value);
+        int shift = exponent - SUB_BUCKET_BITS;
+        int subBucket = (int)(value >>> shift) - SUB_BUCKET_COUNT;
+
+        return (shift + 1)*SUB_BUCKET_COUNT + subBucket;
+    }
+
+    private static long getBucketUpperBound(int index)
+    {
+        if(index < SUB_BUCKET_COUNT)
+        {
+            return index;
+        }
+
+        int shift = index/SUB_BUCKET_COUNT - 1;
+        long subBucket = index%SUB_BUCKET_COUNT + SUB_BUCKET_COUNT;
+
+        return ((subBucket + 1) << shift) - 1;
+    }
+}
@@ -26,9 +26,7 @@ import org.apache.commons.math3.analysis.UnivariateFunction;
 import atomicJ.data.Channel1DData;
 import atomicJ.data.IndexRange;
 import atomicJ.functions.FittedUnivariateFunction;
-import atomicJ.functions.InterceptlessLine.InterceptlessLineExactFitFactory;
 import atomicJ.statistics.*;
-import atomicJ.utilities.ArrayUtilities;
 
 
 public final class RobustFlexibleEstimator implements ContactEstimator
@@ -91,6 +89,7 @@ public final class RobustFlexibleEstimator implements ContactEstimator
 
     private static class SupportedPostcontactFitStrategy implements RegressionStrategy
     {
+        //the starts of FAST-LTS are improved by concentration steps, so fewer of them are needed than random starts of LTS
         private static final int NUMBER_OF_STARTS = 150;
         private static final double OPTIONAL_POINTS_COVERAGE = 0.5;
 
@@ -118,7 +117,7 @@ public final class RobustFlexibleEstimator implements ContactEstimator
             double[][] optional = Arrays.copyOfRange(data, Math.max(supportEndIndex, from), to);
             double[][] support = from < supportEndIndex ? Arrays.copyOfRange(data, from, supportEndIndex)  : new double[][] {};
 
-            LinearRegressionEsimator postcontactFit  = SupportedLTS.findFit(optional, support, degree, constant, OPTIONAL_POINTS_COVERAGE, NUMBER_OF_STARTS);         
+            LinearRegressionEsimator postcontactFit  = FastLTS.getInstance(degree, constant, NUMBER_OF_STARTS).findSupportedFit(optional, support, OPTIONAL_POINTS_COVERAGE);         
 
             return postcontactFit;
         }
@@ -139,7 +138,7 @@ public final class RobustFlexibleEstimator implements ContactEstimator
             double[][] optional = Arrays.copyOfRange(data, Math.max(supportEndIndex, from), to);
             double[][] support = from < supportEndIndex ? Arrays.copyOfRange(data, from, supportEndIndex)  : new double[][] {};
 
-            LinearRegressionEsimator postcontactFit = SupportedLTS.findFit(optional, support, model, OPTIONAL_POINTS_COVERAGE, NUMBER_OF_STARTS);
+            LinearRegressionEsimator postcontactFit = FastLTS.getInstance(model, NUMBER_OF_STARTS).findSupportedFit(optional, support, OPTIONAL_POINTS_COVERAGE);
 
             return postcontactFit;
         }
@@ -174,7 +173,7 @@ public final class RobustFlexibleEstimator implements ContactEstimator
             double[][] optional = Arrays.copyOfRange(data, Math.max(supportEndIndex, from), to);
             double[][] support = from < supportEndIndex ? Arrays.copyOfRange(data, from, supportEndIndex)  : new double[][] {};
 
-            double minimum = SupportedLTS.findObjectiveFunctionMinimum(optional, support, degree, constant, OPTIONAL_POINTS_COVERAGE, NUMBER_OF_STARTS);      
+            double minimum = FastLTS.getInstance(degree, constant, NUMBER_OF_STARTS).findSupportedObjectiveFunctionMinimum(optional, support, OPTIONAL_POINTS_COVERAGE);      
 
             return minimum;
         }
@@ -187,10 +186,9 @@ public final class RobustFlexibleEstimator implements ContactEstimator
                 return L2Regression.findObjectiveFunctionMinimum(ys, xs, from, to, degree, constant);
             }
 
-            double[][] optional = ArrayUtilities.convertToPoints(ys, xs, Math.max(supportEndIndex, from), to);
-            double[][] support = from < supportEndIndex ? ArrayUtilities.convertToPoints(ys, xs, from, supportEndIndex)  : new double[][] {};
+            int supportLength = Math.max(0, supportEndIndex - from);
 
-            double minimum = SupportedLTS.findObjectiveFunctionMinimum(optional, support, degree, constant, OPTIONAL_POINTS_COVERAGE, NUMBER_OF_STARTS);         
+            double minimum = FastLTS.getInstance(degree, constant, NUMBER_OF_STARTS).findSupportedObjectiveFunctionMinimum(ys, xs, from, to, supportLength, OPTIONAL_POINTS_COVERAGE);
 
             return minimum;
         }
@@ -228,8 +226,7 @@ public final class RobustFlexibleEstimator implements ContactEstimator
                 return L2Regression.findObjectiveFunctionMinimumDeg1NoConstant(ys, xs);
             }
 
-            double minimum = SupportedLTS.findObjectiveFunctionMinimum(InterceptlessLineExactFitFactory.getInstance(),
-                    ys, xs, supportEndIndex, OPTIONAL_POINTS_COVERAGE, NUMBER_OF_STARTS);
+            double minimum = FastLTS.getInstance(1, false, NUMBER_OF_STARTS).findSupportedObjectiveFunctionMinimum(ys, xs, supportEndIndex, OPTIONAL_POINTS_COVERAGE);
 
             return minimum;
         }
@@ -245,7 +242,7 @@ public final class RobustFlexibleEstimator implements ContactEstimator
                 return L2Regression.findFitFunctionForSingleExponent(points, exponent);
             }
 
-            return SupportedLTS.findFitFunctionForSingleExponent(points, supportEndIndex, exponent, OPTIONAL_POINTS_COVERAGE, NUMBER_OF_STARTS);
+            return FastLTS.getInstanceForSingleExponent(exponent, NUMBER_OF_STARTS).findSupportedFitFunction(points, supportEndIndex, OPTIONAL_POINTS_COVERAGE);
         }
 
         @Override
@@ -258,7 +255,7 @@ public final class RobustFlexibleEstimator implements ContactEstimator
                 return L2Regression.findFitFunctionForSingleExponent(points, exponent);
             }
 
-            return SupportedLTS.findFitFunctionForSingleExponent(points, supportEndIndex, exponent, OPTIONAL_POINTS_COVERAGE, NUMBER_OF_STARTS);
+            return FastLTS.getInstanceForSingleExponent(exponent, NUMBER_OF_STARTS).findSupportedFitFunction(points, supportEndIndex, OPTIONAL_POINTS_COVERAGE);
         }
 
         @Override
@@ -271,7 +268,7 @@ public final class RobustFlexibleEstimator implements ContactEstimator
                 return L2Regression.findFitFunction(points, 0, n, degree, constant);
             }
 
-            return SupportedLTS.findFitFunction(points, supportEndIndex,  degree,  constant, OPTIONAL_POINTS_COVERAGE, NUMBER_OF_STARTS);
+            return FastLTS.getInstance(degree, constant, NUMBER_OF_STARTS).findSupportedFitFunction(points, supportEndIndex, OPTIONAL_POINTS_COVERAGE);
         }
 
         @Override
@@ -285,7 +282,7 @@ public final class RobustFlexibleEstimator implements ContactEstimator
                 return L2Regression.findFitFunction(ys, xs, 0, n, degree, constant);
             }
 
-            return SupportedLTS.findFitFunction(ys, xs, supportEndIndex,  degree,  constant, OPTIONAL_POINTS_COVERAGE, NUMBER_OF_STARTS);
+            return FastLTS.getInstance(degree, constant, NUMBER_OF_STARTS).findSupportedFitFunction(ys, xs, supportEndIndex, OPTIONAL_POINTS_COVERAGE);
         }
 
         @Override
@@ -345,4 +342,30 @@ public final class RobustFlexibleEstimator implements ContactEstimator
     {
         return true;
     }
+
+    @Override
+    public int hashCode()
+    {
+        int result = 17;
+
+        result = 31*result + deg;
+        result = 31*result + searchStrategy.hashCode();
+        result = 31*result + contactModel.getContactEstimationKey().hashCode();
+
+        return result;
+    }
+
+    @Override
+    public boolean equals(Object other)
+    {
+        if(other instanceof RobustFlexibleEstimator)
+        {
+            RobustFlexibleEstimator that = (RobustFlexibleEstimator)other;
+
+            return this.deg == that.deg && this.searchStrategy.equals(that.searchStrategy) 
+                    && this.contactModel.getContactEstimationKey().equals(that.contactModel.getContactEstimationKey());
+        }
+
+        return false;
+    }
 }
@@ -1,6 +1,7 @@
 package atomicJ.analysis;
 
 import java.util.Arrays;
+import java.util.Comparator;
 import java.util.List;
 
 import atomicJ.utilities.AbscissaComparator;
@@ -81,6 +82,71 @@ public enum SortedArrayOrder
     public abstract double[][] sortX(double[][] points);
     public abstract double[][] sortXIfNecessary(double[][] points);
 
+    //returns the indices of the values in this order; the sort is stable, like sortX(double[][]), 
+    //and values which are already sorted, or strictly sorted in the reversed order, are handled in linear time
+    public int[] getSortingPermutation(final double[] values)
+    {
+        int n = values.length;
+
+        boolean sorted = true;
+        boolean strictlyReversed = true;
+
+        for(int i = 1; i < n && (sorted || strictlyReversed); i++)
+        {
+            int comparison = compare(values[i - 1], values[i]);
+
+            sorted = sorted && comparison <= 0;
+            strictlyReversed = strictlyReversed && comparison > 0;
+        }
+
+        int[] permutation = new int[n];
+
+        if(sorted)
+        {
+            for(int i = 0; i < n; i++)
+            {
+                permutation[i] = i;
+            }
+        }
+        else if(strictlyReversed)
+        {
+            for(int i = 0; i < n; i++)
+            {
+                permutation[i] = n - 1 - i;
+            }
+        }
+        else
+        {
+            Integer[] indices = new Integer[n];
+            for(int i = 0; i < n; i++)
+            {
+                indices[i] = i;
+            }
+
+            Arrays.sort(indices, new Comparator<Integer>() 
+            {
+                @Override
+                public int compare(Integer i1, Integer i2) 
+                {
+                    return SortedArrayOrder.this.compare(values[i1], values[i2]);
+                }
+            });
+
+            for(int i = 0; i < n; i++)
+            {
+                permutation[i] = indices[i];
+            }
+        }
+
+        return permutation;
+    }
+
+    private int compare(double x1, double x2)
+    {
+        int ascendingComparison = (x1 > x2) ? 1 : (x1 < x2 ? -1 : 0);
+        return (this == ASCENDING) ? ascendingComparison : -ascendingComparison;
+    }
+
     public static SortedArrayOrder getInitialXOrder(double[][] sortedPoints)
     {
         boolean xDescending = isInitiallyXDescending(sortedPoints);
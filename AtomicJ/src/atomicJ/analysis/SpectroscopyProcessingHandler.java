@@ -24,9 +24,19 @@ import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.atomic.AtomicBoolean;
+
 import javax.swing.JOptionPane;
+import javax.swing.SwingUtilities;
 
 import atomicJ.gui.AtomicJ;
+import atomicJ.gui.SharedExecutors;
+import atomicJ.gui.TaskPriority;
 import atomicJ.gui.UserCommunicableException;
 import atomicJ.gui.curveProcessing.CurveVisualizationHandler;
 import atomicJ.gui.curveProcessing.MapSourceHandler;
@@ -38,17 +48,38 @@ import atomicJ.readers.ReadingPack;
 import atomicJ.sources.IdentityTag;
 import atomicJ.sources.ImageSource;
 import atomicJ.sources.MapSource;
+import atomicJ.utilities.MultiMap;
 import atomicJ.utilities.Validation;
 
 
-public class SpectroscopyProcessingHandler implements ProcessingResultsHandler<SpectroscopyProcessingResult>
+public class SpectroscopyProcessingHandler implements StreamingProcessingResultsHandler<SpectroscopyProcessingResult>
 {	
+    private static final int RESULT_BATCH_SIZE = 256;
+
+    //the map channels are rebuilt from the whole grid on each update, so the maps are updated less often than the table of results
+    private static final long MAP_REFRESH_INTERVAL = 1000;
+
     private final List<VisualizableSpectroscopyPack> allVisualizablePacks = new ArrayList<>();
-    private Map<MapSource<?>, List<ImageSource>> mapSources;
+    private final Map<MapSource<?>, ReadingPack<ImageSource>> allMapSourcesTemporary = new LinkedHashMap<>();
 
     private final SpectroscopyResultDestination destination;
 
-    private final Map<IdentityTag, Batch<ProcessedSpectroscopyPack>> processedBatches = new LinkedHashMap<>();	
+    //only the batches whose curves are averaged keep their packs until the end of processing
+    private final Map<IdentityTag, Batch<ProcessedSpectroscopyPack>> averagedBatches = new LinkedHashMap<>();	
+
+    //all guarded by mapLock, because they are filled by the processing threads and read on the event dispatch thread.
+    //The packs are registered in their maps only on the event dispatch thread, where the maps are also drawn and refreshed
+    private final Object mapLock = new Object();
+    private final Map<MapSource<?>, Future<List<ImageSource>>> mapSources = new LinkedHashMap<>();
+    private MultiMap<MapSource<?>, ProcessedSpectroscopyPack> pendingMapPacks = new MultiMap<>();
+    private MultiMap<MapProcessingSettings, ProcessedSpectroscopyPack> pendingRegistrations = new MultiMap<>();
+    private ExecutorService imageReadingExecutor;
+
+    //accessed only from the event dispatch thread
+    private boolean cancelled = false;
+
+    private final AtomicBoolean mapRefreshScheduled = new AtomicBoolean();
+    private volatile long lastMapRefreshTime;
 
     private final MapSourceHandler mapSourceHandler;
     private final CurveVisualizationHandler<VisualizableSpectroscopyPack> curveVisualizationHandler;
@@ -73,76 +104,328 @@ public class SpectroscopyProcessingHandler implements ProcessingResultsHandler<S
     @Override
     public void acceptAndSegregateResults(List<SpectroscopyProcessingResult> results)
     {       
-        Map<MapSource<?>, ReadingPack<ImageSource>> allMapSourcesTemporary = new LinkedHashMap<>();
+        acceptResultBatch(results);
+        completeResultStream();
+    }
+
+    @Override
+    public int getResultBatchSize()
+    {
+        return RESULT_BATCH_SIZE;
+    }
+
+    //each batch is published in the table of results as soon as it arrives, and the packs from the maps are passed to the map source handler,
+    //which fills the map channels while the processing is still running. The handler keeps the packs only if their curves are to be averaged
+    @Override
+    public void acceptResultBatch(List<SpectroscopyProcessingResult> results)
+    {
+        Map<IdentityTag, Batch<ProcessedSpectroscopyPack>> resultBatches = new LinkedHashMap<>();
+        MultiMap<MapSource<?>, ProcessedSpectroscopyPack> mapPacks = new MultiMap<>();
+        MultiMap<MapProcessingSettings, ProcessedSpectroscopyPack> registrations = new MultiMap<>();
 
         for(SpectroscopyProcessingResult result: results)
         {
             ProcessedSpectroscopyPack processedPack = result.getProcessedPack();          
             IdentityTag tag = processedPack.getBatchIdTag();
 
-            Batch<ProcessedSpectroscopyPack> batch = processedBatches.get(tag);
+            Batch<ProcessedSpectroscopyPack> batch = resultBatches.get(tag);
             if(batch == null)
             {
                 batch = new Batch<>(tag.getLabel(), (int)tag.getKey());
-                processedBatches.put(tag, batch);
+                resultBatches.put(tag, batch);
             }
 
             batch.addProcessedPack(processedPack);
 
+            if(averagingHandler.isAveragingEnabled(tag))
+            {
+                Batch<ProcessedSpectroscopyPack> averagedBatch = averagedBatches.get(tag);
+                if(averagedBatch == null)
+                {
+                    averagedBatch = new Batch<>(tag.getLabel(), (int)tag.getKey());
+                    averagedBatches.put(tag, averagedBatch);
+                }
+
+                averagedBatch.addProcessedPack(processedPack);
+            }
+
             MapProcessingSettings mapSettings = result.getMapSettings();
 
-            mapSourceHandler.handleProcessedPackRegistrationRequest(mapSettings, processedPack);
-            mapSourceHandler.handleMapSourceAndImageAdditionRequest(mapSettings, processedPack, allMapSourcesTemporary);
+            registerMapSource(mapSettings, processedPack);
 
-            VisualizableSpectroscopyPack visualized = result.getVisualizablePack();
-            if(visualized != null)
+            MapSource<?> mapSource = processedPack.getForceMap();
+            if(processedPack.isFromMap() && mapSource != null)
             {
-                allVisualizablePacks.add(visualized);
+                registrations.put(mapSettings, processedPack);
+
+                if(mapSettings.isIncudeInMaps())
+                {
+                    mapPacks.put(mapSource, processedPack);
+                }
+            }
+
+            //charts of the curves from maps are built only when the curve is opened from the map or from the table of results
+            if(!processedPack.getSource().isFromMap() && result.isAnyResultToBeVisualized())
+            {
+                allVisualizablePacks.add(result.getVisualizablePack());
             }
         }
 
-        mapSources = readInImagesAccompanyingMaps(allMapSourcesTemporary);
-        mapSourceHandler.handleSealingRequest(mapSources.keySet());
+        publishResultBatches(new ArrayList<>(resultBatches.values()));
+        addPendingMapPacks(mapPacks, registrations);
     }
 
-    private Map<MapSource<?>, List<ImageSource>> readInImagesAccompanyingMaps(Map<MapSource<?>, ReadingPack<ImageSource>> allMapSourcesTemporary)
+    //the images accompanying a map are read in the background, starting when its first pack arrives, 
+    //so that neither the processing threads nor the delivery of results wait for them. The map is drawn when its images are read
+    private void registerMapSource(MapProcessingSettings mapSettings, ProcessedSpectroscopyPack processedPack)
     {
-        Map<MapSource<?>, List<ImageSource>> readInImageSources = new LinkedHashMap<>();
-        for(Entry<MapSource<?>,ReadingPack<ImageSource>> entry : allMapSourcesTemporary.entrySet())
+        int mapCount = allMapSourcesTemporary.size();
+        mapSourceHandler.handleMapSourceAndImageAdditionRequest(mapSettings, processedPack, allMapSourcesTemporary);
+
+        if(allMapSourcesTemporary.size() > mapCount)
         {
-            MapSource<?> mapSource = entry.getKey();
-            ReadingPack<ImageSource> readingPack = entry.getValue();
+            MapSource<?> mapSource = processedPack.getForceMap();
+            final ReadingPack<ImageSource> readingPack = allMapSourcesTemporary.get(mapSource);
 
-            List<ImageSource> imageSources = new ArrayList<>();
-            if(readingPack != null)
-            {                
-                try 
+            FutureTask<List<ImageSource>> imageReading = new FutureTask<>(new Callable<List<ImageSource>>() 
+            {
+                @Override
+                public List<ImageSource> call()
                 {
-                    List<ImageSource> imagesForMap = readingPack.readSources();    
-                    imageSources.addAll(imagesForMap);                    
-                } 
-                catch (UserCommunicableException | IllegalImageException
-                        | IllegalSpectroscopySourceException e)
+                    return readInImagesAccompanyingMap(readingPack);
+                }
+            });
+
+            synchronized(mapLock)
+            {
+                mapSources.put(mapSource, imageReading);
+
+                if(readingPack != null)
                 {
-                    e.printStackTrace();
+                    if(imageReadingExecutor == null)
+                    {
+                        imageReadingExecutor = SharedExecutors.newIOExecutor(TaskPriority.NORMAL);
+                    }
+
+                    imageReadingExecutor.execute(imageReading);
                 }
             }
 
-            readInImageSources.put(mapSource, imageSources);
-        }       
+            if(readingPack == null)
+            {
+                imageReading.run();
+            }
+        }
+    }
+
+    private static List<ImageSource> getImagesAccompanyingMap(Future<List<ImageSource>> imageReading)
+    {
+        List<ImageSource> imageSources = new ArrayList<>();
+
+        if(imageReading != null)
+        {
+            try 
+            {
+                imageSources.addAll(imageReading.get());
+            }
+            catch (InterruptedException e) 
+            {
+                Thread.currentThread().interrupt();
+            }
+            catch (ExecutionException e) 
+            {
+                e.printStackTrace();
+            }
+        }
+
+        return imageSources;
+    }
+
+    private List<ImageSource> readInImagesAccompanyingMap(ReadingPack<ImageSource> readingPack)
+    {
+        List<ImageSource> imageSources = new ArrayList<>();
+        if(readingPack != null)
+        {                
+            try 
+            {
+                List<ImageSource> imagesForMap = readingPack.readSources();    
+                imageSources.addAll(imagesForMap);                    
+            } 
+            catch (UserCommunicableException | IllegalImageException
+                    | IllegalSpectroscopySourceException e)
+            {
+                e.printStackTrace();
+            }
+        }
+
+        return imageSources;
+    }
+
+    private void publishResultBatches(final List<Batch<ProcessedSpectroscopyPack>> resultBatches)
+    {
+        if(resultBatches.isEmpty())
+        {
+            return;
+        }
+
+        SwingUtilities.invokeLater(new Runnable() 
+        {
+            @Override
+            public void run() 
+            {
+                //the batches delivered just before the processing was cancelled are not published after their publication was withdrawn
+                if(cancelled)
+                {
+                    return;
+                }
 
-        return readInImageSources;
+                List<IdentityTag> tags = new ArrayList<>();
+                for(Batch<ProcessedSpectroscopyPack> batch : resultBatches)
+                {
+                    tags.add(batch.getIdentityTag());
+                }
+
+                destination.getResultBatchesCoordinator().countNewBatches(tags);
+                resultHandler.handlePublicationRequest(resultBatches);
+            }
+        });
+    }
+
+    private void addPendingMapPacks(MultiMap<MapSource<?>, ProcessedSpectroscopyPack> mapPacks, MultiMap<MapProcessingSettings, ProcessedSpectroscopyPack> registrations)
+    {
+        if(mapPacks.isEmpty() && registrations.isEmpty())
+        {
+            return;
+        }
+
+        synchronized(mapLock)
+        {
+            pendingMapPacks.putAll(mapPacks);
+            pendingRegistrations.putAll(registrations);
+        }
+
+        if(System.currentTimeMillis() - lastMapRefreshTime >= MAP_REFRESH_INTERVAL)
+        {
+            scheduleMapRefresh();
+        }
+    }
+
+    private void scheduleMapRefresh()
+    {
+        if(mapRefreshScheduled.compareAndSet(false, true))
+        {
+            SwingUtilities.invokeLater(new Runnable() 
+            {
+                @Override
+                public void run() 
+                {
+                    refreshMaps();
+                }
+            });
+        }
+    }
+
+    //called on the event dispatch thread. The packs of the maps whose images are still being read wait for one of the next refreshes
+    private void refreshMaps()
+    {
+        //reset before the pending packs are taken, so that packs added after this point schedule another refresh
+        mapRefreshScheduled.set(false);
+        lastMapRefreshTime = System.currentTimeMillis();
+
+        MultiMap<MapProcessingSettings, ProcessedSpectroscopyPack> registrations;
+        MultiMap<MapSource<?>, ProcessedSpectroscopyPack> packs = new MultiMap<>();
+        Map<MapSource<?>, List<ImageSource>> mapSourcesToRefresh = new LinkedHashMap<>();
+
+        synchronized(mapLock)
+        {
+            registrations = pendingRegistrations;
+            pendingRegistrations = new MultiMap<>();
+
+            MultiMap<MapSource<?>, ProcessedSpectroscopyPack> pendingPacks = pendingMapPacks;
+            pendingMapPacks = new MultiMap<>();
+
+            for(Entry<MapSource<?>, List<ProcessedSpectroscopyPack>> entry : pendingPacks.entrySet())
+            {
+                MapSource<?> mapSource = entry.getKey();
+                Future<List<ImageSource>> imageReading = mapSources.get(mapSource);
+
+                if(imageReading == null || imageReading.isDone())
+                {
+                    packs.putAll(mapSource, entry.getValue());
+                    mapSourcesToRefresh.put(mapSource, getImagesAccompanyingMap(imageReading));
+                }
+                else
+                {
+                    pendingMapPacks.putAll(mapSource, entry.getValue());
+                }
+            }
+        }
+
+        if(cancelled)
+        {
+            return;
+        }
+
+        for(Entry<MapProcessingSettings, List<ProcessedSpectroscopyPack>> entry : registrations.entrySet())
+        {
+            MapProcessingSettings mapSettings = entry.getKey();
+
+            for(ProcessedSpectroscopyPack pack : entry.getValue())
+            {
+                mapSourceHandler.handleProcessedPackRegistrationRequest(mapSettings, pack);
+            }
+        }
+
+        if(!packs.isEmpty())
+        {
+            mapSourceHandler.handleProgressivePublicationRequest(packs, mapSourcesToRefresh);
+        }
+    }
+
+    //waits until the images of all maps are read, so that the last refresh of the maps registers and publishes all remaining packs.
+    //The refresh is run before sendResultsToDestination() is called, because the runnables passed to invokeLater() are run in order
+    @Override
+    public void completeResultStream()
+    {
+        List<Future<List<ImageSource>>> imageReadings;
+
+        synchronized(mapLock)
+        {
+            imageReadings = new ArrayList<>(mapSources.values());
+        }
+
+        for(Future<List<ImageSource>> imageReading : imageReadings)
+        {
+            getImagesAccompanyingMap(imageReading);
+        }
+
+        if(SwingUtilities.isEventDispatchThread())
+        {
+            refreshMaps();
+        }
+        else
+        {
+            scheduleMapRefresh();
+        }
     }
 
     @Override
     public void sendResultsToDestination()
     {        
-        destination.getResultBatchesCoordinator().countNewBatches(processedBatches.keySet());
+        Map<MapSource<?>, List<ImageSource>> allMapSources = new LinkedHashMap<>();
 
-        resultHandler.handlePublicationRequest(processedBatches.values());
-        mapSourceHandler.handlePublicationRequest(mapSources);
+        synchronized(mapLock)
+        {
+            for(Entry<MapSource<?>, Future<List<ImageSource>>> entry : mapSources.entrySet())
+            {
+                allMapSources.put(entry.getKey(), getImagesAccompanyingMap(entry.getValue()));
+            }
+        }
+
+        mapSourceHandler.handleSealingRequest(allMapSources.keySet());
+        mapSourceHandler.handlePublicationRequest(allMapSources);
         curveVisualizationHandler.handlePublicationRequest(allVisualizablePacks);
-        averagingHandler.handleAveragingRequest(processedBatches);
+        averagingHandler.handleAveragingRequest(averagedBatches);
     }
 
     @Override
@@ -157,12 +440,21 @@ public class SpectroscopyProcessingHandler implements ProcessingResultsHandler<S
     @Override
     public void reactToCancellation()
     {
+        cancelled = true;
         destination.withdrawPublication();
     }
 
     @Override
     public void endProcessing()
     {
+        synchronized(mapLock)
+        {
+            if(imageReadingExecutor != null)
+            {
+                imageReadingExecutor.shutdownNow();
+            }
+        }
+
         destination.endProcessing();
     }
 }
@@ -18,16 +18,21 @@
 
 package atomicJ.analysis;
 
+/*
+ * The VisualizableSpectroscopyPack is not kept, but built on each call of getVisualizablePack(), so that the batch processing 
+ * does not spend time and memory on charts of curves which are never shown, e.g. of most curves of a large map
+ */
+
 public final class SpectroscopyProcessingResult 
 {
     private final ProcessedSpectroscopyPack processed;
-    private final VisualizableSpectroscopyPack visualizable;
+    private final VisualizationSettings visSettings;
     private final MapProcessingSettings mapSettings;
 
-    public SpectroscopyProcessingResult(ProcessedSpectroscopyPack processed, VisualizableSpectroscopyPack visualizable, MapProcessingSettings mapSettings)
+    public SpectroscopyProcessingResult(ProcessedSpectroscopyPack processed, VisualizationSettings visSettings, MapProcessingSettings mapSettings)
     {
         this.processed = processed;
-        this.visualizable = visualizable;
+        this.visSettings = visSettings;
         this.mapSettings = mapSettings;
     }
 
@@ -36,9 +41,15 @@ public final class SpectroscopyProcessingResult
         return processed;
     }
 
+    public boolean isAnyResultToBeVisualized()
+    {
+        return visSettings.isAnyResultToBeVisualized();
+    }
+
+    //returns null if no chart is to be shown
     public VisualizableSpectroscopyPack getVisualizablePack()
     {
-        return visualizable;
+        return processed.visualize(visSettings);
     }
 
     public ProcessingSettings getProcessingSettings()
@@ -48,7 +59,7 @@ public final class SpectroscopyProcessingResult
 
     public VisualizationSettings getVisualizationSettings()
     {
-        return visualizable.getVisualizationSettings();
+        return visSettings;
     }
 
     public MapProcessingSettings getMapSettings()
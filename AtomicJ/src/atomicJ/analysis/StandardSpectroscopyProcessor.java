@@ -19,13 +19,14 @@
 package atomicJ.analysis;
 
 import java.awt.geom.Point2D;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 
 import atomicJ.analysis.indentation.ContactModel;
 import atomicJ.analysis.indentation.ContactModelFit;
 import atomicJ.curveProcessing.Channel1DDataTransformation;
-import atomicJ.curveProcessing.SortX1DTransformation;
+import atomicJ.curveProcessing.FusedPreprocessing1DTransformation;
 import atomicJ.data.Channel1D;
 import atomicJ.data.Channel1DData;
 import atomicJ.data.Channel1DStandard;
@@ -34,6 +35,7 @@ import atomicJ.data.IndentationCurve;
 import atomicJ.data.Point1DData;
 import atomicJ.data.PointwiseModulusCurve;
 import atomicJ.data.ProjectionConstraint1D;
+import atomicJ.data.Quantities;
 import atomicJ.data.SpectroscopyCurve;
 import atomicJ.gui.curveProcessing.LivePreviewPack;
 import atomicJ.sources.SimpleSpectroscopySource;
@@ -55,25 +57,11 @@ public final class StandardSpectroscopyProcessor implements Processor<Processabl
         ProcessingSettings settings = processable.getProcessingSettings();
         ContactEstimator estimator = processable.getContactEstimator();
 
-        double s = settings.getSensitivity();
         double springConstantSI = settings.getSpringConstant();
 
-        double springConstantNanoNewtonsPerMicron = 1000*springConstantSI;
-
         ContactModel model = settings.getContactModel();
 
-        SpectroscopyCurve<Channel1D> deflectionCurve = source.getRecordedDeflectionCurve(s, springConstantNanoNewtonsPerMicron);
-        Channel1D deflApproach = deflectionCurve.getApproach();
-        Channel1D deflWithdraw = deflectionCurve.getWithdraw();
-
-        Channel1DDataTransformation trimmer = settings.getTrimmer();
-
-        Channel1DData trimmedFittedBranchUnsorted = ForceCurveBranch.APPROACH.equals(settings.getFittedBranch()) ? trimmer.transform(deflApproach.getChannelData()) : trimmer.transform(deflWithdraw.getChannelData());
-
-        Channel1DData trimmedFittedBranch = new SortX1DTransformation(SortedArrayOrder.DESCENDING).transform(trimmedFittedBranchUnsorted);
-
-        Channel1DDataTransformation smoother = settings.getSmoother();
-        Channel1DData transformedFittedBranch = smoother.transform(trimmedFittedBranch);
+        Channel1DData transformedFittedBranch = prepareFittedDeflectionBranch(source, settings);
 
         Point2D recordingPoint = source.getRecordingPoint();
 
@@ -103,9 +91,42 @@ public final class StandardSpectroscopyProcessor implements Processor<Processabl
         return previewPack;
     }
 
+    //the fitted branch of the deflection curve, trimmed, sorted and smoothed as in process()
+    private static Channel1DData prepareFittedDeflectionBranch(SimpleSpectroscopySource source, ProcessingSettings settings)
+    {
+        double s = settings.getSensitivity();
+        double springConstantNanoNewtonsPerMicron = 1000*settings.getSpringConstant();
+
+        SpectroscopyCurve<Channel1D> recordedCurve = source.getRecordedCurve();
+        Channel1D recordedFittedBranch = ForceCurveBranch.APPROACH.equals(settings.getFittedBranch()) ? recordedCurve.getApproach() : recordedCurve.getWithdraw();
+
+        double deflectionFactor = source.getDeflectionConversionFactor(s, springConstantNanoNewtonsPerMicron);
+        Channel1DDataTransformation preprocessing = new FusedPreprocessing1DTransformation(deflectionFactor, Quantities.DEFLECTION_MICRONS, settings.getTrimmer(), SortedArrayOrder.DESCENDING);
+
+        Channel1DData trimmedFittedBranch = preprocessing.transform(recordedFittedBranch.getChannelData());
+
+        Channel1DDataTransformation smoother = settings.getSmoother();
+        Channel1DData transformedFittedBranch = smoother.transform(trimmedFittedBranch);
+
+        return transformedFittedBranch;
+    }
+
+    //used by compact ProcessedSpectroscopyPacks, which do not keep the fit, the contact point is the one estimated during processing
+    static ContactModelFit<?> fitContactModel(SimpleSpectroscopySource source, ProcessingSettings settings, double[] deflectionContactPoint)
+    {
+        Channel1DData transformedFittedBranch = prepareFittedDeflectionBranch(source, settings);
+
+        ContactModel model = settings.getContactModel();
+        ContactModelFit<?> modelFit = model.getModelFit(transformedFittedBranch, deflectionContactPoint, source.getRecordingPoint(), settings);
+
+        return modelFit;
+    }
+
     @Override
     public SpectroscopyProcessingResult process(ProcessableSpectroscopyPack processable)
     {
+        ProcessingStageRecorder recorder = ProcessingProfiler.PROCESSING_PROFILER.startRecording(processable.getBatchIdentityTag());
+
         SimpleSpectroscopySource source = processable.getSourceToProcess();
         ProcessingSettings settings = processable.getProcessingSettings();
 
@@ -120,62 +141,135 @@ public final class StandardSpectroscopyProcessor implements Processor<Processabl
 
         ContactModel model = settings.getContactModel();
 
-        SpectroscopyCurve<Channel1D> deflectionCurve = source.getRecordedDeflectionCurve(s, springConstantNanoNewtonsPerMicron);
-        SpectroscopyCurve<Channel1D> forceCurve = source.getRecordedForceCurve(s, springConstantNanoNewtonsPerMicron);
+        //stages already carried out with the same settings are taken from the cache, which is used only by recalculations
+        ProcessingStageCache.CurveStages cachedStages = processable.isStageCachingEnabled() ? ProcessingStageCache.PROCESSING_STAGE_CACHE.getStages(source) : null;
 
-        Channel1D deflApproach = deflectionCurve.getApproach();
-        Channel1D deflWithdraw = deflectionCurve.getWithdraw();
+        Channel1DDataTransformation trimmer = settings.getTrimmer();
+        Object trimmingKey = Arrays.asList(s, springConstant, source.getPhotodiodeSignalType(), settings.getFittedBranch(), trimmer);
 
-        Channel1D forceApproach = forceCurve.getApproach();
-        Channel1D forceWithdraw = forceCurve.getWithdraw();
+        Channel1DData[] trimmedBranches = (cachedStages != null) ? cachedStages.getTrimmedBranches(trimmingKey) : null;
 
-        Channel1DDataTransformation trimmer = settings.getTrimmer();
+        if(trimmedBranches == null)
+        {
+            //the recorded curve is scaled, trimmed and sorted in a single pass, instead of copying it for each of these steps
+            SpectroscopyCurve<Channel1D> recordedCurve = source.getRecordedCurve();
+
+            Channel1DData recordedApproach = recordedCurve.getApproach().getChannelData();
+            Channel1DData recordedWithdraw = recordedCurve.getWithdraw().getChannelData();
+
+            double forceFactor = source.getForceConversionFactor(s, springConstantNanoNewtonsPerMicron);
+            double deflectionFactor = source.getDeflectionConversionFactor(s, springConstantNanoNewtonsPerMicron);
+
+            Channel1DDataTransformation forcePreprocessing = new FusedPreprocessing1DTransformation(forceFactor, Quantities.FORCE_NANONEWTONS, trimmer, null);
+            Channel1DDataTransformation deflectionPreprocessing = new FusedPreprocessing1DTransformation(deflectionFactor, Quantities.DEFLECTION_MICRONS, trimmer, SortedArrayOrder.DESCENDING);
+
+            recorder.stageFinished(ProcessingStage.CURVE_PREPARATION);
+
+            Channel1DData trimmedForceApproach = forcePreprocessing.transform(recordedApproach);
+            Channel1DData trimmedForceWithdraw = forcePreprocessing.transform(recordedWithdraw);
 
-        Channel1DData trimmedForceApproach = trimmer.transform(forceApproach.getChannelData());
-        Channel1DData trimmedForceWithdraw = trimmer.transform(forceWithdraw.getChannelData());
+            Channel1DData trimmedFittedDeflectionBranch = ForceCurveBranch.APPROACH.equals(settings.getFittedBranch()) ? deflectionPreprocessing.transform(recordedApproach) : deflectionPreprocessing.transform(recordedWithdraw);
 
-        Channel1DData trimmedFittedDeflectionBranchUnsorted = ForceCurveBranch.APPROACH.equals(settings.getFittedBranch()) ? trimmer.transform(deflApproach.getChannelData()) : trimmer.transform(deflWithdraw.getChannelData());
+            //sorting is carried out together with trimming
+            recorder.stageFinished(ProcessingStage.TRIMMING);
+            recorder.stageFinished(ProcessingStage.SORTING);
 
-        Channel1DDataTransformation descendingSorter = new SortX1DTransformation(SortedArrayOrder.DESCENDING);
-        Channel1DData trimmedFittedDeflectionBranch = descendingSorter.transform(trimmedFittedDeflectionBranchUnsorted);                
+            trimmedBranches = new Channel1DData[] {trimmedForceApproach, trimmedForceWithdraw, trimmedFittedDeflectionBranch};
+
+            if(cachedStages != null)
+            {
+                cachedStages.setTrimmedBranches(trimmingKey, trimmedBranches);
+            }
+        }
+        else
+        {
+            recorder.stageFinished(ProcessingStage.CURVE_PREPARATION);
+            recorder.stageFinished(ProcessingStage.TRIMMING);
+            recorder.stageFinished(ProcessingStage.SORTING);
+        }
 
         Channel1DDataTransformation smoother = settings.getSmoother();
 
-        Channel1DData transformedForceApproach = smoother.transform(trimmedForceApproach);
-        Channel1DData transformedForceWithdraw = smoother.transform(trimmedForceWithdraw);
+        Channel1DData[] smoothedBranches = (cachedStages != null) ? cachedStages.getSmoothedBranches(trimmingKey, smoother) : null;
+
+        if(smoothedBranches == null)
+        {
+            smoothedBranches = new Channel1DData[trimmedBranches.length];
+
+            for(int i = 0; i < trimmedBranches.length; i++)
+            {
+                smoothedBranches[i] = smoother.transform(trimmedBranches[i]);
+            }
 
-        Channel1DData transformedFittedDeflectionBranch = smoother.transform(trimmedFittedDeflectionBranch);
+            if(cachedStages != null)
+            {
+                cachedStages.setSmoothedBranches(trimmingKey, smoother, smoothedBranches);
+            }
+        }
+
+        Channel1DData transformedForceApproach = smoothedBranches[0];
+        Channel1DData transformedForceWithdraw = smoothedBranches[1];
+        Channel1DData transformedFittedDeflectionBranch = smoothedBranches[2];
+
+        recorder.stageFinished(ProcessingStage.SMOOTHING);
 
         Point2D recordingPoint = source.getRecordingPoint();
 
-        double[] deflectionContactPointEstimated = contactEstimator.getContactPoint(transformedFittedDeflectionBranch, recordingPoint, springConstant);	
+        Object contactEstimationKey = Arrays.asList(contactEstimator, recordingPoint);
+        double[] deflectionContactPointEstimated = (cachedStages != null) ? cachedStages.getContactPoint(trimmingKey, smoother, contactEstimationKey) : null;
 
-        ContactModelFit<?> modelFit = model.getModelFit(transformedFittedDeflectionBranch, deflectionContactPointEstimated, recordingPoint, settings);
+        if(deflectionContactPointEstimated == null)
+        {
+            deflectionContactPointEstimated = contactEstimator.getContactPoint(transformedFittedDeflectionBranch, recordingPoint, springConstant);	
 
+            if(cachedStages != null)
+            {
+                cachedStages.setContactPoint(trimmingKey, smoother, contactEstimationKey, deflectionContactPointEstimated);
+            }
+        }
+
+        recorder.stageFinished(ProcessingStage.CONTACT_ESTIMATION);
+
+        ContactModelFit<?> modelFit = model.getModelFit(transformedFittedDeflectionBranch, deflectionContactPointEstimated, recordingPoint, settings);
 
         Point1DData indentationTansitionPoint = modelFit.getForceIndentationTransitionPoint();
         Point1DData maxDeformationPoint = modelFit.getMaximalDeformationPoint();
 
+        double youngModulus = modelFit.getYoungModulus();
+        double rSquared = settings.isCalculateRSquared() ? modelFit.getCoefficientOfDetermination() : Double.NaN;
+
+        recorder.stageFinished(ProcessingStage.MODEL_FIT);
+
         List<ForceEventEstimate> adhesionEvents = settings.isCalculateAdhesionForce() ? adhesionEstimator.getEventEstimates(transformedForceApproach, transformedForceWithdraw, Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY) : Collections.emptyList();
 
+        recorder.stageFinished(ProcessingStage.ADHESION_ESTIMATION);
+
         double mainAdhesionZ = !adhesionEvents.isEmpty() ? adhesionEvents.get(0).getEventData().getX(0) : Double.NEGATIVE_INFINITY;
         List<ForceEventEstimate > jumpEvents = jumpEstimator.getEventEstimates(transformedForceApproach, transformedForceWithdraw, Math.min(mainAdhesionZ, deflectionContactPointEstimated[0]), Double.POSITIVE_INFINITY);
 
+        recorder.stageFinished(ProcessingStage.JUMP_ESTIMATION);
+
         double z0 = deflectionContactPointEstimated[0];
         double d0 = deflectionContactPointEstimated[1];
         double F0 = springConstantNanoNewtonsPerMicron*d0;       
 
-        double rSquared = settings.isCalculateRSquared() ? modelFit.getCoefficientOfDetermination() : Double.NaN;
-        NumericalSpectroscopyProcessingResults numericalResults = new NumericalSpectroscopyProcessingResults(modelFit.getYoungModulus(), indentationTansitionPoint.getX(), indentationTansitionPoint.getY(), z0, d0, F0, adhesionEvents, jumpEvents, maxDeformationPoint.getX(), rSquared);	
+        NumericalSpectroscopyProcessingResults numericalResults = new NumericalSpectroscopyProcessingResults(youngModulus, indentationTansitionPoint.getX(), indentationTansitionPoint.getY(), z0, d0, F0, adhesionEvents, jumpEvents, maxDeformationPoint.getX(), rSquared);	
         ProcessedSpectroscopyPack processed = new ProcessedSpectroscopyPack(source, numericalResults, modelFit, contactEstimator, settings, processable.getBatchIdentityTag());
 
-        //builds VisualizablePack 
+        if(processable.isCompactResults())
+        {
+            processed.compact();
+        }
 
-        VisualizationSettings visSettings = processable.getVisualizationSettings();
-        VisualizableSpectroscopyPack visualizable = processed.visualize(visSettings);
+        //the VisualizablePack is not built here, but only when the curve is to be shown, see SpectroscopyProcessingResult
 
+        VisualizationSettings visSettings = processable.getVisualizationSettings();
         MapProcessingSettings mapSettings = processable.getMapSettings();
-        SpectroscopyProcessingResult result = new SpectroscopyProcessingResult(processed, visualizable, mapSettings);
+        SpectroscopyProcessingResult result = new SpectroscopyProcessingResult(processed, visSettings, mapSettings);
+
+        recorder.stageFinished(ProcessingStage.RESULT_ASSEMBLY);
+
+        recorder.finish();
 
         return result;
     }    
@@ -0,0 +1,36 @@
+
+/* 
+ * ===========================================================
+ * AtomicJ : a free application for analysis of AFM data
+ * ===========================================================
+ *
+ * (C) Copyright 2013-2022 by Paweł Hermanowicz
+ *
+ * 
+ * This program is free software; you can redistribute it and/or modify 
+ * it under the terms of the GNU General Public License as published by 
+ * the Free Software Foundation; either version 3 of the License, or (at your option) any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without 
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU 
+ * General Public License for more details.
+ * You should have received a copy of the GNU General Public License along with this program; if not, 
+ * see http://www.gnu.org/licenses/*/
+
+package atomicJ.analysis;
+
+import java.util.List;
+
+/**
+ * A ProcessingResultsHandler that accepts results in bounded batches while the processing is still running,
+ * instead of receiving all of them at once after the last problem is processed.
+ * 
+ * The methods acceptResultBatch() and completeResultStream() are called from the worker threads,
+ * but never concurrently. The batches are delivered in the order of the processed problems.
+ */
+
+public interface StreamingProcessingResultsHandler<Y> extends ProcessingResultsHandler<Y>
+{
+    public int getResultBatchSize();
+    public void acceptResultBatch(List<Y> results);
+    public void completeResultStream();
+}
@@ -0,0 +1,70 @@
+
+/* 
+ * ===========================================================
+ * AtomicJ : a free application for analysis of AFM data
+ * ===========================================================
+ *
+ * (C) Copyright 2013-2022 by Paweł Hermanowicz
+ *
+ * 
+ * This program is free software; you can redistribute it and/or modify 
+ * it under the terms of the GNU General Public License as published by 
+ * the Free Software Foundation; either version 3 of the License, or (at your option) any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without 
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU 
+ * General Public License for more details.
+ * You should have received a copy of the GNU General Public License along with this program; if not, 
+ * see http://www.gnu.org/licenses/*/
+
+package atomicJ.analysis;
+
+/**
+ * Determines how a concurrent task distributes its problems between worker threads.
+ *
+ * STATIC_PARTITION splits the problems into one contiguous sublist per thread before the computation starts.
+ * DYNAMIC_CHUNKS submits the problems in small chunks, which the threads take in order, so that
+ * threads that finish early keep working until the last problem is taken, which matters when
+ * the cost of a single problem varies a lot (e.g. force curves recorded on the substrate and on cells)
+ */
+
+public enum TaskSchedulingPolicy
+{
+    STATIC_PARTITION("Static partition"), DYNAMIC_CHUNKS("Dynamic chunks");
+
+    private final String prettyName;
+
+    TaskSchedulingPolicy(String prettyName)
+    {
+        this.prettyName = prettyName;
+    }
+
+    @Override
+    public String toString()
+    {
+        return prettyName;
+    }
+
+    public String getIdentifier()
+    {
+        return name();
+    }
+
+    public static TaskSchedulingPolicy getValue(String identifier, TaskSchedulingPolicy fallBackValue)
+    {
+        TaskSchedulingPolicy policy = fallBackValue;
+
+        if(identifier != null)
+        {
+            for(TaskSchedulingPolicy p : TaskSchedulingPolicy.values())
+            {
+                if(p.getIdentifier().equals(identifier))
+                {
+                    policy = p;
+                    break;
+                }
+            }
+        }
+
+        return policy;
+    }
+}
@@ -177,8 +177,8 @@ public abstract class AdhesiveContactModel implements ContactModel
         AdhesionEventEstimate adhesionEstimate = adhesionEstimator.getAdhesionEventEstimate(deflectionChannel);
         double baselineDeflection = adhesionEstimate.getLiftOffPoint().getY();
 
-        double[][] forceIndentationArry = getForceSeparationSeparateCoordinateArrays(deflectionChannel.getYCoordinates(),
-                deflectionChannel.getXCoordinates() , minIndent, maxIndent, 
+        double[][] forceIndentationArry = getForceSeparationSeparateCoordinateArrays(deflectionChannel.getYs(),
+                deflectionChannel.getXs() , minIndent, maxIndent, 
                 maxDeflection,contactIndex, n, zContact, dContact, baselineDeflection, springConstant);
 
         double[] indentationValues = forceIndentationArry[0];
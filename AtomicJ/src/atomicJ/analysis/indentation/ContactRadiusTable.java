@@ -0,0 +1,347 @@
+
+/* 
+ * ===========================================================
+ * AtomicJ : a free application for analysis of AFM data
+ * ===========================================================
+ *
+ * (C) Copyright 2013-2022 by Paweł Hermanowicz
+ *
+ * 
+ * This program is free software; you can redistribute it and/or modify 
+ * it under the terms of the GNU General Public License as published by 
+ * the Free Software Foundation; either version 3 of the License, or (at your option) any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without 
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU 
+ * General Public License for more details.
+ * You should have received a copy of the GNU General Public License along with this program; if not, 
+ * see http://www.gnu.org/licenses/*/
+
+package atomicJ.analysis.indentation;
+
+import java.util.Arrays;
+
+import org.apache.commons.math3.analysis.UnivariateFunction;
+import org.apache.commons.math3.analysis.solvers.BrentSolver;
+
+/*
+ * Contact radius as a function of the indentation, for the indenters whose indentation is given explicitly by the contact radius, so that the contact radius
+ * would have to be found by a root solver for every indentation value. The radii are tabulated against the square root of the indentation, which makes the tabulated function smooth
+ * also when the radius grows as the square root of the indentation, and are interpolated by the monotone cubic Hermite spline of Fritsch and Carlson. The nodes are added by bisection
+ * until the interpolated radius differs from the exact one by less than the tolerance at the midpoints of all intervals, where the exact radius is known, because the indentation is found from it.
+ * If the number of nodes reaches its limit before that, which may happen near a singularity of the indentation function, the intervals which still exceed the tolerance are recorded,
+ * and the radii for the indentations within them are found by the Brent solver, bracketed by the nodes of the interval, instead of being interpolated.
+ * The table is built when the first contact radius is requested, and extended when a larger indentation is requested. Each extension replaces the whole immutable set of nodes, so the table can be shared by the threads which process different curves.
+ */
+
+public class ContactRadiusTable
+{
+    private static final double RELATIVE_TOLERANCE = 1e-10;
+    private static final double ABSOLUTE_TOLERANCE = 1e-12;
+    private static final int INITIAL_INTERVAL_COUNT = 32;
+    private static final int MAX_NODE_COUNT = 1 << 16;
+    private static final int MAX_EXTENSION_COUNT = 40;
+    private static final int MAX_SOLVER_EVALUATION_COUNT = 5000;
+
+    private final UnivariateFunction indentationFunction;
+    private final double minRadius;
+    private final double initialMaxRadius;
+    private final double radiusLimit;
+
+    private volatile Nodes nodes;
+
+    //the indentation function should increase with the contact radius between the minimal radius and the limit, which may be infinite
+    public ContactRadiusTable(UnivariateFunction indentationFunction, double minRadius, double initialMaxRadius, double radiusLimit)
+    {
+        if(!(minRadius < initialMaxRadius && initialMaxRadius < radiusLimit))
+        {
+            throw new IllegalArgumentException("The radii should satisfy minRadius < initialMaxRadius < radiusLimit");
+        }
+
+        this.indentationFunction = indentationFunction;
+        this.minRadius = minRadius;
+        this.initialMaxRadius = initialMaxRadius;
+        this.radiusLimit = radiusLimit;
+    }
+
+    //returns NaN if the indentation is smaller than the indentation at the minimal radius, or if the table cannot be extended to the indentation
+    public double getContactRadius(double indentation)
+    {
+        Nodes current = nodes;
+
+        if(current == null || indentation > current.getMaxIndentation())
+        {
+            current = extend(indentation);
+        }
+
+        int unconvergedInterval = current.getUnconvergedInterval(indentation);
+        if(unconvergedInterval >= 0)
+        {
+            return solve(indentation, current.radii[unconvergedInterval], current.radii[unconvergedInterval + 1]);
+        }
+
+        return current.interpolate(indentation);
+    }
+
+    private double solve(final double indentation, double minRadius, double maxRadius)
+    {
+        UnivariateFunction function = new UnivariateFunction() 
+        {            
+            @Override
+            public double value(double contactRadius) 
+            {
+                return indentationFunction.value(contactRadius) - indentation;
+            }
+        };
+
+        double minValue = function.value(minRadius);
+        double maxValue = function.value(maxRadius);
+
+        //the nodes may fail to bracket the root only because of the rounding of the tabulated indentations, so the root is then at one of the nodes
+        if(minValue*maxValue > 0)
+        {
+            return Math.abs(minValue) < Math.abs(maxValue) ? minRadius : maxRadius;
+        }
+
+        BrentSolver solver = new BrentSolver(RELATIVE_TOLERANCE, ABSOLUTE_TOLERANCE);
+        return solver.solve(MAX_SOLVER_EVALUATION_COUNT, function, minRadius, maxRadius);
+    }
+
+    private synchronized Nodes extend(double indentation)
+    {
+        Nodes current = nodes;
+
+        double maxRadius = (current != null) ? current.getMaxRadius() : initialMaxRadius;
+        int extensionCount = 0;
+
+        while(indentationFunction.value(maxRadius) < indentation && extensionCount < MAX_EXTENSION_COUNT)
+        {
+            maxRadius = Double.isInfinite(radiusLimit) ? minRadius + 2*(maxRadius - minRadius) : maxRadius + 0.5*(radiusLimit - maxRadius);
+            extensionCount++;
+        }
+
+        if(current == null || maxRadius > current.getMaxRadius())
+        {
+            current = buildNodes(maxRadius);
+            this.nodes = current;
+        }
+
+        return current;
+    }
+
+    private Nodes buildNodes(double maxRadius)
+    {
+        double[] radii = new double[INITIAL_INTERVAL_COUNT + 1];
+        for(int i = 0; i <= INITIAL_INTERVAL_COUNT; i++)
+        {
+            radii[i] = minRadius + i*(maxRadius - minRadius)/INITIAL_INTERVAL_COUNT;
+        }
+
+        while(true)
+        {
+            Nodes candidate = new Nodes(radii, getRootIndentations(radii));
+
+            int n = radii.length;
+            boolean[] refined = new boolean[n - 1];
+            int refinedCount = 0;
+
+            for(int i = 0; i < n - 1; i++)
+            {
+                double midRadius = 0.5*(radii[i] + radii[i + 1]);
+                double error = Math.abs(candidate.interpolate(indentationFunction.value(midRadius)) - midRadius);
+
+                if(!(error <= RELATIVE_TOLERANCE*midRadius + ABSOLUTE_TOLERANCE))
+                {
+                    refined[i] = true;
+                    refinedCount++;
+                }
+            }
+
+            if(refinedCount == 0)
+            {
+                return candidate;
+            }
+
+            if(n + refinedCount > MAX_NODE_COUNT)
+            {
+                return new Nodes(candidate, refined);
+            }
+
+            double[] refinedRadii = new double[n + refinedCount];
+            int j = 0;
+            for(int i = 0; i < n - 1; i++)
+            {
+                refinedRadii[j++] = radii[i];
+                if(refined[i])
+                {
+                    refinedRadii[j++] = 0.5*(radii[i] + radii[i + 1]);
+                }
+            }
+            refinedRadii[j] = radii[n - 1];
+
+            radii = refinedRadii;
+        }
+    }
+
+    private double[] getRootIndentations(double[] radii)
+    {
+        int n = radii.length;
+        double[] rootIndentations = new double[n];
+
+        for(int i = 0; i < n; i++)
+        {
+            rootIndentations[i] = Math.sqrt(Math.max(0, indentationFunction.value(radii[i])));
+        }
+
+        return rootIndentations;
+    }
+
+    private static class Nodes
+    {
+        private final double[] radii;
+        private final double[] rootIndentations;
+        private final double[] slopes;
+        //null if all intervals meet the tolerance
+        private final boolean[] unconverged;
+
+        private Nodes(double[] radii, double[] rootIndentations)
+        {
+            this.radii = radii;
+            this.rootIndentations = rootIndentations;
+            this.slopes = getMonotoneSlopes(rootIndentations, radii);
+            this.unconverged = null;
+        }
+
+        private Nodes(Nodes nodes, boolean[] unconverged)
+        {
+            this.radii = nodes.radii;
+            this.rootIndentations = nodes.rootIndentations;
+            this.slopes = nodes.slopes;
+            this.unconverged = unconverged;
+        }
+
+        private double getMaxRadius()
+        {
+            return radii[radii.length - 1];
+        }
+
+        private double getMaxIndentation()
+        {
+            double maxRootIndentation = rootIndentations[rootIndentations.length - 1];
+            return maxRootIndentation*maxRootIndentation;
+        }
+
+        //returns the index of the interval which contains the indentation, if this interval does not meet the tolerance, and -1 otherwise
+        private int getUnconvergedInterval(double indentation)
+        {
+            if(unconverged == null || !(indentation >= 0))
+            {
+                return -1;
+            }
+
+            double t = Math.sqrt(indentation);
+
+            int n = rootIndentations.length;
+
+            if(t < rootIndentations[0] || t > rootIndentations[n - 1])
+            {
+                return -1;
+            }
+
+            int index = Arrays.binarySearch(rootIndentations, t);
+            if(index >= 0)
+            {
+                return -1;
+            }
+
+            int i = -index - 2;
+
+            return unconverged[i] ? i : -1;
+        }
+
+        private double interpolate(double indentation)
+        {
+            if(!(indentation >= 0))
+            {
+                return Double.NaN;
+            }
+
+            double t = Math.sqrt(indentation);
+
+            int n = rootIndentations.length;
+
+            if(t < rootIndentations[0] || t > rootIndentations[n - 1])
+            {
+                return Double.NaN;
+            }
+
+            int index = Arrays.binarySearch(rootIndentations, t);
+            if(index >= 0)
+            {
+                return radii[index];
+            }
+
+            int i = -index - 2;
+
+            double h = rootIndentations[i + 1] - rootIndentations[i];
+            double s = (t - rootIndentations[i])/h;
+            double s2 = s*s;
+            double s3 = s2*s;
+
+            double h00 = 2*s3 - 3*s2 + 1;
+            double h10 = s3 - 2*s2 + s;
+            double h01 = -2*s3 + 3*s2;
+            double h11 = s3 - s2;
+
+            return h00*radii[i] + h10*h*slopes[i] + h01*radii[i + 1] + h11*h*slopes[i + 1];
+        }
+
+        private static double[] getMonotoneSlopes(double[] xs, double[] ys)
+        {
+            int n = xs.length;
+            double[] secants = new double[n - 1];
+
+            for(int i = 0; i < n - 1; i++)
+            {
+                secants[i] = (ys[i + 1] - ys[i])/(xs[i + 1] - xs[i]);
+            }
+
+            double[] slopes = new double[n];
+            slopes[0] = secants[0];
+            slopes[n - 1] = secants[n - 2];
+
+            for(int i = 1; i < n - 1; i++)
+            {
+                double hPrevious = xs[i] - xs[i - 1];
+                double hNext = xs[i + 1] - xs[i];
+
+                slopes[i] = (secants[i - 1]*secants[i] <= 0) ? 0 : (hNext*secants[i - 1] + hPrevious*secants[i])/(hPrevious + hNext);
+            }
+
+            //the Fritsch - Carlson condition, which keeps the interpolant monotone in each interval
+            for(int i = 0; i < n - 1; i++)
+            {
+                double secant = secants[i];
+
+                if(secant == 0)
+                {
+                    slopes[i] = 0;
+                    slopes[i + 1] = 0;
+                    continue;
+                }
+
+                double alpha = slopes[i]/secant;
+                double beta = slopes[i + 1]/secant;
+                double norm = alpha*alpha + beta*beta;
+
+                if(norm > 9)
+                {
+                    double tau = 3/Math.sqrt(norm);
+                    slopes[i] = tau*alpha*secant;
+                    slopes[i + 1] = tau*beta*secant;
+                }
+            }
+
+            return slopes;
+        }
+    }
+}
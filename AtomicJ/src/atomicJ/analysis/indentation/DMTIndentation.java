@@ -444,8 +444,8 @@ public class DMTIndentation extends AdhesiveContactModel
 
         private DMTIndentationSearchAssistant(Channel1DData curveBranch, Point2D recordingPosition)
         {
-            this.zValues = curveBranch.getXCoordinates();
-            this.dValues = curveBranch.getYCoordinates();
+            this.zValues = curveBranch.getXs();
+            this.dValues = curveBranch.getYs();
 
             this.recordingPosition = recordingPosition;
 
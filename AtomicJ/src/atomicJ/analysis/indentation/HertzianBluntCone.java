@@ -22,7 +22,6 @@ import java.awt.geom.Point2D;
 
 import org.apache.commons.math3.analysis.UnivariateFunction;
 import org.apache.commons.math3.analysis.solvers.BrentSolver;
-import org.apache.commons.math3.analysis.solvers.UnivariateSolver;
 
 import atomicJ.analysis.ForceContourStackFunction;
 import atomicJ.analysis.PrecontactInteractionsModel;
@@ -52,6 +51,8 @@ public class HertzianBluntCone extends HertzianContactModel
 
     private final double modelSwitch;
 
+    private final ContactRadiusTable contactRadiusTable;
+
     public HertzianBluntCone(BluntConeWithSphericalCap indenter, SampleModel sample, PrecontactInteractionsModel precontactModel)
     {
         super(precontactModel);
@@ -69,6 +70,15 @@ public class HertzianBluntCone extends HertzianContactModel
         this.b = indenter.getTransitionRadius();
 
         this.modelSwitch = b*b/R;
+
+        this.contactRadiusTable = new ContactRadiusTable(new UnivariateFunction()
+        {
+            @Override
+            public double value(double contactRadius)
+            {
+                return getIndentation(contactRadius);
+            }
+        }, b, b + R, Double.POSITIVE_INFINITY);
     }
 
     @Override
@@ -110,10 +120,7 @@ public class HertzianBluntCone extends HertzianContactModel
             double max = b + (indent - R + Math.sqrt(R*R - b*b))/cotTheta;
             //double startValue = -up*(Math.sqrt(up*up - b*b) - up)/R + cotTheta*up*(Math.PI/2 - Math.asin(b/up)) - indent;
 
-            ContactDepthFunction funct = new ContactDepthFunction(indent);
-            UnivariateSolver solver = new BrentSolver();
-
-            double a = solver.solve(5000, funct, b, max);
+            double a = findContactRadius(indent, b, max);
 
             coefficient = 2*poissonFactor*(a*indent - 0.5*a*a*cotTheta*(0.5*Math.PI - Math.asin(b/a)) - a*a*a/(3*R) + Math.sqrt(a*a - b*b)
             *(0.5*b*cotTheta + (a*a - b*b)/(3*R)));                
@@ -200,13 +207,31 @@ public class HertzianBluntCone extends HertzianContactModel
         {
             double startValue = b + (indent - R + Math.sqrt(R*R - b*b))/cotTheta;
 
-            ContactDepthFunction f = new ContactDepthFunction(indent);
+            contactRadius = findContactRadius(indent, b, startValue);
+        }
+
+        return contactRadius; 
+    }
+
+    public double getIndentation(double contactRadius)
+    {
+        double a = contactRadius;
+        double indent = a*cotTheta*(0.5*Math.PI - Math.asin(b/a)) - a*((Math.sqrt(a*a - b*b) - a)/R);
+        return indent;
+    }
+
+    //the contact radius is interpolated from the table, which is shared by all curves, the root solver is used only for the indentations outside the table
+    private double findContactRadius(double indent, double min, double max)
+    {
+        double contactRadius = contactRadiusTable.getContactRadius(indent);
 
+        if(Double.isNaN(contactRadius))
+        {
             BrentSolver solver = new BrentSolver(1e-12);
-            contactRadius = solver.solve(5000, f,  b, startValue);  
+            contactRadius = solver.solve(5000, new ContactDepthFunction(indent), min, max);
         }
 
-        return contactRadius; 
+        return contactRadius;
     }
 
     public class ContactDepthFunction implements UnivariateFunction
@@ -221,7 +246,7 @@ public class HertzianBluntCone extends HertzianContactModel
         @Override
         public double value(double a) 
         {           
-            double val = indent + a*((Math.sqrt(a*a - b*b) - a)/R) - a*cotTheta*(0.5*Math.PI - Math.asin(b/a));
+            double val = indent - getIndentation(a);
             return val;
         }       
     }
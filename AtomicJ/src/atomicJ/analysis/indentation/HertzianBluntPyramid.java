@@ -53,6 +53,8 @@ public class HertzianBluntPyramid extends HertzianContactModel
 
     private final double modelSwitch;
 
+    private final ContactRadiusTable contactRadiusTable;
+
     public HertzianBluntPyramid(BluntPyramid indenter, SampleModel sample, PrecontactInteractionsModel precontactModel)
     {
         super(precontactModel);
@@ -73,7 +75,16 @@ public class HertzianBluntPyramid extends HertzianContactModel
         this.modelSwitch = b*b/R;
 
         this.m = Math.sqrt(2)/Math.PI;
-        this.n = Math.sqrt(2)*2/Math.PI;       
+        this.n = Math.sqrt(2)*2/Math.PI;
+
+        this.contactRadiusTable = new ContactRadiusTable(new UnivariateFunction()
+        {
+            @Override
+            public double value(double contactRadius)
+            {
+                return getIndentation(contactRadius);
+            }
+        }, b, b + R, Double.POSITIVE_INFINITY);
     }   
 
     @Override
@@ -113,10 +124,7 @@ public class HertzianBluntPyramid extends HertzianContactModel
         {
             double startValue = b + (indentation - R + Math.sqrt(R*R - b*b))/cotTheta;
 
-            ContactDepthFunction funct = new ContactDepthFunction(indentation);
-            BrentSolver solver = new BrentSolver(1e-12);
-
-            double a = solver.solve(5000, funct, b, startValue);
+            double a = findContactRadius(indentation, b, startValue);
 
             coefficient = 2*poissonFactor*(a*indentation - m*a*a*cotTheta*(0.5*Math.PI - Math.asin(b/a)) - a*a*a/(3*R) + Math.sqrt(a*a - b*b)
             *(m*b*cotTheta + (a*a - b*b)/(3*R)));                
@@ -171,13 +179,31 @@ public class HertzianBluntPyramid extends HertzianContactModel
         {
             double startValue = b + (indent - R + Math.sqrt(R*R - b*b))/cotTheta;
 
-            ContactDepthFunction f = new ContactDepthFunction(indent);
+            contactRadius = findContactRadius(indent, b, startValue);
+        }
+
+        return contactRadius; 
+    }
+
+    public double getIndentation(double contactRadius)
+    {
+        double a = contactRadius;
+        double indent = a*n*cotTheta*(0.5*Math.PI - Math.asin(b/a)) - a*((Math.sqrt(a*a - b*b) - a)/R);
+        return indent;
+    }
+
+    //the contact radius is interpolated from the table, which is shared by all curves, the root solver is used only for the indentations outside the table
+    private double findContactRadius(double indent, double min, double max)
+    {
+        double contactRadius = contactRadiusTable.getContactRadius(indent);
 
+        if(Double.isNaN(contactRadius))
+        {
             BrentSolver solver = new BrentSolver(1e-12);
-            contactRadius = solver.solve(5000, f,  b, startValue);  
+            contactRadius = solver.solve(5000, new ContactDepthFunction(indent), min, max);
         }
 
-        return contactRadius; 
+        return contactRadius;
     }
 
     private class ContactDepthFunction implements UnivariateFunction
@@ -192,7 +218,7 @@ public class HertzianBluntPyramid extends HertzianContactModel
         @Override
         public double value(double a) 
         {           
-            double val = indent + a*((Math.sqrt(a*a - b*b) - a)/R) - a*n*cotTheta*(0.5*Math.PI - Math.asin(b/a));
+            double val = indent - getIndentation(a);
             return val;
         }       
     }
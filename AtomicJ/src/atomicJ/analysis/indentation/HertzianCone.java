@@ -66,6 +66,19 @@ public class HertzianCone extends HertzianLinearContactModel
         return sample;
     }
 
+    @Override
+    public double getForceIndentationExponent()
+    {
+        return 2;
+    }
+
+    @Override
+    public double getForceIndentationCoefficient(double youngModulus)
+    {
+        double v = sample.getPoissonRatio();
+        return (2*youngModulus*Math.tan(indenter.getHalfAngle()))/(PI*(1 - v*v));
+    }
+
     private double[] transformIndentationData(double[] indentationValues)
     {
         int n = indentationValues.length;
@@ -79,6 +92,13 @@ public class HertzianCone extends HertzianLinearContactModel
         return indentationValues; 
     }
 
+    //the postcontact fit has a free coefficient, so the contact point depends only on the exponent
+    @Override
+    public Object getContactEstimationKey()
+    {
+        return new PowerLawContactEstimationKey(2, getPrecontactModel());
+    }
+
     @Override
     public double getPostcontactObjectiveFunctionMinimum(double[] postcontactForceSeparationYs, double[] postcontactForceSeparationXs, Point2D recordingPoint, RegressionStrategy regressionStrategy)
     {
@@ -127,23 +147,18 @@ public class HertzianCone extends HertzianLinearContactModel
         @Override
         public double getYoungModulus() 
         {
-            Cone cone = getContactModel().getIndenter();
-            double v = getContactModel().getSampleModel().getPoissonRatio();
-            double angle = cone.getHalfAngle();
+            HertzianCone model = getContactModel();
 
-            double a = getFittedFunction().getCoefficient(Double.valueOf(2));    
-            return (PI * a*(1 - v*v))/(2*Math.tan(angle));          
+            double a = getFittedFunction().getCoefficient(model.getForceIndentationExponent());    
+            return a/model.getForceIndentationCoefficient(1);          
         }
 
         @Override
         public double getPointwiseModulus(double indentation, double force) 
         {
-            Cone cone = getContactModel().getIndenter();
-
-            double v = getContactModel().getSampleModel().getPoissonRatio();
-            double angle = cone.getHalfAngle();
+            HertzianCone model = getContactModel();
 
-            double modulus = (PI * force * (1 - v*v))/(2*Math.pow(indentation,2)*Math.tan(angle));
+            double modulus = force/(model.getForceIndentationCoefficient(1)*Math.pow(indentation, model.getForceIndentationExponent()));
             return modulus;
         }        
     }
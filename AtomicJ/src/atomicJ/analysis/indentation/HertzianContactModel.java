@@ -7,6 +7,7 @@ import java.util.List;
 
 import org.apache.commons.math3.analysis.UnivariateFunction;
 
+import atomicJ.analysis.BasicPrecontactInteractionsModel;
 import atomicJ.analysis.PrecontactInteractionsModel;
 import atomicJ.analysis.ProcessedPackFunction;
 import atomicJ.analysis.ProcessedSpectroscopyPack;
@@ -35,6 +36,11 @@ public abstract class HertzianContactModel implements ContactModel
         this.precontactModel = precontactModel;
     }
 
+    protected PrecontactInteractionsModel getPrecontactModel()
+    {
+        return precontactModel;
+    }
+
     @Override
     public IndexRange getRangeOfValidTrialContactPointIndices(Channel1DData deflectionChannel, Point2D recordingPoint, double springConstant)
     {
@@ -44,7 +50,17 @@ public abstract class HertzianContactModel implements ContactModel
     @Override
     public SequentialSearchAssistant getSequentialSearchAssistant(Channel1DData curveBranch, Point2D recordingPosition, double springConstant)
     {
-        return new HerziantIndentationSearchAssistant(curveBranch, recordingPosition);
+        SequentialSearchAssistant assistant = new HerziantIndentationSearchAssistant(curveBranch, recordingPosition);
+
+        Object contactEstimationKey = getContactEstimationKey();
+
+        if(contactEstimationKey instanceof PowerLawContactEstimationKey && precontactModel instanceof BasicPrecontactInteractionsModel)
+        {
+            double exponent = ((PowerLawContactEstimationKey)contactEstimationKey).getExponent();
+            return new PowerLawIndentationSearchAssistant(curveBranch, exponent, (BasicPrecontactInteractionsModel)precontactModel, assistant);
+        }
+
+        return assistant;
     }
 
     @Override
@@ -187,7 +203,7 @@ public abstract class HertzianContactModel implements ContactModel
         //czyli smaller or equal, czyli po stronie in-contact
         int contactIndex = deflectionChannel.getIndexOfGreatestXSmallerOrEqualTo(zContact);
 
-        double[][] forceIndentationArray = getForceSeparationSeparateCoordinateArrays(deflectionChannel.getYCoordinates(), deflectionChannel.getXCoordinates(), minIndent, maxIndent, 
+        double[][] forceIndentationArray = getForceSeparationSeparateCoordinateArrays(deflectionChannel.getYs(), deflectionChannel.getXs(), minIndent, maxIndent, 
                 maxDeflection,contactIndex, n, zContact, dContact, springConstant);
 
         double[] indentationValues = forceIndentationArray[0];
@@ -433,6 +449,49 @@ public abstract class HertzianContactModel implements ContactModel
         }
     }
 
+    //key of the contact estimation for models whose postcontact objective function is the residual of a through origin fit of the force
+    //to a power of the indentation, so that it does not depend on the tip dimensions nor on the sample
+    protected static final class PowerLawContactEstimationKey
+    {
+        private final double exponent;
+        private final PrecontactInteractionsModel precontactModel;
+
+        public PowerLawContactEstimationKey(double exponent, PrecontactInteractionsModel precontactModel)
+        {
+            this.exponent = exponent;
+            this.precontactModel = precontactModel;
+        }
+
+        public double getExponent()
+        {
+            return exponent;
+        }
+
+        @Override
+        public int hashCode()
+        {
+            int result = 17;
+
+            result = 31*result + Double.hashCode(exponent);
+            result = 31*result + precontactModel.hashCode();
+
+            return result;
+        }
+
+        @Override
+        public boolean equals(Object other)
+        {
+            if(other instanceof PowerLawContactEstimationKey)
+            {
+                PowerLawContactEstimationKey that = (PowerLawContactEstimationKey)other;
+
+                return Double.compare(this.exponent, that.exponent) == 0 && this.precontactModel.equals(that.precontactModel);
+            }
+
+            return false;
+        }
+    }
+
     private class HerziantIndentationSearchAssistant implements SequentialSearchAssistant
     {
         private final Point2D recordingPosition;
@@ -441,8 +500,8 @@ public abstract class HertzianContactModel implements ContactModel
 
         private HerziantIndentationSearchAssistant(Channel1DData curveBranch, Point2D recordingPosition)
         {
-            this.zValues = curveBranch.getXCoordinates();
-            this.deflectionValues = curveBranch.getYCoordinates();
+            this.zValues = curveBranch.getXs();
+            this.deflectionValues = curveBranch.getYs();
             this.recordingPosition = recordingPosition;
         }
 
@@ -50,6 +50,8 @@ public class HertzianHyperboloid extends HertzianContactModel
     private final double cotAngle;
     private final double radius;
 
+    private final ContactRadiusTable contactRadiusTable;
+
     public HertzianHyperboloid(Hyperboloid indenter, SampleModel sample, PrecontactInteractionsModel precontactModel)
     {
         super(precontactModel);
@@ -63,6 +65,15 @@ public class HertzianHyperboloid extends HertzianContactModel
         cotAngle = 1./Math.tan(angle);
 
         radius = indenter.getRadius();
+
+        this.contactRadiusTable = new ContactRadiusTable(new UnivariateFunction()
+        {
+            @Override
+            public double value(double contactRadius)
+            {
+                return getIndentation(contactRadius);
+            }
+        }, 0, radius + TOLERANCE, Double.POSITIVE_INFINITY);
     }
 
     @Override
@@ -141,13 +152,31 @@ public class HertzianHyperboloid extends HertzianContactModel
         {
             double startValue = Math.sqrt(indent)*Math.sqrt(indent + 2*radius*cotAngle*cotAngle)/cotAngle;
 
-            HertzianHyperboloidContactRadiusVsIndentationFunction f = new HertzianHyperboloidContactRadiusVsIndentationFunction(indent);
+            contactRadius = findContactRadius(indent, 0, startValue);
+        }
+
+        return contactRadius; 
+    }
+
+    public double getIndentation(double contactRadius)
+    {
+        double a = contactRadius;
+        double indent = 0.5*a*cotAngle*(0.5*Math.PI + Math.atan(0.5*(a/(radius*cotAngle) - (radius * cotAngle)/a)));
+        return indent;
+    }
+
+    //the contact radius is interpolated from the table, which is shared by all curves, the root solver is used only for the indentations outside the table
+    private double findContactRadius(double indent, double min, double max)
+    {
+        double contactRadius = contactRadiusTable.getContactRadius(indent);
 
+        if(Double.isNaN(contactRadius))
+        {
             BrentSolver solver = new BrentSolver(1e-12);
-            contactRadius = solver.solve(5000, f,  0, startValue);  
+            contactRadius = solver.solve(5000, new HertzianHyperboloidContactRadiusVsIndentationFunction(indent), min, max);
         }
 
-        return contactRadius; 
+        return contactRadius;
     }
 
     public class HertzianHyperboloidContactRadiusVsIndentationFunction implements UnivariateDifferentiableFunction
@@ -162,7 +191,7 @@ public class HertzianHyperboloid extends HertzianContactModel
         @Override
         public double value(double a) 
         {             
-            double val = 0.5*a*cotAngle*(0.5*Math.PI + Math.atan(0.5*(a/(radius*cotAngle) - (radius * cotAngle)/a))) - indent;
+            double val = getIndentation(a) - indent;
             return val;
         }
 
@@ -181,10 +210,7 @@ public class HertzianHyperboloid extends HertzianContactModel
         if(indent>TOLERANCE)
         {
             double startValue = Math.sqrt(indent)*Math.sqrt(indent + 2*radius*cotAngle*cotAngle)/cotAngle;
-            HertzianHyperboloidContactRadiusVsIndentationFunction funct = new HertzianHyperboloidContactRadiusVsIndentationFunction(indent);
-            BrentSolver solver = new BrentSolver(1e-12);
-
-            double a = solver.solve(5000, funct,  0, startValue);
+            double a = findContactRadius(indent, 0, startValue);
 
             coefficient = poissonFactor*a*a*cotAngle*(radius*cotAngle/a + 0.5*(1 - radius*radius*cotAngle*cotAngle/(a*a))
                     *(0.5*Math.PI + Math.atan(0.5*a/(radius*cotAngle) - 0.5*radius*cotAngle/a)));        
@@ -37,6 +37,10 @@ public abstract class HertzianLinearContactModel extends HertzianContactModel
         super(precontactModel);
     }
 
+    //the force - indentation relation of the model is F = a*h^exponent, where the coefficient a is proportional to the Young's modulus
+    public abstract double getForceIndentationExponent();
+    public abstract double getForceIndentationCoefficient(double youngModulus);
+
     protected abstract LinearRegressionEsimator getLinearRegression(double[][] forceIndentation, RegressionStrategy regressionStrategy, Point2D recordingPoint);   
     protected abstract FittedLinearUnivariateFunction getFittedFunction(double[][] forceIndentation, RegressionStrategy regressionStrategy, Point2D recordingPoint);   
     protected abstract FittedLinearUnivariateFunction getFittedFunction(double[] forceIndentationYs, double[] forceIndentationXs, RegressionStrategy regressionStrategy, Point2D recordingPoint);   
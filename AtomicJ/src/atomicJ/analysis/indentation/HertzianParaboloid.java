@@ -66,6 +66,19 @@ public class HertzianParaboloid extends HertzianLinearContactModel
         return sample;
     }  
 
+    @Override
+    public double getForceIndentationExponent()
+    {
+        return 1.5;
+    }
+
+    @Override
+    public double getForceIndentationCoefficient(double youngModulus)
+    {
+        double v = sample.getPoissonRatio();
+        return (4.*youngModulus*Math.sqrt(indenter.getRadius()))/(3.*(1 - v*v));
+    }
+
     private double[] transformIndentationData(double[] indenationValues, Point2D recordingPoint)
     {
         int n = indenationValues.length;
@@ -80,6 +93,13 @@ public class HertzianParaboloid extends HertzianLinearContactModel
     }
 
 
+    //the postcontact fit has a free coefficient, so the contact point depends only on the exponent
+    @Override
+    public Object getContactEstimationKey()
+    {
+        return new PowerLawContactEstimationKey(1.5, getPrecontactModel());
+    }
+
     @Override
     public double getPostcontactObjectiveFunctionMinimum(double[] postcontactForceSeparationYs, double[] postcontactForceSeparationXs, Point2D recordingPoint, RegressionStrategy regressionStrategy)
     {
@@ -127,12 +147,10 @@ public class HertzianParaboloid extends HertzianLinearContactModel
         @Override
         public double getYoungModulus() 
         {
-            Sphere sphere =  getContactModel().getIndenter();
-            double v = getContactModel().getSampleModel().getPoissonRatio();
-            double r = sphere.getRadius();
+            HertzianParaboloid model = getContactModel();
 
-            double a = getFittedFunction().getCoefficient(1.5);    
-            double modulus = (3.*a*(1 - v*v))/(4.*Math.sqrt(r));  
+            double a = getFittedFunction().getCoefficient(model.getForceIndentationExponent());    
+            double modulus = a/model.getForceIndentationCoefficient(1);  
 
             return modulus;
         }
@@ -140,11 +158,9 @@ public class HertzianParaboloid extends HertzianLinearContactModel
         @Override
         public double getPointwiseModulus(double indentation, double force) 
         {
-            Sphere cone = getContactModel().getIndenter();           
-            double v = getContactModel().getSampleModel().getPoissonRatio();
-            double R = cone.getRadius();
+            HertzianParaboloid model = getContactModel();
 
-            double modulus = (3*force*(1 - v*v))/(4*Math.sqrt(R)*Math.pow(indentation,1.5));
+            double modulus = force/(model.getForceIndentationCoefficient(1)*Math.pow(indentation, model.getForceIndentationExponent()));
             return modulus;
         }        
     }
@@ -77,6 +77,19 @@ public class HertzianPowerShaped extends HertzianLinearContactModel
         return sample;
     }      
 
+    @Override
+    public double getForceIndentationExponent()
+    {
+        return indentationExp;
+    }
+
+    @Override
+    public double getForceIndentationCoefficient(double youngModulus)
+    {
+        double v = sample.getPoissonRatio();
+        return (gammaFactor*youngModulus)/(1 - v*v);
+    }
+
     private double[] transformIndentationData(double[] indentationValues, Point2D recordingPoint)
     {
         int n = indentationValues.length;
@@ -90,6 +103,13 @@ public class HertzianPowerShaped extends HertzianLinearContactModel
         return indentationValues; 
     }
 
+    //the postcontact fit has a free coefficient, so the contact point depends only on the exponent
+    @Override
+    public Object getContactEstimationKey()
+    {
+        return new PowerLawContactEstimationKey(indentationExp, getPrecontactModel());
+    }
+
     @Override
     public double getPostcontactObjectiveFunctionMinimum(double[] postcontactForceSeparationYs, double[] postcontactForceSeparationXs, Point2D recordingPoint, RegressionStrategy regressionStrategy)
     {
@@ -139,12 +159,8 @@ public class HertzianPowerShaped extends HertzianLinearContactModel
         {
             HertzianPowerShaped indentationModel = getContactModel();
 
-            double v = getContactModel().getSampleModel().getPoissonRatio();
-            double indentationExp = indentationModel.indentationExp;
-            double gammaFactor = indentationModel.gammaFactor;
-
-            double a = getFittedFunction().getCoefficient(indentationExp);    
-            double modulus = (a*(1 - v*v))/gammaFactor;  
+            double a = getFittedFunction().getCoefficient(indentationModel.getForceIndentationExponent());    
+            double modulus = a/indentationModel.getForceIndentationCoefficient(1);  
 
             return modulus;
         }
@@ -154,11 +170,7 @@ public class HertzianPowerShaped extends HertzianLinearContactModel
         {
             HertzianPowerShaped indentationModel = getContactModel();
 
-            double v = getContactModel().getSampleModel().getPoissonRatio();
-            double indentationExp = indentationModel.indentationExp;
-            double gammaFactor = indentationModel.gammaFactor;
-
-            double modulus = (force*(1 - v*v))/(gammaFactor*Math.pow(indentation, indentationExp));
+            double modulus = force/(indentationModel.getForceIndentationCoefficient(1)*Math.pow(indentation, indentationModel.getForceIndentationExponent()));
             return modulus;
         }        
     }
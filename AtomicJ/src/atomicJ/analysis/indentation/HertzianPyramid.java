@@ -67,6 +67,19 @@ public class HertzianPyramid extends HertzianLinearContactModel
         return sample;
     }
 
+    @Override
+    public double getForceIndentationExponent()
+    {
+        return 2;
+    }
+
+    @Override
+    public double getForceIndentationCoefficient(double youngModulus)
+    {
+        double v = sample.getPoissonRatio();
+        return (0.7453*youngModulus*Math.tan(indenter.getHalfAngle()))/(1 - v*v);
+    }
+
     private double[] transformIndentationData(double[] forceIndentationXs, Point2D recordingPoint)
     {
         int n = forceIndentationXs.length;
@@ -80,6 +93,13 @@ public class HertzianPyramid extends HertzianLinearContactModel
         return forceIndentationXs; 
     }
 
+    //the postcontact fit has a free coefficient, so the contact point depends only on the exponent
+    @Override
+    public Object getContactEstimationKey()
+    {
+        return new PowerLawContactEstimationKey(2, getPrecontactModel());
+    }
+
     @Override
     public double getPostcontactObjectiveFunctionMinimum(double[] postcontactForceSeparationYs, double[] postcontactForceSeparationXs, Point2D recordingPoint, RegressionStrategy regressionStrategy)
     {
@@ -127,12 +147,10 @@ public class HertzianPyramid extends HertzianLinearContactModel
         @Override
         public double getYoungModulus() 
         {
-            Pyramid pyramid = getContactModel().getIndenter();
-            double v = getContactModel().getSampleModel().getPoissonRatio();
-            double angle = pyramid.getHalfAngle();
+            HertzianPyramid model = getContactModel();
 
-            double a = getFittedFunction().getCoefficient(Double.valueOf(2));    
-            double modulus = (a * (1 - v*v))/(0.7453*Math.tan(angle));  
+            double a = getFittedFunction().getCoefficient(model.getForceIndentationExponent());    
+            double modulus = a/model.getForceIndentationCoefficient(1);  
 
             return modulus;
         }
@@ -140,12 +158,9 @@ public class HertzianPyramid extends HertzianLinearContactModel
         @Override
         public double getPointwiseModulus(double indentation, double force) 
         {
-            Pyramid pyramid = getContactModel().getIndenter();
-
-            double v = getContactModel().getSampleModel().getPoissonRatio();
-            double angle = pyramid.getHalfAngle();
+            HertzianPyramid model = getContactModel();
 
-            double modulus = (force* (1 - v*v))/(0.7453*indentation*indentation*Math.tan(angle));
+            double modulus = force/(model.getForceIndentationCoefficient(1)*Math.pow(indentation, model.getForceIndentationExponent()));
             return modulus;
         }        
     }
@@ -22,7 +22,6 @@ import java.awt.geom.Point2D;
 
 import org.apache.commons.math3.analysis.UnivariateFunction;
 import org.apache.commons.math3.analysis.solvers.BrentSolver;
-import org.apache.commons.math3.analysis.solvers.UnivariateSolver;
 
 import atomicJ.analysis.ForceContourStackFunction;
 import atomicJ.analysis.PrecontactInteractionsModel;
@@ -48,6 +47,8 @@ public class HertzianSneddonSphere extends HertzianContactModel
     private final double poissonFactor;
     private final double radius;
 
+    private final ContactRadiusTable contactRadiusTable;
+
     public HertzianSneddonSphere(Sphere indenter, SampleModel sample, PrecontactInteractionsModel precontactModel)
     {
         super(precontactModel);
@@ -59,6 +60,15 @@ public class HertzianSneddonSphere extends HertzianContactModel
         poissonFactor = 1/(1 - v*v);
 
         radius = indenter.getRadius();
+
+        this.contactRadiusTable = new ContactRadiusTable(new UnivariateFunction()
+        {
+            @Override
+            public double value(double contactRadius)
+            {
+                return getIndentation(contactRadius);
+            }
+        }, 0, 0.5*radius, radius);
     }
 
     @Override
@@ -101,11 +111,7 @@ public class HertzianSneddonSphere extends HertzianContactModel
             //use as an upper bound for solution by the Brent - Dreker algorithm
             double max = indent<radius ? Math.sqrt(2*radius - indent)*Math.sqrt(indent) : radius;              
 
-            ContactDepthFunction funct = new ContactDepthFunction(indent);
-
-            UnivariateSolver solver = new BrentSolver(1e-12);
-
-            double a = solver.solve(5000, funct,  0, max);                
+            double a = findContactRadius(indent, 0, max);
             coefficient = poissonFactor*(((radius*radius + a*a)/2)*Math.log((radius + a)/(radius - a)) - a*radius);
 
         }
@@ -158,15 +164,33 @@ public class HertzianSneddonSphere extends HertzianContactModel
             //use as an upper bound for solution by the Brent - Dreker algorithm
             double max = indent<radius ? Math.sqrt(2*radius - indent)*Math.sqrt(indent) : radius;              
 
-            ContactDepthFunction f = new ContactDepthFunction(indent);
-
-            UnivariateSolver solver = new BrentSolver(1e-12);
-            contactRadius = solver.solve(5000, f,  0, max);  
+            contactRadius = findContactRadius(indent, 0, max);
         }
 
         return contactRadius; 
     }
 
+    public double getIndentation(double contactRadius)
+    {
+        double a = contactRadius;
+        double indent = 0.5*a*Math.log((radius + a)/(radius - a));
+        return indent;
+    }
+
+    //the contact radius is interpolated from the table, which is shared by all curves, the root solver is used only for the indentations outside the table
+    private double findContactRadius(double indent, double min, double max)
+    {
+        double contactRadius = contactRadiusTable.getContactRadius(indent);
+
+        if(Double.isNaN(contactRadius))
+        {
+            BrentSolver solver = new BrentSolver(1e-12);
+            contactRadius = solver.solve(5000, new ContactDepthFunction(indent), min, max);
+        }
+
+        return contactRadius;
+    }
+
     public class ContactDepthFunction implements UnivariateFunction
     {
         private final double indent;
@@ -179,7 +203,7 @@ public class HertzianSneddonSphere extends HertzianContactModel
         @Override
         public double value(double a) 
         {           
-            double val = 0.5*a*Math.log((radius + a)/(radius - a)) - indent;
+            double val = getIndentation(a) - indent;
             return val;
         } 
     }
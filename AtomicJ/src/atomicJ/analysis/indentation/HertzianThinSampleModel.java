@@ -26,13 +26,14 @@ public abstract class HertzianThinSampleModel extends HertzianContactModel
         double h = sample.getThickness(recordingPoint);
         double maxAllowedIndentation = leniencyFactor*h;
         int n = deflectionChannel.getItemCount();
-        double[][] points = deflectionChannel.getPoints();
+        double[] zs = deflectionChannel.getXs();
+        double[] ds = deflectionChannel.getYs();
 
         int maxIndex = Math.max(0, n - 1);//in case there is only one point in the deflection channel
 
         for(int i = 0; i < n; i++)
         {
-            double[] contactPoint = points[i];
+            double[] contactPoint = new double[] {zs[i], ds[i]};
             double maxIndent = getMaximalIndentationDepthUnderAssumptionOfIndentationMonotonicIncrease(deflectionChannel, contactPoint);
             if(maxIndent < maxAllowedIndentation)
             {
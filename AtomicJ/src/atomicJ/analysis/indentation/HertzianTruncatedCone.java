@@ -48,6 +48,7 @@ public class HertzianTruncatedCone extends HertzianContactModel
     private final double cotTheta;
     private final double b;
 
+    private final ContactRadiusTable contactRadiusTable;
 
     public HertzianTruncatedCone(TruncatedCone indenter, SampleModel sample, PrecontactInteractionsModel precontactModel)
     {
@@ -62,7 +63,16 @@ public class HertzianTruncatedCone extends HertzianContactModel
         double angle = indenter.getHalfAngle();
         cotTheta = 1./Math.tan(angle);
 
-        this.b = indenter.getTransitionRadius();        
+        this.b = indenter.getTransitionRadius();
+
+        this.contactRadiusTable = new ContactRadiusTable(new UnivariateFunction()
+        {
+            @Override
+            public double value(double contactRadius)
+            {
+                return getIndentation(contactRadius);
+            }
+        }, b, 2*b + TOLERANCE, Double.POSITIVE_INFINITY);
     }
 
     @Override
@@ -98,10 +108,7 @@ public class HertzianTruncatedCone extends HertzianContactModel
         {
             double startValue =  b + (indent)/cotTheta;
 
-            ContactDepthFunction funct = new ContactDepthFunction(indent);
-            BrentSolver solver = new BrentSolver(1e-12);
-
-            double a = solver.solve(5000, funct, b, startValue);
+            double a = findContactRadius(indent, b, startValue);
             ratio = 2*poissonFactor*(a*indent - 0.5*a*a*cotTheta*(0.5*Math.PI - Math.asin(b/a)) + Math.sqrt(a*a - b*b)
             *(0.5*b*cotTheta));
         }
@@ -157,13 +164,31 @@ public class HertzianTruncatedCone extends HertzianContactModel
         {           
             double startValue =  b + (indent)/cotTheta;
 
-            ContactDepthFunction f = new ContactDepthFunction(indent);
+            contactRadius = findContactRadius(indent, b, startValue);
+        }
+
+        return contactRadius; 
+    }
 
+    public double getIndentation(double contactRadius)
+    {
+        double a = contactRadius;
+        double indent = a*cotTheta*(0.5*Math.PI - Math.asin(b/a));
+        return indent;
+    }
+
+    //the contact radius is interpolated from the table, which is shared by all curves, the root solver is used only for the indentations outside the table
+    private double findContactRadius(double indent, double min, double max)
+    {
+        double contactRadius = contactRadiusTable.getContactRadius(indent);
+
+        if(Double.isNaN(contactRadius))
+        {
             BrentSolver solver = new BrentSolver(1e-12);
-            contactRadius = solver.solve(5000, f,  b, startValue);  
+            contactRadius = solver.solve(5000, new ContactDepthFunction(indent), min, max);
         }
 
-        return contactRadius; 
+        return contactRadius;
     }
 
     public class ContactDepthFunction implements UnivariateFunction
@@ -178,7 +203,7 @@ public class HertzianTruncatedCone extends HertzianContactModel
         @Override
         public double value(double a) 
         {           
-            double val = indent - a*cotTheta*(0.5*Math.PI - Math.asin(b/a));
+            double val = indent - getIndentation(a);
             return val;
         }      
     }
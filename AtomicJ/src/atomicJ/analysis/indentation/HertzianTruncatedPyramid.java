@@ -49,6 +49,8 @@ public class HertzianTruncatedPyramid extends HertzianContactModel
     private final double m;
     private final double n;
 
+    private final ContactRadiusTable contactRadiusTable;
+
     public HertzianTruncatedPyramid(TruncatedPyramid indenter, SampleModel sample, PrecontactInteractionsModel precontactModel)
     {
         super(precontactModel);
@@ -64,7 +66,16 @@ public class HertzianTruncatedPyramid extends HertzianContactModel
         this.b = indenter.getTransitionRadius();        
 
         this.m = Math.sqrt(2)/Math.PI;
-        this.n = Math.sqrt(2)*2/Math.PI;       
+        this.n = Math.sqrt(2)*2/Math.PI;
+
+        this.contactRadiusTable = new ContactRadiusTable(new UnivariateFunction()
+        {
+            @Override
+            public double value(double contactRadius)
+            {
+                return getIndentation(contactRadius);
+            }
+        }, b, 2*b + TOLERANCE, Double.POSITIVE_INFINITY);
     }
 
     @Override
@@ -99,10 +110,7 @@ public class HertzianTruncatedPyramid extends HertzianContactModel
         {
             double startValue =  b + (indent)/cotTheta;
 
-            ContactDepthFunction funct = new ContactDepthFunction(indent);
-            BrentSolver solver = new BrentSolver(1e-12);
-
-            double a = solver.solve(5000, funct, b, startValue);  
+            double a = findContactRadius(indent, b, startValue);
             coefficient = 2*poissonFactor*(a*indent - m*a*a*cotTheta*(0.5*Math.PI - Math.asin(b/a)) + Math.sqrt(a*a - b*b)
             *(m*b*cotTheta));               
         }   
@@ -150,13 +158,31 @@ public class HertzianTruncatedPyramid extends HertzianContactModel
         {
             double startValue =  b + (indent)/cotTheta;
 
-            ContactDepthFunction f = new ContactDepthFunction(indent);
+            contactRadius = findContactRadius(indent, b, startValue);
+        }
+
+        return contactRadius; 
+    }
+
+    public double getIndentation(double contactRadius)
+    {
+        double a = contactRadius;
+        double indent = a*n*cotTheta*(0.5*Math.PI - Math.asin(b/a));
+        return indent;
+    }
+
+    //the contact radius is interpolated from the table, which is shared by all curves, the root solver is used only for the indentations outside the table
+    private double findContactRadius(double indent, double min, double max)
+    {
+        double contactRadius = contactRadiusTable.getContactRadius(indent);
 
+        if(Double.isNaN(contactRadius))
+        {
             BrentSolver solver = new BrentSolver(1e-12);
-            contactRadius = solver.solve(5000, f,  b, startValue);  
+            contactRadius = solver.solve(5000, new ContactDepthFunction(indent), min, max);
         }
 
-        return contactRadius; 
+        return contactRadius;
     }
 
     public class ContactDepthFunction implements UnivariateFunction
@@ -171,7 +197,7 @@ public class HertzianTruncatedPyramid extends HertzianContactModel
         @Override
         public double value(double a) 
         {           
-            double val = indent - a*n*cotTheta*(0.5*Math.PI - Math.asin(b/a));
+            double val = indent - getIndentation(a);
             return val;
         }       
     }
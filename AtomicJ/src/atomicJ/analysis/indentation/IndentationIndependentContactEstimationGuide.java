@@ -31,4 +31,28 @@ public class IndentationIndependentContactEstimationGuide implements ContactEsti
     {
         return new IndentationIndependentSearchAssistant(precontactModel, postcontactFitDegree, deflectionCurveBranch, recordingPosition);
     }
+
+    @Override
+    public int hashCode()
+    {
+        int result = 17;
+
+        result = 31*result + precontactModel.hashCode();
+        result = 31*result + postcontactFitDegree;
+
+        return result;
+    }
+
+    @Override
+    public boolean equals(Object other)
+    {
+        if(other instanceof IndentationIndependentContactEstimationGuide)
+        {
+            IndentationIndependentContactEstimationGuide that = (IndentationIndependentContactEstimationGuide)other;
+
+            return this.precontactModel.equals(that.precontactModel) && this.postcontactFitDegree == that.postcontactFitDegree;
+        }
+
+        return false;
+    }
 }
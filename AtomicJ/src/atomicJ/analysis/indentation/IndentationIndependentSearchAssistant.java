@@ -2,10 +2,14 @@ package atomicJ.analysis.indentation;
 
 import java.awt.geom.Point2D;
 
+import atomicJ.analysis.BasicPrecontactInteractionsModel;
+import atomicJ.analysis.BasicRegressionStrategy;
 import atomicJ.analysis.PrecontactInteractionsModel;
 import atomicJ.analysis.RegressionStrategy;
 import atomicJ.analysis.SequentialSearchAssistant;
 import atomicJ.data.Channel1DData;
+import atomicJ.statistics.PowerSumTable;
+import atomicJ.utilities.RegressionUtilities;
 
 public class IndentationIndependentSearchAssistant implements SequentialSearchAssistant
 {
@@ -15,11 +19,15 @@ public class IndentationIndependentSearchAssistant implements SequentialSearchAs
     private final double[] deflectionValues;
     private final int postcontactFitDegree;
 
+    //both fits are polynomial in z_c - z, so for the classical L2 regression they are found from the prefix and suffix sums of the powers of z,
+    //in time which does not depend on the index of the trial contact point
+    private PowerSumTable sumTable;
+
     public IndentationIndependentSearchAssistant(PrecontactInteractionsModel precontactModel, int postcontactFitDegree, Channel1DData curveBranch, Point2D recordingPosition)
     {
         this.precontactModel = precontactModel;
-        this.zValues = curveBranch.getXCoordinates();
-        this.deflectionValues = curveBranch.getYCoordinates();
+        this.zValues = curveBranch.getXs();
+        this.deflectionValues = curveBranch.getYs();
         this.recordingPosition = recordingPosition;
         this.postcontactFitDegree = postcontactFitDegree;
     }
@@ -47,6 +55,12 @@ public class IndentationIndependentSearchAssistant implements SequentialSearchAs
     @Override
     public double getObjectiveFunctionValue(RegressionStrategy precontactStrategy, RegressionStrategy postcontactStartegy, int contactIndex) 
     {
+        if(precontactModel instanceof BasicPrecontactInteractionsModel && BasicRegressionStrategy.CLASSICAL_L2.equals(precontactStrategy) 
+                && BasicRegressionStrategy.CLASSICAL_L2.equals(postcontactStartegy))
+        {
+            return getL2ObjectiveFunctionValue((BasicPrecontactInteractionsModel)precontactModel, contactIndex);
+        }
+
         int n = zValues.length;
         double zContact = zValues[contactIndex];
         double dContact = deflectionValues[contactIndex];
@@ -60,4 +74,26 @@ public class IndentationIndependentSearchAssistant implements SequentialSearchAs
 
         return result;
     }              
+
+    private double getL2ObjectiveFunctionValue(BasicPrecontactInteractionsModel basicPrecontactModel, int contactIndex)
+    {
+        int n = zValues.length;
+
+        int[] precontactFitModel = RegressionUtilities.getModelInt(basicPrecontactModel.getDegree(), basicPrecontactModel.isConstant());
+        int[] postcontactFitModel = RegressionUtilities.getModelInt(postcontactFitDegree, false);
+
+        if(sumTable == null)
+        {
+            int maxModelExponent = Math.max(postcontactFitDegree, basicPrecontactModel.getDegree());
+            this.sumTable = new PowerSumTable(zValues, deflectionValues, maxModelExponent);
+        }
+
+        //as BasicPrecontactInteractionsModel, the precontact objective function is 0 if there are not more precontact points than parameters
+        double precontactOFMinimum = (contactIndex <= precontactFitModel.length) ? 0 : sumTable.getResidualSumOfSquares(0, contactIndex, contactIndex, precontactFitModel);
+        double postcontactOFMinimum = sumTable.getResidualSumOfSquares(contactIndex, n, contactIndex, postcontactFitModel);
+
+        double result = precontactOFMinimum + postcontactOFMinimum;
+
+        return result;
+    }
 }
\ No newline at end of file
@@ -236,8 +236,8 @@ public abstract class JKRLikeContact extends AdhesiveContactModel
 
         double adhesionForceSI = 1e-6*springConstantSI*adhesionEstimate.getForceMagnitude();
 
-        double[] zValues = deflectionChannel.getXCoordinates();
-        double[] deflectionValues = deflectionChannel.getYCoordinates();
+        double[] zValues = deflectionChannel.getXs();
+        double[] deflectionValues = deflectionChannel.getYs();
 
         double zContact = deflectionContactPoint[0];
         double dContact = deflectionContactPoint[1];
@@ -292,8 +292,8 @@ public abstract class JKRLikeContact extends AdhesiveContactModel
 
         private JKRLikeIndentationSearchAssistant(Channel1DData curveBranch, Point2D recordingPosition, double springConstant)
         {        
-            this.zValues = curveBranch.getXCoordinates();
-            this.deflectionValues = curveBranch.getYCoordinates();
+            this.zValues = curveBranch.getXs();
+            this.deflectionValues = curveBranch.getYs();
             this.recordingPosition = recordingPosition;
             this.springConstant = springConstant;
 
@@ -0,0 +1,166 @@
+
+/* 
+ * ===========================================================
+ * AtomicJ : a free application for analysis of AFM data
+ * ===========================================================
+ *
+ * (C) Copyright 2013-2022 by Paweł Hermanowicz
+ *
+ * 
+ * This program is free software; you can redistribute it and/or modify 
+ * it under the terms of the GNU General Public License as published by 
+ * the Free Software Foundation; either version 3 of the License, or (at your option) any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without 
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU 
+ * General Public License for more details.
+ * You should have received a copy of the GNU General Public License along with this program; if not, 
+ * see http://www.gnu.org/licenses/*/
+
+package atomicJ.analysis.indentation;
+
+import atomicJ.analysis.BasicPrecontactInteractionsModel;
+import atomicJ.analysis.BasicRegressionStrategy;
+import atomicJ.analysis.RegressionStrategy;
+import atomicJ.analysis.SequentialSearchAssistant;
+import atomicJ.data.Channel1DData;
+import atomicJ.statistics.PowerSumTable;
+import atomicJ.utilities.RegressionUtilities;
+
+/*
+ * Search assistant for the Hertzian models, in which the force is proportional to a power of the indentation, and the contact point is found by the classical L2 regression.
+ * The indentation s_i = (z_c - z_i) - (d_i - d_c) is the difference between the values of u = z + d at the contact point and at the i-th point, so the precontact fits
+ * for all trial contact points are found from the prefix sums of the powers of u, in time which does not depend on the index of the trial point. For integer exponents
+ * the postcontact fits of all trial points are found together in O(n log n) time, when the first of them is needed. For other exponents the postcontact fit
+ * is found by a single pass over the postcontact points, without creating arrays of transformed coordinates. For the robust regression strategies, and the other precontact models,
+ * the objective function is found by the assistant passed to the constructor.
+ */
+
+public class PowerLawIndentationSearchAssistant implements SequentialSearchAssistant
+{
+    private static final int MAX_TABULATED_EXPONENT = 4;
+
+    private final double[] zValues;
+    private final double[] deflectionValues;
+    private final double exponent;
+    private final int[] precontactModel;
+    private final boolean tabulatedPostcontact;
+    private final SequentialSearchAssistant fallbackAssistant;
+
+    private PowerSumTable sumTable;
+    private double[] postcontactObjectiveFunctionMinima;
+
+    public PowerLawIndentationSearchAssistant(Channel1DData curveBranch, double exponent, BasicPrecontactInteractionsModel precontactModel, SequentialSearchAssistant fallbackAssistant)
+    {
+        this.zValues = curveBranch.getXs();
+        this.deflectionValues = curveBranch.getYs();
+        this.exponent = exponent;
+        this.precontactModel = RegressionUtilities.getModelInt(precontactModel.getDegree(), precontactModel.isConstant());
+        this.tabulatedPostcontact = exponent >= 1 && exponent <= MAX_TABULATED_EXPONENT && exponent == Math.rint(exponent);
+        this.fallbackAssistant = fallbackAssistant;
+    }
+
+    @Override
+    public double getObjectiveFunctionValue(RegressionStrategy precontactStrategy, RegressionStrategy postcontactStartegy, int contactIndex)
+    {
+        if(!BasicRegressionStrategy.CLASSICAL_L2.equals(precontactStrategy) || !BasicRegressionStrategy.CLASSICAL_L2.equals(postcontactStartegy))
+        {
+            return fallbackAssistant.getObjectiveFunctionValue(precontactStrategy, postcontactStartegy, contactIndex);
+        }
+
+        double precontactOFMinimum = getPrecontactObjectiveFunctionMinimum(contactIndex);
+        double postcontactOFMinimum = tabulatedPostcontact ? getPostcontactObjectiveFunctionMinima()[contactIndex] : getPostcontactObjectiveFunctionMinimum(contactIndex);
+
+        double result = precontactOFMinimum + postcontactOFMinimum;
+
+        return result;
+    }
+
+    //as BasicPrecontactInteractionsModel, returns 0 if there are not more precontact points than parameters
+    private double getPrecontactObjectiveFunctionMinimum(int contactIndex)
+    {
+        if(contactIndex <= precontactModel.length)
+        {
+            return 0;
+        }
+
+        return getSumTable().getResidualSumOfSquares(0, contactIndex, contactIndex, precontactModel);
+    }
+
+    private double getPostcontactObjectiveFunctionMinimum(int contactIndex)
+    {
+        int n = zValues.length;
+
+        double zContact = zValues[contactIndex];
+        double dContact = deflectionValues[contactIndex];
+
+        double designTxDesign = 0;
+        double designTxObs = 0;
+
+        for(int i = contactIndex; i<n; i++)
+        {
+            double deltaD = deflectionValues[i] - dContact;
+            double x = transformIndentation(zContact - zValues[i] - deltaD);
+
+            designTxDesign += x*x;
+            designTxObs += x*deltaD;
+        }
+
+        double parameter = designTxObs/designTxDesign;
+
+        double ss = 0;
+        for(int i = contactIndex; i<n; i++)
+        {
+            double deltaD = deflectionValues[i] - dContact;
+            double x = transformIndentation(zContact - zValues[i] - deltaD);
+
+            double dx = deltaD - parameter*x;
+            ss += dx*dx;
+        }
+
+        return ss;
+    }
+
+    private double transformIndentation(double indent)
+    {
+        if(indent <= 0)
+        {
+            return 0;
+        }
+
+        return (exponent == 1.5) ? indent*Math.sqrt(indent) : Math.pow(indent, exponent);
+    }
+
+    private double[] getPostcontactObjectiveFunctionMinima()
+    {
+        if(postcontactObjectiveFunctionMinima == null)
+        {
+            this.postcontactObjectiveFunctionMinima = getSumTable().getSuffixResidualSumsOfSquaresForPositivePartPower((int)exponent);
+        }
+
+        return postcontactObjectiveFunctionMinima;
+    }
+
+    private PowerSumTable getSumTable()
+    {
+        if(sumTable == null)
+        {
+            int n = zValues.length;
+            double[] uValues = new double[n];
+
+            for(int i = 0; i<n; i++)
+            {
+                uValues[i] = zValues[i] + deflectionValues[i];
+            }
+
+            int maxModelExponent = tabulatedPostcontact ? (int)exponent : 0;
+            for(int e : precontactModel)
+            {
+                maxModelExponent = Math.max(maxModelExponent, e);
+            }
+
+            this.sumTable = new PowerSumTable(uValues, deflectionValues, maxModelExponent);
+        }
+
+        return sumTable;
+    }
+}
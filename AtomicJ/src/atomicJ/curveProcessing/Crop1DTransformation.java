@@ -1,17 +1,16 @@
 package atomicJ.curveProcessing;
 
-import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.List;
 
 import atomicJ.analysis.CropSettings;
 import atomicJ.analysis.SortedArrayOrder;
 import atomicJ.data.Channel1DData;
-import atomicJ.data.FlexibleChannel1DData;
+import atomicJ.data.FlexibleFlatChannel1DData;
 import atomicJ.data.Grid1D;
 import atomicJ.data.GridChannel1DData;
 import atomicJ.data.IndexRange;
 import atomicJ.data.Point1DData;
+import atomicJ.data.RangeChannel1DData;
 import atomicJ.data.SinusoidalChannel1DData;
 import atomicJ.gui.rois.ROI;
 import atomicJ.gui.rois.ROIRelativePosition;
@@ -26,6 +25,11 @@ public class Crop1DTransformation implements Channel1DDataInROITransformation
         this.cropSettings = cropSettings;
     }
 
+    public CropSettings getCropSettings()
+    {
+        return cropSettings;
+    }
+
     @Override
     public Point1DData transformPointChannel(Point1DData channel)
     {
@@ -83,32 +87,49 @@ public class Crop1DTransformation implements Channel1DDataInROITransformation
         int minIndex = indexRange.getMinIndex();
         int maxIndex = indexRange.getMaxIndex();
 
-        double[][] limitedPoints = indexRange.isWellFormed(channel.getItemCount()) ? channel.getPointsCopy(minIndex, maxIndex + 1) : new double[][] {};
+        boolean wellFormed = indexRange.isWellFormed(channel.getItemCount());
 
-        FlexibleChannel1DData channelData = new FlexibleChannel1DData(limitedPoints, channel.getXQuantity(), channel.getYQuantity(), channel.getXOrder());
+        //for columnar channels the cropped channel is a view of the original points, so that they are not copied
+        Channel1DData channelData = wellFormed ? RangeChannel1DData.getView(channel, minIndex, maxIndex + 1)
+                : new FlexibleFlatChannel1DData(new double[] {}, new double[] {}, channel.getXQuantity(), channel.getYQuantity(), order);
 
         return channelData;
     }
 
-    private double[][] cropRange(double[] data, double origin, double increment)
+    private Channel1DData cropRange(double[] data, double origin, double increment, Channel1DData channel)
     {
         int n = data.length;
 
         double lowerLimit = ArrayUtilities.getMinimum(data) + cropSettings.getBottom();
         double upperLimit = ArrayUtilities.getMaximum(data) - cropSettings.getTop();
 
-        List<double[]> trimmedData = new ArrayList<>();
+        int count = 0;
         for(int i = 0; i<n; i++)
         {            
             double y = data[i];
 
             if(upperLimit >= y && y >= lowerLimit)
             {
-                trimmedData.add(new double[] {origin + i*increment,y});
+                count++;
+            }
+        }
+
+        double[] croppedXs = new double[count];
+        double[] croppedYs = new double[count];
+
+        for(int i = 0, j = 0; i<n; i++)
+        {            
+            double y = data[i];
+
+            if(upperLimit >= y && y >= lowerLimit)
+            {
+                croppedXs[j] = origin + i*increment;
+                croppedYs[j] = y;
+                j++;
             }
         }
 
-        return trimmedData.toArray(new double[][] {});
+        return new FlexibleFlatChannel1DData(croppedXs, croppedYs, channel.getXQuantity(), channel.getYQuantity(), channel.getXOrder());
     }
 
     private Channel1DData cropRange(Channel1DData channel)
@@ -116,36 +137,45 @@ public class Crop1DTransformation implements Channel1DDataInROITransformation
         double lowerLimit = channel.getYMinimum() + cropSettings.getBottom();
         double upperLimit = channel.getYMaximum() - cropSettings.getTop();
 
-        double[][] points = channel.getPoints();
-        int n = points.length;
-
-        double[][] cropped = cropPointRange(points, lowerLimit, upperLimit, 0, n);
-        FlexibleChannel1DData channelData = new FlexibleChannel1DData(cropped, channel.getXQuantity(), channel.getYQuantity(), channel.getXOrder());
-
-        return channelData;
+        return cropPointRange(channel, lowerLimit, upperLimit, 0, channel.getItemCount());
     }
 
     //from inclusive, to exclusive
-    private static double[][] cropPointRange(double[][] points, double lowerLimit, double upperLimit, int from, int to)
+    private static Channel1DData cropPointRange(Channel1DData channel, double lowerLimit, double upperLimit, int from, int to)
     {        
+        double[] xs = channel.getXs();
+        double[] ys = channel.getYs();
+
         int validFrom = Math.max(0, from);
-        int validTo = Math.min(points.length, to);
+        int validTo = Math.min(ys.length, to);
 
-        List<double[]> cropped = new ArrayList<>();
+        int count = 0;
         for(int i = validFrom; i<validTo; i++)
         {
-            double[] p = points[i];
+            double y = ys[i];
+
+            if(y <= upperLimit && y >= lowerLimit)
+            {
+                count++;
+            }
+        }
+
+        double[] croppedXs = new double[count];
+        double[] croppedYs = new double[count];
 
-            double x = p[0];
-            double y = p[1];
+        for(int i = validFrom, j = 0; i<validTo; i++)
+        {
+            double y = ys[i];
 
             if(y <= upperLimit && y >= lowerLimit)
             {
-                cropped.add(new double[] {x,y});
+                croppedXs[j] = xs[i];
+                croppedYs[j] = y;
+                j++;
             }
         }
 
-        return cropped.toArray(new double[][] {});
+        return new FlexibleFlatChannel1DData(croppedXs, croppedYs, channel.getXQuantity(), channel.getYQuantity(), channel.getXOrder());
     }
 
     public Channel1DData cropGridChannel(GridChannel1DData channel) 
@@ -176,10 +206,7 @@ public class Crop1DTransformation implements Channel1DDataInROITransformation
             return channelData;
         }
 
-        double[][] croppedPoints = cropRange(croppedData, originNew, increment);
-        FlexibleChannel1DData channelData = new FlexibleChannel1DData(croppedPoints, channel.getXQuantity(), channel.getYQuantity(), channel.getXOrder());
-
-        return channelData;
+        return cropRange(croppedData, originNew, increment, channel);
     }
 
     private Channel1DData cropSinusoidalChannel(SinusoidalChannel1DData channel)
@@ -203,13 +230,11 @@ public class Crop1DTransformation implements Channel1DDataInROITransformation
 
             if(cropSettings.isRangeCropped())
             {
-                double[][] pointsAfterDomainCropping = channel.getPointsCopy(minIndex, maxIndex + 1);
-
                 double lowerLimit = channel.getYMinimum() + cropSettings.getBottom();
                 double upperLimit = channel.getYMaximum() - cropSettings.getTop();
 
-                double[][] pointsAfterDomainAndRangeCropping = indexRange.isWellFormed(channel.getItemCount()) ? cropPointRange(pointsAfterDomainCropping, lowerLimit, upperLimit, 0, pointsAfterDomainCropping.length) : new double[][] {};
-                return new FlexibleChannel1DData(pointsAfterDomainAndRangeCropping, channel.getXQuantity(), channel.getYQuantity(), channel.getXOrder());
+                return indexRange.isWellFormed(channel.getItemCount()) ? cropPointRange(channel, lowerLimit, upperLimit, minIndex, maxIndex + 1) 
+                        : FlexibleFlatChannel1DData.getEmptyInstance(channel);
             }
             else
             {
@@ -238,24 +263,39 @@ public class Crop1DTransformation implements Channel1DDataInROITransformation
         double lowerLimit = channel.getYMinimum() + cropSettings.getBottom();
         double upperLimit = channel.getYMaximum() - cropSettings.getTop();
 
-        double[][] points = channel.getPoints();
-        int n = points.length;
+        double[] xs = channel.getXs();
+        double[] ys = channel.getYs();
+        int n = ys.length;
 
-        List<double[]> croppedPoints = new ArrayList<>();
+        int count = 0;
         for(int i = 0; i<n; i++)
         {
-            double[] p = points[i];
+            double x = xs[i];
+            double y = ys[i];
 
-            double x = p[0];
-            double y = p[1];
+            if(x <= rightLimit && x >= leftLimit && y >= lowerLimit && y <= upperLimit)
+            {
+                count++;
+            }
+        }
+
+        double[] croppedXs = new double[count];
+        double[] croppedYs = new double[count];
+
+        for(int i = 0, j = 0; i<n; i++)
+        {
+            double x = xs[i];
+            double y = ys[i];
 
             if(x <= rightLimit && x >= leftLimit && y >= lowerLimit && y <= upperLimit)
             {
-                croppedPoints.add(new double[] {x,y});
+                croppedXs[j] = x;
+                croppedYs[j] = y;
+                j++;
             }
         }
 
-        FlexibleChannel1DData channelData = new FlexibleChannel1DData(croppedPoints.toArray(new double[][] {}), channel.getXQuantity(), channel.getYQuantity(), channel.getXOrder());
+        FlexibleFlatChannel1DData channelData = new FlexibleFlatChannel1DData(croppedXs, croppedYs, channel.getXQuantity(), channel.getYQuantity(), channel.getXOrder());
 
         return channelData;
     }
@@ -279,4 +319,21 @@ public class Crop1DTransformation implements Channel1DDataInROITransformation
 
         return null;
     }
+
+    @Override
+    public int hashCode()
+    {
+        return cropSettings.hashCode();
+    }
+
+    @Override
+    public boolean equals(Object other)
+    {
+        if(other instanceof Crop1DTransformation)
+        {
+            return this.cropSettings.equals(((Crop1DTransformation)other).cropSettings);
+        }
+
+        return false;
+    }
 }
@@ -0,0 +1,211 @@
+package atomicJ.curveProcessing;
+
+import atomicJ.analysis.CropSettings;
+import atomicJ.analysis.SortedArrayOrder;
+import atomicJ.data.Channel1DData;
+import atomicJ.data.FlexibleFlatChannel1DData;
+import atomicJ.data.GridChannel1DData;
+import atomicJ.data.IndexRange;
+import atomicJ.data.Point1DData;
+import atomicJ.data.SinusoidalChannel1DData;
+import atomicJ.data.units.Quantity;
+import atomicJ.utilities.ArrayUtilities;
+import atomicJ.utilities.Validation;
+
+/*
+ * Scales the y-values of recorded data, trims them and sorts them in respect to x, i.e. gives the same points as the chain
+ * channel.getCopy(yScale, yQuantity), trimmer.transform(), new SortX1DTransformation(order).transform(), but when the recorded data
+ * are sorted and the trimmer is a Crop1DTransformation, all three steps are carried out in a single pass over the recorded arrays,
+ * which writes directly into the arrays of the returned channel, without intermediate copies.
+ * For other data and trimmers the transformations are applied one after another.
+ */
+
+public class FusedPreprocessing1DTransformation implements Channel1DDataTransformation
+{
+    private final double yScale;
+    private final Quantity yQuantity;
+    private final Channel1DDataTransformation trimmer;
+    private final SortedArrayOrder order;
+
+    //order may be null, then the points are not sorted
+    public FusedPreprocessing1DTransformation(double yScale, Quantity yQuantity, Channel1DDataTransformation trimmer, SortedArrayOrder order)
+    {
+        this.yScale = Validation.requireNotNaNParameterName(yScale, "yScale");
+        this.yQuantity = Validation.requireNonNullParameterName(yQuantity, "yQuantity");
+        this.trimmer = Validation.requireNonNullParameterName(trimmer, "trimmer");
+        this.order = order;
+    }
+
+    @Override
+    public Point1DData transformPointChannel(Point1DData channel)
+    {
+        return channel;
+    }
+
+    @Override
+    public Channel1DData transform(Channel1DData channel)
+    {
+        CropSettings cropSettings = getCropSettings();
+
+        if(cropSettings == null || !isFusable(channel))
+        {
+            return transformStepByStep(channel);
+        }
+
+        SortedArrayOrder channelOrder = channel.getXOrder();
+        SortedArrayOrder orderNew = order != null ? order : channelOrder;
+
+        int n = channel.getItemCount();
+
+        int from = 0;
+        int to = n;
+
+        if(cropSettings.isDomainCropped())
+        {
+            double leftLimit = channel.getXMinimum() + cropSettings.getLeft();
+            double rightLimit = channel.getXMaximum() - cropSettings.getRight();
+
+            IndexRange indexRange = channel.getIndexRangeBoundedBy(leftLimit, rightLimit);
+
+            if(!indexRange.isWellFormed(n))
+            {
+                return new FlexibleFlatChannel1DData(new double[] {}, new double[] {}, channel.getXQuantity(), yQuantity, orderNew);
+            }
+
+            from = indexRange.getMinIndex();
+            to = indexRange.getMaxIndex() + 1;
+        }
+
+        double[] xs = channel.getXs();
+        double[] ys = channel.getYs();
+
+        //scaling is monotonic, so the extrema of the scaled values are the scaled extrema of the recorded ones
+        double lowerLimit = Double.NEGATIVE_INFINITY;
+        double upperLimit = Double.POSITIVE_INFINITY;
+
+        boolean rangeCropped = cropSettings.isRangeCropped();
+
+        if(rangeCropped)
+        {
+            double min = ArrayUtilities.getMinimum(ys, from, to);
+            double max = ArrayUtilities.getMaximum(ys, from, to);
+
+            lowerLimit = (yScale >= 0 ? yScale*min : yScale*max) + cropSettings.getBottom();
+            upperLimit = (yScale >= 0 ? yScale*max : yScale*min) - cropSettings.getTop();
+        }
+
+        int count = to - from;
+
+        if(rangeCropped)
+        {
+            count = 0;
+            for(int i = from; i < to; i++)
+            {
+                double y = yScale*ys[i];
+                if(y <= upperLimit && y >= lowerLimit)
+                {
+                    count++;
+                }
+            }
+        }
+
+        double[] xsNew = new double[count];
+        double[] ysNew = new double[count];
+
+        boolean reversed = !orderNew.equals(channelOrder);
+
+        if(reversed)
+        {
+            fillReversed(xs, ys, from, to, lowerLimit, upperLimit, xsNew, ysNew);
+        }
+        else
+        {
+            fill(xs, ys, from, to, lowerLimit, upperLimit, xsNew, ysNew);
+        }
+
+        return new FlexibleFlatChannel1DData(xsNew, ysNew, channel.getXQuantity(), yQuantity, orderNew);
+    }
+
+    private void fill(double[] xs, double[] ys, int from, int to, double lowerLimit, double upperLimit, double[] xsNew, double[] ysNew)
+    {
+        for(int i = from, j = 0; i < to; i++)
+        {
+            double y = yScale*ys[i];
+            if(y <= upperLimit && y >= lowerLimit)
+            {
+                xsNew[j] = xs[i];
+                ysNew[j] = y;
+                j++;
+            }
+        }
+    }
+
+    //the data are sorted in the order opposite to the requested one, so the points are written from the last one,
+    //but points with equal x-values are kept in their original order, as SortX1DTransformation does
+    private void fillReversed(double[] xs, double[] ys, int from, int to, double lowerLimit, double upperLimit, double[] xsNew, double[] ysNew)
+    {
+        int j = 0;
+        int blockEnd = to - 1;
+
+        while(blockEnd >= from)
+        {
+            double x = xs[blockEnd];
+
+            int blockStart = blockEnd;
+            while(blockStart > from && !(xs[blockStart - 1] < x || xs[blockStart - 1] > x))
+            {
+                blockStart--;
+            }
+
+            for(int i = blockStart; i <= blockEnd; i++)
+            {
+                double y = yScale*ys[i];
+                if(y <= upperLimit && y >= lowerLimit)
+                {
+                    xsNew[j] = xs[i];
+                    ysNew[j] = y;
+                    j++;
+                }
+            }
+
+            blockEnd = blockStart - 1;
+        }
+    }
+
+    private Channel1DData transformStepByStep(Channel1DData channel)
+    {
+        Channel1DData transformed = trimmer.transform(channel.getCopy(yScale, yQuantity));
+
+        if(order != null)
+        {
+            transformed = new SortX1DTransformation(order).transform(transformed);
+        }
+
+        return transformed;
+    }
+
+    //returns null if the trimmer cannot be fused
+    private CropSettings getCropSettings()
+    {
+        if(trimmer instanceof Crop1DTransformation)
+        {
+            return ((Crop1DTransformation)trimmer).getCropSettings();
+        }
+
+        if(trimmer instanceof NullCurveTransformation)
+        {
+            return new CropSettings(0, 0, 0, 0);
+        }
+
+        return null;
+    }
+
+    //grid and sinusoidal channels are trimmed without copying of x-values by the Crop1DTransformation, so they are transformed step by step
+    private static boolean isFusable(Channel1DData channel)
+    {
+        boolean fusable = channel.getXOrder() != null && !(channel instanceof GridChannel1DData)
+                && !(channel instanceof SinusoidalChannel1DData) && !(channel instanceof Point1DData);
+
+        return fusable;
+    }
+}
@@ -202,4 +202,28 @@ public class Kernel1D implements Convolable1D
         else if (column>=width) {column = width-1;} 
         return matrix[column]; 
     }
+
+    @Override
+    public int hashCode()
+    {
+        int result = 17;
+
+        result = 31*result + centerColumnIndex;
+        result = 31*result + Arrays.hashCode(matrix);
+
+        return result;
+    }
+
+    @Override
+    public boolean equals(Object other)
+    {
+        if(other != null && getClass().equals(other.getClass()))
+        {
+            Kernel1D that = (Kernel1D)other;
+
+            return this.centerColumnIndex == that.centerColumnIndex && Arrays.equals(this.matrix, that.matrix);
+        }
+
+        return false;
+    }
 }
@@ -90,4 +90,30 @@ public class Kernel1DSet<E extends Kernel1D> implements Convolable1D
 
         return transformed;
     }
+
+    @Override
+    public int hashCode()
+    {
+        int result = 17;
+
+        result = 31*result + mainKernel.hashCode();
+        result = 31*result + leftMarginKernels.hashCode();
+        result = 31*result + rightMarginKernels.hashCode();
+
+        return result;
+    }
+
+    @Override
+    public boolean equals(Object other)
+    {
+        if(other instanceof Kernel1DSet)
+        {
+            Kernel1DSet<?> that = (Kernel1DSet<?>)other;
+
+            return this.mainKernel.equals(that.mainKernel) && this.leftMarginKernels.equals(that.leftMarginKernels) 
+                    && this.rightMarginKernels.equals(that.rightMarginKernels);
+        }
+
+        return false;
+    }
 }
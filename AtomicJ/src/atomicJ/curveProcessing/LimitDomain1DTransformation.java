@@ -1,16 +1,15 @@
 package atomicJ.curveProcessing;
 
-import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.List;
 
 import atomicJ.analysis.SortedArrayOrder;
 import atomicJ.data.Channel1DData;
-import atomicJ.data.FlexibleChannel1DData;
+import atomicJ.data.FlexibleFlatChannel1DData;
 import atomicJ.data.Grid1D;
 import atomicJ.data.GridChannel1DData;
 import atomicJ.data.IndexRange;
 import atomicJ.data.Point1DData;
+import atomicJ.data.RangeChannel1DData;
 import atomicJ.data.SinusoidalChannel1DData;
 import atomicJ.gui.rois.ROI;
 import atomicJ.gui.rois.ROIRelativePosition;
@@ -72,9 +71,11 @@ public class LimitDomain1DTransformation implements Channel1DDataInROITransforma
         int minIndex = indexRange.getMinIndex();
         int maxIndex = indexRange.getMaxIndex();
 
-        double[][] limitedPoints = indexRange.isWellFormed(channel.getItemCount()) ? channel.getPointsCopy(minIndex, maxIndex + 1) : new double[][] {};
+        boolean wellFormed = indexRange.isWellFormed(channel.getItemCount());
 
-        FlexibleChannel1DData channelData = new FlexibleChannel1DData(limitedPoints, channel.getXQuantity(), channel.getYQuantity(), order);
+        //for columnar channels the limited channel is a view of the original points, so that they are not copied
+        Channel1DData channelData = wellFormed ? RangeChannel1DData.getView(channel, minIndex, maxIndex + 1) 
+                : new FlexibleFlatChannel1DData(new double[] {}, new double[] {}, channel.getXQuantity(), channel.getYQuantity(), order);
 
         return channelData;
     }
@@ -87,10 +88,37 @@ public class LimitDomain1DTransformation implements Channel1DDataInROITransforma
 
     private Channel1DData limitUnorderedChannel(Channel1DData channel)
     {
-        double[][] points = channel.getPoints();
-        double[][] croppedPoints = limitUnordererPoints(points);
+        double[] xs = channel.getXs();
+        double[] ys = channel.getYs();
+        int n = xs.length;
 
-        FlexibleChannel1DData channelData = new FlexibleChannel1DData(croppedPoints, channel.getXQuantity(), channel.getYQuantity(), channel.getXOrder());
+        int count = 0;
+        for(int i = 0; i<n; i++)
+        {
+            double x = xs[i];
+
+            if(x <= rightLimit && x >= leftLimit)
+            {
+                count++;
+            }
+        }
+
+        double[] croppedXs = new double[count];
+        double[] croppedYs = new double[count];
+
+        for(int i = 0, j = 0; i<n; i++)
+        {
+            double x = xs[i];
+
+            if(x <= rightLimit && x >= leftLimit)
+            {
+                croppedXs[j] = x;
+                croppedYs[j] = ys[i];
+                j++;
+            }
+        }
+
+        FlexibleFlatChannel1DData channelData = new FlexibleFlatChannel1DData(croppedXs, croppedYs, channel.getXQuantity(), channel.getYQuantity(), channel.getXOrder());
 
         return channelData;
     }
@@ -152,27 +180,6 @@ public class LimitDomain1DTransformation implements Channel1DDataInROITransforma
         return channelData;
     }
 
-    private double[][] limitUnordererPoints(double[][] points)
-    {
-        int n = points.length;
-
-        List<double[]> croppedPoints = new ArrayList<>();
-        for(int i = 0; i<n; i++)
-        {
-            double[] p = points[i];
-
-            double x = p[0];
-            double y = p[1];
-
-            if(x <= rightLimit && x >= leftLimit)
-            {
-                croppedPoints.add(new double[] {x,y});
-            }
-        }
-
-        return croppedPoints.toArray(new double[][] {});
-    }
-
     @Override
     public Channel1DData transform(Channel1DData channel, ROI roi, ROIRelativePosition position) 
     {        
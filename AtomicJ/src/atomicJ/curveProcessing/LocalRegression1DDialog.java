@@ -29,6 +29,7 @@ import java.util.Objects;
 
 import javax.swing.BorderFactory;
 import javax.swing.Box;
+import javax.swing.JCheckBox;
 import javax.swing.JComboBox;
 import javax.swing.JLabel;
 import javax.swing.JPanel;
@@ -52,12 +53,14 @@ public class LocalRegression1DDialog extends BatchProcessingDialog<LocalRegressi
     private int initPolynomialDegree = 2;
     private int initDerivative = 0;
     private SpanType initSpanType = SpanType.POINT_FRACTION;
+    private boolean initFastMode = false;
 
     private final JSpinner spinnerSpan = new JSpinner(new SpinnerNumberModel(initSpan, 0, 10000, 1));
     private final JSpinner spinnerRobustnessIterations = new JSpinner(new SpinnerNumberModel(initRobustnessIterations, 0, 10000, 1));
     private final JSpinner spinnerPolynomialDegree = new JSpinner(new SpinnerNumberModel(initPolynomialDegree, 0, 10000, 1));
     private final JSpinner spinnerDerivative = new JSpinner(new SpinnerNumberModel(initDerivative, 0, 10000, 1));
     private final JComboBox<SpanType> comboSpanType = new JComboBox<>(SpanType.values());
+    private final JCheckBox boxFastMode = new JCheckBox("Fast (interpolate)");
 
     public LocalRegression1DDialog(Window parent, String title, boolean temporary)
     {
@@ -87,6 +90,16 @@ public class LocalRegression1DDialog extends BatchProcessingDialog<LocalRegressi
                 getModel().specifySpanType(spanTypeNew);
             }
         });
+
+        boxFastMode.addItemListener(new ItemListener()
+        {           
+            @Override
+            public void itemStateChanged(ItemEvent evt)
+            {
+                boolean selected = (evt.getStateChange() == ItemEvent.SELECTED);
+                getModel().specifyFastMode(selected);
+            }
+        });
     }
 
     private void initChangeListeners()
@@ -172,6 +185,8 @@ public class LocalRegression1DDialog extends BatchProcessingDialog<LocalRegressi
         panelSettings.addComponent(new JLabel("Derivative"), 4, 2, 1, 1, GridBagConstraints.NORTHEAST, GridBagConstraints.NONE, 1, 1);
         panelSettings.addComponent(spinnerDerivative, 5, 2, 1, 1, GridBagConstraints.NORTH, GridBagConstraints.HORIZONTAL, 1, 1);
 
+        panelSettings.addComponent(boxFastMode, 1, 3, 1, 1, GridBagConstraints.NORTHWEST, GridBagConstraints.NONE, 1, 1);
+
 
         mainPanel.addComponent(panelActiveArea, 0, 0, 1, 1, GridBagConstraints.CENTER, GridBagConstraints.HORIZONTAL, 1, 1);
         mainPanel.addComponent(panelBatchType, 0, 1, 1, 1, GridBagConstraints.CENTER, GridBagConstraints.HORIZONTAL, 1, 1);
@@ -197,6 +212,7 @@ public class LocalRegression1DDialog extends BatchProcessingDialog<LocalRegressi
         this.initPolynomialDegree = model.getPolynomialDegree();
         this.initDerivative = model.getDerivative();
         this.initSpanType = model.getSpanType();
+        this.initFastMode = model.isFastMode();
     }
 
     @Override
@@ -211,6 +227,7 @@ public class LocalRegression1DDialog extends BatchProcessingDialog<LocalRegressi
         model.specifyRobustnessIterationCount(initRobustnessIterations);
         model.specifyPolynomialDegree(initPolynomialDegree);
         model.specifyDerivative(initDerivative);    
+        model.specifyFastMode(initFastMode);
     }
 
     @Override
@@ -223,6 +240,7 @@ public class LocalRegression1DDialog extends BatchProcessingDialog<LocalRegressi
         spinnerPolynomialDegree.setValue(initPolynomialDegree);
         spinnerDerivative.setValue(initDerivative);
         comboSpanType.setSelectedItem(initSpanType);
+        boxFastMode.setSelected(initFastMode);
 
         pack();
     }
@@ -284,5 +302,15 @@ public class LocalRegression1DDialog extends BatchProcessingDialog<LocalRegressi
                 spinnerDerivative.setValue(valueNew);
             }
         }  
+        else if(LocalRegression1DModel.FAST_MODE.equals(property))
+        {
+            boolean valueNew = (boolean)evt.getNewValue();
+            boolean valueOld = boxFastMode.isSelected();
+
+            if(valueNew != valueOld)
+            {
+                boxFastMode.setSelected(valueNew);
+            }
+        }  
     }    
 }
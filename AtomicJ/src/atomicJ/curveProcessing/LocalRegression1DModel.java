@@ -18,12 +18,17 @@ public class LocalRegression1DModel<R extends SpectroscopyResource> extends Curv
     public static final String POLYNOMIAL_DEGREE = "PolynomialDegree";
     public static final String DERIVATIVE = "Derivative";
     public static final String WEIGHT_FUNCTION = "WeigtFunction";
+    public static final String FAST_MODE = "FastMode";
+
+    //the distance between the anchor points in the fast mode, as the fraction of the x range, which is the default of the lowess of Cleveland
+    private static final double FAST_MODE_DELTA_FRACTION = 0.01;
 
     private double span = 5;
     private SpanType spanType = SpanType.POINT_FRACTION;
     private int robustnessIterations = 0;
     private int polynomialDegree = 2;
     private int derivative = 0;
+    private boolean fastMode = false;
     private final LocalRegressionWeightFunction weightFunction = LocalRegressionWeightFunction.TRICUBE;
 
     public LocalRegression1DModel(ResourceView<R, Channel1D, String> manager)
@@ -234,6 +239,35 @@ public class LocalRegression1DModel<R extends SpectroscopyResource> extends Curv
         firePropertyChange(events);
     }
 
+    public boolean isFastMode()
+    {
+        return fastMode;
+    }
+
+    private List<PropertyChangeEvent> setFastMode(boolean fastModeNew)
+    {
+        List<PropertyChangeEvent> events = new ArrayList<>();        
+
+        if(this.fastMode != fastModeNew)
+        {
+            boolean fastModeOld = this.fastMode;
+            this.fastMode = fastModeNew;
+
+            events.add(new PropertyChangeEvent(this, FAST_MODE, fastModeOld, fastModeNew));
+            updatePreview();
+        }
+
+        return events;
+    }
+
+    public void specifyFastMode(boolean fastModeNew)
+    {
+        List<PropertyChangeEvent> events = new ArrayList<>();        
+        events.addAll(setFastMode(fastModeNew));
+
+        firePropertyChange(events);
+    }
+
     private List<PropertyChangeEvent> ensureConsistencyWithSpanType()
     {
         double spanNew = this.spanType.correctSpanValue(this.span);
@@ -268,7 +302,8 @@ public class LocalRegression1DModel<R extends SpectroscopyResource> extends Curv
     @Override
     public Channel1DDataInROITransformation buildTransformation()
     {
-        Channel1DDataInROITransformation tr = new LocalRegressionTransformation(span, SpanGeometry.NEAREST_NEIGHBOUR, spanType, robustnessIterations, polynomialDegree, derivative, weightFunction);
+        double deltaFraction = fastMode ? FAST_MODE_DELTA_FRACTION : 0;
+        Channel1DDataInROITransformation tr = new LocalRegressionTransformation(span, SpanGeometry.NEAREST_NEIGHBOUR, spanType, robustnessIterations, polynomialDegree, derivative, deltaFraction, weightFunction);
         return tr;
     }
 }
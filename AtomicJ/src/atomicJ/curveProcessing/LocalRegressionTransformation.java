@@ -1,7 +1,9 @@
 package atomicJ.curveProcessing;
 
+import java.util.Arrays;
+
 import atomicJ.data.Channel1DData;
-import atomicJ.data.FlexibleChannel1DData;
+import atomicJ.data.FlexibleFlatChannel1DData;
 import atomicJ.data.Grid1D;
 import atomicJ.data.GridChannel1DData;
 import atomicJ.data.IndexRange;
@@ -22,11 +24,19 @@ public class LocalRegressionTransformation implements Channel1DDataInROITransfor
     private final int robustnessIterationsCount;
     private final int degree;
     private final int derivativeIndex;
+    private final double deltaFraction;
     private final LocalRegressionWeightFunction weightFunction;
     private final SpanGeometry spanGeometry;
 
     public LocalRegressionTransformation(double span, SpanGeometry spanGeometry, SpanType spanType, int robustnessIterationsCount, int degree, int derivative, LocalRegressionWeightFunction weightFunction)
     {
+        this(span, spanGeometry, spanType, robustnessIterationsCount, degree, derivative, 0, weightFunction);
+    }
+
+    //if deltaFraction is positive, the smoothed values of the channels which are not grids are fitted only at the anchor points, which are deltaFraction of the x range apart, and interpolated between them
+    public LocalRegressionTransformation(double span, SpanGeometry spanGeometry, SpanType spanType, int robustnessIterationsCount, int degree, int derivative, double deltaFraction, LocalRegressionWeightFunction weightFunction)
+    {
+        this.deltaFraction = deltaFraction;
         this.robustnessIterationsCount = robustnessIterationsCount;
         this.span = span;
         this.spanType = spanType;
@@ -49,17 +59,24 @@ public class LocalRegressionTransformation implements Channel1DDataInROITransfor
             return transformPointChannel((Point1DData)channel);
         }
 
-        double[][] points = channel.getPoints();
+        double[] xs = channel.getXs();
+        double[] ys = channel.getYs();
 
-        double[][] transformed = LocalRegression.smooth(points, spanGeometry, spanType.getSpanLengthInPoints(span, points.length), robustnessIterationsCount, 1e-6, degree, weightFunction);
+        int spanLengthInPoints = spanType.getSpanLengthInPoints(span, ys.length);
 
         if(derivativeIndex > 0)
         {
-            transformed = LocalRegression.smooth(points, spanGeometry, spanType.getSpanLengthInPoints(span, points.length), degree, derivativeIndex, weightFunction);
-            return new FlexibleChannel1DData(transformed, channel.getXQuantity(), getQuantity(channel.getXQuantity(), channel.getYQuantity(), derivativeIndex), channel.getXOrder());
+            double[] derivatives = LocalRegression.smooth(ys, xs, spanGeometry, spanLengthInPoints, degree, derivativeIndex, weightFunction);
+            return new FlexibleFlatChannel1DData(Arrays.copyOf(xs, xs.length), derivatives, channel.getXQuantity(), getQuantity(channel.getXQuantity(), channel.getYQuantity(), derivativeIndex), channel.getXOrder());
         }
 
-        FlexibleChannel1DData channelData = new FlexibleChannel1DData(transformed, channel.getXQuantity(), channel.getYQuantity(), channel.getXOrder());
+        double delta = (xs.length > 0) ? deltaFraction*Math.abs(xs[xs.length - 1] - xs[0]) : 0;
+        double[] transformed = LocalRegression.smooth(ys, xs, spanGeometry, spanLengthInPoints, robustnessIterationsCount, 1e-6, degree, delta, weightFunction);
+
+        //smooth() returns its input if there is too few points to smooth, and the arrays passed to the channel must not be shared
+        double[] transformedYs = (transformed == ys) ? Arrays.copyOf(ys, ys.length) : transformed;
+
+        FlexibleFlatChannel1DData channelData = new FlexibleFlatChannel1DData(Arrays.copyOf(xs, xs.length), transformedYs, channel.getXQuantity(), channel.getYQuantity(), channel.getXOrder());
         return channelData;
     }
 
@@ -137,4 +154,37 @@ public class LocalRegressionTransformation implements Channel1DDataInROITransfor
 
         return null;
     }
+
+    @Override
+    public int hashCode()
+    {
+        int result = 17;
+
+        result = 31*result + Double.hashCode(span);
+        result = 31*result + spanType.hashCode();
+        result = 31*result + robustnessIterationsCount;
+        result = 31*result + degree;
+        result = 31*result + derivativeIndex;
+        result = 31*result + Double.hashCode(deltaFraction);
+        result = 31*result + weightFunction.hashCode();
+        result = 31*result + spanGeometry.hashCode();
+
+        return result;
+    }
+
+    @Override
+    public boolean equals(Object other)
+    {
+        if(other instanceof LocalRegressionTransformation)
+        {
+            LocalRegressionTransformation that = (LocalRegressionTransformation)other;
+
+            return Double.compare(this.span, that.span) == 0 && this.spanType.equals(that.spanType) 
+                    && this.robustnessIterationsCount == that.robustnessIterationsCount && this.degree == that.degree
+                    && this.derivativeIndex == that.derivativeIndex && Double.compare(this.deltaFraction, that.deltaFraction) == 0 && this.weightFunction.equals(that.weightFunction) 
+                    && this.spanGeometry.equals(that.spanGeometry);
+        }
+
+        return false;
+    }
 }
@@ -2,7 +2,7 @@ package atomicJ.curveProcessing;
 
 import atomicJ.analysis.SortedArrayOrder;
 import atomicJ.data.Channel1DData;
-import atomicJ.data.FlexibleChannel1DData;
+import atomicJ.data.FlexibleFlatChannel1DData;
 import atomicJ.data.Grid1D;
 import atomicJ.data.GridChannel1DData;
 import atomicJ.data.Point1DData;
@@ -33,10 +33,23 @@ public class SortX1DTransformation implements Channel1DDataInROITransformation
             return sortGridChannel((GridChannel1DData)channel);
         }
 
-        double[][] points = channel.getPointsCopy();
-        double[][] sortedPoints = order.sortX(points);
+        double[] xs = channel.getXs();
+        double[] ys = channel.getYs();
 
-        FlexibleChannel1DData channelData = new FlexibleChannel1DData(sortedPoints, channel.getXQuantity(), channel.getYQuantity(), order);
+        int[] permutation = order.getSortingPermutation(xs);
+        int n = permutation.length;
+
+        double[] sortedXs = new double[n];
+        double[] sortedYs = new double[n];
+
+        for(int i = 0; i < n; i++)
+        {
+            int j = permutation[i];
+            sortedXs[i] = xs[j];
+            sortedYs[i] = ys[j];
+        }
+
+        FlexibleFlatChannel1DData channelData = new FlexibleFlatChannel1DData(sortedXs, sortedYs, channel.getXQuantity(), channel.getYQuantity(), order);
         return channelData;
     }
 
@@ -0,0 +1,338 @@
+
+/* 
+ * ===========================================================
+ * AtomicJ : a free application for analysis of AFM data
+ * ===========================================================
+ *
+ * (C) Copyright 2013-2022 by Paweł Hermanowicz
+ *
+ * 
+ * This program is free software; you can redistribute it and/or modify 
+ * it under the terms of the GNU General Public License as published by 
+ * the Free Software Foundation; either version 3 of the License, or (at your option) any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without 
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU 
+ * General Public License for more details.
+ * You should have received a copy of the GNU General Public License along with this program; if not, 
+ * see http://www.gnu.org/licenses/*/
+
+package atomicJ.data;
+
+import java.lang.ref.WeakReference;
+
+import org.jfree.data.Range;
+
+import atomicJ.analysis.SortedArrayOrder;
+import atomicJ.data.units.Quantity;
+import atomicJ.utilities.OrderedIntegerPair;
+
+/*
+ * Base class of channel data kept in a compact form, which are decoded into a FlexibleFlatChannel1DData when the points are first needed.
+ * The decoded data are kept only as long as they are strongly reachable from elsewhere, e.g. from the arrays used by the processing of the curve,
+ * so that only the compact form takes heap when the curve is not used. Arrays returned by getXCoordinates(), getYCoordinates(), getXs() and getYs() 
+ * must not be modified, as the data may be decoded again.
+ */
+
+public abstract class AbstractDecodedChannel1DData implements Channel1DData
+{
+    private final int itemCount;
+
+    private final Quantity xQuantity;
+    private final Quantity yQuantity;
+    private final SortedArrayOrder xOrder;
+
+    private volatile WeakReference<FlexibleFlatChannel1DData> decoded = new WeakReference<>(null);
+
+    protected AbstractDecodedChannel1DData(int itemCount, Quantity xQuantity, Quantity yQuantity, SortedArrayOrder xOrder)
+    {
+        this.itemCount = itemCount;
+        this.xQuantity = xQuantity;
+        this.yQuantity = yQuantity;
+        this.xOrder = xOrder;
+    }
+
+    protected abstract FlexibleFlatChannel1DData decode();
+
+    protected FlexibleFlatChannel1DData getDecoded()
+    {
+        FlexibleFlatChannel1DData data = decoded.get();
+
+        if(data == null)
+        {
+            data = decode();
+            decoded = new WeakReference<>(data);
+        }
+
+        return data;
+    }
+
+    @Override
+    public Channel1DData getCopy(double yScale)
+    {
+        return getDecoded().getCopy(yScale);
+    }
+
+    @Override
+    public Channel1DData getCopy(double yScale, Quantity yQuantityNew)
+    {
+        return getDecoded().getCopy(yScale, yQuantityNew);
+    }
+
+    @Override
+    public Channel1DData getCopyWithXQuantityReplaced(double xScale, Quantity xQuantityNew)
+    {
+        return getDecoded().getCopyWithXQuantityReplaced(xScale, xQuantityNew);
+    }
+
+    @Override
+    public Channel1DData getCopyWithXAndYQuantitesReplaced(double xScale, Quantity xQuantityNew, double yScale, Quantity yQuantityNew)
+    {
+        return getDecoded().getCopyWithXAndYQuantitesReplaced(xScale, xQuantityNew, yScale, yQuantityNew);
+    }
+
+    @Override
+    public Quantity getXQuantity()
+    {
+        return xQuantity;
+    }
+
+    @Override
+    public Quantity getYQuantity()
+    {
+        return yQuantity;
+    }
+
+    @Override
+    public double[][] getPoints()
+    {
+        return getDecoded().getPoints();
+    }
+
+    @Override
+    public double[][] getPointsCopy()
+    {
+        return getDecoded().getPointsCopy();
+    }
+
+    @Override
+    public double[][] getPointsCopy(double yScale)
+    {
+        return getDecoded().getPointsCopy(yScale);
+    }
+
+    @Override
+    public double[][] getPointsCopy(int from, int to)
+    {
+        return getDecoded().getPointsCopy(from, to);
+    }
+
+    @Override
+    public SortedArrayOrder getXOrder()
+    {
+        return xOrder;
+    }
+
+    @Override
+    public boolean isEmpty()
+    {
+        return itemCount == 0;
+    }
+
+    @Override
+    public int getItemCount()
+    {
+        return itemCount;
+    }
+
+    @Override
+    public double getX(int item)
+    {
+        return getDecoded().getX(item);
+    }
+
+    @Override
+    public double getY(int item)
+    {
+        return getDecoded().getY(item);
+    }
+
+    @Override
+    public double getXMinimum()
+    {
+        return getDecoded().getXMinimum();
+    }
+
+    @Override
+    public double getXMinimumIncludingErrors()
+    {
+        return getDecoded().getXMinimumIncludingErrors();
+    }
+
+    @Override
+    public double getXMaximum()
+    {
+        return getDecoded().getXMaximum();
+    }
+
+    @Override
+    public double getXMaximumIncludingErrors()
+    {
+        return getDecoded().getXMaximumIncludingErrors();
+    }
+
+    @Override
+    public Range getXRange()
+    {
+        return getDecoded().getXRange();
+    }
+
+    @Override
+    public double getYMinimum()
+    {
+        return getDecoded().getYMinimum();
+    }
+
+    @Override
+    public double getYMinimumIncludingErrors()
+    {
+        return getDecoded().getYMinimumIncludingErrors();
+    }
+
+    @Override
+    public int getYMinimumIndex(int from, int to)
+    {
+        return getDecoded().getYMinimumIndex(from, to);
+    }
+
+    @Override
+    public double getYMaximum()
+    {
+        return getDecoded().getYMaximum();
+    }
+
+    @Override
+    public double getYMaximumIncludingErrors()
+    {
+        return getDecoded().getYMaximumIncludingErrors();
+    }
+
+    @Override
+    public int getYMaximumIndex(int from, int to)
+    {
+        return getDecoded().getYMaximumIndex(from, to);
+    }
+
+    @Override
+    public OrderedIntegerPair getIndicesOfYExtrema()
+    {
+        return getDecoded().getIndicesOfYExtrema();
+    }
+
+    @Override
+    public OrderedIntegerPair getIndicesOfYExtrema(int from, int to)
+    {
+        return getDecoded().getIndicesOfYExtrema(from, to);
+    }
+
+    @Override
+    public Range getYRange()
+    {
+        return getDecoded().getYRange();
+    }
+
+    @Override
+    public Range getYRange(Range xRange)
+    {
+        return getDecoded().getYRange(xRange);
+    }
+
+    @Override
+    public Range getYRangeIncludingErrors(Range xRange)
+    {
+        return getDecoded().getYRangeIncludingErrors(xRange);
+    }
+
+    @Override
+    public IndexRange getIndexRangeBoundedBy(double lowerBound, double upperBound)
+    {
+        return getDecoded().getIndexRangeBoundedBy(lowerBound, upperBound);
+    }
+
+    @Override
+    public int getIndexOfGreatestXSmallerOrEqualTo(double upperBound)
+    {
+        return getDecoded().getIndexOfGreatestXSmallerOrEqualTo(upperBound);
+    }
+
+    @Override
+    public int getIndexOfSmallestXGreaterOrEqualTo(double lowerBound)
+    {
+        return getDecoded().getIndexOfSmallestXGreaterOrEqualTo(lowerBound);
+    }
+
+    @Override
+    public int getIndexCountBoundedBy(double lowerBound, double upperBound)
+    {
+        return getDecoded().getIndexCountBoundedBy(lowerBound, upperBound);
+    }
+
+    @Override
+    public int getIndexWithinDataBoundsOfItemWithXClosestTo(double x)
+    {
+        return getDecoded().getIndexWithinDataBoundsOfItemWithXClosestTo(x);
+    }
+
+    @Override
+    public double[] getPoint(int item)
+    {
+        return getDecoded().getPoint(item);
+    }
+
+    @Override
+    public double[] getXCoordinatesCopy()
+    {
+        return getDecoded().getXCoordinatesCopy();
+    }
+
+    @Override
+    public double[] getXCoordinatesCopy(int from, int to)
+    {
+        return getDecoded().getXCoordinatesCopy(from, to);
+    }
+
+    @Override
+    public double[] getYCoordinatesCopy()
+    {
+        return getDecoded().getYCoordinatesCopy();
+    }
+
+    @Override
+    public double[] getYCoordinatesCopy(int from, int to)
+    {
+        return getDecoded().getYCoordinatesCopy(from, to);
+    }
+
+    @Override
+    public double[] getXCoordinates()
+    {
+        return getDecoded().getXCoordinates();
+    }
+
+    @Override
+    public double[] getYCoordinates()
+    {
+        return getDecoded().getYCoordinates();
+    }
+
+    @Override
+    public double[][] getXYViewCopy()
+    {
+        return getDecoded().getXYViewCopy();
+    }
+
+    @Override
+    public double[][] getXYViewCopy(int from, int to)
+    {
+        return getDecoded().getXYViewCopy(from, to);
+    }
+}
@@ -145,6 +145,24 @@ public interface Channel1DData
     public double[] getYCoordinatesCopy(int from, int to);
     public double[] getXCoordinates();
     public double[] getYCoordinates();
+
+    /**
+     * Returns the x coordinates of the points as a read-only array, which must not be modified by the caller. 
+     * Columnar implementations, like {@code FlexibleFlatChannel1DData}, return the array backing the channel, without copying, 
+     * so this method, together with {@link #getYs()}, should be preferred over {@link #getPoints()} by numerical code which only reads the data
+     */
+    public default double[] getXs()
+    {
+        return getXCoordinates();
+    }
+
+    /**
+     * Returns the y coordinates of the points as a read-only array, which must not be modified by the caller. See {@link #getXs()}
+     */
+    public default double[] getYs()
+    {
+        return getYCoordinates();
+    }
     public double[][] getXYViewCopy();
     public double[][] getXYViewCopy(int from, int to);
 }
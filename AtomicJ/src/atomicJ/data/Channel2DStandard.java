@@ -142,7 +142,8 @@ public class Channel2DStandard implements Channel2D
     @Override
     public Channel2DData getChannelData() 
     {
-        return channelData;
+        //the data stored in single precision are passed on as a GridChannel2DData, so that the callers can use its fast paths
+        return (channelData instanceof FloatGridChannel2DData) ? channelData.getDefaultGridding() : channelData;
     }
 
     @Override
@@ -160,7 +161,7 @@ public class Channel2DStandard implements Channel2D
     @Override
     public boolean transform(Channel2DDataTransformation tr) 
     {        
-        this.channelData = tr.transform(channelData);
+        this.channelData = tr.transform(getChannelData());
 
         return true;      
     }
@@ -168,7 +169,7 @@ public class Channel2DStandard implements Channel2D
     @Override
     public boolean transform(Channel2DDataInROITransformation tr, ROI roi, ROIRelativePosition position) 
     {
-        this.channelData = tr.transform(channelData, roi, position);
+        this.channelData = tr.transform(getChannelData(), roi, position);
         return true;
     }
 
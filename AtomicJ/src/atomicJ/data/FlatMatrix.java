@@ -0,0 +1,212 @@
+
+/* 
+ * ===========================================================
+ * AtomicJ : a free application for analysis of AFM data
+ * ===========================================================
+ *
+ * (C) Copyright 2013-2022 by Paweł Hermanowicz
+ *
+ * 
+ * This program is free software; you can redistribute it and/or modify 
+ * it under the terms of the GNU General Public License as published by 
+ * the Free Software Foundation; either version 3 of the License, or (at your option) any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without 
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU 
+ * General Public License for more details.
+ * You should have received a copy of the GNU General Public License along with this program; if not, 
+ * see http://www.gnu.org/licenses/*/
+
+package atomicJ.data;
+
+import atomicJ.utilities.Validation;
+
+/*
+ * Matrix whose elements are stored row after row in a single array. The element in the given row and column is at offset + row*stride + column,
+ * so a submatrix is a view which shares the array of the original matrix. Padded matrices have margins filled with the values
+ * at the nearest edge, so that the elements with row and column indices up to the padding outside the matrix can be read without bound checks.
+ * This is used by the kernel convolutions and the neighbourhood filters, whose inner loops then do not have to clamp indices or to dereference rows.
+ * The channels themselves still store their data as arrays of rows, so the filters copy the image into a padded matrix once per transformation.
+ */
+
+public class FlatMatrix
+{
+    private final double[] values;
+    private final int rowCount;
+    private final int columnCount;
+    private final int offset;
+    private final int stride;
+    private final int rowPadding;
+    private final int columnPadding;
+
+    public FlatMatrix(int rowCount, int columnCount)
+    {
+        this(rowCount, columnCount, 0, 0);
+    }
+
+    //the margins are filled by fillPadding(), after the elements are set
+    public FlatMatrix(int rowCount, int columnCount, int rowPadding, int columnPadding)
+    {
+        this(new double[(rowCount + 2*rowPadding)*(columnCount + 2*columnPadding)], rowCount, columnCount, 
+                rowPadding*(columnCount + 2*columnPadding) + columnPadding, columnCount + 2*columnPadding, rowPadding, columnPadding);
+    }
+
+    private FlatMatrix(double[] values, int rowCount, int columnCount, int offset, int stride, int rowPadding, int columnPadding)
+    {
+        this.values = values;
+        this.rowCount = rowCount;
+        this.columnCount = columnCount;
+        this.offset = offset;
+        this.stride = stride;
+        this.rowPadding = rowPadding;
+        this.columnPadding = columnPadding;
+    }
+
+    public static FlatMatrix getInstance(double[][] rows, int rowCount, int columnCount)
+    {
+        return getPaddedInstance(rows, rowCount, columnCount, 0, 0);
+    }
+
+    public static FlatMatrix getPaddedInstance(double[][] rows, int rowCount, int columnCount, int rowPadding, int columnPadding)
+    {
+        Validation.requireNonNullParameterName(rows, "rows");
+
+        FlatMatrix matrix = new FlatMatrix(rowCount, columnCount, rowPadding, columnPadding);
+
+        for(int i = 0; i < rowCount; i++)
+        {
+            System.arraycopy(rows[i], 0, matrix.values, matrix.getIndex(i, 0), columnCount);
+        }
+
+        matrix.fillPadding();
+
+        return matrix;
+    }
+
+    //returns a copy of this matrix with margins filled with the values at the nearest edge
+    public FlatMatrix getPadded(int rowPadding, int columnPadding)
+    {
+        FlatMatrix matrix = new FlatMatrix(rowCount, columnCount, rowPadding, columnPadding);
+
+        for(int i = 0; i < rowCount; i++)
+        {
+            System.arraycopy(values, getIndex(i, 0), matrix.values, matrix.getIndex(i, 0), columnCount);
+        }
+
+        matrix.fillPadding();
+
+        return matrix;
+    }
+
+    //sets the elements in the margins to the values of the nearest elements of the matrix
+    public void fillPadding()
+    {
+        if(rowCount == 0 || columnCount == 0)
+        {
+            return;
+        }
+
+        for(int i = 0; i < rowCount; i++)
+        {
+            int rowStart = getIndex(i, 0);
+
+            double first = values[rowStart];
+            double last = values[rowStart + columnCount - 1];
+
+            for(int j = 1; j <= columnPadding; j++)
+            {
+                values[rowStart - j] = first;
+                values[rowStart + columnCount - 1 + j] = last;
+            }
+        }
+
+        int paddedRowStart = getIndex(0, -columnPadding);
+        int paddedRowLength = columnCount + 2*columnPadding;
+        int lastRowStart = getIndex(rowCount - 1, -columnPadding);
+
+        for(int i = 1; i <= rowPadding; i++)
+        {
+            System.arraycopy(values, paddedRowStart, values, paddedRowStart - i*stride, paddedRowLength);
+            System.arraycopy(values, lastRowStart, values, lastRowStart + i*stride, paddedRowLength);
+        }
+    }
+
+    //the view shares the elements with this matrix
+    public FlatMatrix getView(int rowFrom, int rowTo, int columnFrom, int columnTo)
+    {
+        if(rowFrom < 0 || rowTo > rowCount || rowFrom > rowTo || columnFrom < 0 || columnTo > columnCount || columnFrom > columnTo)
+        {
+            throw new IndexOutOfBoundsException("The view [" + rowFrom + ", " + rowTo + ") x [" + columnFrom + ", " + columnTo
+                    + ") is outside the matrix with " + rowCount + " rows and " + columnCount + " columns");
+        }
+
+        return new FlatMatrix(values, rowTo - rowFrom, columnTo - columnFrom, getIndex(rowFrom, columnFrom), stride, 0, 0);
+    }
+
+    public int getRowCount()
+    {
+        return rowCount;
+    }
+
+    public int getColumnCount()
+    {
+        return columnCount;
+    }
+
+    //the array which backs this matrix, it may be shared with other views and contain padding
+    public double[] getValues()
+    {
+        return values;
+    }
+
+    public int getOffset()
+    {
+        return offset;
+    }
+
+    public int getStride()
+    {
+        return stride;
+    }
+
+    public int getRowPadding()
+    {
+        return rowPadding;
+    }
+
+    public int getColumnPadding()
+    {
+        return columnPadding;
+    }
+
+    public int getIndex(int row, int column)
+    {
+        return offset + row*stride + column;
+    }
+
+    public double get(int row, int column)
+    {
+        return values[offset + row*stride + column];
+    }
+
+    public void set(int row, int column, double value)
+    {
+        values[offset + row*stride + column] = value;
+    }
+
+    public void copyRow(int row, double[] destination)
+    {
+        System.arraycopy(values, getIndex(row, 0), destination, 0, columnCount);
+    }
+
+    public double[][] toRows()
+    {
+        double[][] rows = new double[rowCount][columnCount];
+
+        for(int i = 0; i < rowCount; i++)
+        {
+            copyRow(i, rows[i]);
+        }
+
+        return rows;
+    }
+}
@@ -74,19 +74,23 @@ public class FlexibleChannel1DData implements Channel1DData
         return getCopy(scale, this.yQuantity);
     }
 
+    //the rescaled copies are made e.g. when the recorded deflection is calibrated before processing,
+    //so they are columnar, which avoids allocation of an array for each point in further processing
     @Override
     public Channel1DData getCopy(double yScale, Quantity yQuantityNew)
     {
         int n = points.length;
-        double[][] pointsCopy = new double[n][];
+        double[] xsCopy = new double[n];
+        double[] ysCopy = new double[n];
 
         for(int i = 0; i<n;i++)
         {
             double[] p = points[i];
-            pointsCopy[i] = new double[] {p[0], yScale*p[1]};
+            xsCopy[i] = p[0];
+            ysCopy[i] = yScale*p[1];
         }
 
-        Channel1DData copy = new FlexibleChannel1DData(pointsCopy, this.xQuantity, yQuantityNew, this.xOrder);
+        Channel1DData copy = new FlexibleFlatChannel1DData(xsCopy, ysCopy, this.xQuantity, yQuantityNew, this.xOrder);
 
         return copy;
     }
@@ -59,6 +59,7 @@ public class FlexibleChannel2DData implements Channel2DData
     private final Range automaticRange;
 
     private SoftReference<SibsonInterpolator2> sibsonInterpolator;
+    private volatile PointIndex2D pointIndex;
 
     /*
      * THE FIRST ROW IN DATA MATRIX SHOULD CONSIST OF X COORDINATES, THE SECOND OF Y CORDINATES, AND
@@ -67,7 +68,7 @@ public class FlexibleChannel2DData implements Channel2DData
     public FlexibleChannel2DData(double[][] data, ChannelDomainIdentifier dataDensity,Quantity xQuantity, Quantity yQuantity, Quantity zQuantity)
     {   
         this.data = data;
-        this.xRange = ArrayUtilities.getBoundedRange(data[1]);
+        this.xRange = ArrayUtilities.getBoundedRange(data[0]);
         this.yRange = ArrayUtilities.getBoundedRange(data[1]);
         this.zRange = ArrayUtilities.getBoundedRange(data[2]);
         this.automaticRange = DescriptiveStatistics.getMADBasedRange(data[2], 3);
@@ -81,6 +82,8 @@ public class FlexibleChannel2DData implements Channel2DData
     public FlexibleChannel2DData(FlexibleChannel2DData that)
     {       
         this.data = ArrayUtilities.deepCopy(that.data);
+        this.xRange = that.xRange;
+        this.yRange = that.yRange;
         this.zRange = ArrayUtilities.getBoundedRange(this.data[2]);
         this.automaticRange = DescriptiveStatistics.getMADBasedRange(this.data[2], 3);
 
@@ -323,34 +326,31 @@ public class FlexibleChannel2DData implements Channel2DData
     {
         if(ROIRelativePosition.EVERYTHING.equals(position))
         {
-            getZCoordinatesCopy();
+            return getZCoordinatesCopy();
         }
 
         TDoubleList sampleData = new TDoubleArrayList();
 
-        double[] xs = data[0];
-        double[] ys = data[1];
         double[] zs = data[2];
 
-        int count = xs.length;
+        int count = zs.length;
 
         Shape roiShape = roi.getROIShape();
 
         if(ROIRelativePosition.INSIDE.equals(position))
         {
-            for(int j = 0; j<count; j++)
+            for(int j : getPointIndex().getIndicesInside(roiShape))
             {
-                if(roiShape.contains(xs[j], ys[j]))
-                {                   
-                    sampleData.add(zs[j]);                
-                }   
+                sampleData.add(zs[j]);                
             }
         }
         else if(ROIRelativePosition.OUTSIDE.equals(position))
         {
+            boolean[] inside = getPointIndex().getInsideMask(roiShape);
+
             for(int j = 0; j<count; j++)
             {
-                if(!roiShape.contains(xs[j], ys[j]))
+                if(!inside[j])
                 {                   
                     sampleData.add(zs[j]);                
                 }   
@@ -524,6 +524,20 @@ public class FlexibleChannel2DData implements Channel2DData
         this.sibsonInterpolator = new SoftReference<>(sibsonInterpolator);
     }
 
+    //the index of the x and y coordinates, used to select the points within ROIs without testing each of them
+    public PointIndex2D getPointIndex()
+    {
+        PointIndex2D index = this.pointIndex;
+
+        if(index == null)
+        {
+            index = new PointIndex2D(data[0], data[1]);
+            this.pointIndex = index;
+        }
+
+        return index;
+    }
+
     private SibsonInterpolator2 getSibsonInterpolator() 
     {
         if(sibsonInterpolator == null)
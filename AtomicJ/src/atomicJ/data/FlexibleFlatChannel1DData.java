@@ -39,6 +39,12 @@ public class FlexibleFlatChannel1DData implements Channel1DData
         this.yQuantity = that.yQuantity;
     }
 
+    //from inclusive, to exclusive; the view shares the arrays with this channel, so no points are copied
+    public RangeChannel1DData getView(int from, int to)
+    {
+        return new RangeChannel1DData(xValues, yValues, from, to, xQuantity, yQuantity, xOrder);
+    }
+
     public static FlexibleFlatChannel1DData getEmptyInstance(Quantity xQuantity, Quantity yQuantity)
     {
         return new FlexibleFlatChannel1DData(new double[] {}, new double[] {}, xQuantity, yQuantity, null);
@@ -0,0 +1,112 @@
+
+/* 
+ * ===========================================================
+ * AtomicJ : a free application for analysis of AFM data
+ * ===========================================================
+ *
+ * (C) Copyright 2013-2022 by Paweł Hermanowicz
+ *
+ * 
+ * This program is free software; you can redistribute it and/or modify 
+ * it under the terms of the GNU General Public License as published by 
+ * the Free Software Foundation; either version 3 of the License, or (at your option) any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without 
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU 
+ * General Public License for more details.
+ * You should have received a copy of the GNU General Public License along with this program; if not, 
+ * see http://www.gnu.org/licenses/*/
+
+package atomicJ.data;
+
+import atomicJ.analysis.SortedArrayOrder;
+import atomicJ.data.units.Quantity;
+import atomicJ.utilities.Validation;
+
+/*
+ * Channel data whose points are stored in single precision, which takes half of the memory of the double precision arrays.
+ * The precision of the float is much better than the resolution of the converters of AFM instruments, so the recorded data do not lose information.
+ * All computations are still carried out in double precision, on the points decoded when they are first needed, see AbstractDecodedChannel1DData.
+ */
+
+public class FloatChannel1DData extends AbstractDecodedChannel1DData
+{
+    private final float[] xValues;
+    private final float[] yValues;
+
+    public FloatChannel1DData(Channel1DData data)
+    {
+        this(toFloats(data.getXs()), toFloats(data.getYs()), data.getXQuantity(), data.getYQuantity(), data.getXOrder());
+    }
+
+    public FloatChannel1DData(float[] xValues, float[] yValues, Quantity xQuantity, Quantity yQuantity, SortedArrayOrder xOrder)
+    {
+        super(requireEqualLengths(xValues, yValues), xQuantity, yQuantity, xOrder);
+
+        this.xValues = xValues;
+        this.yValues = yValues;
+    }
+
+    //returns the number of points, the arrays must be checked before the call to the super constructor
+    private static int requireEqualLengths(float[] xValues, float[] yValues)
+    {
+        Validation.requireTwoArraysNonNullAndOfEqualLengthParameterName(xValues, yValues, "xValues", "yValues");
+        return xValues.length;
+    }
+
+    @Override
+    protected FlexibleFlatChannel1DData decode()
+    {
+        return new FlexibleFlatChannel1DData(toDoubles(xValues), toDoubles(yValues), getXQuantity(), getYQuantity(), getXOrder());
+    }
+
+    //the arrays are never modified, so the copy shares them
+    @Override
+    public Channel1DData getCopy()
+    {
+        return new FloatChannel1DData(xValues, yValues, getXQuantity(), getYQuantity(), getXOrder());
+    }
+
+    @Override
+    public double getX(int item)
+    {
+        return xValues[item];
+    }
+
+    @Override
+    public double getY(int item)
+    {
+        return yValues[item];
+    }
+
+    @Override
+    public double[] getPoint(int item)
+    {
+        return new double[] {xValues[item], yValues[item]};
+    }
+
+    static float[] toFloats(double[] values)
+    {
+        int n = values.length;
+        float[] floats = new float[n];
+
+        for(int i = 0; i < n; i++)
+        {
+            floats[i] = (float)values[i];
+        }
+
+        return floats;
+    }
+
+    static double[] toDoubles(float[] values)
+    {
+        int n = values.length;
+        double[] doubles = new double[n];
+
+        for(int i = 0; i < n; i++)
+        {
+            doubles[i] = values[i];
+        }
+
+        return doubles;
+    }
+}
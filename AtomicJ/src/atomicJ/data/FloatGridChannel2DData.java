@@ -0,0 +1,372 @@
+
+/* 
+ * ===========================================================
+ * AtomicJ : a free application for analysis of AFM data
+ * ===========================================================
+ *
+ * (C) Copyright 2013-2022 by Paweł Hermanowicz
+ *
+ * 
+ * This program is free software; you can redistribute it and/or modify 
+ * it under the terms of the GNU General Public License as published by 
+ * the Free Software Foundation; either version 3 of the License, or (at your option) any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without 
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU 
+ * General Public License for more details.
+ * You should have received a copy of the GNU General Public License along with this program; if not, 
+ * see http://www.gnu.org/licenses/*/
+
+package atomicJ.data;
+
+import java.awt.Shape;
+import java.awt.geom.Point2D;
+import java.awt.geom.Rectangle2D;
+import java.lang.ref.WeakReference;
+import java.util.Collection;
+import java.util.Map;
+
+import org.jfree.data.Range;
+
+import atomicJ.analysis.InterpolationMethod2D;
+import atomicJ.data.units.Quantity;
+import atomicJ.gui.rois.ROI;
+import atomicJ.gui.rois.ROIRelativePosition;
+import atomicJ.resources.CrossSectionSettings;
+import atomicJ.utilities.Validation;
+
+/*
+ * Image data on a regular grid whose values are stored in single precision. The values are converted to a GridChannel2DData when they are first needed,
+ * and the converted data are kept as long as a renderer or a transformation refers to them, so that a displayed image is not converted at each repaint,
+ * while an image that is no longer used keeps only its single precision values.
+ * Channel2DStandard passes the converted data to transformations and renderers, which use the fast paths of GridChannel2DData.
+ * The values are never modified, so copies share them.
+ */
+
+public class FloatGridChannel2DData implements Channel2DData
+{
+    private final float[][] gridData;
+    private final Grid2D grid;
+    private final Quantity zQuantity;
+
+    private volatile WeakReference<GridChannel2DData> decoded = new WeakReference<>(null);
+
+    public FloatGridChannel2DData(GridChannel2DData data)
+    {
+        this(toFloats(data.getData()), data.getGrid(), data.getZQuantity());
+    }
+
+    public FloatGridChannel2DData(float[][] gridData, Grid2D grid, Quantity zQuantity)
+    {
+        this.gridData = Validation.requireNonNullParameterName(gridData, "gridData");
+        this.grid = Validation.requireNonNullParameterName(grid, "grid");
+        this.zQuantity = Validation.requireNonNullParameterName(zQuantity, "zQuantity");
+    }
+
+    //two threads may decode the data at the same time, but they obtain equal data, so it does not matter which one is kept
+    private GridChannel2DData getDecoded()
+    {
+        GridChannel2DData data = decoded.get();
+
+        if(data == null)
+        {
+            data = new GridChannel2DData(toDoubles(gridData), grid, zQuantity);
+            decoded = new WeakReference<>(data);
+        }
+
+        return data;
+    }
+
+    public Grid2D getGrid()
+    {
+        return grid;
+    }
+
+    @Override
+    public Channel2DData getCopy()
+    {
+        return new FloatGridChannel2DData(gridData, grid, zQuantity);
+    }
+
+    @Override
+    public Quantity getXQuantity()
+    {
+        return grid.getXQuantity();
+    }
+
+    @Override
+    public Quantity getYQuantity()
+    {
+        return grid.getYQuantity();
+    }
+
+    @Override
+    public Quantity getZQuantity()
+    {
+        return zQuantity;
+    }
+
+    @Override
+    public double[][] getPoints()
+    {
+        return getDecoded().getPoints();
+    }
+
+    @Override
+    public double[][] getPointsCopy()
+    {
+        return getDecoded().getPointsCopy();
+    }
+
+    @Override
+    public boolean isEmpty()
+    {
+        return grid.isEmpty();
+    }
+
+    @Override
+    public int getItemCount()
+    {
+        return grid.getItemCount();
+    }
+
+    @Override
+    public double getDataDensity()
+    {
+        return grid.getGridDensity();
+    }
+
+    @Override
+    public double getX(int item)
+    {
+        return getDecoded().getX(item);
+    }
+
+    @Override
+    public double getY(int item)
+    {
+        return getDecoded().getY(item);
+    }
+
+    @Override
+    public double getZ(int item)
+    {
+        int columnCount = grid.getColumnCount();
+
+        int column = item % columnCount;
+        int row = item / columnCount;
+
+        return gridData[row][column];
+    }
+
+    @Override
+    public double getXDataDensity()
+    {
+        return getDecoded().getXDataDensity();
+    }
+
+    @Override
+    public double getYDataDensity()
+    {
+        return getDecoded().getYDataDensity();
+    }
+
+    @Override
+    public boolean isWithinDataDomain(Point2D dataPoint)
+    {
+        return getDecoded().isWithinDataDomain(dataPoint);
+    }
+
+    @Override
+    public Rectangle2D getDataArea()
+    {
+        return getDecoded().getDataArea();
+    }
+
+    @Override
+    public Range getXRange()
+    {
+        return getDecoded().getXRange();
+    }
+
+    @Override
+    public Range getYRange()
+    {
+        return getDecoded().getYRange();
+    }
+
+    @Override
+    public Range getZRange()
+    {
+        return getDecoded().getZRange();
+    }
+
+    @Override
+    public Range getAutomaticZRange()
+    {
+        return getDecoded().getAutomaticZRange();
+    }
+
+    @Override
+    public double[] getXCoordinates()
+    {
+        return getDecoded().getXCoordinates();
+    }
+
+    @Override
+    public double[] getYCoordinates()
+    {
+        return getDecoded().getYCoordinates();
+    }
+
+    @Override
+    public double[] getZCoordinates()
+    {
+        return getDecoded().getZCoordinates();
+    }
+
+    @Override
+    public double[] getXCoordinatesCopy()
+    {
+        return getDecoded().getXCoordinatesCopy();
+    }
+
+    @Override
+    public double[] getYCoordinatesCopy()
+    {
+        return getDecoded().getYCoordinatesCopy();
+    }
+
+    @Override
+    public double[] getZCoordinatesCopy()
+    {
+        return getDecoded().getZCoordinatesCopy();
+    }
+
+    @Override
+    public QuantitativeSample getXSample()
+    {
+        return getDecoded().getXSample();
+    }
+
+    @Override
+    public QuantitativeSample getYSample()
+    {
+        return getDecoded().getYSample();
+    }
+
+    @Override
+    public QuantitativeSample getZSample(String nameTag)
+    {
+        return getDecoded().getZSample(nameTag);
+    }
+
+    @Override
+    public double[] getPoint(int item)
+    {
+        return getDecoded().getPoint(item);
+    }
+
+    @Override
+    public double getValue(Point2D dataPoint)
+    {
+        return getDecoded().getValue(dataPoint);
+    }
+
+    @Override
+    public double[][] getXYZView()
+    {
+        return getDecoded().getXYZView();
+    }
+
+    @Override
+    public Grid2D getDefaultGriddingGrid()
+    {
+        return grid;
+    }
+
+    @Override
+    public GridChannel2DData getDefaultGridding()
+    {
+        return getDecoded();
+    }
+
+    @Override
+    public GridChannel2DData getGridding(Grid2D gridNew)
+    {
+        return getDecoded().getGridding(gridNew);
+    }
+
+    @Override
+    public ChannelDomainIdentifier getDomainIdentifier()
+    {
+        return getDecoded().getDomainIdentifier();
+    }
+
+    @Override
+    public double[] getProfileValues(Shape profile, CrossSectionSettings settings)
+    {
+        return getDecoded().getProfileValues(profile, settings);
+    }
+
+    @Override
+    public double[][] getCrossSection(Shape profile, CrossSectionSettings settings)
+    {
+        return getDecoded().getCrossSection(profile, settings);
+    }
+
+    @Override
+    public double[] getROIData(ROI roi, ROIRelativePosition position)
+    {
+        return getDecoded().getROIData(roi, position);
+    }
+
+    @Override
+    public QuantitativeSample getROISample(ROI roi, ROIRelativePosition position, String sampleKeyTail)
+    {
+        return getDecoded().getROISample(roi, position, sampleKeyTail);
+    }
+
+    @Override
+    public Map<Object, QuantitativeSample> getROISamples(Collection<ROI> rois, ROIRelativePosition position, String sampleKeyTail)
+    {
+        return getDecoded().getROISamples(rois, position, sampleKeyTail);
+    }
+
+    @Override
+    public boolean isInterpolationPreparationNecessary(InterpolationMethod2D interpolationMethod)
+    {
+        return getDecoded().isInterpolationPreparationNecessary(interpolationMethod);
+    }
+
+    @Override
+    public void prepareForInterpolationIfNecessary(InterpolationMethod2D interpolation)
+    {
+        getDecoded().prepareForInterpolationIfNecessary(interpolation);
+    }
+
+    private static float[][] toFloats(double[][] values)
+    {
+        int rowCount = values.length;
+        float[][] floats = new float[rowCount][];
+
+        for(int i = 0; i < rowCount; i++)
+        {
+            floats[i] = FloatChannel1DData.toFloats(values[i]);
+        }
+
+        return floats;
+    }
+
+    private static double[][] toDoubles(float[][] values)
+    {
+        int rowCount = values.length;
+        double[][] doubles = new double[rowCount][];
+
+        for(int i = 0; i < rowCount; i++)
+        {
+            doubles[i] = FloatChannel1DData.toDoubles(values[i]);
+        }
+
+        return doubles;
+    }
+}
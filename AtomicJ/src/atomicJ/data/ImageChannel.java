@@ -19,6 +19,7 @@
 package atomicJ.data;
 
 import atomicJ.data.units.Quantity;
+import atomicJ.gui.GeneralPreferences;
 
 public class ImageChannel extends Channel2DStandard
 {
@@ -29,12 +30,12 @@ public class ImageChannel extends Channel2DStandard
 
     public ImageChannel(double[][] gridData, Grid2D grid, Quantity zQuantity, String identifier, boolean isTrace)
     {
-        this(new GridChannel2DData(gridData, grid, zQuantity), identifier, "", isTrace, "");        
+        this(compact(new GridChannel2DData(gridData, grid, zQuantity)), identifier, "", isTrace, "");        
     }
 
     public ImageChannel(double[][] gridData, Grid2D grid, Quantity zQuantity, String identifier, boolean isTrace, ChannelMetadata channelMetadata)
     {
-        this(new GridChannel2DData(gridData, grid, zQuantity), identifier, "", isTrace, channelMetadata);        
+        this(compact(new GridChannel2DData(gridData, grid, zQuantity)), identifier, "", isTrace, channelMetadata);        
     }
 
     public ImageChannel(Channel2DData channelData, String identifier, boolean isTrace)
@@ -78,11 +79,17 @@ public class ImageChannel extends Channel2DStandard
 
     public ImageChannel(ImageChannelBuilder builder)
     {
-        super(builder.buildData(), "", builder.identifier);
+        super(compact(builder.buildData()), "", builder.identifier);
         this.filter = builder.filter;
         this.isTrace = builder.isTrace;
     }
 
+    //the data read from files are stored in the precision set in the preferences
+    private static Channel2DData compact(GridChannel2DData data)
+    {
+        return GeneralPreferences.GENERAL_PREFERENCES.getRecordedDataPrecision().compact(data);
+    }
+
     @Override
     public ImageChannel getCopy()
     {
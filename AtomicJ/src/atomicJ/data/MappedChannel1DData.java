@@ -0,0 +1,71 @@
+
+/* 
+ * ===========================================================
+ * AtomicJ : a free application for analysis of AFM data
+ * ===========================================================
+ *
+ * (C) Copyright 2013-2022 by Paweł Hermanowicz
+ *
+ * 
+ * This program is free software; you can redistribute it and/or modify 
+ * it under the terms of the GNU General Public License as published by 
+ * the Free Software Foundation; either version 3 of the License, or (at your option) any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without 
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU 
+ * General Public License for more details.
+ * You should have received a copy of the GNU General Public License along with this program; if not, 
+ * see http://www.gnu.org/licenses/*/
+
+package atomicJ.data;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+
+import atomicJ.analysis.SortedArrayOrder;
+import atomicJ.data.units.Quantity;
+
+/*
+ * Handle to a curve kept in the MappedCurveStore. The points are decoded from the mapped file when they are first needed, 
+ * see AbstractDecodedChannel1DData, so that the handles of all curves of a map take little heap. 
+ * The stored data are never modified, so copies of the handle share them.
+ */
+
+public class MappedChannel1DData extends AbstractDecodedChannel1DData
+{
+    private final ByteBuffer segment;
+    private final int offset;
+
+    MappedChannel1DData(ByteBuffer segment, int offset, int itemCount, Quantity xQuantity, Quantity yQuantity, SortedArrayOrder xOrder)
+    {
+        super(itemCount, xQuantity, yQuantity, xOrder);
+
+        this.segment = segment;
+        this.offset = offset;
+    }
+
+    @Override
+    protected FlexibleFlatChannel1DData decode()
+    {
+        ByteBuffer buffer = segment.duplicate().order(ByteOrder.nativeOrder());
+        buffer.position(offset);
+
+        DoubleBuffer doubles = buffer.asDoubleBuffer();
+
+        int n = getItemCount();
+
+        double[] xs = new double[n];
+        double[] ys = new double[n];
+
+        doubles.get(xs);
+        doubles.get(ys);
+
+        return new FlexibleFlatChannel1DData(xs, ys, getXQuantity(), getYQuantity(), getXOrder());
+    }
+
+    @Override
+    public Channel1DData getCopy()
+    {
+        return new MappedChannel1DData(segment, offset, getItemCount(), getXQuantity(), getYQuantity(), getXOrder());
+    }
+}
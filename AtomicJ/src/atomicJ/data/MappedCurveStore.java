@@ -0,0 +1,204 @@
+
+/* 
+ * ===========================================================
+ * AtomicJ : a free application for analysis of AFM data
+ * ===========================================================
+ *
+ * (C) Copyright 2013-2022 by Paweł Hermanowicz
+ *
+ * 
+ * This program is free software; you can redistribute it and/or modify 
+ * it under the terms of the GNU General Public License as published by 
+ * the Free Software Foundation; either version 3 of the License, or (at your option) any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without 
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU 
+ * General Public License for more details.
+ * You should have received a copy of the GNU General Public License along with this program; if not, 
+ * see http://www.gnu.org/licenses/*/
+
+package atomicJ.data;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Optional off-heap store of recorded curves. When the store is enabled, StandardSimpleSpectroscopySource writes its approach and withdraw data
+ * into a temporary memory-mapped file as soon as it is created by a reader, and keeps only a MappedChannel1DData handle, which decodes the points
+ * when they are needed. The heap used by the recorded data then depends on the number of curves which are viewed or processed at the same time,
+ * and not on the size of the force maps. For each curve, the x-values are followed by the y-values, in the native byte order.
+ * The file is only appended to. It is closed and deleted when the store is disabled or its directory is changed, and at the latest when the application exits.
+ * Curves which are already stored keep their mapped buffers, which remain valid after the file is closed, so they are not affected.
+ */
+
+public enum MappedCurveStore
+{
+    MAPPED_CURVE_STORE;
+
+    //curves are not split between segments, so that each one can be read from a single mapped buffer
+    private static final long SEGMENT_SIZE = 1L << 28;
+    private static final String FILE_PREFIX = "curvesAtomicJ";
+    private static final String FILE_SUFFIX = ".tmp";
+
+    private volatile boolean enabled = false;
+
+    //guarded by this
+    private File directory;
+    private File file;
+    private FileChannel channel;
+    private final List<MappedByteBuffer> segments = new ArrayList<>();
+    private long position;
+
+    public boolean isEnabled()
+    {
+        return enabled;
+    }
+
+    public synchronized void setEnabled(boolean enabled)
+    {
+        this.enabled = enabled;
+
+        if(!enabled)
+        {
+            release();
+        }
+    }
+
+    //the directory in which the file of the store is created, if null, the default temporary directory is used
+    public synchronized File getDirectory()
+    {
+        return directory;
+    }
+
+    //curves stored after the change are written to a new file in the new directory
+    public synchronized void setDirectory(File directory)
+    {
+        if(!Objects.equals(this.directory, directory))
+        {
+            release();
+        }
+
+        this.directory = directory;
+    }
+
+    //in bytes
+    public synchronized long getSize()
+    {
+        return position;
+    }
+
+    //returns the handle to the stored data, or the original data if the store is disabled, the data are empty or cannot be stored
+    public Channel1DData storeIfEnabled(Channel1DData data)
+    {
+        if(!enabled || data == null || data.isEmpty() || data instanceof MappedChannel1DData)
+        {
+            return data;
+        }
+
+        try
+        {
+            return store(data);
+        }
+        catch(IOException | IllegalArgumentException e)
+        {
+            e.printStackTrace();
+            return data;
+        }
+    }
+
+    public MappedChannel1DData store(Channel1DData data) throws IOException
+    {
+        int n = data.getItemCount();
+        long byteCount = 2L*Double.BYTES*n;
+
+        if(byteCount > SEGMENT_SIZE)
+        {
+            throw new IllegalArgumentException("The curve with " + n + " points is too large to be stored");
+        }
+
+        MappedByteBuffer segment;
+        long start;
+
+        synchronized(this)
+        {
+            ensureOpen();
+
+            if(position % SEGMENT_SIZE + byteCount > SEGMENT_SIZE)
+            {
+                position = (position/SEGMENT_SIZE + 1)*SEGMENT_SIZE;
+            }
+
+            start = position;
+            position += byteCount;
+
+            segment = getSegment((int)(start/SEGMENT_SIZE));
+        }
+
+        int offset = (int)(start % SEGMENT_SIZE);
+
+        //the region was reserved above, so other threads do not write to it
+        ByteBuffer buffer = segment.duplicate().order(ByteOrder.nativeOrder());
+        buffer.position(offset);
+
+        DoubleBuffer doubles = buffer.asDoubleBuffer();
+        doubles.put(data.getXs());
+        doubles.put(data.getYs());
+
+        return new MappedChannel1DData(segment, offset, n, data.getXQuantity(), data.getYQuantity(), data.getXOrder());
+    }
+
+    private void ensureOpen() throws IOException
+    {
+        if(channel == null)
+        {
+            File fileNew = File.createTempFile(FILE_PREFIX, FILE_SUFFIX, directory);
+            fileNew.deleteOnExit();
+
+            this.channel = new RandomAccessFile(fileNew, "rw").getChannel();
+            this.file = fileNew;
+        }
+    }
+
+    //closes and deletes the file, the next curve is stored in a new one
+    private void release()
+    {
+        if(channel != null)
+        {
+            try
+            {
+                channel.close();
+            }
+            catch(IOException e)
+            {
+                e.printStackTrace();
+            }
+
+            //on some platforms a mapped file cannot be deleted before its buffers are garbage collected, then it is deleted on exit
+            file.delete();
+        }
+
+        this.channel = null;
+        this.file = null;
+        this.segments.clear();
+        this.position = 0;
+    }
+
+    private MappedByteBuffer getSegment(int index) throws IOException
+    {
+        while(segments.size() <= index)
+        {
+            //mapping in the read-write mode extends the file to the end of the segment
+            segments.add(channel.map(FileChannel.MapMode.READ_WRITE, segments.size()*SEGMENT_SIZE, SEGMENT_SIZE));
+        }
+
+        return segments.get(index);
+    }
+}
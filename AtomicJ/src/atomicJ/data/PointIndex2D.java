@@ -0,0 +1,383 @@
+
+/* 
+ * ===========================================================
+ * AtomicJ : a free application for analysis of AFM data
+ * ===========================================================
+ *
+ * (C) Copyright 2013-2022 by Paweł Hermanowicz
+ *
+ * 
+ * This program is free software; you can redistribute it and/or modify 
+ * it under the terms of the GNU General Public License as published by 
+ * the Free Software Foundation; either version 3 of the License, or (at your option) any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without 
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU 
+ * General Public License for more details.
+ * You should have received a copy of the GNU General Public License along with this program; if not, 
+ * see http://www.gnu.org/licenses/*/
+
+package atomicJ.data;
+
+import java.awt.Shape;
+import java.awt.geom.Rectangle2D;
+import java.util.Arrays;
+
+import gnu.trove.list.TIntList;
+import gnu.trove.list.array.TIntArrayList;
+import atomicJ.utilities.Validation;
+
+/*
+ * Static k-d tree of scattered points, used for picking and for the selection of points by ROIs in maps and images which are not recorded on a grid.
+ * The tree is implicit: the points are reordered so that the median of each range [from, to) splits it, alternately along the x and the y axis,
+ * and ranges of at most BUCKET_SIZE points are scanned linearly. The queries return the indices of the points in the arrays passed to the constructor.
+ */
+
+public class PointIndex2D
+{
+    private static final int BUCKET_SIZE = 8;
+
+    private final double[] xs;
+    private final double[] ys;
+    private final int[] indices;
+
+    private final double minX;
+    private final double maxX;
+    private final double minY;
+    private final double maxY;
+
+    public PointIndex2D(double[] xCoordinates, double[] yCoordinates)
+    {
+        Validation.requireTwoArraysNonNullAndOfEqualLengthParameterName(xCoordinates, yCoordinates, "xCoordinates", "yCoordinates");
+
+        int n = xCoordinates.length;
+
+        this.xs = Arrays.copyOf(xCoordinates, n);
+        this.ys = Arrays.copyOf(yCoordinates, n);
+        this.indices = new int[n];
+
+        double minX = Double.POSITIVE_INFINITY;
+        double maxX = Double.NEGATIVE_INFINITY;
+        double minY = Double.POSITIVE_INFINITY;
+        double maxY = Double.NEGATIVE_INFINITY;
+
+        for(int i = 0; i<n; i++)
+        {
+            indices[i] = i;
+
+            minX = Math.min(minX, xs[i]);
+            maxX = Math.max(maxX, xs[i]);
+            minY = Math.min(minY, ys[i]);
+            maxY = Math.max(maxY, ys[i]);
+        }
+
+        this.minX = minX;
+        this.maxX = maxX;
+        this.minY = minY;
+        this.maxY = maxY;
+
+        build(0, n, true);
+    }
+
+    public int getPointCount()
+    {
+        return indices.length;
+    }
+
+    public boolean isEmpty()
+    {
+        return indices.length == 0;
+    }
+
+    private void build(int from, int to, boolean splitX)
+    {
+        if(to - from <= BUCKET_SIZE)
+        {
+            return;
+        }
+
+        int median = (from + to) >>> 1;
+
+        select(from, to - 1, median, splitX ? xs : ys);
+
+        build(from, median, !splitX);
+        build(median + 1, to, !splitX);
+    }
+
+    //partially sorts the range [left, right], so that the k-th element has the same position as in the sorted range
+    private void select(int left, int right, int k, double[] keys)
+    {
+        while(right > left)
+        {
+            double pivot = keys[(left + right) >>> 1];
+
+            int i = left;
+            int j = right;
+
+            while(i <= j)
+            {
+                while(keys[i] < pivot)
+                {
+                    i++;
+                }
+                while(keys[j] > pivot)
+                {
+                    j--;
+                }
+                if(i <= j)
+                {
+                    swap(i, j);
+                    i++;
+                    j--;
+                }
+            }
+
+            if(k <= j)
+            {
+                right = j;
+            }
+            else if(k >= i)
+            {
+                left = i;
+            }
+            else
+            {
+                return;
+            }
+        }
+    }
+
+    private void swap(int i, int j)
+    {
+        double x = xs[i];
+        xs[i] = xs[j];
+        xs[j] = x;
+
+        double y = ys[i];
+        ys[i] = ys[j];
+        ys[j] = y;
+
+        int index = indices[i];
+        indices[i] = indices[j];
+        indices[j] = index;
+    }
+
+    //returns the index of the point closest to (x, y), or -1 if there are no points. If several points are equally close, the one with the smallest index is returned
+    public int getNearestIndex(double x, double y)
+    {
+        if(indices.length == 0)
+        {
+            return -1;
+        }
+
+        NearestPoint nearest = new NearestPoint();
+        findNearest(0, indices.length, true, x, y, nearest);
+
+        return nearest.index;
+    }
+
+    private void findNearest(int from, int to, boolean splitX, double x, double y, NearestPoint nearest)
+    {
+        if(to - from <= BUCKET_SIZE)
+        {
+            for(int i = from; i<to; i++)
+            {
+                nearest.offer(indices[i], distanceSq(i, x, y));
+            }
+
+            return;
+        }
+
+        int median = (from + to) >>> 1;
+
+        nearest.offer(indices[median], distanceSq(median, x, y));
+
+        double delta = splitX ? x - xs[median] : y - ys[median];
+
+        //the half which contains the query point is searched first, the other half only if it may contain a closer point
+        if(delta < 0)
+        {
+            findNearest(from, median, !splitX, x, y, nearest);
+            if(delta*delta <= nearest.distanceSq)
+            {
+                findNearest(median + 1, to, !splitX, x, y, nearest);
+            }
+        }
+        else
+        {
+            findNearest(median + 1, to, !splitX, x, y, nearest);
+            if(delta*delta <= nearest.distanceSq)
+            {
+                findNearest(from, median, !splitX, x, y, nearest);
+            }
+        }
+    }
+
+    private double distanceSq(int i, double x, double y)
+    {
+        double dx = xs[i] - x;
+        double dy = ys[i] - y;
+
+        return dx*dx + dy*dy;
+    }
+
+    //returns the indices of the points whose distance from (x, y) is not greater than the radius, in increasing order
+    public int[] getIndicesWithinDistance(double x, double y, double radius)
+    {
+        TIntList found = new TIntArrayList();
+
+        if(indices.length > 0 && radius >= 0)
+        {
+            addIndicesWithinDistance(0, indices.length, true, x, y, radius, radius*radius, found);
+        }
+
+        return toSortedArray(found);
+    }
+
+    private void addIndicesWithinDistance(int from, int to, boolean splitX, double x, double y, double radius, double radiusSq, TIntList found)
+    {
+        if(to - from <= BUCKET_SIZE)
+        {
+            for(int i = from; i<to; i++)
+            {
+                if(distanceSq(i, x, y) <= radiusSq)
+                {
+                    found.add(indices[i]);
+                }
+            }
+
+            return;
+        }
+
+        int median = (from + to) >>> 1;
+
+        if(distanceSq(median, x, y) <= radiusSq)
+        {
+            found.add(indices[median]);
+        }
+
+        double delta = splitX ? x - xs[median] : y - ys[median];
+
+        if(delta <= radius)
+        {
+            addIndicesWithinDistance(from, median, !splitX, x, y, radius, radiusSq, found);
+        }
+        if(delta >= -radius)
+        {
+            addIndicesWithinDistance(median + 1, to, !splitX, x, y, radius, radiusSq, found);
+        }
+    }
+
+    //returns the indices of the points which lie in the closed rectangle, in increasing order
+    public int[] getIndicesWithin(Rectangle2D rectangle)
+    {
+        TIntList found = new TIntArrayList();
+
+        if(indices.length > 0 && intersectsBounds(rectangle))
+        {
+            addIndicesWithin(0, indices.length, true, rectangle.getMinX(), rectangle.getMaxX(), rectangle.getMinY(), rectangle.getMaxY(), null, found);
+        }
+
+        return toSortedArray(found);
+    }
+
+    //if the shape is not null, only the points contained in it are added
+    private void addIndicesWithin(int from, int to, boolean splitX, double minX, double maxX, double minY, double maxY, Shape shape, TIntList found)
+    {
+        if(to - from <= BUCKET_SIZE)
+        {
+            for(int i = from; i<to; i++)
+            {
+                double x = xs[i];
+                double y = ys[i];
+
+                if(x >= minX && x <= maxX && y >= minY && y <= maxY && (shape == null || shape.contains(x, y)))
+                {
+                    found.add(indices[i]);
+                }
+            }
+
+            return;
+        }
+
+        int median = (from + to) >>> 1;
+
+        double x = xs[median];
+        double y = ys[median];
+
+        if(x >= minX && x <= maxX && y >= minY && y <= maxY && (shape == null || shape.contains(x, y)))
+        {
+            found.add(indices[median]);
+        }
+
+        double split = splitX ? x : y;
+        double lower = splitX ? minX : minY;
+        double upper = splitX ? maxX : maxY;
+
+        if(lower <= split)
+        {
+            addIndicesWithin(from, median, !splitX, minX, maxX, minY, maxY, shape, found);
+        }
+        if(upper >= split)
+        {
+            addIndicesWithin(median + 1, to, !splitX, minX, maxX, minY, maxY, shape, found);
+        }
+    }
+
+    //returns the indices of the points contained in the shape, in increasing order. Only the points within the bounds of the shape are tested
+    public int[] getIndicesInside(Shape shape)
+    {
+        TIntList found = new TIntArrayList();
+
+        Rectangle2D bounds = shape.getBounds2D();
+
+        if(indices.length > 0 && intersectsBounds(bounds))
+        {
+            addIndicesWithin(0, indices.length, true, bounds.getMinX(), bounds.getMaxX(), bounds.getMinY(), bounds.getMaxY(), shape, found);
+        }
+
+        return toSortedArray(found);
+    }
+
+    //returns an array whose i-th element is true if the i-th point is contained in the shape
+    public boolean[] getInsideMask(Shape shape)
+    {
+        boolean[] inside = new boolean[indices.length];
+
+        for(int index : getIndicesInside(shape))
+        {
+            inside[index] = true;
+        }
+
+        return inside;
+    }
+
+    private boolean intersectsBounds(Rectangle2D rectangle)
+    {
+        boolean intersects = rectangle.getMinX() <= maxX && rectangle.getMaxX() >= minX
+                && rectangle.getMinY() <= maxY && rectangle.getMaxY() >= minY;
+        return intersects;
+    }
+
+    private static int[] toSortedArray(TIntList list)
+    {
+        int[] array = list.toArray();
+        Arrays.sort(array);
+
+        return array;
+    }
+
+    private static class NearestPoint
+    {
+        private int index = -1;
+        private double distanceSq = Double.POSITIVE_INFINITY;
+
+        private void offer(int candidateIndex, double candidateDistanceSq)
+        {
+            if(candidateDistanceSq < distanceSq || (candidateDistanceSq == distanceSq && candidateIndex < index))
+            {
+                this.index = candidateIndex;
+                this.distanceSq = candidateDistanceSq;
+            }
+        }
+    }
+}
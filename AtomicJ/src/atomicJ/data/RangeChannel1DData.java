@@ -0,0 +1,657 @@
+
+/* 
+ * ===========================================================
+ * AtomicJ : a free application for analysis of AFM data
+ * ===========================================================
+ *
+ * (C) Copyright 2013-2022 by Paweł Hermanowicz
+ *
+ * 
+ * This program is free software; you can redistribute it and/or modify 
+ * it under the terms of the GNU General Public License as published by 
+ * the Free Software Foundation; either version 3 of the License, or (at your option) any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without 
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU 
+ * General Public License for more details.
+ * You should have received a copy of the GNU General Public License along with this program; if not, 
+ * see http://www.gnu.org/licenses/*/
+
+package atomicJ.data;
+
+import java.util.Arrays;
+
+import org.jfree.data.Range;
+
+import atomicJ.analysis.SortedArrayOrder;
+import atomicJ.data.units.Quantity;
+import atomicJ.utilities.ArrayUtilities;
+import atomicJ.utilities.MathUtilities;
+import atomicJ.utilities.OrderedIntegerPair;
+import atomicJ.utilities.Validation;
+
+/*
+ * Immutable view of a contiguous range of points of columnar data, i.e. of the points from offset (inclusive) to offset + length (exclusive)
+ * of the backing x and y arrays. Creation of a view, and of a view of a view, does not copy the points, so trimming and cropping of the domain
+ * of sorted channels takes constant time. Methods which return arrays, i.e. getXCoordinates(), getYCoordinates(), getXs() and getYs(),
+ * copy the range when they are first called and then return the same copy, so points are copied only for consumers which need whole arrays.
+ * Consumers which accept a range of an array, e.g. FastLTS, should instead use getBackingXs() and getBackingYs() together with getOffset().
+ */
+
+public class RangeChannel1DData implements Channel1DData
+{
+    private final double[] xValues;
+    private final double[] yValues;
+    private final int offset;
+    private final int length;
+
+    private final SortedArrayOrder xOrder;
+    private final Quantity xQuantity;
+    private final Quantity yQuantity;
+
+    //copies of the range, made on the first request
+    private volatile double[] xValuesMaterialized;
+    private volatile double[] yValuesMaterialized;
+
+    //from inclusive, to exclusive
+    public RangeChannel1DData(double[] xValues, double[] yValues, int from, int to, Quantity xQuantity, Quantity yQuantity, SortedArrayOrder xOrder)
+    {
+        Validation.requireTwoArraysNonNullAndOfEqualLengthParameterName(xValues, yValues, "xValues", "yValues");
+        Validation.requireValueEqualToOrBetweenBounds(from, 0, xValues.length, "from");
+        Validation.requireValueEqualToOrBetweenBounds(to, from, xValues.length, "to");
+
+        this.xValues = xValues;
+        this.yValues = yValues;
+        this.offset = from;
+        this.length = to - from;
+        this.xOrder = xOrder;
+        this.xQuantity = xQuantity;
+        this.yQuantity = yQuantity;
+    }
+
+    //returns a view of the points from 'from' (inclusive) to 'to' (exclusive) of the channel, without copying them if the channel is columnar,
+    //i.e. if it is a FlexibleFlatChannel1DData or another view. For other channels the points in the range are copied
+    public static Channel1DData getView(Channel1DData channel, int from, int to)
+    {
+        if(channel instanceof RangeChannel1DData)
+        {
+            return ((RangeChannel1DData)channel).getView(from, to);
+        }
+
+        if(channel instanceof FlexibleFlatChannel1DData)
+        {
+            return ((FlexibleFlatChannel1DData)channel).getView(from, to);
+        }
+
+        return new FlexibleFlatChannel1DData(channel.getXCoordinatesCopy(from, to), channel.getYCoordinatesCopy(from, to), channel.getXQuantity(), channel.getYQuantity(), channel.getXOrder());
+    }
+
+    //from inclusive, to exclusive, relative to the beginning of this view; the returned view shares the backing arrays with this one
+    public RangeChannel1DData getView(int from, int to)
+    {
+        Validation.requireValueEqualToOrBetweenBounds(from, 0, length, "from");
+        Validation.requireValueEqualToOrBetweenBounds(to, from, length, "to");
+
+        return new RangeChannel1DData(xValues, yValues, offset + from, offset + to, xQuantity, yQuantity, xOrder);
+    }
+
+    //index of the first point of the view in the backing arrays
+    public int getOffset()
+    {
+        return offset;
+    }
+
+    //the backing array is shared with the original channel and other views, so it must not be modified;
+    //the points of this view are those from getOffset() (inclusive) to getOffset() + getItemCount() (exclusive)
+    public double[] getBackingXs()
+    {
+        return xValues;
+    }
+
+    public double[] getBackingYs()
+    {
+        return yValues;
+    }
+
+    @Override
+    public Channel1DData getCopy()
+    {
+        return new FlexibleFlatChannel1DData(getXCoordinatesCopy(), getYCoordinatesCopy(), xQuantity, yQuantity, xOrder);
+    }
+
+    @Override
+    public Channel1DData getCopy(double yScale)
+    {
+        return getCopy(yScale, this.yQuantity);
+    }
+
+    @Override
+    public Channel1DData getCopy(double yScale, Quantity yQuantityNew)
+    {
+        double[] yValuesCopy = MathUtilities.multiply(getYCoordinatesCopy(), yScale);
+
+        return new FlexibleFlatChannel1DData(getXCoordinatesCopy(), yValuesCopy, xQuantity, yQuantityNew, xOrder);
+    }
+
+    @Override
+    public Channel1DData getCopyWithXQuantityReplaced(double xScale, Quantity xQuantityNew)
+    {
+        Validation.requireNotNaNParameterName(xScale, "xScale");
+
+        double[] xValuesCopy = new double[length];
+
+        for(int i = 0; i < length; i++)
+        {
+            xValuesCopy[i] = xScale*xValues[offset + i];
+        }
+
+        SortedArrayOrder orderNew = (xScale < 0 && xOrder != null) ? xOrder.getReversed() : xOrder;
+
+        return new FlexibleFlatChannel1DData(xValuesCopy, getYCoordinatesCopy(), xQuantityNew, yQuantity, orderNew);
+    }
+
+    @Override
+    public Channel1DData getCopyWithXAndYQuantitesReplaced(double xScale, Quantity xQuantityNew, double yScale, Quantity yQuantityNew)
+    {
+        Validation.requireNotNaNParameterName(xScale, "xScale");
+        Validation.requireNotNaNParameterName(yScale, "yScale");
+
+        double[] xValuesCopy = new double[length];
+        double[] yValuesCopy = new double[length];
+
+        for(int i = 0; i < length; i++)
+        {
+            xValuesCopy[i] = xScale*xValues[offset + i];
+            yValuesCopy[i] = yScale*yValues[offset + i];
+        }
+
+        SortedArrayOrder orderNew = (xScale < 0 && xOrder != null) ? xOrder.getReversed() : xOrder;
+
+        return new FlexibleFlatChannel1DData(xValuesCopy, yValuesCopy, xQuantityNew, yQuantityNew, orderNew);
+    }
+
+    @Override
+    public Quantity getXQuantity()
+    {
+        return xQuantity;
+    }
+
+    @Override
+    public Quantity getYQuantity()
+    {
+        return yQuantity;
+    }
+
+    @Override
+    public double[][] getPoints()
+    {
+        return getPointsCopy(0, length);
+    }
+
+    @Override
+    public double[][] getPointsCopy()
+    {
+        return getPointsCopy(0, length);
+    }
+
+    @Override
+    public double[][] getPointsCopy(double yScale)
+    {
+        double[][] points = new double[length][];
+
+        for(int i = 0; i < length; i++)
+        {
+            points[i] = new double[] {xValues[offset + i], yScale*yValues[offset + i]};
+        }
+
+        return points;
+    }
+
+    //from inclusive, to exclusive
+    @Override
+    public double[][] getPointsCopy(int from, int to)
+    {
+        Validation.requireValueEqualToOrBetweenBounds(from, 0, length, "from");
+        Validation.requireValueEqualToOrBetweenBounds(to, 0, length, "to");
+
+        double[][] points = new double[Math.max(0, to - from)][];
+
+        for(int i = from; i < to; i++)
+        {
+            points[i - from] = new double[] {xValues[offset + i], yValues[offset + i]};
+        }
+
+        return points;
+    }
+
+    @Override
+    public SortedArrayOrder getXOrder()
+    {
+        return xOrder;
+    }
+
+    @Override
+    public boolean isEmpty()
+    {
+        return length == 0;
+    }
+
+    @Override
+    public int getItemCount()
+    {
+        return length;
+    }
+
+    @Override
+    public double getX(int item)
+    {
+        return xValues[offset + item];
+    }
+
+    @Override
+    public double getY(int item)
+    {
+        return yValues[offset + item];
+    }
+
+    @Override
+    public double[] getPoint(int item)
+    {
+        return new double[] {xValues[offset + item], yValues[offset + item]};
+    }
+
+    @Override
+    public double getXMinimum()
+    {
+        if(SortedArrayOrder.ASCENDING.equals(xOrder))
+        {
+            return xValues[offset];
+        }
+        if(SortedArrayOrder.DESCENDING.equals(xOrder))
+        {
+            return xValues[offset + length - 1];
+        }
+
+        return ArrayUtilities.getMinimum(xValues, offset, offset + length);
+    }
+
+    @Override
+    public double getXMinimumIncludingErrors()
+    {
+        return getXMinimum();
+    }
+
+    @Override
+    public double getXMaximum()
+    {
+        if(SortedArrayOrder.ASCENDING.equals(xOrder))
+        {
+            return xValues[offset + length - 1];
+        }
+        if(SortedArrayOrder.DESCENDING.equals(xOrder))
+        {
+            return xValues[offset];
+        }
+
+        return ArrayUtilities.getMaximum(xValues, offset, offset + length);
+    }
+
+    @Override
+    public double getXMaximumIncludingErrors()
+    {
+        return getXMaximum();
+    }
+
+    @Override
+    public Range getXRange()
+    {
+        if(length == 0)
+        {
+            return null;
+        }
+
+        if(SortedArrayOrder.ASCENDING.equals(xOrder) || SortedArrayOrder.DESCENDING.equals(xOrder))
+        {
+            double first = xValues[offset];
+            double last = xValues[offset + length - 1];
+
+            Range range = SortedArrayOrder.ASCENDING.equals(xOrder) ? new Range(first, last) : new Range(last, first);
+            if(!Double.isNaN(range.getLength()))
+            {
+                return range;
+            }
+        }
+
+        return ArrayUtilities.getBoundedRange(xValues, offset, offset + length);
+    }
+
+    @Override
+    public double getYMinimum()
+    {
+        return ArrayUtilities.getMinimum(yValues, offset, offset + length);
+    }
+
+    @Override
+    public double getYMinimumIncludingErrors()
+    {
+        return getYMinimum();
+    }
+
+    @Override
+    public int getYMinimumIndex(int from, int to)
+    {
+        Validation.requireValueEqualToOrBetweenBounds(from, 0, length, "from");
+        Validation.requireValueEqualToOrBetweenBounds(to, 0, length, "to");
+
+        return toRelativeIndex(ArrayUtilities.getMinimumIndex(yValues, offset + from, offset + to));
+    }
+
+    @Override
+    public double getYMaximum()
+    {
+        return ArrayUtilities.getMaximum(yValues, offset, offset + length);
+    }
+
+    @Override
+    public double getYMaximumIncludingErrors()
+    {
+        return getYMaximum();
+    }
+
+    @Override
+    public int getYMaximumIndex(int from, int to)
+    {
+        Validation.requireValueEqualToOrBetweenBounds(from, 0, length, "from");
+        Validation.requireValueEqualToOrBetweenBounds(to, 0, length, "to");
+
+        return toRelativeIndex(ArrayUtilities.getMaximumIndex(yValues, offset + from, offset + to));
+    }
+
+    @Override
+    public OrderedIntegerPair getIndicesOfYExtrema()
+    {
+        return getIndicesOfYExtrema(0, length);
+    }
+
+    @Override
+    public OrderedIntegerPair getIndicesOfYExtrema(int from, int to)
+    {
+        Validation.requireValueEqualToOrBetweenBounds(from, 0, length, "from");
+        Validation.requireValueEqualToOrBetweenBounds(to, 0, length, "to");
+
+        OrderedIntegerPair indices = ArrayUtilities.getIndicesOfExtrema(yValues, offset + from, offset + to);
+
+        return new OrderedIntegerPair(toRelativeIndex(indices.getFirst()), toRelativeIndex(indices.getSecond()));
+    }
+
+    @Override
+    public Range getYRange()
+    {
+        return ArrayUtilities.getBoundedRange(yValues, offset, offset + length);
+    }
+
+    @Override
+    public Range getYRange(Range xRange)
+    {
+        if(length == 0)
+        {
+            return null;
+        }
+
+        if(SortedArrayOrder.ASCENDING.equals(xOrder) || SortedArrayOrder.DESCENDING.equals(xOrder))
+        {
+            IndexRange indexRange = getIndexRangeBoundedBy(xRange.getLowerBound(), xRange.getUpperBound());
+
+            int minIndex = Math.max(0, indexRange.getMinIndex());
+            int maxIndex = Math.min(length - 1, indexRange.getMaxIndex());
+
+            return minIndex <= maxIndex ? ArrayUtilities.getBoundedRange(yValues, offset + minIndex, offset + maxIndex + 1) : null;
+        }
+
+        return ArrayUtilities.getBoundedYRange(getXs(), getYs(), xRange);
+    }
+
+    @Override
+    public Range getYRangeIncludingErrors(Range xRange)
+    {
+        return getYRange(xRange);
+    }
+
+    @Override
+    public IndexRange getIndexRangeBoundedBy(double lowerBound, double upperBound)
+    {
+        int lowerBoundIndex = getIndexOfSmallestXGreaterOrEqualTo(lowerBound);
+        int upperBoundIndex = getIndexOfGreatestXSmallerOrEqualTo(upperBound);
+
+        IndexRange range = SortedArrayOrder.ASCENDING.equals(xOrder) ? new IndexRange(lowerBoundIndex, upperBoundIndex) : new IndexRange(upperBoundIndex, lowerBoundIndex);
+
+        return range;
+    }
+
+    @Override
+    public int getIndexOfGreatestXSmallerOrEqualTo(double upperBound)
+    {
+        int n = length;
+        int end = offset + length;
+
+        if(n == 0)
+        {
+            return SortedArrayOrder.DESCENDING.equals(xOrder) ? 0 : -1;
+        }
+
+        if(SortedArrayOrder.ASCENDING.equals(xOrder))
+        {
+            if(upperBound == Double.POSITIVE_INFINITY)
+            {
+                return n - 1;
+            }
+
+            int indexOfFirstXLargerOrEqualToBound = ArrayUtilities.binarySearchAscending(xValues, offset, end, upperBound) - offset;
+            if(indexOfFirstXLargerOrEqualToBound == 0 && xValues[offset] > upperBound)
+            {
+                return -1;
+            }
+
+            return indexOfFirstXLargerOrEqualToBound < n && xValues[offset + indexOfFirstXLargerOrEqualToBound] == upperBound ? indexOfFirstXLargerOrEqualToBound : indexOfFirstXLargerOrEqualToBound - 1;
+        }
+        else if(SortedArrayOrder.DESCENDING.equals(xOrder))
+        {
+            if(upperBound == Double.POSITIVE_INFINITY)
+            {
+                return 0;
+            }
+
+            return ArrayUtilities.binarySearchDescending(xValues, offset, end, upperBound) - offset;
+        }
+
+        int index = -1;
+        double greatestValueInBounds = Double.NEGATIVE_INFINITY;
+
+        for(int i = offset; i < end; i++)
+        {
+            double x = xValues[i];
+            if(x <= upperBound && (index < 0 || x > greatestValueInBounds))
+            {
+                greatestValueInBounds = x;
+                index = i - offset;
+            }
+        }
+
+        return index;
+    }
+
+    @Override
+    public int getIndexOfSmallestXGreaterOrEqualTo(double lowerBound)
+    {
+        int n = length;
+        int end = offset + length;
+
+        if(n == 0)
+        {
+            return SortedArrayOrder.ASCENDING.equals(xOrder) ? 0 : -1;
+        }
+
+        if(SortedArrayOrder.ASCENDING.equals(xOrder))
+        {
+            if(lowerBound == Double.NEGATIVE_INFINITY)
+            {
+                return 0;
+            }
+
+            return ArrayUtilities.binarySearchAscending(xValues, offset, end, lowerBound) - offset;
+        }
+        else if(SortedArrayOrder.DESCENDING.equals(xOrder))
+        {
+            if(lowerBound == Double.NEGATIVE_INFINITY)
+            {
+                return n - 1;
+            }
+
+            int smallerOrEqualXIndex = ArrayUtilities.binarySearchDescending(xValues, offset, end, lowerBound) - offset;
+
+            if(smallerOrEqualXIndex == n)
+            {
+                return n - 1;
+            }
+
+            return xValues[offset + smallerOrEqualXIndex] == lowerBound ? smallerOrEqualXIndex : smallerOrEqualXIndex - 1;
+        }
+
+        int index = -1;
+        double smallestValueInBounds = Double.POSITIVE_INFINITY;
+
+        for(int i = offset; i < end; i++)
+        {
+            double x = xValues[i];
+            if(x >= lowerBound && (index < 0 || x < smallestValueInBounds))
+            {
+                smallestValueInBounds = x;
+                index = i - offset;
+            }
+        }
+
+        return index;
+    }
+
+    //also includes points for which x == lowerBound or x == upperBound
+    @Override
+    public int getIndexCountBoundedBy(double lowerBound, double upperBound)
+    {
+        if(SortedArrayOrder.ASCENDING.equals(xOrder) || SortedArrayOrder.DESCENDING.equals(xOrder))
+        {
+            return getIndexRangeBoundedBy(lowerBound, upperBound).getLengthIncludingEdges();
+        }
+
+        int count = 0;
+        for(int i = offset; i < offset + length; i++)
+        {
+            double x = xValues[i];
+            if(x >= lowerBound && x <= upperBound)
+            {
+                count++;
+            }
+        }
+
+        return count;
+    }
+
+    @Override
+    public int getIndexWithinDataBoundsOfItemWithXClosestTo(double x)
+    {
+        int end = offset + length;
+
+        if(SortedArrayOrder.ASCENDING.equals(xOrder))
+        {
+            int greaterOrEqualXIndex = Math.min(end - 1, ArrayUtilities.binarySearchAscending(xValues, offset, end, x));
+            int closestXIndex = greaterOrEqualXIndex - 1 >= offset && Math.abs(xValues[greaterOrEqualXIndex] - x) < Math.abs(xValues[greaterOrEqualXIndex - 1] - x) ? greaterOrEqualXIndex: greaterOrEqualXIndex - 1;
+
+            return Math.max(0, closestXIndex - offset);
+        }
+        else if(SortedArrayOrder.DESCENDING.equals(xOrder))
+        {
+            int smallerOrEqualXIndex = Math.min(end - 1, ArrayUtilities.binarySearchDescending(xValues, offset, end, x));
+            int closestXIndex = smallerOrEqualXIndex - 1 >= offset && Math.abs(xValues[smallerOrEqualXIndex] - x) < Math.abs(xValues[smallerOrEqualXIndex - 1] - x) ? smallerOrEqualXIndex: smallerOrEqualXIndex - 1;
+
+            return Math.max(0, closestXIndex - offset);
+        }
+
+        return toRelativeIndex(ArrayUtilities.getIndexOfValueClosestTo(xValues, x, offset, end));
+    }
+
+    @Override
+    public double[] getXCoordinatesCopy()
+    {
+        return Arrays.copyOfRange(xValues, offset, offset + length);
+    }
+
+    //from inclusive, to exclusive
+    @Override
+    public double[] getXCoordinatesCopy(int from, int to)
+    {
+        Validation.requireValueEqualToOrBetweenBounds(from, 0, length, "from");
+        Validation.requireValueEqualToOrBetweenBounds(to, 0, length, "to");
+
+        return Arrays.copyOfRange(xValues, offset + from, offset + to);
+    }
+
+    @Override
+    public double[] getYCoordinatesCopy()
+    {
+        return Arrays.copyOfRange(yValues, offset, offset + length);
+    }
+
+    //from inclusive, to exclusive
+    @Override
+    public double[] getYCoordinatesCopy(int from, int to)
+    {
+        Validation.requireValueEqualToOrBetweenBounds(from, 0, length, "from");
+        Validation.requireValueEqualToOrBetweenBounds(to, 0, length, "to");
+
+        return Arrays.copyOfRange(yValues, offset + from, offset + to);
+    }
+
+    //the range is copied on the first call, if the view covers the whole backing array, then it is returned without copying
+    @Override
+    public double[] getXCoordinates()
+    {
+        double[] xs = xValuesMaterialized;
+
+        if(xs == null)
+        {
+            xs = (offset == 0 && length == xValues.length) ? xValues : getXCoordinatesCopy();
+            xValuesMaterialized = xs;
+        }
+
+        return xs;
+    }
+
+    @Override
+    public double[] getYCoordinates()
+    {
+        double[] ys = yValuesMaterialized;
+
+        if(ys == null)
+        {
+            ys = (offset == 0 && length == yValues.length) ? yValues : getYCoordinatesCopy();
+            yValuesMaterialized = ys;
+        }
+
+        return ys;
+    }
+
+    @Override
+    public double[][] getXYViewCopy()
+    {
+        return getXYViewCopy(0, length);
+    }
+
+    @Override
+    public double[][] getXYViewCopy(int from, int to)
+    {
+        return new double[][] {getXCoordinatesCopy(from, to), getYCoordinatesCopy(from, to)};
+    }
+
+    private int toRelativeIndex(int index)
+    {
+        return index < 0 ? index : index - offset;
+    }
+}
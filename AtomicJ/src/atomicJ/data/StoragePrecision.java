@@ -0,0 +1,113 @@
+
+/* 
+ * ===========================================================
+ * AtomicJ : a free application for analysis of AFM data
+ * ===========================================================
+ *
+ * (C) Copyright 2013-2022 by Paweł Hermanowicz
+ *
+ * 
+ * This program is free software; you can redistribute it and/or modify 
+ * it under the terms of the GNU General Public License as published by 
+ * the Free Software Foundation; either version 3 of the License, or (at your option) any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without 
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU 
+ * General Public License for more details.
+ * You should have received a copy of the GNU General Public License along with this program; if not, 
+ * see http://www.gnu.org/licenses/*/
+
+package atomicJ.data;
+
+/**
+ * Precision in which the recorded data are kept in memory after they are read.
+ *
+ * DOUBLE keeps the arrays created by the readers.
+ * FLOAT converts the recorded curves and images to single precision, which halves the memory they occupy.
+ * The points are converted back to double precision when they are needed, so all computations are carried out in double precision.
+ */
+
+public enum StoragePrecision
+{
+    DOUBLE("Double (64 bit)")
+    {
+        @Override
+        public Channel1DData compact(Channel1DData data)
+        {
+            return data;
+        }
+
+        @Override
+        public Channel2DData compact(Channel2DData data)
+        {
+            return data;
+        }
+    },
+
+    FLOAT("Float (32 bit)")
+    {
+        //the curves in the mapped store are already off-heap, so they are not converted
+        @Override
+        public Channel1DData compact(Channel1DData data)
+        {
+            if(data == null || data.isEmpty() || data instanceof FloatChannel1DData || data instanceof MappedChannel1DData
+                    || data instanceof Point1DData || data instanceof GridChannel1DData || data instanceof SinusoidalChannel1DData)
+            {
+                return data;
+            }
+
+            return new FloatChannel1DData(data);
+        }
+
+        //only data on a regular grid are converted, the scattered data are rare and their coordinates take most of the memory
+        @Override
+        public Channel2DData compact(Channel2DData data)
+        {
+            if(data instanceof GridChannel2DData)
+            {
+                return new FloatGridChannel2DData((GridChannel2DData)data);
+            }
+
+            return data;
+        }
+    };
+
+    private final String prettyName;
+
+    StoragePrecision(String prettyName)
+    {
+        this.prettyName = prettyName;
+    }
+
+    public abstract Channel1DData compact(Channel1DData data);
+    public abstract Channel2DData compact(Channel2DData data);
+
+    @Override
+    public String toString()
+    {
+        return prettyName;
+    }
+
+    public String getIdentifier()
+    {
+        return name();
+    }
+
+    public static StoragePrecision getValue(String identifier, StoragePrecision fallBackValue)
+    {
+        StoragePrecision precision = fallBackValue;
+
+        if(identifier != null)
+        {
+            for(StoragePrecision p : StoragePrecision.values())
+            {
+                if(p.getIdentifier().equals(identifier))
+                {
+                    precision = p;
+                    break;
+                }
+            }
+        }
+
+        return precision;
+    }
+}
@@ -23,8 +23,12 @@ import javax.swing.*;
 import atomicJ.analysis.SpectroscopyPreferencesModel;
 import atomicJ.analysis.SpectroscopyProcessingOrigin;
 import atomicJ.analysis.SpectroscopyResultDestination;
+import atomicJ.data.MappedCurveStore;
 
 import java.awt.*;
+import java.beans.PropertyChangeEvent;
+import java.beans.PropertyChangeListener;
+import java.io.File;
 import java.io.IOException;
 import java.util.Locale;
 import java.util.logging.FileHandler;
@@ -58,6 +62,7 @@ public final class AtomicJ
     public static void main(String[] args)
     {
         initializeLogger();
+        initializeCurveStore();
         EventQueue.invokeLater(new Runnable()
         {
             @Override
@@ -95,6 +100,33 @@ public final class AtomicJ
         }
     }
 
+    //the store has to be configured before any curve is read, later changes of the preferences are passed to it by the listener
+    private static void initializeCurveStore()
+    {
+        GeneralPreferences preferences = GeneralPreferences.GENERAL_PREFERENCES;
+
+        MappedCurveStore.MAPPED_CURVE_STORE.setDirectory(preferences.getCurveStoreDirectory());
+        MappedCurveStore.MAPPED_CURVE_STORE.setEnabled(preferences.isCurveStoreEnabled());
+
+        preferences.addPropertyChangeListener(new PropertyChangeListener() 
+        {            
+            @Override
+            public void propertyChange(PropertyChangeEvent evt)
+            {
+                String property = evt.getPropertyName();
+
+                if(GeneralPreferences.CURVE_STORE_ENABLED.equals(property))
+                {
+                    MappedCurveStore.MAPPED_CURVE_STORE.setEnabled((Boolean)evt.getNewValue());
+                }
+                else if(GeneralPreferences.CURVE_STORE_DIRECTORY.equals(property))
+                {
+                    MappedCurveStore.MAPPED_CURVE_STORE.setDirectory((File)evt.getNewValue());
+                }
+            }
+        });
+    }
+
     public static SpectroscopyResultDestination getResultDestination()
     {
         return CURRENT_FRAME;
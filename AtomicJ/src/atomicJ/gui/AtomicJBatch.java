@@ -0,0 +1,259 @@
+
+/* 
+ * ===========================================================
+ * AtomicJ : a free application for analysis of AFM data
+ * ===========================================================
+ *
+ * (C) Copyright 2013-2022 by Paweł Hermanowicz
+ *
+ * 
+ * This program is free software; you can redistribute it and/or modify 
+ * it under the terms of the GNU General Public License as published by 
+ * the Free Software Foundation; either version 3 of the License, or (at your option) any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without 
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU 
+ * General Public License for more details.
+ * You should have received a copy of the GNU General Public License along with this program; if not, 
+ * see http://www.gnu.org/licenses/*/
+
+package atomicJ.gui;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Properties;
+
+import atomicJ.analysis.HeadlessProcessingEngine;
+import atomicJ.analysis.ProcessingProfiler;
+import atomicJ.data.MappedCurveStore;
+import atomicJ.data.StoragePrecision;
+import atomicJ.gui.curveProcessing.ProcessingBatchMemento;
+import atomicJ.gui.curveProcessing.ProcessingBatchModel;
+import atomicJ.gui.curveProcessing.ProcessingBatchSettingsFile;
+import atomicJ.readers.general.GeneralSourceReader;
+
+/*
+ * Command line entry point for processing force curves without the graphical user interface.
+ * The processing settings are read from a properties file, which can be obtained with the -template option
+ * and edited in any text editor. Directories given as input are searched for supported files (not recursively).
+ * With the -profile option, durations and allocations of the processing stages are saved to the given file, 
+ * as CSV if its extension is csv and as JSON otherwise.
+ * With the -curveStore option, recorded curves are kept in a memory-mapped file in the given directory instead of on the heap, 
+ * which allows for processing of force maps larger than the available memory.
+ * With the -float option, recorded curves which are not in the curve store are kept in single precision, which halves the memory they take.
+ * With the -compact option, processed curves keep only their numerical results, the fits of the contact model are not retained.
+ * With the -pipelined option, the force curves from the files read first are processed while the remaining files are still being read.
+ *
+ * Usage: AtomicJBatch -settings <file> -output <directory> [-threads <count>] [-pipelined [-readers <count>]] [-profile <file>] [-curveStore <directory>] [-float] [-compact] <files or directories>
+ *        AtomicJBatch -template <file>
+ */
+
+public final class AtomicJBatch
+{
+    private static final String SETTINGS_OPTION = "-settings";
+    private static final String OUTPUT_OPTION = "-output";
+    private static final String THREADS_OPTION = "-threads";
+    private static final String TEMPLATE_OPTION = "-template";
+    private static final String PIPELINED_OPTION = "-pipelined";
+    private static final String READERS_OPTION = "-readers";
+    private static final String PROFILE_OPTION = "-profile";
+    private static final String CURVE_STORE_OPTION = "-curveStore";
+    private static final String FLOAT_OPTION = "-float";
+    private static final String COMPACT_OPTION = "-compact";
+
+    private static final int EXIT_SUCCESS = 0;
+    private static final int EXIT_FAILURES = 1;
+    private static final int EXIT_ERROR = 2;
+
+    private AtomicJBatch() {}
+
+    public static void main(String[] args)
+    {
+        System.setProperty("java.awt.headless", "true");
+        Locale.setDefault(Locale.US);
+
+        System.exit(run(args));
+    }
+
+    private static int run(String[] args)
+    {
+        File settingsFile = null;
+        File outputDirectory = null;
+        File templateFile = null;
+        File profileFile = null;
+        File curveStoreDirectory = null;
+        int threadCount = GeneralPreferences.GENERAL_PREFERENCES.getTaskNumber();
+        int readerThreadCount = 2;
+        boolean pipelined = false;
+        boolean floatPrecision = false;
+        boolean compactResults = false;
+
+        List<File> inputs = new ArrayList<>();
+
+        try
+        {
+            for(int i = 0; i < args.length; i++)
+            {
+                String arg = args[i];
+
+                if(SETTINGS_OPTION.equals(arg))
+                {
+                    settingsFile = new File(args[++i]);
+                }
+                else if(OUTPUT_OPTION.equals(arg))
+                {
+                    outputDirectory = new File(args[++i]);
+                }
+                else if(THREADS_OPTION.equals(arg))
+                {
+                    threadCount = Integer.parseInt(args[++i]);
+                }
+                else if(PIPELINED_OPTION.equals(arg))
+                {
+                    pipelined = true;
+                }
+                else if(READERS_OPTION.equals(arg))
+                {
+                    readerThreadCount = Integer.parseInt(args[++i]);
+                }
+                else if(PROFILE_OPTION.equals(arg))
+                {
+                    profileFile = new File(args[++i]);
+                }
+                else if(CURVE_STORE_OPTION.equals(arg))
+                {
+                    curveStoreDirectory = new File(args[++i]);
+                }
+                else if(FLOAT_OPTION.equals(arg))
+                {
+                    floatPrecision = true;
+                }
+                else if(COMPACT_OPTION.equals(arg))
+                {
+                    compactResults = true;
+                }
+                else if(TEMPLATE_OPTION.equals(arg))
+                {
+                    templateFile = new File(args[++i]);
+                }
+                else
+                {
+                    inputs.add(new File(arg));
+                }
+            }
+        }
+        catch(ArrayIndexOutOfBoundsException | NumberFormatException e)
+        {
+            printUsage();
+            return EXIT_ERROR;
+        }
+
+        try
+        {
+            if(templateFile != null)
+            {
+                ProcessingBatchMemento defaultSettings = new ProcessingBatchMemento(new ProcessingBatchModel(null, Collections.emptyList(), "1", 0));
+                ProcessingBatchSettingsFile.write(defaultSettings, templateFile);
+                return EXIT_SUCCESS;
+            }
+
+            if(settingsFile == null || outputDirectory == null || inputs.isEmpty())
+            {
+                printUsage();
+                return EXIT_ERROR;
+            }
+
+            Properties settings = ProcessingBatchSettingsFile.read(settingsFile);
+            List<File> files = findFiles(inputs);
+
+            HeadlessProcessingEngine engine = new HeadlessProcessingEngine(threadCount);
+            engine.setPipelined(pipelined);
+            engine.setReaderThreadCount(readerThreadCount);
+            engine.setCompactResults(compactResults);
+
+            ProcessingProfiler.PROCESSING_PROFILER.setEnabled(profileFile != null);
+
+            //the store is set directly, so that the preferences of the interactive application are neither used nor changed
+            if(curveStoreDirectory != null)
+            {
+                MappedCurveStore.MAPPED_CURVE_STORE.setDirectory(curveStoreDirectory);
+            }
+            MappedCurveStore.MAPPED_CURVE_STORE.setEnabled(curveStoreDirectory != null);
+
+            GeneralPreferences.GENERAL_PREFERENCES.setRecordedDataPrecisionForSession(floatPrecision ? StoragePrecision.FLOAT : StoragePrecision.DOUBLE);
+
+            engine.process(files, settings, outputDirectory);
+
+            if(profileFile != null)
+            {
+                ProcessingProfiler.PROCESSING_PROFILER.export(profileFile);
+                System.out.println(profileFile.getPath());
+            }
+
+            for(File f : engine.getWrittenFiles())
+            {
+                System.out.println(f.getPath());
+            }
+
+            int failureCount = engine.getFailureCount();
+            if(failureCount > 0)
+            {
+                System.err.println("Errors occured during processing of " + failureCount + " sources");
+                return EXIT_FAILURES;
+            }
+
+            return EXIT_SUCCESS;
+        }
+        catch(UserCommunicableException | IOException e)
+        {
+            System.err.println(e.getMessage());
+            return EXIT_ERROR;
+        }
+        catch(InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+            return EXIT_ERROR;
+        }
+    }
+
+    private static List<File> findFiles(List<File> inputs)
+    {
+        GeneralSourceReader reader = new GeneralSourceReader();
+        List<File> files = new ArrayList<>();
+
+        for(File input : inputs)
+        {
+            if(input.isDirectory())
+            {
+                File[] children = input.listFiles();
+                if(children != null)
+                {
+                    Arrays.sort(children);
+                    for(File child : children)
+                    {
+                        if(child.isFile() && reader.accept(child))
+                        {
+                            files.add(child);
+                        }
+                    }
+                }
+            }
+            else
+            {
+                files.add(input);
+            }
+        }
+
+        return files;
+    }
+
+    private static void printUsage()
+    {
+        System.err.println("Usage: " + AtomicJBatch.class.getName() + " " + SETTINGS_OPTION + " <file> " + OUTPUT_OPTION + " <directory> [" + THREADS_OPTION + " <count>] [" + PIPELINED_OPTION + " [" + READERS_OPTION + " <count>]] [" + PROFILE_OPTION + " <file>] [" + CURVE_STORE_OPTION + " <directory>] [" + FLOAT_OPTION + "] [" + COMPACT_OPTION + "] <files or directories>");
+        System.err.println("       " + AtomicJBatch.class.getName() + " " + TEMPLATE_OPTION + " <file>");
+    }
+}
@@ -29,7 +29,6 @@ import java.util.concurrent.CompletionService;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorCompletionService;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import atomicJ.analysis.MonitoredSwingWorker;
@@ -85,13 +84,13 @@ public class ConcurrentStackTask extends MonitoredSwingWorker<Void, Void>
     @Override
     public Void doInBackground() throws UserCommunicableException
     {	
-        int maxTaskNumber = GeneralPreferences.GENERAL_PREFERENCES.getTaskNumber();
-
-        int taskNumber = Math.min(Math.max(problemSize/20, 1), maxTaskNumber);
+        //the number of subtasks is not limited by the number of threads, so that subtasks of higher priority
+        //can be started by the shared executor between the subtasks of the stack
+        int taskNumber = Math.max(problemSize/20, 1);
         int basicTaskSize = problemSize/taskNumber;
         int remainingFiles = problemSize%taskNumber;
 
-        executor = Executors.newFixedThreadPool(taskNumber); 
+        executor = SharedExecutors.newComputeExecutor(TaskPriority.BACKGROUND); 
 
         int currentIndex = 0;
 
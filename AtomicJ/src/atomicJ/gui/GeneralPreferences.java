@@ -18,13 +18,45 @@
 
 package atomicJ.gui;
 
+import java.beans.PropertyChangeListener;
+import java.beans.PropertyChangeSupport;
+import java.io.File;
+import java.util.prefs.Preferences;
+
+import atomicJ.analysis.TaskSchedulingPolicy;
+import atomicJ.data.StoragePrecision;
+import atomicJ.utilities.Validation;
+
 public enum GeneralPreferences 
 {
     GENERAL_PREFERENCES;
 
+    private static final String SCHEDULING_POLICY = "SchedulingPolicy";
+    private static final String CHUNK_SIZE = "ChunkSize";
+    public static final String CURVE_STORE_ENABLED = "CurveStoreEnabled";
+    public static final String CURVE_STORE_DIRECTORY = "CurveStoreDirectory";
+    private static final String RECORDED_DATA_PRECISION = "RecordedDataPrecision";
+    private static final String COMPACT_PROCESSED_RESULTS = "CompactProcessedResults";
+
+    private final Preferences pref = Preferences.userNodeForPackage(GeneralPreferences.class).node("GeneralPreferences");
+    private final PropertyChangeSupport propertyChangeSupport = new PropertyChangeSupport(this);
+
     private final int maxTaskNumber = Runtime.getRuntime().availableProcessors();
     private int taskNumber = maxTaskNumber;
 
+    //reading is limited by the disk rather than by the processors, so fewer threads are used for it by default
+    private int ioTaskNumber = Math.min(4, maxTaskNumber);
+
+    private TaskSchedulingPolicy schedulingPolicy = TaskSchedulingPolicy.getValue(pref.get(SCHEDULING_POLICY, null), TaskSchedulingPolicy.DYNAMIC_CHUNKS);
+    private int chunkSize = Math.max(1, pref.getInt(CHUNK_SIZE, 4));
+
+    private StoragePrecision recordedDataPrecision = StoragePrecision.getValue(pref.get(RECORDED_DATA_PRECISION, null), StoragePrecision.DOUBLE);
+    private boolean compactProcessedResults = pref.getBoolean(COMPACT_PROCESSED_RESULTS, false);
+
+    //the settings of the curve store are only held here, they are applied to the store when the application starts and passed on by a listener
+    private boolean curveStoreEnabled = pref.getBoolean(CURVE_STORE_ENABLED, false);
+    private File curveStoreDirectory = getFile(pref.get(CURVE_STORE_DIRECTORY, null));
+
     public int getMaximumTaskNumber()
     {
         return maxTaskNumber;
@@ -39,4 +71,122 @@ public enum GeneralPreferences
     {
         return taskNumber;
     }
+
+    public void setIOTaskNumber(int ioTaskNumber)
+    {
+        this.ioTaskNumber = Math.max(1, ioTaskNumber);
+    }
+
+    public int getIOTaskNumber()
+    {
+        return ioTaskNumber;
+    }
+
+    public TaskSchedulingPolicy getSchedulingPolicy()
+    {
+        return schedulingPolicy;
+    }
+
+    public void setSchedulingPolicy(TaskSchedulingPolicy schedulingPolicy)
+    {
+        this.schedulingPolicy = Validation.requireNonNullParameterName(schedulingPolicy, "schedulingPolicy");
+        pref.put(SCHEDULING_POLICY, schedulingPolicy.getIdentifier());
+    }
+
+    //number of problems claimed at once by a worker thread when the scheduling policy is TaskSchedulingPolicy.DYNAMIC_CHUNKS
+    public int getChunkSize()
+    {
+        return chunkSize;
+    }
+
+    public void setChunkSize(int chunkSize)
+    {
+        this.chunkSize = Math.max(1, chunkSize);
+        pref.putInt(CHUNK_SIZE, this.chunkSize);
+    }
+
+    //precision in which the curves and images are kept after they are read, affects only the files read after the change
+    public StoragePrecision getRecordedDataPrecision()
+    {
+        return recordedDataPrecision;
+    }
+
+    public void setRecordedDataPrecision(StoragePrecision recordedDataPrecision)
+    {
+        this.recordedDataPrecision = Validation.requireNonNullParameterName(recordedDataPrecision, "recordedDataPrecision");
+        pref.put(RECORDED_DATA_PRECISION, recordedDataPrecision.getIdentifier());
+    }
+
+    //used by the batch command, so that its options neither depend on nor change the stored preferences
+    void setRecordedDataPrecisionForSession(StoragePrecision recordedDataPrecision)
+    {
+        this.recordedDataPrecision = Validation.requireNonNullParameterName(recordedDataPrecision, "recordedDataPrecision");
+    }
+
+    //if true, the recorded curves read after the change are kept in a memory-mapped file instead of on the heap
+    public boolean isCurveStoreEnabled()
+    {
+        return curveStoreEnabled;
+    }
+
+    public void setCurveStoreEnabled(boolean curveStoreEnabled)
+    {
+        boolean curveStoreEnabledOld = this.curveStoreEnabled;
+        this.curveStoreEnabled = curveStoreEnabled;
+        pref.putBoolean(CURVE_STORE_ENABLED, curveStoreEnabled);
+
+        propertyChangeSupport.firePropertyChange(CURVE_STORE_ENABLED, curveStoreEnabledOld, curveStoreEnabled);
+    }
+
+    //null means the default temporary directory
+    public File getCurveStoreDirectory()
+    {
+        return curveStoreDirectory;
+    }
+
+    public void setCurveStoreDirectory(File curveStoreDirectory)
+    {
+        File curveStoreDirectoryOld = this.curveStoreDirectory;
+        this.curveStoreDirectory = curveStoreDirectory;
+
+        if(curveStoreDirectory != null)
+        {
+            pref.put(CURVE_STORE_DIRECTORY, curveStoreDirectory.getPath());
+        }
+        else
+        {
+            pref.remove(CURVE_STORE_DIRECTORY);
+        }
+
+        propertyChangeSupport.firePropertyChange(CURVE_STORE_DIRECTORY, curveStoreDirectoryOld, curveStoreDirectory);
+    }
+
+    //if true, processed packs release their model fits, contact estimators and cached processing stages, keeping the numerical results,
+    //the recorded curves and the batch settings, and rebuild the model fits when the curves are shown,
+    //the value is read when a batch is built, so it affects only the batches processed after the change
+    public boolean isCompactProcessedResults()
+    {
+        return compactProcessedResults;
+    }
+
+    public void setCompactProcessedResults(boolean compactProcessedResults)
+    {
+        this.compactProcessedResults = compactProcessedResults;
+        pref.putBoolean(COMPACT_PROCESSED_RESULTS, compactProcessedResults);
+    }
+
+    public void addPropertyChangeListener(PropertyChangeListener listener)
+    {
+        propertyChangeSupport.addPropertyChangeListener(listener);
+    }
+
+    public void removePropertyChangeListener(PropertyChangeListener listener)
+    {
+        propertyChangeSupport.removePropertyChangeListener(listener);
+    }
+
+    private static File getFile(String path)
+    {
+        return (path != null) ? new File(path) : null;
+    }
 }
@@ -24,28 +24,55 @@ import java.awt.GridBagConstraints;
 import java.awt.Window;
 import java.awt.event.ActionEvent;
 import java.awt.event.InputEvent;
+import java.awt.event.ItemEvent;
+import java.awt.event.ItemListener;
 import java.awt.event.KeyEvent;
+import java.io.File;
+
 import javax.swing.AbstractAction;
 import javax.swing.BorderFactory;
 import javax.swing.GroupLayout;
 import javax.swing.JButton;
+import javax.swing.JCheckBox;
+import javax.swing.JComboBox;
 import javax.swing.JDialog;
+import javax.swing.JFileChooser;
 import javax.swing.JLabel;
 import javax.swing.JPanel;
 import javax.swing.JSpinner;
+import javax.swing.JTextField;
 import javax.swing.KeyStroke;
 import javax.swing.LayoutStyle;
 import javax.swing.SpinnerNumberModel;
 import javax.swing.event.ChangeEvent;
 import javax.swing.event.ChangeListener;
 
+import atomicJ.analysis.TaskSchedulingPolicy;
+import atomicJ.data.StoragePrecision;
+
 public class GeneralPreferencesDialog extends JDialog implements ChangeListener
 {
     private static final long serialVersionUID = 1L;
 
+    private static final String DEFAULT_CURVE_STORE_DIRECTORY = "Temporary directory";
+
     private final int numberOfProcessors = GeneralPreferences.GENERAL_PREFERENCES.getMaximumTaskNumber();
     private int initTaskNumber = GeneralPreferences.GENERAL_PREFERENCES.getTaskNumber();
     private int taskNumber = initTaskNumber;
+    private int initIOTaskNumber = GeneralPreferences.GENERAL_PREFERENCES.getIOTaskNumber();
+    private int ioTaskNumber = initIOTaskNumber;
+    private TaskSchedulingPolicy initSchedulingPolicy = GeneralPreferences.GENERAL_PREFERENCES.getSchedulingPolicy();
+    private TaskSchedulingPolicy schedulingPolicy = initSchedulingPolicy;
+    private int initChunkSize = GeneralPreferences.GENERAL_PREFERENCES.getChunkSize();
+    private int chunkSize = initChunkSize;
+    private boolean initCurveStoreEnabled = GeneralPreferences.GENERAL_PREFERENCES.isCurveStoreEnabled();
+    private boolean curveStoreEnabled = initCurveStoreEnabled;
+    private File initCurveStoreDirectory = GeneralPreferences.GENERAL_PREFERENCES.getCurveStoreDirectory();
+    private File curveStoreDirectory = initCurveStoreDirectory;
+    private StoragePrecision initRecordedDataPrecision = GeneralPreferences.GENERAL_PREFERENCES.getRecordedDataPrecision();
+    private StoragePrecision recordedDataPrecision = initRecordedDataPrecision;
+    private boolean initCompactProcessedResults = GeneralPreferences.GENERAL_PREFERENCES.isCompactProcessedResults();
+    private boolean compactProcessedResults = initCompactProcessedResults;
 
     private final ApplyToAllAction applyToAllAction = new ApplyToAllAction();
     private final JButton buttonOK = new JButton(applyToAllAction);
@@ -55,12 +82,25 @@ public class GeneralPreferencesDialog extends JDialog implements ChangeListener
     private final JLabel labelAvailablePrecessors = new JLabel(Integer.toString(initTaskNumber)); 
 
     private final JSpinner spinnerTaskNumber = new JSpinner(new SpinnerNumberModel(initTaskNumber, 1, numberOfProcessors, 1));
+    private final JSpinner spinnerIOTaskNumber = new JSpinner(new SpinnerNumberModel(initIOTaskNumber, 1, numberOfProcessors, 1));
+    private final JComboBox<TaskSchedulingPolicy> comboSchedulingPolicy = new JComboBox<>(TaskSchedulingPolicy.values());
+    private final JSpinner spinnerChunkSize = new JSpinner(new SpinnerNumberModel(initChunkSize, 1, 10000, 1));
+    private final JCheckBox boxCurveStore = new JCheckBox("Keep recorded curves in a file");
+    private final JTextField fieldCurveStoreDirectory = new JTextField();
+    private final JButton buttonSelectCurveStoreDirectory = new JButton(new SelectCurveStoreDirectoryAction());
+    private final JButton buttonDefaultCurveStoreDirectory = new JButton(new DefaultCurveStoreDirectoryAction());
+    private final JComboBox<StoragePrecision> comboRecordedDataPrecision = new JComboBox<>(StoragePrecision.values());
+    private final JCheckBox boxCompactProcessedResults = new JCheckBox("Keep only numerical results and recorded curves");
+
+    private final JFileChooser chooser = new JFileChooser();
 
     public GeneralPreferencesDialog(Window parent, String title)
     {
         super(parent, title, ModalityType.APPLICATION_MODAL);
         setLayout(new BorderLayout());
 
+        chooser.setFileSelectionMode(JFileChooser.DIRECTORIES_ONLY);
+
         JPanel mainPanel = buildMainPanel();
         JPanel panelButtons = buildButtonPanel();
 
@@ -75,16 +115,70 @@ public class GeneralPreferencesDialog extends JDialog implements ChangeListener
     private void setParametersToInitial()
     {
         this.taskNumber = this.initTaskNumber;
+        this.ioTaskNumber = this.initIOTaskNumber;
+        this.schedulingPolicy = this.initSchedulingPolicy;
+        this.chunkSize = this.initChunkSize;
+        this.curveStoreEnabled = this.initCurveStoreEnabled;
+        this.curveStoreDirectory = this.initCurveStoreDirectory;
+        this.recordedDataPrecision = this.initRecordedDataPrecision;
+        this.compactProcessedResults = this.initCompactProcessedResults;
     }
 
     private void pullReceiverParameters()
     {
         this.initTaskNumber = GeneralPreferences.GENERAL_PREFERENCES.getTaskNumber();
+        this.initIOTaskNumber = GeneralPreferences.GENERAL_PREFERENCES.getIOTaskNumber();
+        this.initSchedulingPolicy = GeneralPreferences.GENERAL_PREFERENCES.getSchedulingPolicy();
+        this.initChunkSize = GeneralPreferences.GENERAL_PREFERENCES.getChunkSize();
+        this.initCurveStoreEnabled = GeneralPreferences.GENERAL_PREFERENCES.isCurveStoreEnabled();
+        this.initCurveStoreDirectory = GeneralPreferences.GENERAL_PREFERENCES.getCurveStoreDirectory();
+        this.initRecordedDataPrecision = GeneralPreferences.GENERAL_PREFERENCES.getRecordedDataPrecision();
+        this.initCompactProcessedResults = GeneralPreferences.GENERAL_PREFERENCES.isCompactProcessedResults();
     }
 
     private void initChangeListener()
     {
         spinnerTaskNumber.addChangeListener(this);
+        spinnerIOTaskNumber.addChangeListener(this);
+        spinnerChunkSize.addChangeListener(this);
+
+        comboSchedulingPolicy.addItemListener(new ItemListener()
+        {
+            @Override
+            public void itemStateChanged(ItemEvent evt)
+            {
+                schedulingPolicy = (TaskSchedulingPolicy)comboSchedulingPolicy.getSelectedItem();
+                spinnerChunkSize.setEnabled(TaskSchedulingPolicy.DYNAMIC_CHUNKS.equals(schedulingPolicy));
+            }
+        });
+
+        boxCurveStore.addItemListener(new ItemListener()
+        {
+            @Override
+            public void itemStateChanged(ItemEvent evt)
+            {
+                curveStoreEnabled = (evt.getStateChange() == ItemEvent.SELECTED);
+                setCurveStoreDirectoryEditorEnabled(curveStoreEnabled);
+            }
+        });
+
+        comboRecordedDataPrecision.addItemListener(new ItemListener()
+        {
+            @Override
+            public void itemStateChanged(ItemEvent evt)
+            {
+                recordedDataPrecision = (StoragePrecision)comboRecordedDataPrecision.getSelectedItem();
+            }
+        });
+
+        boxCompactProcessedResults.addItemListener(new ItemListener()
+        {
+            @Override
+            public void itemStateChanged(ItemEvent evt)
+            {
+                compactProcessedResults = (evt.getStateChange() == ItemEvent.SELECTED);
+            }
+        });
     }	
 
     @Override
@@ -96,6 +190,14 @@ public class GeneralPreferencesDialog extends JDialog implements ChangeListener
         {			
             this.taskNumber = ((SpinnerNumberModel)spinnerTaskNumber.getModel()).getNumber().intValue();
         }
+        else if(source == spinnerIOTaskNumber)
+        {
+            this.ioTaskNumber = ((SpinnerNumberModel)spinnerIOTaskNumber.getModel()).getNumber().intValue();
+        }
+        else if(source == spinnerChunkSize)
+        {
+            this.chunkSize = ((SpinnerNumberModel)spinnerChunkSize.getModel()).getNumber().intValue();
+        }
     }
 
     public void ensureConsistencyWithReceiver()
@@ -114,16 +216,50 @@ public class GeneralPreferencesDialog extends JDialog implements ChangeListener
     private void resetReceiver()
     {	  
         GeneralPreferences.GENERAL_PREFERENCES.setTaskNumber(initTaskNumber);
+        GeneralPreferences.GENERAL_PREFERENCES.setIOTaskNumber(initIOTaskNumber);
+        GeneralPreferences.GENERAL_PREFERENCES.setSchedulingPolicy(initSchedulingPolicy);
+        GeneralPreferences.GENERAL_PREFERENCES.setChunkSize(initChunkSize);
+        GeneralPreferences.GENERAL_PREFERENCES.setCurveStoreDirectory(initCurveStoreDirectory);
+        GeneralPreferences.GENERAL_PREFERENCES.setCurveStoreEnabled(initCurveStoreEnabled);
+        GeneralPreferences.GENERAL_PREFERENCES.setRecordedDataPrecision(initRecordedDataPrecision);
+        GeneralPreferences.GENERAL_PREFERENCES.setCompactProcessedResults(initCompactProcessedResults);
     }
 
     private void resetEditor()
     {		
         spinnerTaskNumber.setValue(initTaskNumber);
+        spinnerIOTaskNumber.setValue(initIOTaskNumber);
+        comboSchedulingPolicy.setSelectedItem(initSchedulingPolicy);
+        spinnerChunkSize.setValue(initChunkSize);
+        spinnerChunkSize.setEnabled(TaskSchedulingPolicy.DYNAMIC_CHUNKS.equals(initSchedulingPolicy));
+        boxCurveStore.setSelected(initCurveStoreEnabled);
+        fieldCurveStoreDirectory.setText(getDirectoryText(initCurveStoreDirectory));
+        setCurveStoreDirectoryEditorEnabled(initCurveStoreEnabled);
+        comboRecordedDataPrecision.setSelectedItem(initRecordedDataPrecision);
+        boxCompactProcessedResults.setSelected(initCompactProcessedResults);
+    }
+
+    private void setCurveStoreDirectoryEditorEnabled(boolean enabled)
+    {
+        buttonSelectCurveStoreDirectory.setEnabled(enabled);
+        buttonDefaultCurveStoreDirectory.setEnabled(enabled);
+    }
+
+    private static String getDirectoryText(File directory)
+    {
+        return directory != null ? directory.getPath() : DEFAULT_CURVE_STORE_DIRECTORY;
     }
 
     private void apply()
     {
         GeneralPreferences.GENERAL_PREFERENCES.setTaskNumber(taskNumber);
+        GeneralPreferences.GENERAL_PREFERENCES.setIOTaskNumber(ioTaskNumber);
+        GeneralPreferences.GENERAL_PREFERENCES.setSchedulingPolicy(schedulingPolicy);
+        GeneralPreferences.GENERAL_PREFERENCES.setChunkSize(chunkSize);
+        GeneralPreferences.GENERAL_PREFERENCES.setCurveStoreDirectory(curveStoreDirectory);
+        GeneralPreferences.GENERAL_PREFERENCES.setCurveStoreEnabled(curveStoreEnabled);
+        GeneralPreferences.GENERAL_PREFERENCES.setRecordedDataPrecision(recordedDataPrecision);
+        GeneralPreferences.GENERAL_PREFERENCES.setCompactProcessedResults(compactProcessedResults);
         setVisible(false);
     }
 
@@ -154,6 +290,34 @@ public class GeneralPreferencesDialog extends JDialog implements ChangeListener
         innerPanel.addComponent(new JLabel("Used for parallel processing "), 0, 1, 1, 1, GridBagConstraints.EAST, GridBagConstraints.NONE, 1, 1);
         innerPanel.addComponent(spinnerTaskNumber, 1, 1, 1, 1, GridBagConstraints.WEST, GridBagConstraints.HORIZONTAL, 1, 1);      
 
+        innerPanel.addComponent(new JLabel("Used for reading files "), 0, 2, 1, 1, GridBagConstraints.EAST, GridBagConstraints.NONE, 1, 1);
+        innerPanel.addComponent(spinnerIOTaskNumber, 1, 2, 1, 1, GridBagConstraints.WEST, GridBagConstraints.HORIZONTAL, 1, 1);      
+
+        innerPanel.addComponent(new JLabel("Task scheduling "), 0, 3, 1, 1, GridBagConstraints.EAST, GridBagConstraints.NONE, 1, 1);
+        innerPanel.addComponent(comboSchedulingPolicy, 1, 3, 1, 1, GridBagConstraints.WEST, GridBagConstraints.HORIZONTAL, 1, 1);      
+
+        innerPanel.addComponent(new JLabel("Chunk size "), 0, 4, 1, 1, GridBagConstraints.EAST, GridBagConstraints.NONE, 1, 1);
+        innerPanel.addComponent(spinnerChunkSize, 1, 4, 1, 1, GridBagConstraints.WEST, GridBagConstraints.HORIZONTAL, 1, 1);      
+
+        innerPanel.addComponent(new JLabel("Curve store "), 0, 5, 1, 1, GridBagConstraints.EAST, GridBagConstraints.NONE, 1, 1);
+        innerPanel.addComponent(boxCurveStore, 1, 5, 1, 1, GridBagConstraints.WEST, GridBagConstraints.NONE, 1, 1);      
+
+        fieldCurveStoreDirectory.setEnabled(false);
+
+        SubPanel panelCurveStoreDirectory = new SubPanel();
+        panelCurveStoreDirectory.addComponent(fieldCurveStoreDirectory, 0, 0, 1, 1, GridBagConstraints.WEST, GridBagConstraints.HORIZONTAL, 1, 1);
+        panelCurveStoreDirectory.addComponent(buttonSelectCurveStoreDirectory, 1, 0, 1, 1, GridBagConstraints.WEST, GridBagConstraints.NONE, 0, 1);
+        panelCurveStoreDirectory.addComponent(buttonDefaultCurveStoreDirectory, 2, 0, 1, 1, GridBagConstraints.WEST, GridBagConstraints.NONE, 0, 1);
+
+        innerPanel.addComponent(new JLabel("Curve store directory "), 0, 6, 1, 1, GridBagConstraints.EAST, GridBagConstraints.NONE, 1, 1);
+        innerPanel.addComponent(panelCurveStoreDirectory, 1, 6, 1, 1, GridBagConstraints.WEST, GridBagConstraints.HORIZONTAL, 1, 1);      
+
+        innerPanel.addComponent(new JLabel("Recorded data precision "), 0, 7, 1, 1, GridBagConstraints.EAST, GridBagConstraints.NONE, 1, 1);
+        innerPanel.addComponent(comboRecordedDataPrecision, 1, 7, 1, 1, GridBagConstraints.WEST, GridBagConstraints.HORIZONTAL, 1, 1);      
+
+        innerPanel.addComponent(new JLabel("Processed curves "), 0, 8, 1, 1, GridBagConstraints.EAST, GridBagConstraints.NONE, 1, 1);
+        innerPanel.addComponent(boxCompactProcessedResults, 1, 8, 1, 1, GridBagConstraints.WEST, GridBagConstraints.NONE, 1, 1);      
+
         innerPanel.setBorder(BorderFactory.createEmptyBorder(8, 4, 4, 4));
 
         outerPanel.add(innerPanel);
@@ -221,6 +385,51 @@ public class GeneralPreferencesDialog extends JDialog implements ChangeListener
         }
     }
 
+    private class SelectCurveStoreDirectoryAction extends AbstractAction 
+    {
+        private static final long serialVersionUID = 1L;
+
+        public SelectCurveStoreDirectoryAction() 
+        {
+            putValue(MNEMONIC_KEY, KeyEvent.VK_S);
+            putValue(NAME, "Select");
+        }
+
+        @Override
+        public void actionPerformed(ActionEvent event) 
+        {
+            if(curveStoreDirectory != null)
+            {
+                chooser.setCurrentDirectory(curveStoreDirectory);
+            }
+
+            int op = chooser.showOpenDialog(GeneralPreferencesDialog.this);
+            if (op == JFileChooser.APPROVE_OPTION) 
+            {
+                curveStoreDirectory = chooser.getSelectedFile();
+                fieldCurveStoreDirectory.setText(getDirectoryText(curveStoreDirectory));
+            }
+        }
+    }
+
+    private class DefaultCurveStoreDirectoryAction extends AbstractAction 
+    {
+        private static final long serialVersionUID = 1L;
+
+        public DefaultCurveStoreDirectoryAction() 
+        {
+            putValue(MNEMONIC_KEY, KeyEvent.VK_D);
+            putValue(NAME, "Default");
+        }
+
+        @Override
+        public void actionPerformed(ActionEvent event) 
+        {
+            curveStoreDirectory = null;
+            fieldCurveStoreDirectory.setText(DEFAULT_CURVE_STORE_DIRECTORY);
+        }
+    }
+
     private class CancelAction extends AbstractAction
     {
         private static final long serialVersionUID = 1L;
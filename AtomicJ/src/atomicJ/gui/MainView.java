@@ -103,6 +103,7 @@ public class MainView implements SpectroscopyResultDestination, SpectroscopyProc
     private final Action showImageHistogramsAction = new ImageHistogramsAction();
     private final Action parallelComputationPreferencesAction = new ParallelComputationPreferencesAction();
     private final Action nanoscopePreferencesAction = new NanoscopePreferencesAction();
+    private final Action processingProfileAction = new ProcessingProfileAction();
 
     private final Action aboutAction = new AboutAction();
     private final Action manualAction = new ManualAction();
@@ -128,7 +129,8 @@ public class MainView implements SpectroscopyResultDestination, SpectroscopyProc
     private final FileOpeningWizard<ChannelSource> openingWizard = new FileOpeningWizard<>(new OpeningModelStandard<>(this), GeneralSourceReadingModel.getInstance());
     private ProcessingWizard processingWizard;
 
-    private final GeneralPreferencesDialog parallelismPeferencesDialog = new GeneralPreferencesDialog(mainFrame, "Parallel computation preferences");
+    private final GeneralPreferencesDialog parallelismPeferencesDialog = new GeneralPreferencesDialog(mainFrame, "General preferences");
+    private final ProcessingProfileDialog processingProfileDialog = new ProcessingProfileDialog(mainFrame, "Processing profile");
     private final NanoscopeFileStructureModel nanoscopePreferencesModel = new NanoscopeFileStructureModel();
     private final NanoscopeFileStructureDialog nanoscopePreferencesDialog = new NanoscopeFileStructureDialog(mainFrame, nanoscopePreferencesModel);
     private final ResultBatchesCoordinator resultBatchesCoordinator = new ResultBatchesCoordinator();
@@ -237,6 +239,7 @@ public class MainView implements SpectroscopyResultDestination, SpectroscopyProc
 
         menuControls.addSeparator();
         menuControls.add(itemParallelComputationPreferences);
+        menuControls.add(new JMenuItem(processingProfileAction));
         JMenu menuFileFormatPreferences = new JMenu("Format preferences");
         menuFileFormatPreferences.add(itemNanoscopePreferences);
 
@@ -422,6 +425,11 @@ public class MainView implements SpectroscopyResultDestination, SpectroscopyProc
         parallelismPeferencesDialog.showDialog();
     }
 
+    public void showProcessingProfile()
+    {
+        processingProfileDialog.showDialog();
+    }
+
     public void showNanoscopeFormatPreferences()
     {
         nanoscopePreferencesDialog.setVisible(true);
@@ -533,6 +541,7 @@ public class MainView implements SpectroscopyResultDestination, SpectroscopyProc
     @Override
     public void startProcessing(List<ProcessingBatchModel> batches, MapSourceHandler mapSourceHandler, CurveVisualizationHandler<VisualizableSpectroscopyPack> curveVisualizationHandler, NumericalResultsHandler<ProcessedSpectroscopyPack> numericalResultsHandler)
     {
+        //used only for recalculation
         ProcessingModel model = new ProcessingModel(this, this, getDefaultPreprocessCurvesHandler(), batches, true);
         model.setMapSourceHandler(mapSourceHandler);
         model.setCurveVisualizationHandler(curveVisualizationHandler);
@@ -944,7 +953,7 @@ public class MainView implements SpectroscopyResultDestination, SpectroscopyProc
 
         public ParallelComputationPreferencesAction()
         {    
-            putValue(NAME,"Parallel computation");
+            putValue(NAME,"General");
         }
         @Override
         public void actionPerformed(ActionEvent event)
@@ -953,6 +962,21 @@ public class MainView implements SpectroscopyResultDestination, SpectroscopyProc
         }
     }
 
+    private class ProcessingProfileAction extends AbstractAction
+    {
+        private static final long serialVersionUID = 1L;
+
+        public ProcessingProfileAction()
+        {    
+            putValue(NAME,"Processing profile");
+        }
+        @Override
+        public void actionPerformed(ActionEvent event)
+        {
+            showProcessingProfile();
+        }
+    }
+
     private class NanoscopePreferencesAction extends AbstractAction
     {
         private static final long serialVersionUID = 1L;
@@ -621,7 +621,7 @@ public class MapView extends Channel2DView<MapImageResource, MapChart<?>, MapPan
         ProcessingBatchModel model = new ProcessingBatchModel(parent, copies, name, batchNumber);
 
         List<ProcessingBatchModel> models = Collections.singletonList(model);
-        parent.startProcessing(models);
+        parent.startProcessing(models, parent.getDefaultMapSourceHandler(), parent.getDefaultCurveVisualizationHandler(), parent.getDefaultNumericalResultsHandler());
     }
 
 
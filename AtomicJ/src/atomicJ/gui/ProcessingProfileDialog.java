@@ -0,0 +1,259 @@
+
+/* 
+ * ===========================================================
+ * AtomicJ : a free application for analysis of AFM data
+ * ===========================================================
+ *
+ * (C) Copyright 2013-2022 by Paweł Hermanowicz
+ *
+ * 
+ * This program is free software; you can redistribute it and/or modify 
+ * it under the terms of the GNU General Public License as published by 
+ * the Free Software Foundation; either version 3 of the License, or (at your option) any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without 
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU 
+ * General Public License for more details.
+ * You should have received a copy of the GNU General Public License along with this program; if not, 
+ * see http://www.gnu.org/licenses/*/
+
+package atomicJ.gui;
+
+import java.awt.BorderLayout;
+import java.awt.Dimension;
+import java.awt.Window;
+import java.awt.event.ActionEvent;
+import java.awt.event.KeyEvent;
+import java.io.File;
+import java.io.IOException;
+
+import javax.swing.AbstractAction;
+import javax.swing.BorderFactory;
+import javax.swing.GroupLayout;
+import javax.swing.JButton;
+import javax.swing.JCheckBox;
+import javax.swing.JDialog;
+import javax.swing.JFileChooser;
+import javax.swing.JOptionPane;
+import javax.swing.JPanel;
+import javax.swing.JScrollPane;
+import javax.swing.JTable;
+import javax.swing.LayoutStyle;
+import javax.swing.filechooser.FileNameExtensionFilter;
+import javax.swing.table.DefaultTableModel;
+
+import atomicJ.analysis.BatchProcessingProfile;
+import atomicJ.analysis.ProcessingProfiler;
+import atomicJ.analysis.ProcessingStageStatistics;
+
+public class ProcessingProfileDialog extends JDialog
+{
+    private static final long serialVersionUID = 1L;
+
+    private static final String[] COLUMN_NAMES = new String[] {"Batch", "Stage", "Count", "Mean (ms)", "P50 (ms)", "P90 (ms)", "P99 (ms)", "Max (ms)", "Mean allocated (kB)"};
+    private static final double NANOS_PER_MILLISECOND = 1e6;
+
+    private final DefaultTableModel tableModel = new DefaultTableModel(COLUMN_NAMES, 0)
+    {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        public boolean isCellEditable(int row, int column)
+        {
+            return false;
+        }
+    };
+
+    private final JCheckBox boxEnabled = new JCheckBox(new EnableAction());
+    private final JButton buttonRefresh = new JButton(new RefreshAction());
+    private final JButton buttonClear = new JButton(new ClearAction());
+    private final JButton buttonExport = new JButton(new ExportAction());
+    private final JButton buttonClose = new JButton(new CloseAction());
+
+    private final JFileChooser exportChooser = new JFileChooser();
+
+    public ProcessingProfileDialog(Window parent, String title)
+    {
+        super(parent, title, ModalityType.MODELESS);
+        setLayout(new BorderLayout());
+
+        exportChooser.addChoosableFileFilter(new FileNameExtensionFilter("JSON (*.json)", "json"));
+        exportChooser.addChoosableFileFilter(new FileNameExtensionFilter("CSV (*.csv)", "csv"));
+
+        JTable table = new JTable(tableModel);
+        table.setAutoCreateRowSorter(true);
+
+        JScrollPane scrollPane = new JScrollPane(table);
+        scrollPane.setPreferredSize(new Dimension(750, 300));
+        scrollPane.setBorder(BorderFactory.createEmptyBorder(8, 4, 4, 4));
+
+        add(scrollPane, BorderLayout.CENTER);   	
+        add(buildButtonPanel(), BorderLayout.SOUTH);   	
+
+        pack();
+        setLocationRelativeTo(parent);
+    }
+
+    public void showDialog()
+    {
+        refresh();
+        setVisible(true);
+    }
+
+    private void refresh()
+    {
+        boxEnabled.setSelected(ProcessingProfiler.PROCESSING_PROFILER.isEnabled());
+        tableModel.setRowCount(0);
+
+        for(BatchProcessingProfile profile : ProcessingProfiler.PROCESSING_PROFILER.getProfiles())
+        {
+            for(ProcessingStageStatistics statistics : profile.getRecordedStatistics())
+            {
+                Object[] row = new Object[] {profile.getBatchIdTag().getLabel(), statistics.getStage(), statistics.getCount(),
+                        statistics.getMeanNanos()/NANOS_PER_MILLISECOND, statistics.getPercentileNanos(50)/NANOS_PER_MILLISECOND,
+                        statistics.getPercentileNanos(90)/NANOS_PER_MILLISECOND, statistics.getPercentileNanos(99)/NANOS_PER_MILLISECOND,
+                        statistics.getMaximumNanos()/NANOS_PER_MILLISECOND, statistics.getMeanAllocatedBytes()/1024.};
+                tableModel.addRow(row);
+            }
+        }
+    }
+
+    private void export()
+    {
+        int op = exportChooser.showSaveDialog(this);
+        if(op != JFileChooser.APPROVE_OPTION)
+        {
+            return;
+        }
+
+        File file = exportChooser.getSelectedFile();
+
+        if(file.getName().indexOf('.') < 0 && exportChooser.getFileFilter() instanceof FileNameExtensionFilter)
+        {
+            String extension = ((FileNameExtensionFilter)exportChooser.getFileFilter()).getExtensions()[0];
+            file = new File(file.getParentFile(), file.getName() + "." + extension);
+        }
+
+        try 
+        {
+            ProcessingProfiler.PROCESSING_PROFILER.export(file);
+        } 
+        catch (IOException e) 
+        {
+            e.printStackTrace();
+            JOptionPane.showMessageDialog(this, "Errors occured during saving the profile", AtomicJ.APPLICATION_NAME, JOptionPane.ERROR_MESSAGE);
+        }
+    }
+
+    private JPanel buildButtonPanel()
+    {
+        JPanel buttonPanel = new JPanel();
+
+        GroupLayout layout = new GroupLayout(buttonPanel);
+        buttonPanel.setLayout(layout);
+        layout.setAutoCreateContainerGaps(true);
+
+        layout.setHorizontalGroup(layout.createSequentialGroup()
+                .addComponent(boxEnabled).addPreferredGap(LayoutStyle.ComponentPlacement.UNRELATED, GroupLayout.DEFAULT_SIZE, Short.MAX_VALUE)
+                .addComponent(buttonRefresh).addPreferredGap(LayoutStyle.ComponentPlacement.UNRELATED, GroupLayout.DEFAULT_SIZE, GroupLayout.DEFAULT_SIZE)
+                .addComponent(buttonClear).addPreferredGap(LayoutStyle.ComponentPlacement.UNRELATED, GroupLayout.DEFAULT_SIZE, GroupLayout.DEFAULT_SIZE)
+                .addComponent(buttonExport).addPreferredGap(LayoutStyle.ComponentPlacement.UNRELATED, GroupLayout.DEFAULT_SIZE, GroupLayout.DEFAULT_SIZE)
+                .addComponent(buttonClose));
+
+        layout.setVerticalGroup(layout.createParallelGroup(GroupLayout.Alignment.CENTER)
+                .addComponent(boxEnabled)
+                .addComponent(buttonRefresh)
+                .addComponent(buttonClear)
+                .addComponent(buttonExport)
+                .addComponent(buttonClose));
+
+        layout.linkSize(buttonRefresh, buttonClear, buttonExport, buttonClose);
+
+        buttonPanel.setBorder(BorderFactory.createRaisedBevelBorder());
+        return buttonPanel;
+    }
+
+    private class EnableAction extends AbstractAction
+    {
+        private static final long serialVersionUID = 1L;
+
+        public EnableAction()
+        {			
+            putValue(NAME, "Profile processing");
+        }
+
+        @Override
+        public void actionPerformed(ActionEvent event)
+        {
+            ProcessingProfiler.PROCESSING_PROFILER.setEnabled(boxEnabled.isSelected());
+        }
+    }
+
+    private class RefreshAction extends AbstractAction
+    {
+        private static final long serialVersionUID = 1L;
+
+        public RefreshAction()
+        {			
+            putValue(MNEMONIC_KEY, KeyEvent.VK_R);
+            putValue(NAME, "Refresh");
+        }
+
+        @Override
+        public void actionPerformed(ActionEvent event)
+        {
+            refresh();
+        }
+    }
+
+    private class ClearAction extends AbstractAction
+    {
+        private static final long serialVersionUID = 1L;
+
+        public ClearAction()
+        {			
+            putValue(MNEMONIC_KEY, KeyEvent.VK_L);
+            putValue(NAME, "Clear");
+        }
+
+        @Override
+        public void actionPerformed(ActionEvent event)
+        {
+            ProcessingProfiler.PROCESSING_PROFILER.clear();
+            refresh();
+        }
+    }
+
+    private class ExportAction extends AbstractAction
+    {
+        private static final long serialVersionUID = 1L;
+
+        public ExportAction()
+        {			
+            putValue(MNEMONIC_KEY, KeyEvent.VK_E);
+            putValue(NAME, "Export");
+        }
+
+        @Override
+        public void actionPerformed(ActionEvent event)
+        {
+            export();
+        }
+    }
+
+    private class CloseAction extends AbstractAction
+    {
+        private static final long serialVersionUID = 1L;
+
+        public CloseAction()
+        {			
+            putValue(MNEMONIC_KEY, KeyEvent.VK_C);
+            putValue(NAME, "Close");
+        }
+
+        @Override
+        public void actionPerformed(ActionEvent event)
+        {
+            setVisible(false);
+        }
+    }
+}
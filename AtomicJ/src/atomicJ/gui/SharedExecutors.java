@@ -0,0 +1,299 @@
+
+/* 
+ * ===========================================================
+ * AtomicJ : a free application for analysis of AFM data
+ * ===========================================================
+ *
+ * (C) Copyright 2013-2022 by Paweł Hermanowicz
+ *
+ * 
+ * This program is free software; you can redistribute it and/or modify 
+ * it under the terms of the GNU General Public License as published by 
+ * the Free Software Foundation; either version 3 of the License, or (at your option) any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without 
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU 
+ * General Public License for more details.
+ * You should have received a copy of the GNU General Public License along with this program; if not, 
+ * see http://www.gnu.org/licenses/*/
+
+package atomicJ.gui;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import atomicJ.utilities.Validation;
+
+/**
+ * Thread pools shared by all concurrent tasks of the application. There is one pool for computations,
+ * whose size is given by GeneralPreferences.getTaskNumber(), and one pool for reading files, whose size
+ * is given by GeneralPreferences.getIOTaskNumber(). 
+ * 
+ * Tasks do not use the pools directly, but through executors obtained from newComputeExecutor() and newIOExecutor().
+ * Such executor does not own any threads, it only tags the submitted subtasks with a priority
+ * and keeps track of them, so that shutdown() and shutdownNow() affect only the subtasks of the task that owns the executor.
+ * The executors are cheap, so a new one should be obtained for each run of a task.
+ */
+
+public final class SharedExecutors
+{
+    private static final long KEEP_ALIVE_SECONDS = 30;
+
+    private static final AtomicLong SUBMISSION_SEQUENCE = new AtomicLong();
+
+    private static final ThreadPoolExecutor COMPUTE_POOL = buildPool("AtomicJ-compute", GeneralPreferences.GENERAL_PREFERENCES.getTaskNumber());
+    private static final ThreadPoolExecutor IO_POOL = buildPool("AtomicJ-io", GeneralPreferences.GENERAL_PREFERENCES.getIOTaskNumber());
+
+    private SharedExecutors() {}
+
+    public static ExecutorService newComputeExecutor(TaskPriority priority)
+    {
+        //the number of threads may have been changed by the user since the last task
+        return newComputeExecutor(priority, GeneralPreferences.GENERAL_PREFERENCES.getTaskNumber());
+    }
+
+    //the pool is resized to the given number of threads, e.g. the one given on the command line, without changing the preferences
+    public static ExecutorService newComputeExecutor(TaskPriority priority, int threadCount)
+    {
+        resize(COMPUTE_POOL, threadCount);
+        return new PriorityTaskExecutor(COMPUTE_POOL, priority);
+    }
+
+    public static ExecutorService newIOExecutor(TaskPriority priority)
+    {
+        return newIOExecutor(priority, GeneralPreferences.GENERAL_PREFERENCES.getIOTaskNumber());
+    }
+
+    public static ExecutorService newIOExecutor(TaskPriority priority, int threadCount)
+    {
+        resize(IO_POOL, threadCount);
+        return new PriorityTaskExecutor(IO_POOL, priority);
+    }
+
+    private static synchronized void resize(ThreadPoolExecutor pool, int threadCount)
+    {
+        int size = Math.max(1, threadCount);
+
+        //the core size must never exceed the maximum size, so the order of calls depends on the direction of change
+        if(size > pool.getMaximumPoolSize())
+        {
+            pool.setMaximumPoolSize(size);
+            pool.setCorePoolSize(size);
+        }
+        else if(size < pool.getMaximumPoolSize())
+        {
+            pool.setCorePoolSize(size);
+            pool.setMaximumPoolSize(size);
+        }
+    }
+
+    private static ThreadPoolExecutor buildPool(final String name, int threadCount)
+    {
+        int size = Math.max(1, threadCount);
+
+        ThreadFactory threadFactory = new ThreadFactory() 
+        {
+            private final AtomicInteger threadIndex = new AtomicInteger();
+
+            @Override
+            public Thread newThread(Runnable r) 
+            {
+                Thread thread = new Thread(r, name + "-" + threadIndex.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            }
+        };
+
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(size, size, KEEP_ALIVE_SECONDS, TimeUnit.SECONDS, new PriorityBlockingQueue<Runnable>(), threadFactory);
+        pool.allowCoreThreadTimeOut(true);
+
+        return pool;
+    }
+
+    private static class PriorityTaskExecutor extends AbstractExecutorService
+    {
+        private final ThreadPoolExecutor pool;
+        private final TaskPriority priority;
+
+        private final Object lock = new Object();
+
+        //all fields below are guarded by lock
+        private final Set<PrioritizedSubtask> pendingSubtasks = new LinkedHashSet<>();
+        private boolean shutdown = false;
+
+        private PriorityTaskExecutor(ThreadPoolExecutor pool, TaskPriority priority)
+        {
+            this.pool = pool;
+            this.priority = Validation.requireNonNullParameterName(priority, "priority");
+        }
+
+        @Override
+        public void execute(Runnable command) 
+        {
+            Validation.requireNonNullParameterName(command, "command");
+
+            PrioritizedSubtask subtask = new PrioritizedSubtask(command, priority, SUBMISSION_SEQUENCE.getAndIncrement());
+
+            synchronized(lock)
+            {
+                if(shutdown)
+                {
+                    throw new RejectedExecutionException("The executor has been shut down");
+                }
+
+                pendingSubtasks.add(subtask);
+            }
+
+            pool.execute(subtask);
+        }
+
+        @Override
+        public void shutdown() 
+        {
+            synchronized(lock)
+            {
+                shutdown = true;
+                lock.notifyAll();
+            }
+        }
+
+        @Override
+        public List<Runnable> shutdownNow() 
+        {
+            List<Runnable> notStarted = new ArrayList<>();
+
+            synchronized(lock)
+            {
+                shutdown = true;
+
+                for(PrioritizedSubtask subtask : new ArrayList<>(pendingSubtasks))
+                {
+                    if(subtask.runner != null)
+                    {
+                        subtask.runner.interrupt();
+                    }
+                    else
+                    {
+                        pool.remove(subtask);
+                        pendingSubtasks.remove(subtask);
+                        notStarted.add(subtask.command);
+
+                        //futures of subtasks that will never run are cancelled, so that nobody waits for them forever
+                        if(subtask.command instanceof Future)
+                        {
+                            ((Future<?>)subtask.command).cancel(false);
+                        }
+                    }
+                }
+
+                lock.notifyAll();
+            }
+
+            return notStarted;
+        }
+
+        @Override
+        public boolean isShutdown() 
+        {
+            synchronized(lock)
+            {
+                return shutdown;
+            }
+        }
+
+        @Override
+        public boolean isTerminated() 
+        {
+            synchronized(lock)
+            {
+                return shutdown && pendingSubtasks.isEmpty();
+            }
+        }
+
+        @Override
+        public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException 
+        {
+            long deadline = System.nanoTime() + unit.toNanos(timeout);
+
+            synchronized(lock)
+            {
+                while(!(shutdown && pendingSubtasks.isEmpty()))
+                {
+                    long remaining = deadline - System.nanoTime();
+                    if(remaining <= 0)
+                    {
+                        return false;
+                    }
+
+                    TimeUnit.NANOSECONDS.timedWait(lock, remaining);
+                }
+
+                return true;
+            }
+        }
+
+        private class PrioritizedSubtask implements Runnable, Comparable<PrioritizedSubtask>
+        {
+            private final Runnable command;
+            private final TaskPriority priority;
+            private final long sequenceNumber;
+
+            //guarded by lock
+            private Thread runner;
+
+            private PrioritizedSubtask(Runnable command, TaskPriority priority, long sequenceNumber)
+            {
+                this.command = command;
+                this.priority = priority;
+                this.sequenceNumber = sequenceNumber;
+            }
+
+            @Override
+            public void run() 
+            {
+                synchronized(lock)
+                {
+                    //the subtask may have been discarded by shutdownNow() after it was taken from the queue of the pool
+                    if(!pendingSubtasks.contains(this))
+                    {
+                        return;
+                    }
+
+                    runner = Thread.currentThread();
+                }
+
+                try
+                {
+                    command.run();
+                }
+                finally
+                {
+                    synchronized(lock)
+                    {
+                        runner = null;
+                        pendingSubtasks.remove(this);
+                        lock.notifyAll();
+                    }
+                }
+            }
+
+            @Override
+            public int compareTo(PrioritizedSubtask other) 
+            {
+                int result = priority.compareTo(other.priority);
+                return result != 0 ? result : Long.compare(sequenceNumber, other.sequenceNumber);
+            }
+        }
+    }
+}
@@ -0,0 +1,69 @@
+
+/* 
+ * ===========================================================
+ * AtomicJ : a free application for analysis of AFM data
+ * ===========================================================
+ *
+ * (C) Copyright 2013-2022 by Paweł Hermanowicz
+ *
+ * 
+ * This program is free software; you can redistribute it and/or modify 
+ * it under the terms of the GNU General Public License as published by 
+ * the Free Software Foundation; either version 3 of the License, or (at your option) any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without 
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU 
+ * General Public License for more details.
+ * You should have received a copy of the GNU General Public License along with this program; if not, 
+ * see http://www.gnu.org/licenses/*/
+
+package atomicJ.gui;
+
+/**
+ * Priority with which the subtasks of a concurrent task are taken from the queue of a shared executor.
+ * Subtasks of higher priority are started before any waiting subtasks of lower priority,
+ * subtasks of equal priority are started in the order of submission. Running subtasks are never interrupted,
+ * so long tasks split their work into many short subtasks, e.g. one per chunk of force curves, and interactive work
+ * waits only until one of the subtasks already running finishes
+ */
+
+public enum TaskPriority
+{
+    INTERACTIVE("Interactive"), NORMAL("Normal"), BACKGROUND("Background");
+
+    private final String prettyName;
+
+    TaskPriority(String prettyName)
+    {
+        this.prettyName = prettyName;
+    }
+
+    @Override
+    public String toString()
+    {
+        return prettyName;
+    }
+
+    public String getIdentifier()
+    {
+        return name();
+    }
+
+    public static TaskPriority getValue(String identifier, TaskPriority fallBackValue)
+    {
+        TaskPriority priority = fallBackValue;
+
+        if(identifier != null)
+        {
+            for(TaskPriority p : TaskPriority.values())
+            {
+                if(p.getIdentifier().equals(identifier))
+                {
+                    priority = p;
+                    break;
+                }
+            }
+        }
+
+        return priority;
+    }
+}
@@ -1,7 +1,7 @@
 package atomicJ.gui.boxplots;
 
-import java.util.ArrayList;
-import java.util.List;
+import gnu.trove.list.TDoubleList;
+import gnu.trove.list.array.TDoubleArrayList;
 
 import atomicJ.data.QuantitativeSample;
 import atomicJ.statistics.DescriptiveStatistics;
@@ -34,7 +34,7 @@ public class RobustBoxAndWhiskerCalculator
         double minValue = Double.POSITIVE_INFINITY;
         double maxValue = Double.NEGATIVE_INFINITY;
 
-        List<Double> outliers = new ArrayList<>();
+        TDoubleList outliers = new TDoubleArrayList();
 
         double[] values = sample.getMagnitudes();
 
@@ -61,7 +61,7 @@ public class RobustBoxAndWhiskerCalculator
         }
 
         return new RobustBoxAndWhiskerItem(mean, median, q1, q3, minRegularValue,
-                maxRegularValue, minValue, maxValue, outliers);
+                maxRegularValue, minValue, maxValue, outliers.toArray());
 
     }
 }
@@ -2,9 +2,10 @@ package atomicJ.gui.boxplots;
 
 
 import java.io.Serializable;
-import java.util.Collections;
+import java.util.AbstractList;
+import java.util.Arrays;
 import java.util.List;
-import java.util.Objects;
+import java.util.RandomAccess;
 
 public class RobustBoxAndWhiskerItem implements Serializable {
 
@@ -19,14 +20,15 @@ public class RobustBoxAndWhiskerItem implements Serializable {
     private final double minValue;
     private final double maxValue;
 
-    private final List<Double> outliers;
+    //outliers are kept unboxed, samples of image values may have very many of them
+    private final double[] outliers;
 
 
     public RobustBoxAndWhiskerItem(double mean, double median,
             double q1, double q3,
             double minRegularValue,double maxRegularValue,
             double minValue, double maxValue,
-            List<Double> outliers) {
+            double[] outliers) {
 
         this.mean = mean;
         this.median = median;
@@ -74,11 +76,17 @@ public class RobustBoxAndWhiskerItem implements Serializable {
         return this.maxValue;
     }
 
+    public int getOutlierCount() {
+        return this.outliers != null ? this.outliers.length : 0;
+    }
+
+    public double[] getOutlierValues() {
+        return this.outliers != null ? Arrays.copyOf(this.outliers, this.outliers.length) : new double[] {};
+    }
+
+    //unmodifiable view, the values are boxed only when they are read
     public List<Double> getOutliers() {
-        if (this.outliers == null) {
-            return Collections.emptyList();
-        }
-        return Collections.unmodifiableList(this.outliers);
+        return new OutlierList(this.outliers != null ? this.outliers : new double[] {});
     }
 
     @Override
@@ -92,7 +100,7 @@ public class RobustBoxAndWhiskerItem implements Serializable {
         result = 31*result + Double.hashCode(this.maxRegularValue);
         result = 31*result + Double.hashCode(this.minValue);
         result = 31*result + Double.hashCode(this.maxValue);
-        result = 31*result + Objects.hashCode(this.outliers);
+        result = 31*result + Arrays.hashCode(this.outliers);
 
         return result;
     }
@@ -139,12 +147,32 @@ public class RobustBoxAndWhiskerItem implements Serializable {
         {
             return false;
         }
-        if (!Objects.equals(this.outliers, that.outliers))
+        if (!Arrays.equals(this.outliers, that.outliers))
         {
             return false;
         }
         return true;
     }
 
-}
+    private static class OutlierList extends AbstractList<Double> implements RandomAccess
+    {
+        private final double[] values;
 
+        private OutlierList(double[] values)
+        {
+            this.values = values;
+        }
+
+        @Override
+        public Double get(int index)
+        {
+            return values[index];
+        }
+
+        @Override
+        public int size()
+        {
+            return values.length;
+        }
+    }
+}
@@ -28,13 +28,14 @@ import java.util.concurrent.CompletionService;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorCompletionService;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import atomicJ.analysis.MonitoredSwingWorker;
 import atomicJ.analysis.Visualizable;
 import atomicJ.gui.ChannelChart;
 import atomicJ.gui.GeneralPreferences;
+import atomicJ.gui.SharedExecutors;
+import atomicJ.gui.TaskPriority;
 import atomicJ.gui.UserCommunicableException;
 
 
@@ -69,7 +70,7 @@ public class ConcurrentCurveVisualizationTask<E extends Visualizable> extends Mo
         int basicTaskSize = problemSize/taskNumber;
         int remainingFiles = problemSize%taskNumber;
 
-        executor = Executors.newFixedThreadPool(taskNumber); 
+        executor = SharedExecutors.newComputeExecutor(TaskPriority.NORMAL); 
 
         int currentIndex = 0;
 
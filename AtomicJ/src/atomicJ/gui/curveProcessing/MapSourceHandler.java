@@ -9,6 +9,7 @@ import atomicJ.analysis.ProcessedSpectroscopyPack;
 import atomicJ.readers.ReadingPack;
 import atomicJ.sources.ImageSource;
 import atomicJ.sources.MapSource;
+import atomicJ.utilities.MultiMap;
 
 public interface MapSourceHandler 
 {
@@ -17,4 +18,7 @@ public interface MapSourceHandler
     public void handlePublicationRequest(Map<MapSource<?>, List<ImageSource>>  mapSources);
     public void handleMapSourceAndImageAdditionRequest(MapProcessingSettings mapSettings,
             ProcessedSpectroscopyPack pack, Map<MapSource<?>, ReadingPack<ImageSource>> allMapSourcesTemporary );
+    //called on the event dispatch thread while the processing is still running, with the packs registered since the previous call
+    //and the images accompanying their maps. The maps published here should be skipped by handlePublicationRequest(), but they are still sealed by handleSealingRequest()
+    public void handleProgressivePublicationRequest(MultiMap<MapSource<?>, ProcessedSpectroscopyPack> packs, Map<MapSource<?>, List<ImageSource>> mapSources);
 }
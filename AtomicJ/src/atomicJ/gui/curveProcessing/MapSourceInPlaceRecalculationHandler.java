@@ -14,8 +14,6 @@ import atomicJ.utilities.MultiMap;
 
 public class MapSourceInPlaceRecalculationHandler implements MapSourceHandler
 {
-    private final MultiMap<MapSource<?>, ProcessedSpectroscopyPack> packsToReplace = new MultiMap<>();
-
     private final MapView mapDialog;
 
     public MapSourceInPlaceRecalculationHandler(MapView mapDialog)
@@ -26,10 +24,7 @@ public class MapSourceInPlaceRecalculationHandler implements MapSourceHandler
     @Override
     public void handleProcessedPackRegistrationRequest(MapProcessingSettings mapSettings, ProcessedSpectroscopyPack pack)
     {
-        if(mapSettings.isIncudeInMaps())
-        {
-            packsToReplace.put(pack.getForceMap(), pack);
-        }              
+        //the packs are replaced in their maps when they are published progressively
     }
 
     @Override
@@ -39,7 +34,13 @@ public class MapSourceInPlaceRecalculationHandler implements MapSourceHandler
     @Override
     public void handlePublicationRequest(Map<MapSource<?>, List<ImageSource>> mapSources)
     {
-        mapDialog.replace(packsToReplace, mapSources);
+        //all packs were already replaced by handleProgressivePublicationRequest()
+    }
+
+    @Override
+    public void handleProgressivePublicationRequest(MultiMap<MapSource<?>, ProcessedSpectroscopyPack> packs, Map<MapSource<?>, List<ImageSource>> mapSources)
+    {
+        mapDialog.replace(packs, mapSources);
     }
 
     @Override
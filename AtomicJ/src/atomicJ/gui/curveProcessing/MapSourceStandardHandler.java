@@ -1,9 +1,12 @@
 package atomicJ.gui.curveProcessing;
 
 import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Set;
 
 import atomicJ.analysis.MapProcessingSettings;
 import atomicJ.analysis.ProcessedSpectroscopyPack;
@@ -11,11 +14,15 @@ import atomicJ.gui.MapView;
 import atomicJ.readers.ReadingPack;
 import atomicJ.sources.ImageSource;
 import atomicJ.sources.MapSource;
+import atomicJ.utilities.MultiMap;
 
 public class MapSourceStandardHandler implements MapSourceHandler 
 {
     private final MapView mapDialog;
 
+    //maps drawn while the processing was still running, accessed only from the event dispatch thread
+    private final Set<MapSource<?>> progressivelyPublishedMaps = new HashSet<>();
+
     public MapSourceStandardHandler(MapView mapDialog)
     {
         this.mapDialog = mapDialog;
@@ -23,6 +30,53 @@ public class MapSourceStandardHandler implements MapSourceHandler
 
     @Override
     public void handlePublicationRequest(Map<MapSource<?>, List<ImageSource>> mapSources)
+    {
+        Map<MapSource<?>, List<ImageSource>> unpublishedMapSources = new LinkedHashMap<>(mapSources);
+        unpublishedMapSources.keySet().removeAll(progressivelyPublishedMaps);
+
+        drawMaps(unpublishedMapSources);
+    }
+
+    //the channels of the grid maps are built and drawn when their first packs are published, and updated with the packs published later.
+    //The maps are sealed only when the processing ends, so that their state is computed from all packs.
+    //The other maps are drawn only when the processing ends, because their channels cannot be updated with the packs of previously absent points
+    @Override
+    public void handleProgressivePublicationRequest(MultiMap<MapSource<?>, ProcessedSpectroscopyPack> packs, Map<MapSource<?>, List<ImageSource>> mapSources)
+    {
+        Map<MapSource<?>, List<ImageSource>> newMapSources = new LinkedHashMap<>();
+        MultiMap<MapSource<?>, ProcessedSpectroscopyPack> packsToUpdate = new MultiMap<>();
+        Map<MapSource<?>, List<ImageSource>> updatedMapSources = new LinkedHashMap<>();
+
+        for(Entry<MapSource<?>, List<ProcessedSpectroscopyPack>> entry : packs.entrySet())
+        {
+            MapSource<?> mapSource = entry.getKey();
+
+            if(!mapSource.isRecordedAsGrid())
+            {
+                continue;
+            }
+
+            if(progressivelyPublishedMaps.add(mapSource))
+            {
+                mapSource.initChannelsBeforeSealing();
+                newMapSources.put(mapSource, mapSources.get(mapSource));
+            }
+            else
+            {
+                packsToUpdate.putAll(mapSource, entry.getValue());
+                updatedMapSources.put(mapSource, mapSources.get(mapSource));
+            }
+        }
+
+        if(!packsToUpdate.isEmpty())
+        {
+            mapDialog.replace(packsToUpdate, updatedMapSources);
+        }
+
+        drawMaps(newMapSources);
+    }
+
+    private void drawMaps(Map<MapSource<?>, List<ImageSource>> mapSources)
     {
         if(containsData(mapSources))
         {
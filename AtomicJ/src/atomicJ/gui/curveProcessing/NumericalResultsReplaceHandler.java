@@ -12,6 +12,7 @@ public class NumericalResultsReplaceHandler<E extends Processed1DPack<E,?>> impl
 {
     private final List<E> packsToRemove;
     private final ResultView<?,E> resultsDialog;
+    private boolean oldPacksRemoved = false;
 
     public NumericalResultsReplaceHandler(ResultView<?,E> resultsDialog, Collection<E> packsToRemove)
     {
@@ -25,6 +26,11 @@ public class NumericalResultsReplaceHandler<E extends Processed1DPack<E,?>> impl
         resultsDialog.publishResults(results);
         resultsDialog.setVisible(true);
 
-        resultsDialog.removeProcessedPacks(packsToRemove);
+        //the results may be published in several batches, but the old packs have to be removed only once
+        if(!oldPacksRemoved)
+        {
+            resultsDialog.removeProcessedPacks(packsToRemove);
+            oldPacksRemoved = true;
+        }
     }
 }
\ No newline at end of file
@@ -13,6 +13,7 @@ public class NumericalResultsSourceReplaceHandler<S extends Channel1DSource<?>,
 {
     private final List<S> sourcesToRemove;
     private final ResultView<S,E> resultDialog;
+    private boolean oldSourcesRemoved = false;
 
     public NumericalResultsSourceReplaceHandler(ResultView<S,E> resultDialog, Collection<S> sourcesToRemove)
     {
@@ -26,6 +27,11 @@ public class NumericalResultsSourceReplaceHandler<S extends Channel1DSource<?>,
         resultDialog.publishResults(results);
         resultDialog.setVisible(true);
 
-        resultDialog.removeSources(sourcesToRemove);
+        //the results may be published in several batches, but the old sources have to be removed only once
+        if(!oldSourcesRemoved)
+        {
+            resultDialog.removeSources(sourcesToRemove);
+            oldSourcesRemoved = true;
+        }
     }
 }
\ No newline at end of file
@@ -836,14 +836,6 @@ public class ProcessingBatchModel extends AbstractModel implements BasicSmoother
         return sources;
     }
 
-    public void addSources(List<SimpleSpectroscopySource> sourcesToAdd)
-    {
-        List<SimpleSpectroscopySource> sources = new ArrayList<>(this.sources);
-        sources.addAll(sourcesToAdd);
-
-        setSources(sources);
-    }
-
     public void removeSources(List<SimpleSpectroscopySource> sourcesToRemove)
     {
         List<SimpleSpectroscopySource> sources = new ArrayList<>(this.sources);
@@ -852,7 +844,7 @@ public class ProcessingBatchModel extends AbstractModel implements BasicSmoother
         setSources(sources);
     }
 
-    private void buildDelayedMaps()
+    private static void buildDelayedMaps(List<SimpleSpectroscopySource> sources)
     {        
         MultiMap<MapDelayedCreator, SimpleSpectroscopySource> mapDelayedCreators = new MultiMap<>();
 
@@ -873,6 +865,22 @@ public class ProcessingBatchModel extends AbstractModel implements BasicSmoother
     }
 
     public void setSources(List<SimpleSpectroscopySource> sourcesNew)
+    {
+        updateSources(sourcesNew);
+        buildDelayedMaps(sourcesNew);
+    }
+
+    //the maps are built only for the added sources, so that the maps of the sources added before are kept
+    public void addSources(List<SimpleSpectroscopySource> sourcesAdded)
+    {
+        List<SimpleSpectroscopySource> sourcesNew = new ArrayList<>(sources);
+        sourcesNew.addAll(sourcesAdded);
+
+        updateSources(sourcesNew);
+        buildDelayedMaps(sourcesAdded);
+    }
+
+    private void updateSources(List<SimpleSpectroscopySource> sourcesNew)
     {
         List<SimpleSpectroscopySource> sourcesOld = sources;
         this.sources = sourcesNew;
@@ -887,8 +895,6 @@ public class ProcessingBatchModel extends AbstractModel implements BasicSmoother
         checkAvailableBranches();
         initializeSensitivitySpecificationSettings();
         initializeSpringConstantSpecificationSettings();
-
-        buildDelayedMaps();
     }
 
     public Set<ForceCurveBranch> getAvailableBranches()
@@ -2600,13 +2606,28 @@ public class ProcessingBatchModel extends AbstractModel implements BasicSmoother
         return averagedCurves;
     }
 
-    private ProcessingSettings buildProcessingSettings(ContactModel contactModel, ContactEstimationGuide contactEstimationGuide, SimpleSpectroscopySource source) throws InputNotProvidedException, UserCommunicableException
+    //sources with the same spring constant and sensitivity share the settings, so that a large batch does not keep a copy of the settings for each curve
+    private ProcessingSettings getProcessingSettings(ContactModel contactModel, ContactEstimationGuide contactEstimationGuide, SimpleSpectroscopySource source, Map<List<Double>, ProcessingSettings> sharedSettings) throws InputNotProvidedException, UserCommunicableException
     {        
         PhotodiodeSignalType rawSignalType = source.getPhotodiodeSignalType();
 
         double k = springConstantUseReadIn && source.isSpringConstantKnown() ? source.getSpringConstant(): getSpringConstant();
         double sens = useReadInSensitivity.get(rawSignalType) && source.isSensitivityKnown() ? source.getSensitivity(): this.sensitivity.get(rawSignalType);
 
+        List<Double> key = Arrays.asList(k, sens);
+        ProcessingSettings settings = sharedSettings.get(key);
+
+        if(settings == null)
+        {
+            settings = buildProcessingSettings(contactModel, contactEstimationGuide, k, sens);
+            sharedSettings.put(key, settings);
+        }
+
+        return settings;
+    }
+
+    private ProcessingSettings buildProcessingSettings(ContactModel contactModel, ContactEstimationGuide contactEstimationGuide, double k, double sens) throws InputNotProvidedException, UserCommunicableException
+    {        
         boolean automatic = isContactPointAutomatic();
 
         double upperCrop = rangeCropped ? upperCropping/(1000*k) : 0;
@@ -2640,14 +2661,18 @@ public class ProcessingBatchModel extends AbstractModel implements BasicSmoother
     }
 
     public List<ProcessableSpectroscopyPack> buildProcessingBatch()
+    {
+        return buildProcessingBatch(new ArrayList<>(sources));
+    }
+
+    //builds the packs only for the given sources of the batch, e.g. for the sources of one file when the files are processed while they are read
+    public List<ProcessableSpectroscopyPack> buildProcessingBatch(List<SimpleSpectroscopySource> sourcesToProcess)
     {        
         try
         {
             VisualizationSettings visualizationSettings = buildVisualizationSettings();
             MapProcessingSettings mapSettings = buildMapProcessingSettings();
 
-            List<SimpleSpectroscopySource> sourcesToProcess = new ArrayList<>(sources);
-
             //we create two list, because when the manual method is used,
             //we may allow for the possibility that they will reject some sources
 
@@ -2663,9 +2688,11 @@ public class ProcessingBatchModel extends AbstractModel implements BasicSmoother
 
             IdentityTag batchId = getBatchIdentityTag();
 
+            Map<List<Double>, ProcessingSettings> sharedSettings = new HashMap<>();
+
             for(SimpleSpectroscopySource source: sourcesToProcess)
             {
-                ProcessingSettings procSettings = buildProcessingSettings(contactModel, contactEstimationGuide, source);
+                ProcessingSettings procSettings = getProcessingSettings(contactModel, contactEstimationGuide, source, sharedSettings);
 
                 ProcessableSpectroscopyPack pack = new ProcessableSpectroscopyPack(source, procSettings, mapSettings, visualizationSettings, batchId);
                 pack.setAdhesionForceEstimator(adhesionForceEstimator);
@@ -2677,9 +2704,20 @@ public class ProcessingBatchModel extends AbstractModel implements BasicSmoother
 
             if(isContactPointAutomatic())
             {                
+                //packs whose settings have the same estimation guide share the estimator
+                Map<ContactEstimationGuide, ContactEstimator> sharedEstimators = new IdentityHashMap<>();
+
                 for(ProcessableSpectroscopyPack pack: packsInitial)
                 {
-                    ContactEstimator estimator = getContactEstimator(pack);
+                    ContactEstimationGuide estimationGuide = pack.getProcessingSettings().getContactEstimationGuide();
+                    ContactEstimator estimator = sharedEstimators.get(estimationGuide);
+
+                    if(estimator == null)
+                    {
+                        estimator = getContactEstimator(pack);
+                        sharedEstimators.put(estimationGuide, estimator);
+                    }
+
                     pack.setContactEstimator(estimator);
                     allPacks.add(pack); 
                 }
@@ -0,0 +1,278 @@
+
+/* 
+ * ===========================================================
+ * AtomicJ : a free application for analysis of AFM data
+ * ===========================================================
+ *
+ * (C) Copyright 2013-2022 by Paweł Hermanowicz
+ *
+ * 
+ * This program is free software; you can redistribute it and/or modify 
+ * it under the terms of the GNU General Public License as published by 
+ * the Free Software Foundation; either version 3 of the License, or (at your option) any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without 
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU 
+ * General Public License for more details.
+ * You should have received a copy of the GNU General Public License along with this program; if not, 
+ * see http://www.gnu.org/licenses/*/
+
+package atomicJ.gui.curveProcessing;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Map.Entry;
+import java.util.Properties;
+
+import atomicJ.analysis.AutomaticContactEstimatorType;
+import atomicJ.analysis.BasicRegressionStrategy;
+import atomicJ.analysis.ForceCurveBranch;
+import atomicJ.analysis.PhotodiodeSignalType;
+import atomicJ.analysis.indentation.AdhesiveEnergyEstimationMethod;
+import atomicJ.gui.UserCommunicableException;
+import atomicJ.utilities.Validation;
+
+/*
+ * Stores the settings of a processing batch as a text properties file, so that they can be
+ * used outside of the processing wizard, for example by the batch processing entry point.
+ * The keys are the property names used by ProcessingBatchModel. Sensitivity is stored
+ * separately for each photodiode signal type, with the name of the type appended to the key. The settings whose keys are missing from the file keep the values of the model.
+ * Sample topography and sample ROIs are not stored, as they refer to objects that exist only in a running session.
+ */
+
+public final class ProcessingBatchSettingsFile
+{
+    private static final String BATCH_NAME = "BatchName";
+    private static final String KEY_SEPARATOR = ".";
+
+    private ProcessingBatchSettingsFile() {}
+
+    public static void write(ProcessingBatchMemento memento, File f) throws IOException
+    {
+        Validation.requireNonNullParameterName(memento, "memento");
+        Validation.requireNonNullParameterName(f, "f");
+
+        Properties properties = new Properties();
+
+        properties.setProperty(BATCH_NAME, memento.getBatchName());
+
+        properties.setProperty(ProcessingBatchModel.INDENTATION_MODEL, memento.getIndentationModel().getIdentifier());
+        properties.setProperty(ProcessingBatchModel.POISSON_RATIO, Double.toString(memento.getPoissonRatio()));
+        properties.setProperty(ProcessingBatchModel.TIP_RADIUS, Double.toString(memento.getTipRadius()));
+        properties.setProperty(ProcessingBatchModel.TIP_HALF_ANGLE, Double.toString(memento.getTipHalfAngle()));
+        properties.setProperty(ProcessingBatchModel.TIP_TRANSITION_RADIUS, Double.toString(memento.getTipTransitionRadius()));
+        properties.setProperty(ProcessingBatchModel.TIP_EXPONENT, Double.toString(memento.getTipExponent()));
+        properties.setProperty(ProcessingBatchModel.TIP_FACTOR, Double.toString(memento.getTipFactor()));
+
+        properties.setProperty(ProcessingBatchModel.SPRING_CONSTANT, Double.toString(memento.getSpringConstant()));
+        properties.setProperty(ProcessingBatchModel.SPRING_CONSTANT_USE_READ_IN, Boolean.toString(memento.getUseReadInSpringConstant()));
+
+        //the signal types whose sensitivity is not specified are left out of the file
+        for(Entry<PhotodiodeSignalType, Double> entry : memento.getSensitivity().entrySet())
+        {
+            if(entry.getValue() != null)
+            {
+                properties.setProperty(ProcessingBatchModel.SENSITIVITY + KEY_SEPARATOR + entry.getKey().name(), entry.getValue().toString());
+            }
+        }
+        for(Entry<PhotodiodeSignalType, Boolean> entry : memento.getUseReadInSensitivity().entrySet())
+        {
+            if(entry.getValue() != null)
+            {
+                properties.setProperty(ProcessingBatchModel.SENSITIVITY_USE_READ_IN + KEY_SEPARATOR + entry.getKey().name(), entry.getValue().toString());
+            }
+        }
+
+        properties.setProperty(ProcessingBatchModel.BASELINE_DEGREE, Integer.toString(memento.getBaselineDegree()));
+        properties.setProperty(ProcessingBatchModel.POSTCONTACT_DEGREE, Integer.toString(memento.getPostcontactDegree()));
+
+        properties.setProperty(ProcessingBatchModel.DOMAIN_CROPPED, Boolean.toString(memento.isDomainCropped()));
+        properties.setProperty(ProcessingBatchModel.RANGE_CROPPED, Boolean.toString(memento.isRangeCropped()));
+        properties.setProperty(ProcessingBatchModel.LEFT_CROPPING, Double.toString(memento.getLeftCropping()));
+        properties.setProperty(ProcessingBatchModel.RIGHT_CROPPING, Double.toString(memento.getRightCropping()));
+        properties.setProperty(ProcessingBatchModel.UPPER_CROPPING, Double.toString(memento.getUpperCropping()));
+        properties.setProperty(ProcessingBatchModel.LOWER_CROPPING, Double.toString(memento.getLowerCropping()));
+
+        properties.setProperty(ProcessingBatchModel.LOAD_LIMIT, Double.toString(memento.getLoadLimit()));
+        properties.setProperty(ProcessingBatchModel.INDENTATION_LIMIT, Double.toString(memento.getIndentationLimit()));
+        properties.setProperty(ProcessingBatchModel.FIT_INDENTATION_LIMIT, Double.toString(memento.getFitIndentationLimit()));
+        properties.setProperty(ProcessingBatchModel.FIT_Z_MINIMUM, Double.toString(memento.getFitZMinimum()));
+        properties.setProperty(ProcessingBatchModel.FIT_Z_MAXIMUM, Double.toString(memento.getFitZMaximum()));
+
+        properties.setProperty(ProcessingBatchModel.CORRECT_SUBSTRATE_EFFECT, Boolean.toString(memento.getCorrectSubstrateEffect()));
+        properties.setProperty(ProcessingBatchModel.SAMPLE_ADHERENT, Boolean.toString(memento.isSampleAdherent()));
+        properties.setProperty(ProcessingBatchModel.SAMPLE_THICKNESS, Double.toString(memento.getSampleThickness()));
+        properties.setProperty(ProcessingBatchModel.THICKNESS_CORRECTION_METHOD, memento.getThicknessCorrectionMethod().getIdentifier());
+
+        properties.setProperty(ProcessingBatchModel.CURVE_SMOOTHED, Boolean.toString(memento.areDataSmoothed()));
+        properties.setProperty(ProcessingBatchModel.SMOOTHER_TYPE, memento.getSmootherName().name());
+        properties.setProperty(ProcessingBatchModel.LOESS_SPAN, Double.toString(memento.getLoessSpan()));
+        properties.setProperty(ProcessingBatchModel.LOESS_ITERATIONS, Double.toString(memento.getLoessIterations().doubleValue()));
+        properties.setProperty(ProcessingBatchModel.SAVITZKY_DEGREE, Double.toString(memento.getSavitzkyDegree().doubleValue()));
+        properties.setProperty(ProcessingBatchModel.SAVITZKY_SPAN, Double.toString(memento.getSavitzkySpan()));
+
+        properties.setProperty(ProcessingBatchModel.CONTACT_POINT_AUTOMATIC, Boolean.toString(memento.isContactPointAutomatic()));
+        properties.setProperty(ProcessingBatchModel.AUTOMATIC_CONTACT_ESTIMATOR, memento.getAutomaticEstimator().getIdentifier());
+        properties.setProperty(ProcessingBatchModel.CONTACT_ESTIMATION_METHOD, memento.getContactEstimationMethod().getIdentifier());
+        properties.setProperty(ProcessingBatchModel.REGRESSION_STRATEGY, memento.getRegressionStrategy().getIdentifier());
+        properties.setProperty(ProcessingBatchModel.FITTED_BRANCH, memento.getFittedBranch().getIdentifier());
+        properties.setProperty(ProcessingBatchModel.ADHESIVE_ENERGY_ESTIMATION_METHOD, memento.getAdhesiveEnergyEstimationMethod().getIdentifier());
+
+        properties.setProperty(ProcessingBatchModel.INCLUDE_IN_MAPS, Boolean.toString(memento.isIncludeCurvesInMaps()));
+        properties.setProperty(ProcessingBatchModel.CALCULATE_ADHESION_FORCE, Boolean.toString(memento.isCalculateAdhesionForce()));
+        properties.setProperty(ProcessingBatchModel.CALCULATE_R_SQUARED, Boolean.toString(memento.isCalculateRSquared()));
+
+        try(OutputStream out = new FileOutputStream(f))
+        {
+            properties.store(out, "AtomicJ processing settings");
+        }
+    }
+
+    public static Properties read(File f) throws IOException
+    {
+        Validation.requireNonNullParameterName(f, "f");
+
+        Properties properties = new Properties();
+
+        try(InputStream in = new FileInputStream(f))
+        {
+            properties.load(in);
+        }
+
+        return properties;
+    }
+
+    //the settings are passed to the model through its setters, so the model checks them in the same way as the input from the processing wizard
+    public static void apply(Properties properties, ProcessingBatchModel model) throws UserCommunicableException
+    {
+        Validation.requireNonNullParameterName(properties, "properties");
+        Validation.requireNonNullParameterName(model, "model");
+
+        try
+        {
+            String batchName = properties.getProperty(BATCH_NAME);
+            if(batchName != null)
+            {
+                model.setBatchName(batchName);
+            }
+
+            //the indentation model goes first, because it determines which tip parameters are needed
+            model.setIndentationModel(BasicIndentationModel.getValue(properties.getProperty(ProcessingBatchModel.INDENTATION_MODEL), model.getIndentationModel()));
+            model.setPoissonRatio(getDouble(properties, ProcessingBatchModel.POISSON_RATIO, model.getPoissonRatio()));
+            model.setTipRadius(getDouble(properties, ProcessingBatchModel.TIP_RADIUS, model.getTipRadius()));
+            model.setTipHalfAngle(getDouble(properties, ProcessingBatchModel.TIP_HALF_ANGLE, model.getTipHalfAngle()));
+            model.setTipTransitionRadius(getDouble(properties, ProcessingBatchModel.TIP_TRANSITION_RADIUS, model.getTipTransitionRadius()));
+            model.setTipExponent(getDouble(properties, ProcessingBatchModel.TIP_EXPONENT, model.getTipExponent()));
+            model.setTipFactor(getDouble(properties, ProcessingBatchModel.TIP_FACTOR, model.getTipFactor()));
+
+            model.setUseReadInSpringConstant(getBoolean(properties, ProcessingBatchModel.SPRING_CONSTANT_USE_READ_IN, model.getUseReadInSpringConstant()));
+            model.setSpringConstant(getDouble(properties, ProcessingBatchModel.SPRING_CONSTANT, model.getSpringConstant()));
+
+            //the model may have no sensitivity for some signal types, so the missing keys are passed as null, which the setters ignore
+            for(PhotodiodeSignalType signalType : PhotodiodeSignalType.values())
+            {
+                model.setUseReadInSensitivity(signalType, getBooleanIfPresent(properties, ProcessingBatchModel.SENSITIVITY_USE_READ_IN + KEY_SEPARATOR + signalType.name()));
+                model.setSensitivity(signalType, getDoubleIfPresent(properties, ProcessingBatchModel.SENSITIVITY + KEY_SEPARATOR + signalType.name()));
+            }
+
+            model.setBaselineDegree(getInt(properties, ProcessingBatchModel.BASELINE_DEGREE, model.getBaselineDegree()));
+            model.setPostcontactDegree(getInt(properties, ProcessingBatchModel.POSTCONTACT_DEGREE, model.getPostcontactDegree()));
+
+            model.setDomainCropped(getBoolean(properties, ProcessingBatchModel.DOMAIN_CROPPED, model.isDomainToBeCropped()));
+            model.setRangeCropped(getBoolean(properties, ProcessingBatchModel.RANGE_CROPPED, model.isRangeToBeCropped()));
+            model.setLeftCropping(getDouble(properties, ProcessingBatchModel.LEFT_CROPPING, model.getLeftCropping()));
+            model.setRightCropping(getDouble(properties, ProcessingBatchModel.RIGHT_CROPPING, model.getRightCropping()));
+            model.setUpperCropping(getDouble(properties, ProcessingBatchModel.UPPER_CROPPING, model.getUpperCropping()));
+            model.setLowerCropping(getDouble(properties, ProcessingBatchModel.LOWER_CROPPING, model.getLowerCropping()));
+
+            model.setLoadLimit(getDouble(properties, ProcessingBatchModel.LOAD_LIMIT, model.getLoadLimit()));
+            model.setIndentationLimit(getDouble(properties, ProcessingBatchModel.INDENTATION_LIMIT, model.getIndentationLimit()));
+            model.setFitIndentationLimit(getDouble(properties, ProcessingBatchModel.FIT_INDENTATION_LIMIT, model.getFitIndentationLimit()));
+            model.setFitZMinimum(getDouble(properties, ProcessingBatchModel.FIT_Z_MINIMUM, model.getFitZMinimum()));
+            model.setFitZMaximum(getDouble(properties, ProcessingBatchModel.FIT_Z_MAXIMUM, model.getFitZMaximum()));
+
+            model.setThicknessCorrectionMethod(ThicknessCorrectionMethod.getValue(properties.getProperty(ProcessingBatchModel.THICKNESS_CORRECTION_METHOD), model.getThicknessCorrectionMethod()));
+            model.setSampleAdherent(getBoolean(properties, ProcessingBatchModel.SAMPLE_ADHERENT, model.isSampleAdherent()));
+            model.setSampleThickness(getDouble(properties, ProcessingBatchModel.SAMPLE_THICKNESS, model.getSampleThickness()));
+            model.setCorrectSubstrateEffect(getBoolean(properties, ProcessingBatchModel.CORRECT_SUBSTRATE_EFFECT, model.isCorrectSubstrateEffect()));
+
+            model.setSmootherType(getSmootherType(properties, ProcessingBatchModel.SMOOTHER_TYPE, model.getSmootherType()));
+            model.setLoessSpan(getDouble(properties, ProcessingBatchModel.LOESS_SPAN, model.getLoessSpan()));
+            model.setLoessIterations(getDouble(properties, ProcessingBatchModel.LOESS_ITERATIONS, model.getLoessIterations().doubleValue()));
+            model.setSavitzkyDegree(getDouble(properties, ProcessingBatchModel.SAVITZKY_DEGREE, model.getSavitzkyDegree().doubleValue()));
+            model.setSavitzkySpan(getDouble(properties, ProcessingBatchModel.SAVITZKY_SPAN, model.getSavitzkySpan()));
+            model.setDataSmoothed(getBoolean(properties, ProcessingBatchModel.CURVE_SMOOTHED, model.areDataSmoothed()));
+
+            model.setContactPointAutomatic(getBoolean(properties, ProcessingBatchModel.CONTACT_POINT_AUTOMATIC, model.isContactPointAutomatic()));
+            model.setAutomaticContactEstimator(AutomaticContactEstimatorType.getValue(properties.getProperty(ProcessingBatchModel.AUTOMATIC_CONTACT_ESTIMATOR), model.getAutomaticEstimator()));
+            model.setContactEstimationMethod(ContactEstimationMethod.getValue(properties.getProperty(ProcessingBatchModel.CONTACT_ESTIMATION_METHOD), model.getContactEstimationMethod()));
+            model.setRegressionStrategy(BasicRegressionStrategy.getValue(properties.getProperty(ProcessingBatchModel.REGRESSION_STRATEGY), model.getRegressionStrategy()));
+            model.setFittedBranch(ForceCurveBranch.getValue(properties.getProperty(ProcessingBatchModel.FITTED_BRANCH), model.getFittedBranch()));
+            model.setAdhesiveEnergyEstimationMethod(AdhesiveEnergyEstimationMethod.getValue(properties.getProperty(ProcessingBatchModel.ADHESIVE_ENERGY_ESTIMATION_METHOD), model.getAdhesiveEnergyEstimationMethod()));
+
+            model.setIncludeCurvesInMaps(getBoolean(properties, ProcessingBatchModel.INCLUDE_IN_MAPS, model.isIncludeCurvesInMaps()));
+            model.setCalculateAdhesionForce(getBoolean(properties, ProcessingBatchModel.CALCULATE_ADHESION_FORCE, model.isCalculateAdhesionForce()));
+            model.setCalculateRSquared(getBoolean(properties, ProcessingBatchModel.CALCULATE_R_SQUARED, model.isCalculateRSquared()));
+        }
+        catch(NumberFormatException e)
+        {
+            throw new UserCommunicableException("The processing settings contain an illegal numerical value", e);
+        }
+
+        if(!model.areSettingSpecified())
+        {
+            throw new UserCommunicableException("The processing settings are incomplete for the batch " + model.getBatchName());
+        }
+    }
+
+    private static double getDouble(Properties properties, String key, double fallBackValue)
+    {
+        String value = properties.getProperty(key);
+        return (value != null) ? Double.parseDouble(value.trim()) : fallBackValue;
+    }
+
+    private static Double getDoubleIfPresent(Properties properties, String key)
+    {
+        String value = properties.getProperty(key);
+        return (value != null) ? Double.valueOf(value.trim()) : null;
+    }
+
+    private static int getInt(Properties properties, String key, int fallBackValue)
+    {
+        String value = properties.getProperty(key);
+        return (value != null) ? Integer.parseInt(value.trim()) : fallBackValue;
+    }
+
+    private static boolean getBoolean(Properties properties, String key, boolean fallBackValue)
+    {
+        String value = properties.getProperty(key);
+        return (value != null) ? Boolean.parseBoolean(value.trim()) : fallBackValue;
+    }
+
+    private static Boolean getBooleanIfPresent(Properties properties, String key)
+    {
+        String value = properties.getProperty(key);
+        return (value != null) ? Boolean.valueOf(value.trim()) : null;
+    }
+
+    private static SmootherType getSmootherType(Properties properties, String key, SmootherType fallBackValue)
+    {
+        String value = properties.getProperty(key);
+
+        if(value != null)
+        {
+            for(SmootherType type : SmootherType.values())
+            {
+                if(type.name().equals(value.trim()))
+                {
+                    return type;
+                }
+            }
+        }
+
+        return fallBackValue;
+    }
+}
@@ -36,6 +36,7 @@ import atomicJ.data.Channel1D;
 import atomicJ.data.Channel2D;
 import atomicJ.data.SpectroscopyCurve;
 import atomicJ.gui.AbstractModel;
+import atomicJ.gui.GeneralPreferences;
 import atomicJ.gui.ResourceSelectionModel;
 import atomicJ.gui.rois.ROI;
 import atomicJ.gui.rois.ROIWizardReceiver;
@@ -61,6 +62,10 @@ public class ProcessingModel extends AbstractModel implements CroppingReceiver,
     private boolean sealed;    
     private int index;
 
+    //the stages of the first processing of the curves are cached as well, so that already the first recalculation
+    //reuses the stages which do not depend on the changed settings
+    private boolean stageCachingEnabled = true;
+
     public ProcessingModel(SpectroscopyResultDestination resultDestination, PreviewDestination previewDestination, PreprocessCurvesHandler preprocessHandler)
     {
         this(resultDestination, previewDestination, preprocessHandler, Collections.emptyList(), Integer.toString(resultDestination.getPublishedBatchCount()),resultDestination.getPublishedBatchCount());
@@ -189,6 +194,16 @@ public class ProcessingModel extends AbstractModel implements CroppingReceiver,
         this.mapSourceHandler = mapSourceHandle;
     }
 
+    public boolean isStageCachingEnabled()
+    {
+        return stageCachingEnabled;
+    }
+
+    public void setStageCachingEnabled(boolean stageCachingEnabled)
+    {
+        this.stageCachingEnabled = stageCachingEnabled;
+    }
+
     public CurveVisualizationHandler<VisualizableSpectroscopyPack> getCurveVisualizationHandle()
     {
         return curveVisualizationHandler;
@@ -1270,6 +1285,9 @@ public class ProcessingModel extends AbstractModel implements CroppingReceiver,
 
     public List<ProcessableSpectroscopyPack> getAllProcessablePacks()
     {
+        //the preference is read once, so that all packs of the batch are processed in the same way
+        boolean compactResults = GeneralPreferences.GENERAL_PREFERENCES.isCompactProcessedResults();
+
         List<ProcessableSpectroscopyPack> allPacks = new ArrayList<>();
         for(ProcessingBatchModel model: batchModels)
         {       
@@ -1277,6 +1295,12 @@ public class ProcessingModel extends AbstractModel implements CroppingReceiver,
             {               
                 List<ProcessableSpectroscopyPack> packs = model.buildProcessingBatch();
 
+                for(ProcessableSpectroscopyPack pack : packs)
+                {
+                    pack.setStageCachingEnabled(stageCachingEnabled);
+                    pack.setCompactResults(compactResults);
+                }
+
                 allPacks.addAll(packs);
             }
         }
@@ -2,6 +2,7 @@ package atomicJ.gui.curveProcessing;
 
 import java.io.File;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
@@ -82,7 +83,7 @@ public class SpectroscopyCurveAveragingHandler implements CurveAveragingHandler<
             }
             
             Batch<ProcessedSpectroscopyPack> batch = curves.get(tag);
-            List<ProcessedSpectroscopyPack> packs = batch.getPacks();
+            List<ProcessedSpectroscopyPack> packs = (batch != null) ? batch.getPacks() : Collections.<ProcessedSpectroscopyPack>emptyList();
             
             if(packs.isEmpty())
             {
@@ -281,6 +282,12 @@ public class SpectroscopyCurveAveragingHandler implements CurveAveragingHandler<
         return emptyInstance;
     }
 
+    public boolean isAveragingEnabled(IdentityTag batchIdentityTag)
+    {
+        SpectroscopyCurveAveragingSettings settings = allAveragingSettings.get(batchIdentityTag);
+        return settings != null && settings.isAveragingEnabled();
+    }
+
     public void registerAveragingSettings(IdentityTag batchIdentityTag, SpectroscopyCurveAveragingSettings averagingSettings)
     {
         allAveragingSettings.put(batchIdentityTag, averagingSettings);
@@ -25,7 +25,6 @@ import java.util.concurrent.CompletionService;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorCompletionService;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import javax.swing.JOptionPane;
@@ -34,6 +33,8 @@ import atomicJ.analysis.MonitoredSwingWorker;
 import atomicJ.data.Channel;
 import atomicJ.gui.AtomicJ;
 import atomicJ.gui.GeneralPreferences;
+import atomicJ.gui.SharedExecutors;
+import atomicJ.gui.TaskPriority;
 import atomicJ.gui.UserCommunicableException;
 import atomicJ.gui.undo.UndoableCommand;
 import atomicJ.resources.ChannelResource;
@@ -70,7 +71,7 @@ public class ConcurrentTransformationTask <R extends ChannelResource<E, ?, ?>, E
         int basicTaskSize = problemSize/taskNumber;
         int remainingFiles = problemSize%taskNumber;
 
-        executor = Executors.newFixedThreadPool(taskNumber); 
+        executor = SharedExecutors.newComputeExecutor(TaskPriority.NORMAL); 
 
         int currentIndex = 0;
 
@@ -0,0 +1,92 @@
+
+/* 
+ * ===========================================================
+ * AtomicJ : a free application for analysis of AFM data
+ * ===========================================================
+ *
+ * (C) Copyright 2013-2022 by Paweł Hermanowicz
+ *
+ * 
+ * This program is free software; you can redistribute it and/or modify 
+ * it under the terms of the GNU General Public License as published by 
+ * the Free Software Foundation; either version 3 of the License, or (at your option) any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without 
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU 
+ * General Public License for more details.
+ * You should have received a copy of the GNU General Public License along with this program; if not, 
+ * see http://www.gnu.org/licenses/*/
+
+package atomicJ.gui.histogram;
+
+import org.jfree.data.statistics.HistogramBin;
+
+/*
+ * Histogram bin created with its count, so that the bins of a histogram can be filled from counts accumulated in a primitive array,
+ * instead of calling incrementCount() once for each value, which for cumulative histograms has to be repeated for all subsequent bins.
+ */
+
+public class CountedHistogramBin extends HistogramBin
+{
+    private static final long serialVersionUID = 1L;
+
+    private int count;
+
+    public CountedHistogramBin(double startBoundary, double endBoundary, int count)
+    {
+        super(startBoundary, endBoundary);
+        this.count = count;
+    }
+
+    @Override
+    public int getCount()
+    {
+        return count;
+    }
+
+    @Override
+    public void incrementCount()
+    {
+        count++;
+    }
+
+    @Override
+    public int hashCode()
+    {
+        int result = 17;
+        result = 31*result + Double.hashCode(getStartBoundary());
+        result = 31*result + Double.hashCode(getEndBoundary());
+        result = 31*result + count;
+
+        return result;
+    }
+
+    @Override
+    public boolean equals(Object obj)
+    {
+        if(obj == this)
+        {
+            return true;
+        }
+        if(!(obj instanceof CountedHistogramBin))
+        {
+            return false;
+        }
+
+        CountedHistogramBin that = (CountedHistogramBin)obj;
+
+        if(Double.compare(this.getStartBoundary(), that.getStartBoundary()) != 0)
+        {
+            return false;
+        }
+        if(Double.compare(this.getEndBoundary(), that.getEndBoundary()) != 0)
+        {
+            return false;
+        }
+        if(this.count != that.count)
+        {
+            return false;
+        }
+
+        return true;
+    }
+}
@@ -1437,6 +1437,28 @@ public class HistogramSampleModel  extends AbstractModel
             boolean isCumulative = distributionType.equals(DistributionType.CUMULATIVE);
             int count = this.binCount.isInfinite()? 1 : Math.max(1, (int) Math.rint(this.binCount));
 
+            //the values are counted in a primitive array, the cumulative counts are then its prefix sums
+            int[] binCounts = new int[count];
+
+            for (int i = 0; i < retainedDataCount; i++) 
+            {
+                double x = dataToPlot[i];
+                if (rangeMin <= x && x <= rangeMax)
+                { 	
+                    double fraction = (x - rangeMin) / rangeLength;
+                    int binIndex = (int) Math.min(fraction * count,count - 1);
+                    binCounts[binIndex]++;
+                }
+            }
+
+            if(isCumulative)
+            {
+                for(int i = 1; i < count; i++)
+                {
+                    binCounts[i] += binCounts[i - 1];
+                }
+            }
+
             double upper;
             double lower = rangeMin;
 
@@ -1445,39 +1467,16 @@ public class HistogramSampleModel  extends AbstractModel
                 HistogramBin bin;
                 if (i == count - 1) 
                 {
-                    bin = new HistogramBin(lower, rangeMax);
+                    bin = new CountedHistogramBin(lower, rangeMax, binCounts[i]);
                 }
                 else 
                 {
                     upper = rangeMin + (i + 1) * binWidth;
-                    bin = new HistogramBin(lower, upper);
+                    bin = new CountedHistogramBin(lower, upper, binCounts[i]);
                     lower = upper;
                 }
                 bins.add(bin);
             }
-
-            for (int i = 0; i < retainedDataCount; i++) 
-            {
-                double x = dataToPlot[i];
-                if (rangeMin <= x && x <= rangeMax)
-                { 	
-                    double fraction = (x - rangeMin) / rangeLength;
-                    int binIndex = (int) Math.min(fraction * count,count - 1);
-                    if(isCumulative)
-                    {
-                        List<HistogramBin> previousBins = bins.subList(binIndex, count);
-                        for(HistogramBin bin: previousBins)
-                        {
-                            bin.incrementCount();
-                        }
-                    }
-                    else
-                    {
-                        HistogramBin bin = bins.get(binIndex);
-                        bin.incrementCount();
-                    }
-                }
-            }
         }	
         return bins;
 
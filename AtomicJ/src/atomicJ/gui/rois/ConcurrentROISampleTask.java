@@ -29,13 +29,14 @@ import java.util.concurrent.CompletionService;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorCompletionService;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import atomicJ.analysis.MonitoredSwingWorker;
 import atomicJ.data.Channel2D;
 import atomicJ.data.QuantitativeSample;
 import atomicJ.gui.GeneralPreferences;
+import atomicJ.gui.SharedExecutors;
+import atomicJ.gui.TaskPriority;
 import atomicJ.gui.UserCommunicableException;
 
 
@@ -75,7 +76,7 @@ public class ConcurrentROISampleTask extends MonitoredSwingWorker<Map<String, Ma
         int basicTaskSize = problemSize/taskNumber;
         int remainingProblems = problemSize%taskNumber;		
 
-        executor = Executors.newFixedThreadPool(taskNumber); 
+        executor = SharedExecutors.newComputeExecutor(TaskPriority.INTERACTIVE); 
 
         int currentIndex = 0;
 
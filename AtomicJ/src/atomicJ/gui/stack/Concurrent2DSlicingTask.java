@@ -26,7 +26,6 @@ import java.util.concurrent.CompletionService;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorCompletionService;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import atomicJ.analysis.MonitoredSwingWorker;
@@ -38,6 +37,8 @@ import atomicJ.data.Channel2DStandard;
 import atomicJ.data.units.Quantity;
 import atomicJ.gui.GeneralPreferences;
 import atomicJ.gui.Channel2DReceiver;
+import atomicJ.gui.SharedExecutors;
+import atomicJ.gui.TaskPriority;
 import atomicJ.gui.UserCommunicableException;
 import atomicJ.resources.CrossSectionSettings;
 
@@ -87,7 +88,7 @@ public class Concurrent2DSlicingTask extends MonitoredSwingWorker<Channel2D, Voi
         int basicTaskSize = problemSize/taskNumber;
         int remainingFiles = problemSize%taskNumber;
 
-        executor = Executors.newFixedThreadPool(taskNumber); 
+        executor = SharedExecutors.newComputeExecutor(TaskPriority.INTERACTIVE); 
 
         int currentIndex = 0;
 
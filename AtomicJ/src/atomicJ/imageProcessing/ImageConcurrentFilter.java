@@ -13,6 +13,7 @@ import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 
 import atomicJ.data.Channel2DData;
+import atomicJ.data.FlatMatrix;
 import atomicJ.data.Grid2D;
 import atomicJ.data.GridChannel2DData;
 import atomicJ.data.ImageMatrix;
@@ -57,6 +58,8 @@ public abstract class ImageConcurrentFilter implements Channel2DDataInROITransfo
         int rowCount = grid.getRowCount();
         int columnCount = grid.getColumnCount();
 
+        FlatMatrix pixels = FlatMatrix.getPaddedInstance(matrix, rowCount, columnCount, getRowPadding(), getColumnPadding());
+
         Shape shape = roi.getROIShape();
         Rectangle2D bounds = shape.getBounds2D();
 
@@ -86,7 +89,7 @@ public abstract class ImageConcurrentFilter implements Channel2DDataInROITransfo
                     }
 
                     transformed[i][j] = transform ? 
-                            filter(i, j, matrix, columnCount, rowCount) : matrix[i][j];
+                            filter(i, j, pixels) : matrix[i][j];
                 }
             }
         }
@@ -106,7 +109,7 @@ public abstract class ImageConcurrentFilter implements Channel2DDataInROITransfo
                     }
 
                     transformed[i][j] = transform ? 
-                            filter(i, j, matrix, columnCount, rowCount) : matrix[i][j];
+                            filter(i, j, pixels) : matrix[i][j];
                 }
             }
         }
@@ -119,21 +122,17 @@ public abstract class ImageConcurrentFilter implements Channel2DDataInROITransfo
         return channelDataTransformed;
     }
 
-    protected abstract double filter(int i, int j, double[][] matrix, int columnCount, int rowCount);
+    //numbers of rows and columns outside the image that the filter may read, the pixels there have the values of the nearest edge pixels
+    protected abstract int getRowPadding();
+    protected abstract int getColumnPadding();
 
-    protected double getPixel(int row, int column, double[][] pixels, int width, int height)
-    { 
-        if (column<=0) column = 0; 
-        if (column>=width) column = width-1; 
-        if (row<=0) row = 0; 
-        if (row>=height) row = height-1; 
-        return pixels[row][column]; 
-    }
+    //the pixels are padded by getRowPadding() and getColumnPadding(), so the filter reads the neighbours of the edge pixels without clamping their indices
+    protected abstract double filter(int i, int j, FlatMatrix pixels);
 
     private class ConcurrentFilterTask
     {
         private final double[][] filteredArray;  
-        private final double[][] originalArray;
+        private final FlatMatrix original;
 
         private final int rowCount;
         private final int columnCount;
@@ -151,9 +150,9 @@ public abstract class ImageConcurrentFilter implements Channel2DDataInROITransfo
             this.rowCount = grid.getRowCount();
             this.columnCount = grid.getColumnCount();
 
-            this.originalArray = channel.getData();
+            this.original = FlatMatrix.getPaddedInstance(channel.getData(), rowCount, columnCount, getRowPadding(), getColumnPadding());
             this.filteredArray = new double[rowCount][columnCount];       
-            this.problemSize = originalArray.length;
+            this.problemSize = rowCount;
         }
 
         public double[][] getFilteredArray()
@@ -239,7 +238,7 @@ public abstract class ImageConcurrentFilter implements Channel2DDataInROITransfo
                     {       
                         for(int j = 0; j<columnCount; j++)
                         {             
-                            filteredArray[i][j] = filter(i, j, originalArray, columnCount, rowCount);
+                            filteredArray[i][j] = filter(i, j, original);
                         }
                     }
                     catch(Exception e)
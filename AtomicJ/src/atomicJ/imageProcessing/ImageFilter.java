@@ -1,6 +1,7 @@
 package atomicJ.imageProcessing;
 
 import atomicJ.data.Channel2DData;
+import atomicJ.data.FlatMatrix;
 import atomicJ.data.Grid2D;
 import atomicJ.data.GridChannel2DData;
 import atomicJ.gui.rois.GridPointRecepient;
@@ -16,18 +17,21 @@ public abstract class ImageFilter implements Channel2DDataInROITransformation
         GridChannel2DData gridChannelData = channel.getDefaultGridding();
 
         Grid2D grid = gridChannelData.getGrid();
-        double[][] original = gridChannelData.getData();
 
         int rowCount = grid.getRowCount();
         int columnCount = grid.getColumnCount();
 
+        FlatMatrix original = FlatMatrix.getPaddedInstance(gridChannelData.getData(), rowCount, columnCount, getRowPadding(), getColumnPadding());
+
         double[][] transformed = new double[rowCount][columnCount];
 
         for(int i = 0; i<rowCount; i++)
         {
+            double[] transformedRow = transformed[i];
+
             for(int j = 0; j<columnCount; j++)
             {             
-                transformed[i][j] = filter(i, j, original, columnCount, rowCount);
+                transformedRow[j] = filter(i, j, original);
             }
         }
 
@@ -49,19 +53,16 @@ public abstract class ImageFilter implements Channel2DDataInROITransformation
 
 
         Grid2D grid = gridChannelData.getGrid();
-        final double[][] original = gridChannelData.getData();
+        double[][] data = gridChannelData.getData();
 
-        final int rowCount = grid.getRowCount();
-        final int columnCount = grid.getColumnCount();
-
-        final double[][] transformed = ArrayUtilities.deepCopy(original);
+        final FlatMatrix original = FlatMatrix.getPaddedInstance(data, grid.getRowCount(), grid.getColumnCount(), getRowPadding(), getColumnPadding());
+        final double[][] transformed = ArrayUtilities.deepCopy(data);
 
         roi.addPoints(grid, position, new GridPointRecepient() 
         {
             @Override
             public void addPoint(int row, int column) {
-                transformed[row][column] = 
-                        filter(row, column, original, columnCount, rowCount);                
+                transformed[row][column] = filter(row, column, original);                
             }
 
             @Override
@@ -72,7 +73,7 @@ public abstract class ImageFilter implements Channel2DDataInROITransformation
 
                     for(int j = columnFrom; j<columnTo; j++)
                     {
-                        transformedRow[j] = filter(i, j, original, columnCount, rowCount);
+                        transformedRow[j] = filter(i, j, original);
                     }
                 }                  
             }
@@ -84,14 +85,10 @@ public abstract class ImageFilter implements Channel2DDataInROITransformation
     }
 
 
-    protected abstract double filter(int i, int j, double[][] matrix, int columnCount, int rowCount);
+    //numbers of rows and columns outside the image that the filter may read, the pixels there have the values of the nearest edge pixels
+    protected abstract int getRowPadding();
+    protected abstract int getColumnPadding();
 
-    protected double getPixel(int row, int column, double[][] pixels, int width, int height)
-    { 
-        if (column<=0) column = 0; 
-        if (column>=width) column = width-1; 
-        if (row<=0) row = 0; 
-        if (row>=height) row = height-1; 
-        return pixels[row][column]; 
-    }
+    //the pixels are padded by getRowPadding() and getColumnPadding(), so the filter reads the neighbours of the edge pixels without clamping their indices
+    protected abstract double filter(int i, int j, FlatMatrix pixels);
 }
@@ -1,5 +1,6 @@
 package atomicJ.imageProcessing;
 
+import atomicJ.data.FlatMatrix;
 import atomicJ.utilities.ArrayUtilities;
 import Jama.Matrix;
 import Jama.SingularValueDecomposition;
@@ -14,6 +15,8 @@ public class Kernel2D
 
     private final double[][] matrix;
     private final double[][] matrixReverse;
+    //elements of matrixReverse, row after row
+    private final double[] flatMatrixReverse;
 
     public Kernel2D(double[][] kernel)
     {
@@ -55,6 +58,7 @@ public class Kernel2D
 
         this.matrix = ArrayUtilities.deepCopy(kernel);
         this.matrixReverse = ArrayUtilities.deepReverse(matrix);
+        this.flatMatrixReverse = FlatMatrix.getInstance(matrixReverse, rowCount, columnCount).getValues();
         this.rank = Matrix.constructWithCopy(matrix).rank();
     }
 
@@ -267,65 +271,97 @@ public class Kernel2D
 
     public double[][] convolve(double[][] image, int imageColumnCount, int imageRowCount)
     {        
-        double[][] transformed = new double[imageRowCount][imageColumnCount];
+        FlatMatrix paddedImage = FlatMatrix.getPaddedInstance(image, imageRowCount, imageColumnCount, centerRow, centerColumn);
 
-        int maxRowInside = imageRowCount - rowCount - centerRow;
+        return convolve(paddedImage);
+    }
 
-        for(int j = 0; j<imageColumnCount; j++)
+    //the padding of the image must not be smaller than the radii of the kernel
+    public double[][] convolve(FlatMatrix paddedImage)
+    {
+        int imageRowCount = paddedImage.getRowCount();
+        int imageColumnCount = paddedImage.getColumnCount();
+
+        double[][] transformed = new double[imageRowCount][];
+
+        for(int i = 0; i<imageRowCount; i++)
         {
-            for(int i = 0 ; i<centerRow; i++)
-            {
-                transformed[i][j] = convolve(i, j, image, imageColumnCount, imageRowCount);
-            }
-            for(int i = maxRowInside; i<imageRowCount; i++)
-            {
-                transformed[i][j] = convolve(i, j, image, imageColumnCount, imageRowCount);
-            }
+            double[] transformedRow = new double[imageColumnCount];
+            convolveRow(i, paddedImage, transformedRow, 0);
+            transformed[i] = transformedRow;
         }
 
-        int maxColumnInside = imageColumnCount - columnCount - centerColumn;
+        return transformed;
+    }    
+
+    //the padding of the image must not be smaller than the radii of the kernel
+    public double convolve(int i, int j, FlatMatrix paddedImage)
+    {
+        double[] values = paddedImage.getValues();
+        int stride = paddedImage.getStride();
+
+        int imageMinIndex = paddedImage.getIndex(i - centerRow, j - centerColumn);
 
-        for(int i = centerRow; i<maxRowInside; i++)
+        double value = 0;
+
+        for(int k = 0, kernelIndex = 0; k<rowCount; k++)
         {
-            for(int j = 0 ; j<centerColumn; j++)
-            {
-                transformed[i][j] = convolve(i, j, image, imageColumnCount, imageRowCount);
-            }
-            for(int j = maxColumnInside; j<imageColumnCount; j++)
+            int rowStart = imageMinIndex + k*stride;
+
+            for(int l = 0; l<columnCount; l++, kernelIndex++)
             {
-                transformed[i][j] = convolve(i, j, image, imageColumnCount, imageRowCount);
+                value = value + values[rowStart + l]*flatMatrixReverse[kernelIndex];
             }
         }
 
-        for(int i = centerRow ; i<maxRowInside; i++)
+        return value;
+    }
+
+    //returns the convolved image with margins of the given size, filled with the values at the nearest edge,
+    //so that the result can be convolved with another kernel without copying
+    public FlatMatrix convolve(FlatMatrix paddedImage, int rowPaddingNew, int columnPaddingNew)
+    {
+        int imageRowCount = paddedImage.getRowCount();
+        int imageColumnCount = paddedImage.getColumnCount();
+
+        FlatMatrix transformed = new FlatMatrix(imageRowCount, imageColumnCount, rowPaddingNew, columnPaddingNew);
+        double[] transformedValues = transformed.getValues();
+
+        for(int i = 0; i<imageRowCount; i++)
         {
-            for(int j = centerColumn; j<maxColumnInside; j++)
-            {
-                int imageMinRow = i - centerRow;
-                int imageMinColumn = j - centerColumn;
+            convolveRow(i, paddedImage, transformedValues, transformed.getIndex(i, 0));
+        }
 
-                double value = 0;
+        transformed.fillPadding();
 
-                for(int k = 0; k<rowCount; k++)
-                {
-                    for(int l = 0; l<columnCount; l++)
-                    {
-                        double kernelValue = matrixReverse[k][l];
+        return transformed;
+    }
 
-                        int row = imageMinRow + k;
-                        int column = imageMinColumn + l;
+    private void convolveRow(int i, FlatMatrix paddedImage, double[] destination, int destinationOffset)
+    {
+        double[] values = paddedImage.getValues();
+        int stride = paddedImage.getStride();
+        int imageColumnCount = paddedImage.getColumnCount();
 
-                        double imageValue = image[row][column];
-                        value = value + imageValue*kernelValue;
-                    }
-                }
+        int imageMinIndex = paddedImage.getIndex(i - centerRow, -centerColumn);
+
+        for(int j = 0; j<imageColumnCount; j++)
+        {
+            double value = 0;
+
+            for(int k = 0, kernelIndex = 0; k<rowCount; k++)
+            {
+                int rowStart = imageMinIndex + k*stride + j;
 
-                transformed[i][j] = value;
+                for(int l = 0; l<columnCount; l++, kernelIndex++)
+                {
+                    value = value + values[rowStart + l]*flatMatrixReverse[kernelIndex];
+                }
             }
-        }
 
-        return transformed;
-    }    
+            destination[destinationOffset + j] = value;
+        }
+    }
 
     protected double getValue(int row, int column, double[][] matrix, int width, int height)
     { 
@@ -1,5 +1,6 @@
 package atomicJ.imageProcessing;
 
+import atomicJ.data.FlatMatrix;
 
 public class KernelConcurrentConvolution extends ImageConcurrentFilter
 {   
@@ -23,7 +24,19 @@ public class KernelConcurrentConvolution extends ImageConcurrentFilter
     }
 
     @Override
-    protected double filter(int i, int j, double[][] matrix, int columnCount, int rowCount)
+    protected int getRowPadding()
+    {
+        return kernelCenterRow;
+    }
+
+    @Override
+    protected int getColumnPadding()
+    {
+        return kernelCenterColumn;
+    }
+
+    @Override
+    protected double filter(int i, int j, FlatMatrix pixels)
     {
         double value = 0;
 
@@ -36,7 +49,7 @@ public class KernelConcurrentConvolution extends ImageConcurrentFilter
                 int row = i + k - kernelCenterRow;
                 int column = j + l - kernelCenterColumn;
 
-                double imageValue = getPixel(row, column, matrix, columnCount, rowCount);
+                double imageValue = pixels.get(row, column);
                 value = value + imageValue*kernelValue;
             }
         }
@@ -4,6 +4,7 @@ import java.awt.Shape;
 import java.awt.geom.Rectangle2D;
 
 import atomicJ.data.Channel2DData;
+import atomicJ.data.FlatMatrix;
 import atomicJ.data.Grid2D;
 import atomicJ.data.GridChannel2DData;
 import atomicJ.data.units.Quantity;
@@ -35,7 +36,7 @@ public class KernelConvolutionSequence implements Channel2DDataInROITransformati
         Kernel2D initialKernel = kernel.getInitialKernel();
         Kernel2D finalKernel = kernel.getFinalKernel();
 
-        double[][] preTransformed = preTransform(initialKernel, matrix, grid);
+        FlatMatrix preTransformed = preTransform(initialKernel, matrix, grid, finalKernel);
 
         GridChannel2DData channelDataTransformed = finalTransformation(finalKernel, grid, zQuantity, matrix, preTransformed);
         return channelDataTransformed;
@@ -53,43 +54,29 @@ public class KernelConvolutionSequence implements Channel2DDataInROITransformati
         Kernel2D initialKernel = kernel.getInitialKernel();
         Kernel2D finalKernel = kernel.getFinalKernel();
 
-        double[][] pretransformed = preTransform(initialKernel, matrix, grid, roi, position, 
-                finalKernel.getRowCount(), finalKernel.getColumnCount());
+        FlatMatrix pretransformed = preTransform(initialKernel, matrix, grid, finalKernel, roi, position);
 
         GridChannel2DData channelDataTransformed = finalTransformation(finalKernel, grid, zQuantity, matrix, pretransformed,roi, position);
         return channelDataTransformed;
     }
 
+    //preTransformed is padded with the radii of the kernel
     protected GridChannel2DData finalTransformation(Kernel2D kernel, Grid2D grid, Quantity zQuantity,
-            double[][] original, double[][] preTransformed) 
+            double[][] original, FlatMatrix preTransformed) 
     {
-        int rowCount = grid.getRowCount();
-        int columnCount = grid.getColumnCount();
-
-        double[][] transformed = new double[rowCount][columnCount];
-
-        for(int i = 0; i<rowCount; i++)
-        {
-            for(int j = 0; j<columnCount; j++)
-            {             
-                transformed[i][j] = kernel.convolve(i, j, preTransformed, columnCount, rowCount);
-            }
-        }
+        double[][] transformed = kernel.convolve(preTransformed);
 
         GridChannel2DData channelDataTransformed = new GridChannel2DData(transformed, grid, zQuantity);
         return channelDataTransformed;
     }
 
-    protected GridChannel2DData finalTransformation(final Kernel2D kernel, Grid2D grid, Quantity zQuantity, double[][] original, final double[][] preTransformed, ROI roi, ROIRelativePosition position) 
+    protected GridChannel2DData finalTransformation(final Kernel2D kernel, Grid2D grid, Quantity zQuantity, double[][] original, final FlatMatrix preTransformed, ROI roi, ROIRelativePosition position) 
     {        
         if(ROIRelativePosition.EVERYTHING.equals(position))
         {
             return finalTransformation(kernel, grid, zQuantity, original, preTransformed);
         }
 
-        final int rowCount = grid.getRowCount();
-        final int columnCount = grid.getColumnCount();
-
         final double[][] transformed = ArrayUtilities.deepCopy(original);
 
         roi.addPoints(grid, position, new GridPointRecepient() 
@@ -97,8 +84,7 @@ public class KernelConvolutionSequence implements Channel2DDataInROITransformati
             @Override
             public void addPoint(int row, int column)
             {
-                transformed[row][column] =
-                        kernel.convolve(row, column, preTransformed, columnCount, rowCount);
+                transformed[row][column] = kernel.convolve(row, column, preTransformed);
             }
 
             @Override
@@ -110,7 +96,7 @@ public class KernelConvolutionSequence implements Channel2DDataInROITransformati
 
                     for(int j = columnFrom; j<columnTo; j++)
                     {
-                        transformedRow[j] = kernel.convolve(i, j, preTransformed, columnCount, rowCount);
+                        transformedRow[j] = kernel.convolve(i, j, preTransformed);
                     }
                 }                  
             }
@@ -121,74 +107,61 @@ public class KernelConvolutionSequence implements Channel2DDataInROITransformati
         return channelDataTransformed;
     }
 
-    private double[][] preTransform(Kernel2D kernel, double[][] matrix, Grid2D grid) 
+    //the returned matrix is padded, so that it can be convolved with the final kernel without clamping of indices
+    private FlatMatrix preTransform(Kernel2D kernel, double[][] matrix, Grid2D grid, Kernel2D finalKernel) 
     {
         int rowCount = grid.getRowCount();
         int columnCount = grid.getColumnCount();
 
-        double[][] transformed = new double[rowCount][columnCount];
-
-        for(int i = 0; i<rowCount; i++)
-        {
-            for(int j = 0; j<columnCount; j++)
-            {             
-                transformed[i][j] = kernel.convolve(i, j, matrix, columnCount, rowCount);
-            }
-        }
+        FlatMatrix paddedImage = FlatMatrix.getPaddedInstance(matrix, rowCount, columnCount, kernel.getYRadius(), kernel.getXRadius());
+        FlatMatrix transformed = kernel.convolve(paddedImage, finalKernel.getYRadius(), finalKernel.getXRadius());
 
         return transformed;
     }
 
-    private double[][] preTransform(Kernel2D kernel, final double[][] matrix, Grid2D grid, ROI roi,
-            ROIRelativePosition position, int rowPadding, int columnPadding) 
+    private FlatMatrix preTransform(Kernel2D kernel, double[][] matrix, Grid2D grid, Kernel2D finalKernel, ROI roi,
+            ROIRelativePosition position) 
     {
-        if(ROIRelativePosition.EVERYTHING.equals(position))
+        if(!ROIRelativePosition.INSIDE.equals(position))
         {
-            return preTransform(kernel, matrix, grid);
+            return preTransform(kernel, matrix, grid, finalKernel);
         }
 
-        final int rowCount = grid.getRowCount();
-        final int columnCount = grid.getColumnCount();
-
-        Shape shape = roi.getROIShape();
-        Rectangle2D bounds = shape.getBounds2D();
-
-        final double[][] transformed = new double[rowCount][columnCount];
-
-        if(ROIRelativePosition.INSIDE.equals(position))
-        {
-            int minColumn = Math.max(0, grid.getColumn(bounds.getMinX()) - columnPadding - 1);
-            int maxColumn = Math.min(grid.getColumnCount(),
-                    grid.getColumn(bounds.getMaxX()) + columnPadding + 1);
-            int minRow = Math.max(0, grid.getRow(bounds.getMinY()) - rowPadding - 1);
-            int maxRow = Math.min(grid.getRowCount(),
-                    grid.getRow(bounds.getMaxY()) + rowPadding + 1);
-
-            for (int i = minRow; i < maxRow; i++)
-            {
-                for (int j = minColumn; j < maxColumn; j++) 
-                {                        
-                    transformed[i][j] = kernel.convolve(i, j, matrix, columnCount, rowCount);                  
-                }
-            }
-        }
         //this is ok that we do not perform separate calculations for ROIRelativePosition.OUTSIDE
         //as in this method, we only calculate the pretransformed image
         //the transform method will distinguish between the points inside and outside the ROI
         //using only those parts of the pretransformed image, which are outside
         //this should give better performance, at least in the case of complex ROI shapes
 
-        else 
+        int rowPadding = finalKernel.getRowCount();
+        int columnPadding = finalKernel.getColumnCount();
+
+        int rowCount = grid.getRowCount();
+        int columnCount = grid.getColumnCount();
+
+        Shape shape = roi.getROIShape();
+        Rectangle2D bounds = shape.getBounds2D();
+
+        int minColumn = Math.max(0, grid.getColumn(bounds.getMinX()) - columnPadding - 1);
+        int maxColumn = Math.min(grid.getColumnCount(),
+                grid.getColumn(bounds.getMaxX()) + columnPadding + 1);
+        int minRow = Math.max(0, grid.getRow(bounds.getMinY()) - rowPadding - 1);
+        int maxRow = Math.min(grid.getRowCount(),
+                grid.getRow(bounds.getMaxY()) + rowPadding + 1);
+
+        FlatMatrix paddedImage = FlatMatrix.getPaddedInstance(matrix, rowCount, columnCount, kernel.getYRadius(), kernel.getXRadius());
+        FlatMatrix transformed = new FlatMatrix(rowCount, columnCount, finalKernel.getYRadius(), finalKernel.getXRadius());
+
+        for (int i = minRow; i < maxRow; i++)
         {
-            for(int i = 0; i<rowCount; i++)
-            {
-                for(int j = 0; j<columnCount; j++)
-                {             
-                    transformed[i][j] = kernel.convolve(i, j, matrix, columnCount, rowCount);
-                }
+            for (int j = minColumn; j < maxColumn; j++) 
+            {                        
+                transformed.set(i, j, kernel.convolve(i, j, paddedImage));                  
             }
         }
 
+        transformed.fillPadding();
+
         return transformed;
     }
 }
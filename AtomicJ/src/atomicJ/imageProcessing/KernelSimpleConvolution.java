@@ -1,6 +1,7 @@
 package atomicJ.imageProcessing;
 
 import atomicJ.data.Channel2DData;
+import atomicJ.data.FlatMatrix;
 import atomicJ.data.Grid2D;
 import atomicJ.data.GridChannel2DData;
 import atomicJ.data.units.Quantity;
@@ -64,13 +65,14 @@ public class KernelSimpleConvolution implements Channel2DDataInROITransformation
         final int columnCount = grid.getColumnCount();
 
         final double[][] transformed = ArrayUtilities.deepCopy(original);
+        final FlatMatrix paddedImage = FlatMatrix.getPaddedInstance(pretransformed, rowCount, columnCount, kernel.getYRadius(), kernel.getXRadius());
 
         roi.addPoints(grid, position, new GridPointRecepient() {
 
             @Override
             public void addPoint(int row, int column)
             {
-                transformed[row][column] = kernel.convolve(row, column, pretransformed, columnCount, rowCount);
+                transformed[row][column] = kernel.convolve(row, column, paddedImage);
             }
 
             @Override
@@ -82,7 +84,7 @@ public class KernelSimpleConvolution implements Channel2DDataInROITransformation
 
                     for(int j = columnFrom; j<columnTo; j++)
                     {
-                        transformedRow[j] = kernel.convolve(i, j, pretransformed, columnCount, rowCount);
+                        transformedRow[j] = kernel.convolve(i, j, paddedImage);
                     }
                 }                   
             }
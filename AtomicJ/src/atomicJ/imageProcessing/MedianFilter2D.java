@@ -1,5 +1,6 @@
 package atomicJ.imageProcessing;
 
+import atomicJ.data.FlatMatrix;
 import atomicJ.statistics.DescriptiveStatistics;
 
 
@@ -21,7 +22,19 @@ public class MedianFilter2D extends ImageFilter
     }
 
     @Override
-    protected double filter(int i, int j, double[][] matrix, int columnCount, int rowCount)
+    protected int getRowPadding()
+    {
+        return kernelCenterRow;
+    }
+
+    @Override
+    protected int getColumnPadding()
+    {
+        return kernelCenterColumn;
+    }
+
+    @Override
+    protected double filter(int i, int j, FlatMatrix pixels)
     {    
         double[] values = new double[kernelRowCount*kernelColumnCount];
 
@@ -34,7 +47,7 @@ public class MedianFilter2D extends ImageFilter
                 int row = i + k - kernelCenterRow;
                 int column = j + l - kernelCenterColumn;
 
-                double imageValue = getPixel(row, column, matrix, columnCount, rowCount);
+                double imageValue = pixels.get(row, column);
                 values[index++] = imageValue;
             }
         }
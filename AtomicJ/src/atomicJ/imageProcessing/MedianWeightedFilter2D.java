@@ -1,5 +1,6 @@
 package atomicJ.imageProcessing;
 
+import atomicJ.data.FlatMatrix;
 import atomicJ.statistics.DescriptiveStatistics;
 import atomicJ.utilities.ArrayUtilities;
 
@@ -28,7 +29,19 @@ public class MedianWeightedFilter2D extends ImageFilter
     }
 
     @Override
-    protected double filter(int i, int j, double[][] matrix, int columnCount, int rowCount)
+    protected int getRowPadding()
+    {
+        return kernelCenterRow;
+    }
+
+    @Override
+    protected int getColumnPadding()
+    {
+        return kernelCenterColumn;
+    }
+
+    @Override
+    protected double filter(int i, int j, FlatMatrix pixels)
     {    
         double[] values = new double[weightCount];
 
@@ -43,7 +56,7 @@ public class MedianWeightedFilter2D extends ImageFilter
                 int row = i + k - kernelCenterRow;
                 int column = j + l - kernelCenterColumn;
 
-                double imageValue = getPixel(row, column, matrix, columnCount, rowCount);
+                double imageValue = pixels.get(row, column);
 
                 for(int p = 0; p < weight; p++)
                 {
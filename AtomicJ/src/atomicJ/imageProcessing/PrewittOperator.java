@@ -1,5 +1,7 @@
 package atomicJ.imageProcessing;
 
+import atomicJ.data.FlatMatrix;
+
 
 public class PrewittOperator extends ImageFilter
 {   
@@ -9,7 +11,19 @@ public class PrewittOperator extends ImageFilter
     private final int scalingFactor = 6;
 
     @Override
-    protected double filter(int i, int j, double[][] matrix, int columnCount, int rowCount)
+    protected int getRowPadding()
+    {
+        return 1;
+    }
+
+    @Override
+    protected int getColumnPadding()
+    {
+        return 1;
+    }
+
+    @Override
+    protected double filter(int i, int j, FlatMatrix pixels)
     {
         double valueGx = 0;
         double valueGy = 0;
@@ -24,7 +38,7 @@ public class PrewittOperator extends ImageFilter
                 int row = i + k - 1;
                 int column = j + l - 1;
 
-                double imageValue = getPixel(row, column, matrix, columnCount, rowCount);
+                double imageValue = pixels.get(row, column);
                 valueGx += imageValue*gxKernelElement;
                 valueGy += imageValue*gyKernalElement;
             }
@@ -29,12 +29,13 @@ import java.util.concurrent.CompletionService;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorCompletionService;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import atomicJ.analysis.MonitoredSwingWorker;
 import atomicJ.data.ChannelFilter;
 import atomicJ.data.PermissiveChannelFilter;
+import atomicJ.gui.SharedExecutors;
+import atomicJ.gui.TaskPriority;
 import atomicJ.gui.UserCommunicableException;
 import atomicJ.sources.ChannelSource;
 
@@ -90,7 +91,7 @@ public class ConcurrentReadingTask<E extends ChannelSource> extends MonitoredSwi
         int basicTaskSize = problemSize/taskNumber;
         int remainingFiles = problemSize%taskNumber;
 
-        this.executor = Executors.newFixedThreadPool(taskNumber); 
+        this.executor = SharedExecutors.newIOExecutor(TaskPriority.NORMAL); 
 
         int currentIndex = 0;
 
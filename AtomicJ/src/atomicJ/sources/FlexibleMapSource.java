@@ -46,6 +46,7 @@ import atomicJ.data.Channel2DData;
 import atomicJ.data.Channel2DStandard;
 import atomicJ.data.FlexibleChannel2DData;
 import atomicJ.data.ChannelDomainIdentifier;
+import atomicJ.data.PointIndex2D;
 import atomicJ.data.QuantitativeSample;
 import atomicJ.data.SampleCollection;
 import atomicJ.data.StandardSampleCollection;
@@ -62,6 +63,10 @@ public class FlexibleMapSource extends AbstractChannel2DSource<Channel2D> implem
 
     private final Map<Point2D, ProcessedSpectroscopyPack> processedPacks = new LinkedHashMap<>();
 
+    //spatial indices of the recording points, built when they are first needed and discarded whenever the packs or the sources change
+    private volatile PackIndex packIndex;
+    private volatile PointIndex2D sourceIndex;
+
     private ReadingPack<ImageSource> mapAreaImageInfo;
     private final Quantity xQuantity;
     private final Quantity yQuantity;
@@ -69,6 +74,7 @@ public class FlexibleMapSource extends AbstractChannel2DSource<Channel2D> implem
 
     private boolean processed = false; // if it is processed - at least one position is filled
     private boolean isSealed = false;
+    private boolean channelsInitializedBeforeSealing = false;
 
     private final Map<ProcessedPackFunction<? super ProcessedSpectroscopyPack>, String> channelPackFunctionMap = new LinkedHashMap<>();
 
@@ -188,6 +194,52 @@ public class FlexibleMapSource extends AbstractChannel2DSource<Channel2D> implem
         source.setForceMap(this);
         source.setMapPosition(index);
         processedPacks.remove(source.getRecordingPoint());
+
+        invalidateIndices();
+    }
+
+    private void invalidateIndices()
+    {
+        this.packIndex = null;
+        this.sourceIndex = null;
+    }
+
+    private PackIndex getPackIndex()
+    {
+        PackIndex index = this.packIndex;
+
+        if(index == null)
+        {
+            index = new PackIndex(processedPacks);
+            this.packIndex = index;
+        }
+
+        return index;
+    }
+
+    private PointIndex2D getSourceIndex()
+    {
+        PointIndex2D index = this.sourceIndex;
+
+        if(index == null)
+        {
+            int n = simpleSources.size();
+
+            double[] xs = new double[n];
+            double[] ys = new double[n];
+
+            for(int i = 0; i<n; i++)
+            {
+                Point2D p = simpleSources.get(i).getRecordingPoint();
+                xs[i] = p.getX();
+                ys[i] = p.getY();
+            }
+
+            index = new PointIndex2D(xs, ys);
+            this.sourceIndex = index;
+        }
+
+        return index;
     }
 
     private List<SimpleSpectroscopySource> copyAndInitSimpleSources(List<SimpleSpectroscopySource> sourcesOld)
@@ -259,8 +311,7 @@ public class FlexibleMapSource extends AbstractChannel2DSource<Channel2D> implem
     @Override
     public ProcessedSpectroscopyPack getProcessedPack(int i)
     {
-        List<ProcessedSpectroscopyPack> packs = new ArrayList<>(processedPacks.values());
-        return packs.get(i);
+        return getPackIndex().packs[i];
     }
 
     @Override
@@ -280,28 +331,18 @@ public class FlexibleMapSource extends AbstractChannel2DSource<Channel2D> implem
     @Override
     public ProcessedSpectroscopyPack getProcessedPack(Point2D p)
     {
-        double minDistance = Double.POSITIVE_INFINITY;
-        ProcessedSpectroscopyPack processedPack = null;
+        PackIndex index = getPackIndex();
 
-        for(Entry<Point2D, ProcessedSpectroscopyPack> entry: processedPacks.entrySet())
-        {
-            Point2D packPoint = entry.getKey();
-            double dist = p.distance(packPoint);
-            if(dist<minDistance)
-            {
-                minDistance = dist;
-                processedPack = entry.getValue();
-            }
-        }
+        int nearest = index.points.getNearestIndex(p.getX(), p.getY());
+        ProcessedSpectroscopyPack processedPack = nearest > -1 ? index.packs[nearest] : null;
 
         return processedPack;
-
     }
 
     @Override
     public Map<Point2D, ProcessedSpectroscopyPack> getProcessedPacksMap()
     {
-        return processedPacks;
+        return Collections.unmodifiableMap(processedPacks);
     }
 
     @Override
@@ -314,6 +355,7 @@ public class FlexibleMapSource extends AbstractChannel2DSource<Channel2D> implem
         if(p != null)
         {
             processedPacks.put(p, pack);
+            invalidateIndices();
         }
     }
 
@@ -380,6 +422,8 @@ public class FlexibleMapSource extends AbstractChannel2DSource<Channel2D> implem
                 source.setForceMap(this);
             }
         }
+
+        invalidateIndices();
     }
 
 
@@ -442,28 +486,37 @@ public class FlexibleMapSource extends AbstractChannel2DSource<Channel2D> implem
 
         Set<ProcessedSpectroscopyPack> packs = new HashSet<>();
 
+        for(ProcessedSpectroscopyPack pack : getPacks(roi.getROIShape(), position))
+        {
+            packs.add(pack);
+        }
+
+        return packs;
+    }
+
+    //returns the packs whose recording points are inside or outside the shape, in the order in which they were registered
+    private List<ProcessedSpectroscopyPack> getPacks(Shape shape, ROIRelativePosition position)
+    {
+        PackIndex index = getPackIndex();
+        List<ProcessedSpectroscopyPack> packs = new ArrayList<>();
+
         if(ROIRelativePosition.INSIDE.equals(position))
         {
-            for(Entry<Point2D, ProcessedSpectroscopyPack> entry: processedPacks.entrySet())
+            for(int i : index.points.getIndicesInside(shape))
             {
-                Point2D p = entry.getKey();
-                if(roi.contains(p))
-                {
-                    ProcessedSpectroscopyPack pack = entry.getValue();
-                    packs.add(pack);
-                }                   
+                packs.add(index.packs[i]);
             }
         }
         else if(ROIRelativePosition.OUTSIDE.equals(position))
         {
-            for(Entry<Point2D, ProcessedSpectroscopyPack> entry: processedPacks.entrySet())
+            boolean[] inside = index.points.getInsideMask(shape);
+
+            for(int i = 0; i<inside.length; i++)
             {
-                Point2D p = entry.getKey();
-                if(!roi.contains(p))
+                if(!inside[i])
                 {
-                    ProcessedSpectroscopyPack pack = entry.getValue();
-                    packs.add(pack);
-                }                   
+                    packs.add(index.packs[i]);
+                }
             }
         }
         else
@@ -486,24 +539,21 @@ public class FlexibleMapSource extends AbstractChannel2DSource<Channel2D> implem
         }
         else if(ROIRelativePosition.INSIDE.equals(position))
         {
-            for(SimpleSpectroscopySource source : simpleSources)
+            for(int i : getSourceIndex().getIndicesInside(roi.getROIShape()))
             {
-                Point2D p = source.getRecordingPoint();
-                if(roi.contains(p))
-                {
-                    sources.add(source);
-                }   
+                sources.add(simpleSources.get(i));
             }
         }
         else if(ROIRelativePosition.OUTSIDE.equals(position))
         {
-            for(SimpleSpectroscopySource source : simpleSources)
+            boolean[] inside = getSourceIndex().getInsideMask(roi.getROIShape());
+
+            for(int i = 0; i<inside.length; i++)
             {
-                Point2D p = source.getRecordingPoint();
-                if(!roi.contains(p))
+                if(!inside[i])
                 {
-                    sources.add(source);
-                }   
+                    sources.add(simpleSources.get(i));
+                }
             }
         }
         else
@@ -571,36 +621,7 @@ public class FlexibleMapSource extends AbstractChannel2DSource<Channel2D> implem
             return getXYZData(function);
         }
 
-        List<ProcessedSpectroscopyPack> packsContained = new ArrayList<>();
-
-        if(ROIRelativePosition.INSIDE.equals(position))
-        {
-            for(Entry<Point2D, ProcessedSpectroscopyPack> entry: processedPacks.entrySet())
-            {
-                ProcessedSpectroscopyPack pack = entry.getValue();
-                Point2D p = entry.getKey();
-
-                if(shape.contains(p))
-                {
-                    packsContained.add(pack);
-
-                }       
-            }
-        }
-        else if(ROIRelativePosition.OUTSIDE.equals(position))
-        {
-            for(Entry<Point2D, ProcessedSpectroscopyPack> entry: processedPacks.entrySet())
-            {
-                ProcessedSpectroscopyPack pack = entry.getValue();
-                Point2D p = entry.getKey();
-
-                if(!shape.contains(p))
-                {
-                    packsContained.add(pack);
-                }       
-            }
-        }
-
+        List<ProcessedSpectroscopyPack> packsContained = getPacks(shape, position);
 
         int n = packsContained.size();
 
@@ -640,12 +661,26 @@ public class FlexibleMapSource extends AbstractChannel2DSource<Channel2D> implem
         return isSealed;
     }
 
+    @Override
+    public void initChannelsBeforeSealing()
+    {
+        channelsInitializedBeforeSealing = true;
+
+        checkIfIsProcessed();
+        initMapChannels();
+    }
+
     @Override
     public void seal()
     {
         isSealed = true;
         checkIfIsProcessed();
-        initMapChannels();
+
+        //the channels built before sealing may already be drawn, and they were updated with the packs registered later
+        if(!channelsInitializedBeforeSealing)
+        {
+            initMapChannels();
+        }
     }	
 
     private void initMapChannels()
@@ -762,4 +797,34 @@ public class FlexibleMapSource extends AbstractChannel2DSource<Channel2D> implem
 
         return range;
     }
+
+    private static class PackIndex
+    {
+        private final ProcessedSpectroscopyPack[] packs;
+        private final PointIndex2D points;
+
+        private PackIndex(Map<Point2D, ProcessedSpectroscopyPack> processedPacks)
+        {
+            int n = processedPacks.size();
+
+            this.packs = new ProcessedSpectroscopyPack[n];
+
+            double[] xs = new double[n];
+            double[] ys = new double[n];
+
+            int i = 0;
+            for(Entry<Point2D, ProcessedSpectroscopyPack> entry : processedPacks.entrySet())
+            {
+                Point2D p = entry.getKey();
+
+                packs[i] = entry.getValue();
+                xs[i] = p.getX();
+                ys[i] = p.getY();
+
+                i++;
+            }
+
+            this.points = new PointIndex2D(xs, ys);
+        }
+    }
 }
@@ -61,15 +61,16 @@ import atomicJ.utilities.ArrayUtilities;
 public class MapGridSource extends AbstractChannel2DSource<Channel2D> implements MapSource<Channel2D>
 {
     private final List<SimpleSpectroscopySource> simpleSources;
-    private final Map<Point2D, ProcessedSpectroscopyPack> processedPacks = new LinkedHashMap<>();
 
     private final SimpleSpectroscopySource[][] gridSourcesData;
-    private final ProcessedSpectroscopyPack[][] gridProcessedPackData;
+    //packs in the scan order, the pack for the node in the row i and the column j has the index i*columnCount + j
+    private final ProcessedSpectroscopyPack[] processedPackData;
     private ReadingPack<ImageSource> mapAreaImageInfo;
 
     private boolean processed = false; // if it is processed at least one node is filled
     private boolean processedAsFullGrid = false; //if it is processed as a full grid, i.e. each node is present
     private boolean isSealed = false;
+    private boolean channelsInitializedBeforeSealing = false;
 
     private Grid2D mapGrid;
 
@@ -85,7 +86,7 @@ public class MapGridSource extends AbstractChannel2DSource<Channel2D> implements
         this.mapGrid = mapGrid;
 
         this.gridSourcesData = new SimpleSpectroscopySource[n][m];
-        this.gridProcessedPackData = new ProcessedSpectroscopyPack[n][m];
+        this.processedPackData = new ProcessedSpectroscopyPack[n*m];
 
         this.simpleSources = simpleSources;
 
@@ -101,8 +102,10 @@ public class MapGridSource extends AbstractChannel2DSource<Channel2D> implements
         int n = grid.getRowCount();
         int m = grid.getColumnCount();
 
+        this.mapGrid = grid;
+
         this.gridSourcesData = new SimpleSpectroscopySource[n][m];
-        this.gridProcessedPackData = new ProcessedSpectroscopyPack[n][m];
+        this.processedPackData = new ProcessedSpectroscopyPack[n*m];
 
         this.simpleSources = simpleSources;
 
@@ -118,8 +121,10 @@ public class MapGridSource extends AbstractChannel2DSource<Channel2D> implements
         int n = grid.getRowCount();
         int m = grid.getColumnCount();
 
+        this.mapGrid = grid;
+
         this.gridSourcesData = new SimpleSpectroscopySource[n][m];
-        this.gridProcessedPackData = new ProcessedSpectroscopyPack[n][m];
+        this.processedPackData = new ProcessedSpectroscopyPack[n*m];
 
         this.simpleSources = simpleSources;
 
@@ -137,7 +142,7 @@ public class MapGridSource extends AbstractChannel2DSource<Channel2D> implements
         super(that, identifiers);
 
         this.gridSourcesData = ArrayUtilities.deepCopy(that.gridSourcesData);
-        this.gridProcessedPackData = ArrayUtilities.deepCopy(that.gridProcessedPackData);
+        this.processedPackData = Arrays.copyOf(that.processedPackData, that.processedPackData.length);
         this.simpleSources = copyAndInitSimpleSources(that.simpleSources);	
         this.mapAreaImageInfo = that.mapAreaImageInfo;
         this.channelPackFunctionMap.putAll(that.channelPackFunctionMap);
@@ -317,6 +322,15 @@ public class MapGridSource extends AbstractChannel2DSource<Channel2D> implements
         return isSealed;
     }
 
+    @Override
+    public void initChannelsBeforeSealing()
+    {
+        channelsInitializedBeforeSealing = true;
+
+        checkIfIsProcessed();
+        initMapChannels();
+    }
+
     @Override
     public void seal()
     {        
@@ -324,22 +338,24 @@ public class MapGridSource extends AbstractChannel2DSource<Channel2D> implements
 
         checkIfIsProcessed();
         checkIfProcessedAsGrid();
-        initMapChannels();    
+
+        //the channels built before sealing may already be drawn, and they were updated with the packs registered later
+        if(!channelsInitializedBeforeSealing)
+        {
+            initMapChannels();    
+        }
     }
 
     private void checkIfProcessedAsGrid()
     {
         processedAsFullGrid = true;
-        for(ProcessedSpectroscopyPack[] row: gridProcessedPackData)
+        for(ProcessedSpectroscopyPack item : processedPackData)
         {
-            for(ProcessedSpectroscopyPack item : row)
+            boolean itemIsNull = (item == null);
+            if(itemIsNull)
             {
-                boolean itemIsNull = (item == null);
-                if(itemIsNull)
-                {
-                    processedAsFullGrid = false;
-                    return;
-                }
+                processedAsFullGrid = false;
+                return;
             }
         }
     }
@@ -348,28 +364,35 @@ public class MapGridSource extends AbstractChannel2DSource<Channel2D> implements
     {
         boolean processed = false;
 
-        for(ProcessedSpectroscopyPack[] packs : gridProcessedPackData)
+        for(ProcessedSpectroscopyPack pack : processedPackData)
         {
-            for(ProcessedSpectroscopyPack pack : packs)
-            {
-                processed = processed || (pack != null);
+            processed = processed || (pack != null);
 
-                if(processed)
-                {
-                    this.processed = processed;
-                    return;
-                }
+            if(processed)
+            {
+                this.processed = processed;
+                return;
             }
         }
 
         this.processed = processed;
     }
 
+    //i is the index of the node in the scan order, i.e. row*columnCount + column, returns null if the node is not processed
     @Override
     public ProcessedSpectroscopyPack getProcessedPack(int i)
     {
-        List<ProcessedSpectroscopyPack> packs = new ArrayList<>(processedPacks.values());
-        return packs.get(i);
+        return processedPackData[i];
+    }
+
+    public ProcessedSpectroscopyPack getProcessedPack(int row, int column)
+    {
+        return processedPackData[row*mapGrid.getColumnCount() + column];
+    }
+
+    public ProcessedSpectroscopyPack getProcessedPack(GridIndex index)
+    {
+        return getProcessedPack(index.getRow(), index.getColumn());
     }
 
     @Override
@@ -399,13 +422,24 @@ public class MapGridSource extends AbstractChannel2DSource<Channel2D> implements
         int n = mapGrid.getRowCount();
         int m = mapGrid.getColumnCount();
 
-        ProcessedSpectroscopyPack pack = (i<n && j<m) ? gridProcessedPackData[i][j] : null;
+        ProcessedSpectroscopyPack pack = (i >= 0 && i<n && j >= 0 && j<m) ? getProcessedPack(i, j) : null;
         return pack;
     }
 
+    //the packs are keyed by their recording points, in the scan order
     @Override
     public Map<Point2D, ProcessedSpectroscopyPack> getProcessedPacksMap()
     {
+        Map<Point2D, ProcessedSpectroscopyPack> processedPacks = new LinkedHashMap<>();
+
+        for(ProcessedSpectroscopyPack pack : processedPackData)
+        {
+            if(pack != null)
+            {
+                processedPacks.put(pack.getSource().getRecordingPoint(), pack);
+            }
+        }
+
         return processedPacks;
     }
 
@@ -507,8 +541,10 @@ public class MapGridSource extends AbstractChannel2DSource<Channel2D> implements
                 int i = mapGrid.getRow(p);
                 int j = mapGrid.getColumn(p);
 
-                ProcessedSpectroscopyPack packOld = gridProcessedPackData[i][j];
-                gridProcessedPackData[i][j] = pack;  
+                int index = i*mapGrid.getColumnCount() + j;
+
+                ProcessedSpectroscopyPack packOld = processedPackData[index];
+                processedPackData[index] = pack;  
                 gridSourcesData[i][j] = pack.getSource();
 
                 if(packOld != null)
@@ -534,25 +570,14 @@ public class MapGridSource extends AbstractChannel2DSource<Channel2D> implements
             int i = mapGrid.getRow(p);
             int j = mapGrid.getColumn(p);
 
-            gridProcessedPackData[i][j] = pack;		            
+            processedPackData[i*mapGrid.getColumnCount() + j] = pack;		            
         }	       
     }
 
     @Override
     public Set<ProcessedSpectroscopyPack> getProcessedPacks()
     {        
-        Set<ProcessedSpectroscopyPack> packs = new LinkedHashSet<>();
-
-        int rowCount = mapGrid.getRowCount();
-        int columnCount = mapGrid.getColumnCount();
-
-        for(int i = 0; i<rowCount; i++)
-        {
-            for(int j = 0; j<columnCount; j++)
-            {
-                packs.add(gridProcessedPackData[i][j]);
-            }
-        }
+        Set<ProcessedSpectroscopyPack> packs = new LinkedHashSet<>(Arrays.asList(processedPackData));
         return packs;
     }
 
@@ -571,18 +596,20 @@ public class MapGridSource extends AbstractChannel2DSource<Channel2D> implements
             @Override
             public void addPoint(int i, int j) 
             {
-                packs.add(gridProcessedPackData[i][j]);                 
+                packs.add(getProcessedPack(i, j));                 
             }
 
             @Override
             public void addBlock(int rowFrom, int rowTo, int columnFrom, int columnTo) 
             {
+                int columnCount = mapGrid.getColumnCount();
+
                 for(int i = rowFrom; i<rowTo; i++)
                 {
-                    ProcessedSpectroscopyPack[] row = gridProcessedPackData[i];
+                    int rowStart = i*columnCount;
                     for(int j = columnFrom; j<columnTo; j++)
                     {
-                        packs.add(row[j]);                 
+                        packs.add(processedPackData[rowStart + j]);                 
                     }
                 }
             }
@@ -687,16 +714,19 @@ public class MapGridSource extends AbstractChannel2DSource<Channel2D> implements
 
             @Override
             public void addPoint(int row, int column) {
-                data[row - minRow][column - minColumn] = f.evaluate(gridProcessedPackData[row][column]);                             
+                data[row - minRow][column - minColumn] = f.evaluate(getProcessedPack(row, column));                             
             }
 
             @Override
             public void addBlock(int rowFrom, int rowTo, int columnFrom, int columnTo) {
+                int columnCount = mapGrid.getColumnCount();
+
                 for(int row = rowFrom; row<rowTo; row++)
                 {
+                    int rowStart = row*columnCount;
                     for(int column = columnFrom; column<columnTo; column++)
                     {
-                        data[row - minRow][column - minColumn] = f.evaluate(gridProcessedPackData[row][column]);                             
+                        data[row - minRow][column - minColumn] = f.evaluate(processedPackData[rowStart + column]);                             
                     }             
                 }
             }
@@ -737,19 +767,11 @@ public class MapGridSource extends AbstractChannel2DSource<Channel2D> implements
     {
         Set<ProcessedPackFunction> specialFunctions = new LinkedHashSet<>();
 
-        int n = mapGrid.getRowCount();
-        int m = mapGrid.getColumnCount();
-
-        for(int i = 0; i<n; i++)
+        for(ProcessedSpectroscopyPack pack : processedPackData)
         {
-            ProcessedSpectroscopyPack[] packRow = gridProcessedPackData[i];
-            for(int j = 0; j<m; j++)
+            if(pack != null)
             {
-                ProcessedSpectroscopyPack pack = packRow[j];
-                if(pack != null)
-                {
-                    specialFunctions.addAll(pack.getSpecialFunctions());                
-                }
+                specialFunctions.addAll(pack.getSpecialFunctions());                
             }
         }
 
@@ -764,12 +786,13 @@ public class MapGridSource extends AbstractChannel2DSource<Channel2D> implements
 
         for(int i = 0; i<n; i++)
         {
-            ProcessedSpectroscopyPack[] packRow = gridProcessedPackData[i];
+            int rowStart = i*m;
+            double[] dataRow = channelData[i];
 
             for(int j = 0; j<m; j++)
             {
-                ProcessedSpectroscopyPack pack = packRow[j];
-                channelData[i][j] = pack != null ? f.evaluate(pack) : Double.NaN;				
+                ProcessedSpectroscopyPack pack = processedPackData[rowStart + j];
+                dataRow[j] = pack != null ? f.evaluate(pack) : Double.NaN;				
             }
         }
 
@@ -802,7 +825,7 @@ public class MapGridSource extends AbstractChannel2DSource<Channel2D> implements
                 Point2D point = mapGrid.getPoint(i, j);
                 if(shape.contains(point))
                 {
-                    channelData[i - minRow][j - minColumn] = f.evaluate(gridProcessedPackData[i][j]);
+                    channelData[i - minRow][j - minColumn] = f.evaluate(processedPackData[i*m + j]);
                 }
             }
         }
@@ -817,15 +840,17 @@ public class MapGridSource extends AbstractChannel2DSource<Channel2D> implements
         double min = Double.POSITIVE_INFINITY;
         double max = Double.NEGATIVE_INFINITY;
 
-        for(ProcessedSpectroscopyPack[] packs : gridProcessedPackData)
+        for(ProcessedSpectroscopyPack pack : processedPackData)
         {
-            for(ProcessedSpectroscopyPack pack : packs)
+            if(pack == null)
             {
-                NumericalSpectroscopyProcessingResults result = pack.getResults();
-                double contactHeight = result.getContactDisplacement();
-                min = min > contactHeight ? contactHeight : min;
-                max = max < contactHeight ? contactHeight : max;
-            }         
+                continue;
+            }
+
+            NumericalSpectroscopyProcessingResults result = pack.getResults();
+            double contactHeight = result.getContactDisplacement();
+            min = min > contactHeight ? contactHeight : min;
+            max = max < contactHeight ? contactHeight : max;
         }
 
         Range range = new Range(min, max);
@@ -64,6 +64,9 @@ public interface MapSource<E extends Channel2D> extends SpectroscopySource, Chan
     public boolean isProcessedAsFullGrid();
 
     public boolean isSealed();
+    //builds the channels from the packs registered so far, so that the map can be drawn while the processing is still running.
+    //The channels are then updated by replaceProcessedPacks(), and seal() keeps them
+    public void initChannelsBeforeSealing();
     public void seal();
     public void replaceSpectroscopySource(SimpleSpectroscopySource source, int index);
 
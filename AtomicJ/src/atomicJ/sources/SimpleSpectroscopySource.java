@@ -86,6 +86,10 @@ public interface SimpleSpectroscopySource extends SpectroscopySource, Channel1DS
     //spring constant should be in nN/micron, i.e. 1000 times more then the SI value
     //and sensitivity in microns/V, i.e. 10^6 times more then the SI value
     public BasicSpectroscopyCurve<Channel1D> getRecordedForceCurve(double sensitivity, double springConstant);
+    //factors by which the y-values of the recorded curve are multiplied to obtain the deflection curve, in microns,
+    //and the force curve, in nN; units of the arguments as above
+    public double getDeflectionConversionFactor(double sensitivity, double springConstant);
+    public double getForceConversionFactor(double sensitivity, double springConstant);
     //spring constant should be in nN/micron, i.e. 1000 times more then the SI value,
     //and sensitivity in microns/V, i.e. 10^6 times more then the SI value
     public BasicSpectroscopyCurve<Channel1D> getRecordedPhotodiodeCurve(double sensitivity, double springConstant) throws UserCommunicableException;
@@ -36,13 +36,16 @@ import atomicJ.data.Channel1DData;
 import atomicJ.data.Channel1DStandard;
 import atomicJ.data.Quantities;
 import atomicJ.data.GridIndex;
+import atomicJ.data.MappedCurveStore;
 import atomicJ.data.QuantitativeSample;
 import atomicJ.data.SampleCollection;
 import atomicJ.data.SimpleSpectroscopyCurve;
+import atomicJ.data.StoragePrecision;
 import atomicJ.data.StandardSample;
 import atomicJ.data.StandardSampleCollection;
 import atomicJ.data.units.Quantity;
 import atomicJ.data.units.PrefixedUnit;
+import atomicJ.gui.GeneralPreferences;
 import atomicJ.gui.UserCommunicableException;
 import atomicJ.gui.curveProcessing.ProcessingBatchMemento;
 import atomicJ.readers.MapDelayedCreator;
@@ -91,8 +94,10 @@ public class StandardSimpleSpectroscopySource extends AbstractChannelSource<Chan
     {
         super(f, shortName, longName);
 
-        this.deflectionApproachChannel = new Channel1DStandard(deflectionApproachData, APPROACH);
-        this.deflectionWithdrawChannel = new Channel1DStandard(deflectionWithdrawData, WITHDRAW);       
+        //if the store is enabled, the recorded data are moved off the heap as soon as they are read, otherwise they may be kept in single precision
+        StoragePrecision precision = GeneralPreferences.GENERAL_PREFERENCES.getRecordedDataPrecision();
+        this.deflectionApproachChannel = new Channel1DStandard(precision.compact(MappedCurveStore.MAPPED_CURVE_STORE.storeIfEnabled(deflectionApproachData)), APPROACH);
+        this.deflectionWithdrawChannel = new Channel1DStandard(precision.compact(MappedCurveStore.MAPPED_CURVE_STORE.storeIfEnabled(deflectionWithdrawData)), WITHDRAW);       
         this.calibrationState = CalibrationState.getCalibrationState(deflectionApproachChannel, deflectionWithdrawChannel);
     }
 
@@ -184,7 +189,7 @@ public class StandardSimpleSpectroscopySource extends AbstractChannelSource<Chan
     {
         Quantity rangeQuantity = Quantities.DEFLECTION_MICRONS;
 
-        double factor = calibrationState.getDeflectionConversionFactor(sensitivityReadIn, springConstantReadIn, sensitivity, springConstant);
+        double factor = getDeflectionConversionFactor(sensitivity, springConstant);
 
         Channel1D approach = new Channel1DStandard(deflectionApproachChannel.getChannelData().getCopy(factor, rangeQuantity), APPROACH);
         Channel1D withdraw = new Channel1DStandard(deflectionWithdrawChannel.getChannelData().getCopy(factor, rangeQuantity), WITHDRAW);
@@ -201,7 +206,7 @@ public class StandardSimpleSpectroscopySource extends AbstractChannelSource<Chan
     {
         Quantity rangeQuantity = Quantities.FORCE_NANONEWTONS;
 
-        double factor = calibrationState.getForceConversionFactor(sensitivityReadIn, springConstantReadIn, sensitivity, springConstant);
+        double factor = getForceConversionFactor(sensitivity, springConstant);
         Channel1D approach = new Channel1DStandard(deflectionApproachChannel.getChannelData().getCopy(factor, rangeQuantity), APPROACH);
         Channel1D withdraw = new Channel1DStandard(deflectionWithdrawChannel.getChannelData().getCopy(factor, rangeQuantity), WITHDRAW);
 
@@ -209,6 +214,18 @@ public class StandardSimpleSpectroscopySource extends AbstractChannelSource<Chan
         return curve;
     }
 
+    @Override
+    public double getDeflectionConversionFactor(double sensitivity, double springConstant)
+    {
+        return calibrationState.getDeflectionConversionFactor(sensitivityReadIn, springConstantReadIn, sensitivity, springConstant);
+    }
+
+    @Override
+    public double getForceConversionFactor(double sensitivity, double springConstant)
+    {
+        return calibrationState.getForceConversionFactor(sensitivityReadIn, springConstantReadIn, sensitivity, springConstant);
+    }
+
     @Override
     public boolean canBeUsedForCalibration(PhotodiodeSignalType signalType)
     {
@@ -0,0 +1,33 @@
+
+/* 
+ * ===========================================================
+ * AtomicJ : a free application for analysis of AFM data
+ * ===========================================================
+ *
+ * (C) Copyright 2013-2022 by Paweł Hermanowicz
+ *
+ * 
+ * This program is free software; you can redistribute it and/or modify 
+ * it under the terms of the GNU General Public License as published by 
+ * the Free Software Foundation; either version 3 of the License, or (at your option) any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without 
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU 
+ * General Public License for more details.
+ * You should have received a copy of the GNU General Public License along with this program; if not, 
+ * see http://www.gnu.org/licenses/*/
+
+package atomicJ.sources.synthetic;
+
+/*
+ * Load exerted by the sample on the tip as a function of indentation. Indentation is in micrometers, force in nanonewtons,
+ * i.e. the same units as used by the contact models in the processing of force curves.
+ */
+
+interface ForceIndentationRelation
+{
+    public double getForce(double indentation);
+    public double getForceDerivative(double indentation);
+
+    //force needed to detach the tip from the sample, in nanonewtons, or NaN if the model does not predict it
+    public double getAdhesionForce();
+}
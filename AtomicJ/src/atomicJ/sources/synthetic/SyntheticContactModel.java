@@ -0,0 +1,239 @@
+
+/* 
+ * ===========================================================
+ * AtomicJ : a free application for analysis of AFM data
+ * ===========================================================
+ *
+ * (C) Copyright 2013-2022 by Paweł Hermanowicz
+ *
+ * 
+ * This program is free software; you can redistribute it and/or modify 
+ * it under the terms of the GNU General Public License as published by 
+ * the Free Software Foundation; either version 3 of the License, or (at your option) any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without 
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU 
+ * General Public License for more details.
+ * You should have received a copy of the GNU General Public License along with this program; if not, 
+ * see http://www.gnu.org/licenses/*/
+
+package atomicJ.sources.synthetic;
+
+import atomicJ.analysis.BasicPrecontactInteractionsModel;
+import atomicJ.analysis.BasicSampleModel;
+import atomicJ.analysis.indentation.AdhesiveEnergyEstimationMethod;
+import atomicJ.analysis.indentation.Cone;
+import atomicJ.analysis.indentation.ContactModel;
+import atomicJ.analysis.indentation.HertzianCone;
+import atomicJ.analysis.indentation.HertzianLinearContactModel;
+import atomicJ.analysis.indentation.HertzianParaboloid;
+import atomicJ.analysis.indentation.HertzianPyramid;
+import atomicJ.analysis.indentation.JKRIndentation;
+import atomicJ.analysis.indentation.Pyramid;
+import atomicJ.analysis.indentation.Sphere;
+import atomicJ.gui.curveProcessing.BasicIndentationModel;
+
+/*
+ * Contact models which can be used to generate synthetic force curves. Each constant builds the same ContactModel
+ * that is used in processing with the corresponding BasicIndentationModel, and the force - indentation relation
+ * is taken from that model, so that fitting the synthetic curves with it recovers the modulus used for their generation.
+ * Tip radius is in micrometers, tip half angle in degrees, Young's modulus in kPa and adhesion work in J/m^2
+ */
+
+public enum SyntheticContactModel
+{
+    PARABOLOID("Paraboloid (Hertz)", BasicIndentationModel.PARABOLOID)
+    {
+        @Override
+        public ContactModel buildContactModel(double tipRadius, double tipHalfAngle, double poissonRatio)
+        {
+            return buildParaboloid(tipRadius, poissonRatio);
+        }
+
+        @Override
+        ForceIndentationRelation buildForceIndentationRelation(double tipRadius, double tipHalfAngle, double poissonRatio, double modulus, double adhesionWork)
+        {
+            return buildPowerLawRelation(buildParaboloid(tipRadius, poissonRatio), modulus);
+        }
+    },
+    CONE("Cone", BasicIndentationModel.CONE)
+    {
+        @Override
+        public ContactModel buildContactModel(double tipRadius, double tipHalfAngle, double poissonRatio)
+        {
+            return buildCone(tipHalfAngle, poissonRatio);
+        }
+
+        @Override
+        ForceIndentationRelation buildForceIndentationRelation(double tipRadius, double tipHalfAngle, double poissonRatio, double modulus, double adhesionWork)
+        {
+            return buildPowerLawRelation(buildCone(tipHalfAngle, poissonRatio), modulus);
+        }
+    },
+    PYRAMID("Pyramid", BasicIndentationModel.PYRAMID)
+    {
+        @Override
+        public ContactModel buildContactModel(double tipRadius, double tipHalfAngle, double poissonRatio)
+        {
+            return buildPyramid(tipHalfAngle, poissonRatio);
+        }
+
+        @Override
+        ForceIndentationRelation buildForceIndentationRelation(double tipRadius, double tipHalfAngle, double poissonRatio, double modulus, double adhesionWork)
+        {
+            return buildPowerLawRelation(buildPyramid(tipHalfAngle, poissonRatio), modulus);
+        }
+    },
+    SPHERE_JKR("Sphere (JKR)", BasicIndentationModel.SPHERE_JKR)
+    {
+        @Override
+        public ContactModel buildContactModel(double tipRadius, double tipHalfAngle, double poissonRatio)
+        {
+            return buildJKR(tipRadius, poissonRatio);
+        }
+
+        @Override
+        ForceIndentationRelation buildForceIndentationRelation(double tipRadius, double tipHalfAngle, double poissonRatio, double modulus, double adhesionWork)
+        {
+            JKRIndentation model = buildJKR(tipRadius, poissonRatio);
+
+            //the JKR function works in SI units
+            return new JKRRelation(model.getJKRForceIndentationFunction(1000*modulus, adhesionWork));
+        }
+    };
+
+    private final String prettyName;
+    private final BasicIndentationModel indentationModel;
+
+    SyntheticContactModel(String prettyName, BasicIndentationModel indentationModel)
+    {
+        this.prettyName = prettyName;
+        this.indentationModel = indentationModel;
+    }
+
+    //indentation model which should be selected in processing settings to fit the curves generated with this model
+    public BasicIndentationModel getIndentationModel()
+    {
+        return indentationModel;
+    }
+
+    public abstract ContactModel buildContactModel(double tipRadius, double tipHalfAngle, double poissonRatio);
+    abstract ForceIndentationRelation buildForceIndentationRelation(double tipRadius, double tipHalfAngle, double poissonRatio, double modulus, double adhesionWork);
+
+    @Override
+    public String toString()
+    {
+        return prettyName;
+    }
+
+    public String getIdentifier()
+    {
+        return name();
+    }
+
+    public static SyntheticContactModel getValue(String identifier, SyntheticContactModel fallBackValue)
+    {
+        SyntheticContactModel model = fallBackValue;
+
+        if(identifier != null)
+        {
+            for(SyntheticContactModel m : SyntheticContactModel.values())
+            {
+                if(m.getIdentifier().equals(identifier))
+                {
+                    model = m;
+                    break;
+                }
+            }
+        }
+
+        return model;
+    }
+
+    //the coefficient and the exponent are taken from the model, which uses them to find the modulus from the fitted curve
+    private static PowerLawRelation buildPowerLawRelation(HertzianLinearContactModel model, double modulus)
+    {
+        return new PowerLawRelation(model.getForceIndentationCoefficient(modulus), model.getForceIndentationExponent());
+    }
+
+    private static HertzianParaboloid buildParaboloid(double tipRadius, double poissonRatio)
+    {
+        return new HertzianParaboloid(new Sphere(tipRadius), new BasicSampleModel(poissonRatio), new BasicPrecontactInteractionsModel(1, false));
+    }
+
+    private static HertzianCone buildCone(double tipHalfAngle, double poissonRatio)
+    {
+        return new HertzianCone(new Cone(Math.toRadians(tipHalfAngle)), new BasicSampleModel(poissonRatio), new BasicPrecontactInteractionsModel(1, false));
+    }
+
+    private static HertzianPyramid buildPyramid(double tipHalfAngle, double poissonRatio)
+    {
+        return new HertzianPyramid(new Pyramid(Math.toRadians(tipHalfAngle)), new BasicSampleModel(poissonRatio), new BasicPrecontactInteractionsModel(1, false));
+    }
+
+    private static JKRIndentation buildJKR(double tipRadius, double poissonRatio)
+    {
+        return new JKRIndentation(new Sphere(tipRadius), new BasicSampleModel(poissonRatio), new BasicPrecontactInteractionsModel(1, true), AdhesiveEnergyEstimationMethod.FROM_FIT);
+    }
+
+    private static class PowerLawRelation implements ForceIndentationRelation
+    {
+        private final double coefficient;
+        private final double exponent;
+
+        private PowerLawRelation(double coefficient, double exponent)
+        {
+            this.coefficient = coefficient;
+            this.exponent = exponent;
+        }
+
+        @Override
+        public double getForce(double indentation)
+        {
+            return indentation > 0 ? coefficient*Math.pow(indentation, exponent) : 0;
+        }
+
+        @Override
+        public double getForceDerivative(double indentation)
+        {
+            return indentation > 0 ? exponent*coefficient*Math.pow(indentation, exponent - 1) : 0;
+        }
+
+        @Override
+        public double getAdhesionForce()
+        {
+            return Double.NaN;
+        }
+    }
+
+    private static class JKRRelation implements ForceIndentationRelation
+    {
+        private static final double RELATIVE_STEP = 1e-6;
+
+        private final JKRIndentation.JKRForceIndentationFunction function;
+
+        private JKRRelation(JKRIndentation.JKRForceIndentationFunction function)
+        {
+            this.function = function;
+        }
+
+        @Override
+        public double getForce(double indentation)
+        {
+            return 1e9*function.value(1e-6*indentation);
+        }
+
+        //the JKR function has no closed form derivative, so it is approximated by a central difference
+        @Override
+        public double getForceDerivative(double indentation)
+        {
+            double h = RELATIVE_STEP*Math.max(Math.abs(indentation), 1e-3);
+            return (getForce(indentation + h) - getForce(indentation - h))/(2*h);
+        }
+
+        @Override
+        public double getAdhesionForce()
+        {
+            return 1e9*function.getAdhesionForce();
+        }
+    }
+}
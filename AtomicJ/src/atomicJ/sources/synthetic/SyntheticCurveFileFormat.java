@@ -0,0 +1,79 @@
+
+/* 
+ * ===========================================================
+ * AtomicJ : a free application for analysis of AFM data
+ * ===========================================================
+ *
+ * (C) Copyright 2013-2022 by Paweł Hermanowicz
+ *
+ * 
+ * This program is free software; you can redistribute it and/or modify 
+ * it under the terms of the GNU General Public License as published by 
+ * the Free Software Foundation; either version 3 of the License, or (at your option) any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without 
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU 
+ * General Public License for more details.
+ * You should have received a copy of the GNU General Public License along with this program; if not, 
+ * see http://www.gnu.org/licenses/*/
+
+package atomicJ.sources.synthetic;
+
+/*
+ * Text formats in which synthetic curves can be saved, so that they can be read back with the TSV and CSV spectroscopy readers
+ */
+
+public enum SyntheticCurveFileFormat
+{
+    TSV("Tab separated values", "\t", "tsv"), CSV("Comma separated values", ",", "csv");
+
+    private final String prettyName;
+    private final String delimiter;
+    private final String extension;
+
+    SyntheticCurveFileFormat(String prettyName, String delimiter, String extension)
+    {
+        this.prettyName = prettyName;
+        this.delimiter = delimiter;
+        this.extension = extension;
+    }
+
+    public String getDelimiter()
+    {
+        return delimiter;
+    }
+
+    public String getExtension()
+    {
+        return extension;
+    }
+
+    @Override
+    public String toString()
+    {
+        return prettyName;
+    }
+
+    public String getIdentifier()
+    {
+        return name();
+    }
+
+    public static SyntheticCurveFileFormat getValue(String identifier, SyntheticCurveFileFormat fallBackValue)
+    {
+        SyntheticCurveFileFormat format = fallBackValue;
+
+        if(identifier != null)
+        {
+            for(SyntheticCurveFileFormat f : SyntheticCurveFileFormat.values())
+            {
+                if(f.getIdentifier().equals(identifier))
+                {
+                    format = f;
+                    break;
+                }
+            }
+        }
+
+        return format;
+    }
+}
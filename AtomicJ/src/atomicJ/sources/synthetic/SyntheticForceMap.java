@@ -0,0 +1,84 @@
+
+/* 
+ * ===========================================================
+ * AtomicJ : a free application for analysis of AFM data
+ * ===========================================================
+ *
+ * (C) Copyright 2013-2022 by Paweł Hermanowicz
+ *
+ * 
+ * This program is free software; you can redistribute it and/or modify 
+ * it under the terms of the GNU General Public License as published by 
+ * the Free Software Foundation; either version 3 of the License, or (at your option) any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without 
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU 
+ * General Public License for more details.
+ * You should have received a copy of the GNU General Public License along with this program; if not, 
+ * see http://www.gnu.org/licenses/*/
+
+package atomicJ.sources.synthetic;
+
+import java.util.Collections;
+import java.util.List;
+
+import atomicJ.sources.MapGridSource;
+import atomicJ.sources.SimpleSpectroscopySource;
+
+/*
+ * Synthetic force map together with the values used for generation of its curves, which can be compared with the results of processing.
+ * Arrays are indexed by row and column of the map grid. Young's modulus is in kPa, contact point position in micrometers
+ * and adhesion force in nN; the adhesion force is 0 at nodes where the tip does not stick to the sample.
+ */
+
+public class SyntheticForceMap
+{
+    private final SyntheticForceMapSettings settings;
+    private final MapGridSource mapSource;
+    private final List<SimpleSpectroscopySource> sources;
+
+    private final double[][] modulus;
+    private final double[][] contactZ;
+    private final double[][] adhesionForce;
+
+    SyntheticForceMap(SyntheticForceMapSettings settings, MapGridSource mapSource, List<SimpleSpectroscopySource> sources,
+            double[][] modulus, double[][] contactZ, double[][] adhesionForce)
+    {
+        this.settings = settings;
+        this.mapSource = mapSource;
+        this.sources = sources;
+        this.modulus = modulus;
+        this.contactZ = contactZ;
+        this.adhesionForce = adhesionForce;
+    }
+
+    public SyntheticForceMapSettings getSettings()
+    {
+        return settings;
+    }
+
+    public MapGridSource getMapSource()
+    {
+        return mapSource;
+    }
+
+    //sources in the row-major order of the grid nodes
+    public List<SimpleSpectroscopySource> getSources()
+    {
+        return Collections.unmodifiableList(sources);
+    }
+
+    public double getModulus(int row, int column)
+    {
+        return modulus[row][column];
+    }
+
+    public double getContactZ(int row, int column)
+    {
+        return contactZ[row][column];
+    }
+
+    public double getAdhesionForce(int row, int column)
+    {
+        return adhesionForce[row][column];
+    }
+}
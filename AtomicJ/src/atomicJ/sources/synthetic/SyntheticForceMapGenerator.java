@@ -0,0 +1,314 @@
+
+/* 
+ * ===========================================================
+ * AtomicJ : a free application for analysis of AFM data
+ * ===========================================================
+ *
+ * (C) Copyright 2013-2022 by Paweł Hermanowicz
+ *
+ * 
+ * This program is free software; you can redistribute it and/or modify 
+ * it under the terms of the GNU General Public License as published by 
+ * the Free Software Foundation; either version 3 of the License, or (at your option) any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without 
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU 
+ * General Public License for more details.
+ * You should have received a copy of the GNU General Public License along with this program; if not, 
+ * see http://www.gnu.org/licenses/*/
+
+package atomicJ.sources.synthetic;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import atomicJ.analysis.SortedArrayOrder;
+import atomicJ.data.FlexibleFlatChannel1DData;
+import atomicJ.data.Grid2D;
+import atomicJ.data.Quantities;
+import atomicJ.sources.MapGridSource;
+import atomicJ.sources.SimpleSpectroscopySource;
+import atomicJ.sources.StandardSimpleSpectroscopySource;
+import atomicJ.utilities.Validation;
+
+/*
+ * Generates force maps from SyntheticForceMapSettings. Curves are recorded in the LEFT orientation, i.e. the approach branch starts
+ * far from the sample, at the highest Z, and the tip touches the sample when Z decreases below the contact point. For each position
+ * of the piezo the indentation is found by solving the balance of the cantilever and the sample forces, so that the curves
+ * have the shape expected by the contact model which generated them. Z and deflection are in micrometers.
+ *
+ * Each node draws its random values from its own generator, seeded with the seed of the map and the index of the node, so that
+ * the curve at a given node does not depend on the order of generation or on the size of the rest of the map.
+ * Curves are stored as double arrays, i.e. each node takes about 32 bytes per point of a branch; a 512 x 512 map with
+ * 256 points per branch takes about 2 GB of heap, so fewer points should be used for the largest maps.
+ */
+
+public class SyntheticForceMapGenerator
+{
+    private static final long NODE_SEED_MULTIPLIER = 0x9E3779B97F4A7C15L;
+    private static final int MAXIMAL_ITERATION_COUNT = 50;
+    private static final double INDENTATION_TOLERANCE = 1e-12;
+
+    private final SyntheticForceMapSettings settings;
+    private final List<Inclusion> inclusions;
+
+    public SyntheticForceMapGenerator(SyntheticForceMapSettings settings)
+    {
+        this.settings = Validation.requireNonNullParameterName(settings, "settings");
+        this.inclusions = buildInclusions(settings);
+    }
+
+    public SyntheticForceMap generate(File mapFile)
+    {
+        int rowCount = settings.getRowCount();
+        int columnCount = settings.getColumnCount();
+
+        Grid2D grid = buildGrid();
+
+        double[][] modulus = new double[rowCount][columnCount];
+        double[][] contactZ = new double[rowCount][columnCount];
+        double[][] adhesionForce = new double[rowCount][columnCount];
+
+        List<SimpleSpectroscopySource> sources = new ArrayList<>(rowCount*columnCount);
+
+        for(int i = 0; i < rowCount; i++)
+        {
+            for(int j = 0; j < columnCount; j++)
+            {
+                Random random = new Random(settings.getSeed() ^ ((i*(long)columnCount + j + 1)*NODE_SEED_MULTIPLIER));
+                NodeCurve curve = generateCurve(i, j, grid.getX(j), grid.getY(i), random);
+
+                String name = mapFile.getName() + "_" + i + "_" + j;
+                StandardSimpleSpectroscopySource source = new StandardSimpleSpectroscopySource(new File(mapFile.getParentFile(), name), name, name, curve.approach, curve.withdraw);
+                source.setSpringConstant(settings.getSpringConstant());
+                source.setRecordingPoint(grid.getPoint(i, j));
+
+                sources.add(source);
+
+                modulus[i][j] = curve.modulus;
+                contactZ[i][j] = curve.contactZ;
+                adhesionForce[i][j] = curve.adhesionForce;
+            }
+        }
+
+        MapGridSource mapSource = new MapGridSource(mapFile, sources, grid);
+
+        return new SyntheticForceMap(settings, mapSource, sources, modulus, contactZ, adhesionForce);
+    }
+
+    private Grid2D buildGrid()
+    {
+        int rowCount = settings.getRowCount();
+        int columnCount = settings.getColumnCount();
+        double scanSize = settings.getScanSize();
+
+        double xIncrement = columnCount > 1 ? scanSize/(columnCount - 1) : scanSize;
+        double yIncrement = rowCount > 1 ? scanSize/(rowCount - 1) : scanSize;
+
+        return new Grid2D(xIncrement, yIncrement, 0, 0, rowCount, columnCount, Quantities.DISTANCE_MICRONS, Quantities.DISTANCE_MICRONS);
+    }
+
+    private NodeCurve generateCurve(int row, int column, double x, double y, Random random)
+    {
+        double height = 0;
+        double modulus = settings.getSubstrateModulus();
+
+        for(Inclusion inclusion : inclusions)
+        {
+            double h = inclusion.getHeight(x, y);
+            if(h > height)
+            {
+                height = h;
+                modulus = settings.getInclusionModulus();
+            }
+        }
+
+        if(settings.isModulusMapSpecified())
+        {
+            modulus = settings.getModulusMapValue(row, column);
+        }
+
+        modulus *= Math.exp(settings.getModulusVariation()*random.nextGaussian());
+
+        double z0 = settings.getContactZ() + height + settings.getContactZJitter()*random.nextGaussian();
+
+        ForceIndentationRelation relation = settings.getContactModel().buildForceIndentationRelation(settings.getTipRadius(),
+                settings.getTipHalfAngle(), settings.getPoissonRatio(), modulus, settings.getAdhesionWork());
+
+        double adhesionForce = relation.getAdhesionForce();
+        if(Double.isNaN(adhesionForce))
+        {
+            adhesionForce = random.nextDouble() < settings.getAdhesionProbability() ? settings.getAdhesionForce()*(0.5 + random.nextDouble()) : 0;
+        }
+
+        int n = settings.getPointCount();
+        double zRange = settings.getZRange();
+        double noise = settings.getDeflectionNoise();
+        double stiffness = 1000*settings.getSpringConstant();//in nN per micrometer
+
+        double[] approachZs = new double[n];
+        double[] approachDeflections = new double[n];
+        double[] noiselessDeflections = new double[n];
+        double[] withdrawZs = new double[n];
+        double[] withdrawDeflections = new double[n];
+
+        double step = zRange/(n - 1);
+
+        //the deflection at the contact point, non zero for adhesive models
+        double contactDeflection = relation.getForce(solveIndentation(relation, 0, stiffness, 0))/stiffness;
+
+        double indentation = 0;
+        double penetrationPrevious = 0;
+
+        for(int i = 0; i < n; i++)
+        {
+            double z = zRange - i*step;
+            double penetration = z0 - z;
+
+            double deflection = 0;
+            if(penetration > 0)
+            {
+                indentation = solveIndentation(relation, penetration, stiffness, indentation + Math.max(0, penetration - penetrationPrevious));
+                deflection = relation.getForce(indentation)/stiffness;
+                penetrationPrevious = penetration;
+            }
+
+            approachZs[i] = z;
+            noiselessDeflections[i] = deflection;
+            approachDeflections[i] = deflection + noise*random.nextGaussian();
+        }
+
+        //the withdraw branch follows the approach branch in contact, the tip stays stuck to the sample until the cantilever force exceeds the adhesion force
+        boolean attached = true;
+        for(int i = 0; i < n; i++)
+        {
+            double z = i*step;
+            double penetration = z0 - z;
+
+            double deflection = 0;
+            if(penetration > 0)
+            {
+                //the approach branch was already solved at the same Z, in the opposite order
+                deflection = noiselessDeflections[n - 1 - i];
+            }
+            else if(attached)
+            {
+                double pulledDeflection = contactDeflection + penetration;
+                attached = adhesionForce > 0 && -stiffness*pulledDeflection < adhesionForce;
+                deflection = attached ? pulledDeflection : 0;
+            }
+
+            withdrawZs[i] = z;
+            withdrawDeflections[i] = deflection + noise*random.nextGaussian();
+        }
+
+        FlexibleFlatChannel1DData approach = new FlexibleFlatChannel1DData(approachZs, approachDeflections, Quantities.DISTANCE_MICRONS, Quantities.DEFLECTION_MICRONS, SortedArrayOrder.DESCENDING);
+        FlexibleFlatChannel1DData withdraw = new FlexibleFlatChannel1DData(withdrawZs, withdrawDeflections, Quantities.DISTANCE_MICRONS, Quantities.DEFLECTION_MICRONS, SortedArrayOrder.ASCENDING);
+
+        return new NodeCurve(approach, withdraw, modulus, z0, adhesionForce);
+    }
+
+    //solves indentation + force(indentation)/stiffness = penetration by the Newton method, safeguarded by bisection
+    private static double solveIndentation(ForceIndentationRelation relation, double penetration, double stiffness, double guess)
+    {
+        double lowerBound = 0;
+        double upperBound = Math.max(0, penetration) + Math.max(0, -relation.getForce(0))/stiffness;
+
+        double indentation = Math.min(Math.max(guess, lowerBound), upperBound);
+
+        for(int i = 0; i < MAXIMAL_ITERATION_COUNT; i++)
+        {
+            double residual = indentation + relation.getForce(indentation)/stiffness - penetration;
+
+            if(residual > 0)
+            {
+                upperBound = indentation;
+            }
+            else
+            {
+                lowerBound = indentation;
+            }
+
+            double derivative = 1 + relation.getForceDerivative(indentation)/stiffness;
+            double indentationNew = indentation - residual/derivative;
+
+            if(!(indentationNew > lowerBound && indentationNew < upperBound))
+            {
+                indentationNew = 0.5*(lowerBound + upperBound);
+            }
+
+            if(Math.abs(indentationNew - indentation) < INDENTATION_TOLERANCE)
+            {
+                return indentationNew;
+            }
+
+            indentation = indentationNew;
+        }
+
+        return indentation;
+    }
+
+    private static List<Inclusion> buildInclusions(SyntheticForceMapSettings settings)
+    {
+        Random random = new Random(settings.getSeed());
+
+        double scanSize = settings.getScanSize();
+        List<Inclusion> inclusions = new ArrayList<>();
+
+        for(int i = 0; i < settings.getInclusionCount(); i++)
+        {
+            double x = scanSize*random.nextDouble();
+            double y = scanSize*random.nextDouble();
+            double radius = settings.getInclusionRadius()*(0.75 + 0.5*random.nextDouble());
+
+            inclusions.add(new Inclusion(x, y, radius, settings.getInclusionHeight()));
+        }
+
+        return inclusions;
+    }
+
+    //half of an ellipsoid of revolution, resting on the substrate
+    private static class Inclusion
+    {
+        private final double x;
+        private final double y;
+        private final double radius;
+        private final double height;
+
+        private Inclusion(double x, double y, double radius, double height)
+        {
+            this.x = x;
+            this.y = y;
+            this.radius = radius;
+            this.height = height;
+        }
+
+        private double getHeight(double xPoint, double yPoint)
+        {
+            double dx = xPoint - x;
+            double dy = yPoint - y;
+            double relativeDistanceSquared = (dx*dx + dy*dy)/(radius*radius);
+
+            return relativeDistanceSquared < 1 ? height*Math.sqrt(1 - relativeDistanceSquared) : 0;
+        }
+    }
+
+    private static class NodeCurve
+    {
+        private final FlexibleFlatChannel1DData approach;
+        private final FlexibleFlatChannel1DData withdraw;
+        private final double modulus;
+        private final double contactZ;
+        private final double adhesionForce;
+
+        private NodeCurve(FlexibleFlatChannel1DData approach, FlexibleFlatChannel1DData withdraw, double modulus, double contactZ, double adhesionForce)
+        {
+            this.approach = approach;
+            this.withdraw = withdraw;
+            this.modulus = modulus;
+            this.contactZ = contactZ;
+            this.adhesionForce = adhesionForce;
+        }
+    }
+}
@@ -0,0 +1,359 @@
+
+/* 
+ * ===========================================================
+ * AtomicJ : a free application for analysis of AFM data
+ * ===========================================================
+ *
+ * (C) Copyright 2013-2022 by Paweł Hermanowicz
+ *
+ * 
+ * This program is free software; you can redistribute it and/or modify 
+ * it under the terms of the GNU General Public License as published by 
+ * the Free Software Foundation; either version 3 of the License, or (at your option) any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without 
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU 
+ * General Public License for more details.
+ * You should have received a copy of the GNU General Public License along with this program; if not, 
+ * see http://www.gnu.org/licenses/*/
+
+package atomicJ.sources.synthetic;
+
+import atomicJ.utilities.Validation;
+
+/*
+ * Parameters of a synthetic force map. The map shows a number of round, soft inclusions (e.g. cells) lying on a stiffer
+ * substrate. The inclusions are higher than the substrate, so the contact point follows the topography. Lengths are in micrometers,
+ * Young's modulus in kPa, forces in nN, spring constant in N/m, tip half angle in degrees and adhesion work in J/m^2.
+ * All random values are drawn from generators seeded with the seed of the settings, so that equal settings give equal maps.
+ */
+
+public final class SyntheticForceMapSettings
+{
+    public static final int MAXIMAL_GRID_SIZE = 512;
+
+    private final long seed;
+    private final int rowCount;
+    private final int columnCount;
+    private final double scanSize;
+    private final int pointCount;
+    private final double zRange;
+
+    private final SyntheticContactModel contactModel;
+    private final double tipRadius;
+    private final double tipHalfAngle;
+    private final double poissonRatio;
+    private final double springConstant;
+
+    private final double substrateModulus;
+    private final double inclusionModulus;
+    private final double modulusVariation;
+    private final int inclusionCount;
+    private final double inclusionRadius;
+    private final double inclusionHeight;
+    private final double[][] modulusMap;
+
+    private final double contactZ;
+    private final double contactZJitter;
+
+    private final double adhesionProbability;
+    private final double adhesionForce;
+    private final double adhesionWork;
+
+    private final double deflectionNoise;
+
+    //immutable
+    private SyntheticForceMapSettings(Builder builder)
+    {
+        this.seed = builder.seed;
+        this.rowCount = builder.rowCount;
+        this.columnCount = builder.columnCount;
+        this.scanSize = builder.scanSize;
+        this.pointCount = builder.pointCount;
+        this.zRange = builder.zRange;
+        this.contactModel = builder.contactModel;
+        this.tipRadius = builder.tipRadius;
+        this.tipHalfAngle = builder.tipHalfAngle;
+        this.poissonRatio = builder.poissonRatio;
+        this.springConstant = builder.springConstant;
+        this.substrateModulus = builder.substrateModulus;
+        this.inclusionModulus = builder.inclusionModulus;
+        this.modulusVariation = builder.modulusVariation;
+        this.inclusionCount = builder.inclusionCount;
+        this.inclusionRadius = builder.inclusionRadius;
+        this.inclusionHeight = builder.inclusionHeight;
+        this.modulusMap = builder.modulusMap;
+        this.contactZ = builder.contactZ;
+        this.contactZJitter = builder.contactZJitter;
+        this.adhesionProbability = builder.adhesionProbability;
+        this.adhesionForce = builder.adhesionForce;
+        this.adhesionWork = builder.adhesionWork;
+        this.deflectionNoise = builder.deflectionNoise;
+    }
+
+    public long getSeed()
+    {
+        return seed;
+    }
+
+    public int getRowCount()
+    {
+        return rowCount;
+    }
+
+    public int getColumnCount()
+    {
+        return columnCount;
+    }
+
+    public double getScanSize()
+    {
+        return scanSize;
+    }
+
+    public int getPointCount()
+    {
+        return pointCount;
+    }
+
+    public double getZRange()
+    {
+        return zRange;
+    }
+
+    public SyntheticContactModel getContactModel()
+    {
+        return contactModel;
+    }
+
+    public double getTipRadius()
+    {
+        return tipRadius;
+    }
+
+    public double getTipHalfAngle()
+    {
+        return tipHalfAngle;
+    }
+
+    public double getPoissonRatio()
+    {
+        return poissonRatio;
+    }
+
+    public double getSpringConstant()
+    {
+        return springConstant;
+    }
+
+    public double getSubstrateModulus()
+    {
+        return substrateModulus;
+    }
+
+    public double getInclusionModulus()
+    {
+        return inclusionModulus;
+    }
+
+    public double getModulusVariation()
+    {
+        return modulusVariation;
+    }
+
+    public int getInclusionCount()
+    {
+        return inclusionCount;
+    }
+
+    public double getInclusionRadius()
+    {
+        return inclusionRadius;
+    }
+
+    public double getInclusionHeight()
+    {
+        return inclusionHeight;
+    }
+
+    public boolean isModulusMapSpecified()
+    {
+        return modulusMap != null;
+    }
+
+    //Young's modulus at the given node, before the random variation is applied, or NaN if the modulus map is not specified
+    public double getModulusMapValue(int row, int column)
+    {
+        return modulusMap != null ? modulusMap[row][column] : Double.NaN;
+    }
+
+    public double getContactZ()
+    {
+        return contactZ;
+    }
+
+    public double getContactZJitter()
+    {
+        return contactZJitter;
+    }
+
+    public double getAdhesionProbability()
+    {
+        return adhesionProbability;
+    }
+
+    public double getAdhesionForce()
+    {
+        return adhesionForce;
+    }
+
+    public double getAdhesionWork()
+    {
+        return adhesionWork;
+    }
+
+    public double getDeflectionNoise()
+    {
+        return deflectionNoise;
+    }
+
+    public static class Builder
+    {
+        private long seed = 0;
+        private int rowCount = 32;
+        private int columnCount = 32;
+        private double scanSize = 50;
+        private int pointCount = 512;
+        private double zRange = 3;
+
+        private final SyntheticContactModel contactModel;
+        private double tipRadius = 2;
+        private double tipHalfAngle = 20;
+        private double poissonRatio = 0.5;
+        private double springConstant = 0.05;
+
+        private double substrateModulus = 500;
+        private double inclusionModulus = 5;
+        private double modulusVariation = 0.1;
+        private int inclusionCount = 4;
+        private double inclusionRadius = 8;
+        private double inclusionHeight = 1;
+        private double[][] modulusMap;
+
+        private double contactZ = 1;
+        private double contactZJitter = 0.005;
+
+        private double adhesionProbability = 0.5;
+        private double adhesionForce = 1;
+        private double adhesionWork = 1e-4;
+
+        private double deflectionNoise = 1e-3;
+
+        public Builder(SyntheticContactModel contactModel)
+        {
+            this.contactModel = Validation.requireNonNullParameterName(contactModel, "contactModel");
+        }
+
+        public Builder seed(long seed){this.seed = seed; return this;}
+
+        public Builder gridSize(int rowCount, int columnCount)
+        {
+            if(rowCount < 1 || columnCount < 1 || rowCount > MAXIMAL_GRID_SIZE || columnCount > MAXIMAL_GRID_SIZE)
+            {
+                throw new IllegalArgumentException("Row and column counts must fall between 1 and " + MAXIMAL_GRID_SIZE);
+            }
+
+            this.rowCount = rowCount;
+            this.columnCount = columnCount;
+            return this;
+        }
+
+        public Builder scanSize(double scanSize){this.scanSize = Validation.requireValueGreaterThanParameterName(scanSize, 0, "scanSize"); return this;}
+
+        public Builder pointCount(int pointCount)
+        {
+            if(pointCount < 2)
+            {
+                throw new IllegalArgumentException("Number of points in a branch must be at least 2");
+            }
+
+            this.pointCount = pointCount;
+            return this;
+        }
+
+        public Builder zRange(double zRange){this.zRange = Validation.requireValueGreaterThanParameterName(zRange, 0, "zRange"); return this;}
+
+        public Builder tipRadius(double tipRadius){this.tipRadius = tipRadius; return this;}
+
+        public Builder tipHalfAngle(double tipHalfAngle){this.tipHalfAngle = tipHalfAngle; return this;}
+
+        public Builder poissonRatio(double poissonRatio){this.poissonRatio = poissonRatio; return this;}
+
+        public Builder springConstant(double springConstant){this.springConstant = Validation.requireValueGreaterThanParameterName(springConstant, 0, "springConstant"); return this;}
+
+        public Builder substrateModulus(double substrateModulus){this.substrateModulus = substrateModulus; return this;}
+
+        public Builder inclusionModulus(double inclusionModulus){this.inclusionModulus = inclusionModulus; return this;}
+
+        //standard deviation of the logarithm of the modulus, i.e. the approximate relative spread of the modulus between neighbouring curves
+        public Builder modulusVariation(double modulusVariation){this.modulusVariation = modulusVariation; return this;}
+
+        public Builder inclusionCount(int inclusionCount){this.inclusionCount = inclusionCount; return this;}
+
+        public Builder inclusionRadius(double inclusionRadius){this.inclusionRadius = inclusionRadius; return this;}
+
+        public Builder inclusionHeight(double inclusionHeight){this.inclusionHeight = inclusionHeight; return this;}
+
+        //Young's modulus of each node, indexed by row and column, which replaces the substrate and inclusion moduli; the inclusions still shape the topography
+        public Builder modulusMap(double[][] modulusMap)
+        {
+            if(modulusMap == null)
+            {
+                this.modulusMap = null;
+                return this;
+            }
+
+            double[][] copy = new double[modulusMap.length][];
+            for(int i = 0; i < modulusMap.length; i++)
+            {
+                copy[i] = modulusMap[i].clone();
+            }
+
+            this.modulusMap = copy;
+            return this;
+        }
+
+        //Z position of the contact point on the substrate
+        public Builder contactZ(double contactZ){this.contactZ = contactZ; return this;}
+
+        public Builder contactZJitter(double contactZJitter){this.contactZJitter = contactZJitter; return this;}
+
+        //probability that the tip sticks to the sample during withdrawal, ignored by adhesive contact models, which always predict adhesion
+        public Builder adhesionProbability(double adhesionProbability){this.adhesionProbability = adhesionProbability; return this;}
+
+        public Builder adhesionForce(double adhesionForce){this.adhesionForce = adhesionForce; return this;}
+
+        public Builder adhesionWork(double adhesionWork){this.adhesionWork = adhesionWork; return this;}
+
+        //standard deviation of the gaussian noise added to the deflection, in micrometers
+        public Builder deflectionNoise(double deflectionNoise){this.deflectionNoise = deflectionNoise; return this;}
+
+        public SyntheticForceMapSettings build()
+        {
+            if(modulusMap != null)
+            {
+                boolean sizeMatches = modulusMap.length == rowCount;
+                for(int i = 0; sizeMatches && i < rowCount; i++)
+                {
+                    sizeMatches = modulusMap[i].length == columnCount;
+                }
+
+                if(!sizeMatches)
+                {
+                    throw new IllegalStateException("The size of the modulus map does not match the size of the grid");
+                }
+            }
+
+            return new SyntheticForceMapSettings(this);
+        }
+    }
+}
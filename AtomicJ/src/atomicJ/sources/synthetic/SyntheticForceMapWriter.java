@@ -0,0 +1,100 @@
+
+/* 
+ * ===========================================================
+ * AtomicJ : a free application for analysis of AFM data
+ * ===========================================================
+ *
+ * (C) Copyright 2013-2022 by Paweł Hermanowicz
+ *
+ * 
+ * This program is free software; you can redistribute it and/or modify 
+ * it under the terms of the GNU General Public License as published by 
+ * the Free Software Foundation; either version 3 of the License, or (at your option) any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without 
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU 
+ * General Public License for more details.
+ * You should have received a copy of the GNU General Public License along with this program; if not, 
+ * see http://www.gnu.org/licenses/*/
+
+package atomicJ.sources.synthetic;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+
+import atomicJ.data.Channel1D;
+import atomicJ.data.Channel1DData;
+import atomicJ.data.SpectroscopyCurve;
+import atomicJ.sources.SimpleSpectroscopySource;
+import atomicJ.utilities.Validation;
+
+/*
+ * Saves each curve of a synthetic force map to a separate text file, with the approach branch followed by the withdraw branch,
+ * Z and deflection in nanometers. The files are named after the short names of the sources, i.e. after the map file and the row
+ * and column of the node, and can be read back with the TSV and CSV spectroscopy readers.
+ */
+
+public class SyntheticForceMapWriter
+{
+    private static final double MICRONS_TO_NANOMETERS = 1000;
+
+    private final SyntheticCurveFileFormat format;
+
+    public SyntheticForceMapWriter(SyntheticCurveFileFormat format)
+    {
+        this.format = Validation.requireNonNullParameterName(format, "format");
+    }
+
+    public List<File> write(SyntheticForceMap map, File directory) throws IOException
+    {
+        Validation.requireNonNullParameterName(map, "map");
+        Validation.requireNonNullParameterName(directory, "directory");
+
+        Files.createDirectories(directory.toPath());
+
+        List<File> files = new ArrayList<>();
+
+        for(SimpleSpectroscopySource source : map.getSources())
+        {
+            File f = new File(directory, source.getShortName() + "." + format.getExtension());
+            write(source, f);
+            files.add(f);
+        }
+
+        return files;
+    }
+
+    public void write(SimpleSpectroscopySource source, File f) throws IOException
+    {
+        String delimiter = format.getDelimiter();
+
+        try(BufferedWriter writer = Files.newBufferedWriter(f.toPath(), StandardCharsets.UTF_8))
+        {
+            writer.write("Z (nm)" + delimiter + "Deflection (nm)");
+            writer.newLine();
+
+            SpectroscopyCurve<Channel1D> curve = source.getRecordedCurve();
+
+            writeBranch(curve.getApproach().getChannelData(), delimiter, writer);
+            writeBranch(curve.getWithdraw().getChannelData(), delimiter, writer);
+        }
+    }
+
+    private static void writeBranch(Channel1DData data, String delimiter, BufferedWriter writer) throws IOException
+    {
+        int n = data.getItemCount();
+
+        for(int i = 0; i < n; i++)
+        {
+            //Double.toString() does not depend on the default locale, so the readers parse the values with Locale.US
+            writer.write(Double.toString(MICRONS_TO_NANOMETERS*data.getX(i)));
+            writer.write(delimiter);
+            writer.write(Double.toString(MICRONS_TO_NANOMETERS*data.getY(i)));
+            writer.newLine();
+        }
+    }
+}
@@ -138,7 +138,8 @@ public class DescriptiveStatistics
         this.standardDeviation = sd;
         this.standardError = se;
 
-        QuantileSelector qSelector = new QuantileSelector(dataCleared, new double[] {0.05, 0.25, 0.5, 0.75, 0.95});
+        //dataCleared is a copy made by clearOfNaNs(), so it can be partitioned in place
+        QuantileSelector qSelector = QuantileSelector.getInPlaceInstance(dataCleared, new double[] {0.05, 0.25, 0.5, 0.75, 0.95});
         double[] quantiles = qSelector.getQuantiles();
         this.lowerQuartile = quantiles[1];
         this.median = quantiles[2];
@@ -0,0 +1,687 @@
+
+/* 
+ * ===========================================================
+ * AtomicJ : a free application for analysis of AFM data
+ * ===========================================================
+ *
+ * (C) Copyright 2013-2022 by Paweł Hermanowicz
+ *
+ * 
+ * This program is free software; you can redistribute it and/or modify 
+ * it under the terms of the GNU General Public License as published by 
+ * the Free Software Foundation; either version 3 of the License, or (at your option) any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without 
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU 
+ * General Public License for more details.
+ * You should have received a copy of the GNU General Public License along with this program; if not, 
+ * see http://www.gnu.org/licenses/*/
+
+package atomicJ.statistics;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import atomicJ.functions.ExactFitFactory;
+import atomicJ.functions.ExponentialFunctionCombinationTypes;
+import atomicJ.functions.OneParameterExactFitFactory;
+import atomicJ.functions.Polynomial;
+import atomicJ.functions.PolynomialFunctionTypes;
+import atomicJ.functions.PowerFunctionCombination;
+import atomicJ.functions.SingleDoubleExponentFunctionTypes;
+import atomicJ.functions.SingleIntegerExponentFunctionTypes;
+import atomicJ.utilities.ArrayUtilities;
+import atomicJ.utilities.RegressionUtilities;
+import atomicJ.utilities.Selector;
+import atomicJ.utilities.Validation;
+
+/*
+ * FAST-LTS search for the least trimmed squares and least trimmed absolute deviations fits. Each start is an exact fit to a random elemental subset of points,
+ * improved by concentration steps, i.e. refits to the covered points with the smallest residuals, which never increase the trimmed objective function.
+ * All starts are improved by two concentration steps and only the best of them are iterated until the objective function stops decreasing.
+ * The random generator of each start is seeded with the seed of the estimator and the index of the start, so that the fits are reproducible
+ * and do not depend on the order in which the starts are evaluated. The starts are evaluated sequentially, because the fits are found by the workers which process the curves in parallel.
+ * The number of starts is chosen by the caller, more starts make it more likely that the best of them is close to the global minimum of the trimmed objective function.
+ * Points of supported fits are always covered. They precede the optional points, of which only the fraction h is covered.
+ */
+
+public class FastLTS
+{
+    public static final long DEFAULT_SEED = 20130101L;
+
+    private static final long SEED_INCREMENT = 0x9E3779B97F4A7C15L;
+    private static final int INITIAL_CONCENTRATION_STEP_COUNT = 2;
+    private static final int RETAINED_START_COUNT = 10;
+    private static final int MAXIMAL_CONCENTRATION_STEP_COUNT = 100;
+
+    private final ExactFitFactory fitFactory;
+    private final double[] model;
+    private final boolean polynomial;
+    private final boolean constant;
+    private final int startCount;
+    private final long seed;
+
+    private FastLTS(ExactFitFactory fitFactory, double[] model, boolean polynomial, boolean constant, int startCount, long seed)
+    {
+        this.fitFactory = Validation.requireNonNullParameterName(fitFactory, "fitFactory");
+        this.model = Validation.requireNonNullParameterName(model, "model");
+        this.polynomial = polynomial;
+        this.constant = constant;
+        this.startCount = startCount;
+        this.seed = seed;
+    }
+
+    public static FastLTS getInstance(int deg, boolean constant, int startCount)
+    {
+        return getInstance(deg, constant, startCount, DEFAULT_SEED);
+    }
+
+    public static FastLTS getInstance(int deg, boolean constant, int startCount, long seed)
+    {
+        return new FastLTS(PolynomialFunctionTypes.findExactFitFactory(deg, constant), RegressionUtilities.getModel(deg, constant), true, constant, startCount, seed);
+    }
+
+    public static FastLTS getInstance(double[] model, int startCount)
+    {
+        return getInstance(model, startCount, DEFAULT_SEED);
+    }
+
+    public static FastLTS getInstance(double[] model, int startCount, long seed)
+    {
+        return new FastLTS(ExponentialFunctionCombinationTypes.findExactFitFactory(model), model.clone(), false, false, startCount, seed);
+    }
+
+    public static FastLTS getInstanceForSingleExponent(int exponent, int startCount)
+    {
+        return new FastLTS(SingleIntegerExponentFunctionTypes.findExactFitFactory(exponent), new double[] {exponent}, false, false, startCount, DEFAULT_SEED);
+    }
+
+    public static FastLTS getInstanceForSingleExponent(double exponent, int startCount)
+    {
+        return new FastLTS(SingleDoubleExponentFunctionTypes.findExactFitFactory(exponent), new double[] {exponent}, false, false, startCount, DEFAULT_SEED);
+    }
+
+    public int getParameterCount()
+    {
+        return model.length;
+    }
+
+    public int getStartCount()
+    {
+        return startCount;
+    }
+
+    public long getSeed()
+    {
+        return seed;
+    }
+
+    //does not modify data
+    //but passes them to LTS object uncopied
+    public LTS findFit(double[][] data, double h)
+    {
+        return findFit(data, 0, data.length, h);
+    }
+
+    //does not modify data
+    //but passes them to LTS object uncopied
+    public LTS findFit(double[][] data, int from, int to, double h)
+    {
+        int n = to - from;
+        int c = (int)Math.min(n, h*n);
+
+        Candidate best = search(getYs(data, from, to), getXs(data, from, to), 0, n, 0, c, false);
+
+        return LTS.getInstance(data, from, to, getFunction(best), getCriterion(best), c);
+    }
+
+    //does not modify data
+    //but passes them to LTS object uncopied
+    public LTS findFit(double[] ys, double[] xs, double h)
+    {
+        return findFit(ys, xs, 0, ys.length, h);
+    }
+
+    //does not modify data
+    //but passes them to LTS object uncopied
+    public LTS findFit(double[] ys, double[] xs, int from, int to, double h)
+    {
+        int n = to - from;
+        int c = (int)Math.min(n, h*n);
+
+        Candidate best = search(ys, xs, from, to, 0, c, false);
+
+        return LTS.getInstance(ys, xs, from, to, getFunction(best), getCriterion(best), c);
+    }
+
+    //does not modify data
+    public double findObjectiveFunctionMinimum(double[][] data, int from, int to, double h)
+    {
+        int n = to - from;
+        int c = (int)Math.min(n, h*n);
+
+        return getCriterion(search(getYs(data, from, to), getXs(data, from, to), 0, n, 0, c, false));
+    }
+
+    //does not modify data
+    public double findObjectiveFunctionMinimum(double[] ys, double[] xs, int from, int to, double h)
+    {
+        int n = to - from;
+        int c = (int)Math.min(n, h*n);
+
+        return getCriterion(search(ys, xs, from, to, 0, c, false));
+    }
+
+    //does not modify data
+    //but passes them to LTA object uncopied
+    public LTA findLTAFit(double[][] data, int from, int to, double h)
+    {
+        int n = to - from;
+        int c = (int)Math.min(n, h*n);
+
+        Candidate best = search(getYs(data, from, to), getXs(data, from, to), 0, n, 0, c, true);
+
+        return LTA.getInstance(data, from, to, getFunction(best), getCriterion(best), c);
+    }
+
+    //does not modify data
+    //but passes them to LTA object uncopied
+    public LTA findLTAFit(double[] ys, double[] xs, int from, int to, double h)
+    {
+        int n = to - from;
+        int c = (int)Math.min(n, h*n);
+
+        Candidate best = search(ys, xs, from, to, 0, c, true);
+
+        return LTA.getInstance(ys, xs, from, to, getFunction(best), getCriterion(best), c);
+    }
+
+    //does not modify data
+    public SupportedLTS findSupportedFit(double[][] optional, double[][] support, double h)
+    {
+        int optionalLength = optional.length;
+        int c = (int)Math.min(optionalLength, h*optionalLength);
+
+        double[][] points = concatenate(support, optional);
+
+        Candidate best = search(getYs(points, 0, points.length), getXs(points, 0, points.length), 0, points.length, support.length, c, false);
+
+        return SupportedLTS.getInstance(optional, support, getFunction(best), getCriterion(best));
+    }
+
+    //the first supportLength points are the support
+    public FittedLinearUnivariateFunction findSupportedFitFunction(double[][] points, int supportLength, double h)
+    {
+        int n = points.length;
+
+        return findSupportedFitFunction(getYs(points, 0, n), getXs(points, 0, n), supportLength, h);
+    }
+
+    //the first supportLength points are the support
+    public FittedLinearUnivariateFunction findSupportedFitFunction(double[] ys, double[] xs, int supportLength, double h)
+    {
+        int optionalLength = ys.length - supportLength;
+        int c = (int)Math.min(optionalLength, h*optionalLength);
+
+        return getFunction(search(ys, xs, 0, ys.length, supportLength, c, false));
+    }
+
+    public double findSupportedObjectiveFunctionMinimum(double[][] optional, double[][] support, double h)
+    {
+        int optionalLength = optional.length;
+        int c = (int)Math.min(optionalLength, h*optionalLength);
+
+        double[][] points = concatenate(support, optional);
+
+        return getCriterion(search(getYs(points, 0, points.length), getXs(points, 0, points.length), 0, points.length, support.length, c, false));
+    }
+
+    //the first supportLength points are the support
+    public double findSupportedObjectiveFunctionMinimum(double[] ys, double[] xs, int supportLength, double h)
+    {
+        return findSupportedObjectiveFunctionMinimum(ys, xs, 0, ys.length, supportLength, h);
+    }
+
+    //the first supportLength points of the range [from, to) are the support
+    public double findSupportedObjectiveFunctionMinimum(double[] ys, double[] xs, int from, int to, int supportLength, double h)
+    {
+        int optionalLength = to - from - supportLength;
+        int c = (int)Math.min(optionalLength, h*optionalLength);
+
+        return getCriterion(search(ys, xs, from, to, supportLength, c, false));
+    }
+
+    private Candidate search(double[] ys, double[] xs, int from, int to, int supportLength, int c, boolean absolute)
+    {
+        Search search = new Search(ys, xs, from, to, supportLength, c, absolute);
+
+        //for few points, the exact fits of one parameter functions can pass through each of them
+        boolean exhaustive = search.n < startCount && fitFactory instanceof OneParameterExactFitFactory;
+        int evaluatedStartCount = exhaustive ? search.n : startCount;
+
+        List<Candidate> retained = search.evaluateStarts(evaluatedStartCount, exhaustive);
+
+        Workspace workspace = search.createWorkspace();
+        Candidate best = null;
+
+        for(Candidate candidate : retained)
+        {
+            Candidate concentrated = search.concentrate(candidate, MAXIMAL_CONCENTRATION_STEP_COUNT, workspace);
+            if(best == null || concentrated.precedes(best))
+            {
+                best = concentrated;
+            }
+        }
+
+        return best;
+    }
+
+    //keeps the list sorted and no longer than RETAINED_START_COUNT
+    private static void retain(Candidate candidate, List<Candidate> retained)
+    {
+        int position = retained.size();
+        while(position > 0 && candidate.precedes(retained.get(position - 1)))
+        {
+            position--;
+        }
+
+        if(position < RETAINED_START_COUNT)
+        {
+            retained.add(position, candidate);
+
+            if(retained.size() > RETAINED_START_COUNT)
+            {
+                retained.remove(RETAINED_START_COUNT);
+            }
+        }
+    }
+
+    private FittedLinearUnivariateFunction buildFunction(double[] parameters)
+    {
+        if(polynomial)
+        {
+            double[] coefficients = constant ? parameters : ArrayUtilities.padLeft(parameters, 0, 1);
+            return new Polynomial(coefficients);
+        }
+
+        return new PowerFunctionCombination(model, parameters);
+    }
+
+    //the functions of the least squares fits are built only for the result, the concentration steps use their parameters
+    private FittedLinearUnivariateFunction getFunction(Candidate candidate)
+    {
+        if(candidate == null)
+        {
+            return null;
+        }
+
+        return candidate.function != null ? candidate.function : buildFunction(candidate.parameters);
+    }
+
+    private static double getCriterion(Candidate candidate)
+    {
+        return candidate != null ? candidate.criterion : Double.POSITIVE_INFINITY;
+    }
+
+    private static double[] getXs(double[][] points, int from, int to)
+    {
+        double[] xs = new double[to - from];
+        for(int i = from; i < to; i++)
+        {
+            xs[i - from] = points[i][0];
+        }
+
+        return xs;
+    }
+
+    private static double[] getYs(double[][] points, int from, int to)
+    {
+        double[] ys = new double[to - from];
+        for(int i = from; i < to; i++)
+        {
+            ys[i - from] = points[i][1];
+        }
+
+        return ys;
+    }
+
+    private static double[][] concatenate(double[][] first, double[][] second)
+    {
+        double[][] points = new double[first.length + second.length][];
+
+        System.arraycopy(first, 0, points, 0, first.length);
+        System.arraycopy(second, 0, points, first.length, second.length);
+
+        return points;
+    }
+
+    private static class Candidate
+    {
+        //null for the least squares fits, whose values are calculated from the parameters
+        private final FittedLinearUnivariateFunction function;
+        //null for the exact fits and the least absolute deviations fits, whose values are calculated by the function
+        private final double[] parameters;
+        private final double criterion;
+        private final int startIndex;
+
+        private Candidate(FittedLinearUnivariateFunction function, double[] parameters, double criterion, int startIndex)
+        {
+            this.function = function;
+            this.parameters = parameters;
+            this.criterion = criterion;
+            this.startIndex = startIndex;
+        }
+
+        //ties are resolved by the index of the start, so that the result does not depend on the order of evaluation
+        private boolean precedes(Candidate other)
+        {
+            int comparison = Double.compare(this.criterion, other.criterion);
+            return comparison < 0 || (comparison == 0 && this.startIndex < other.startIndex);
+        }
+    }
+
+    private static class Workspace
+    {
+        private final double[] residuals;
+        private final double[] smallestResiduals;
+        private final int[] coveredIndices;
+        //the covered points are copied for the least absolute deviations fits only
+        private final double[] coveredYs;
+        private final double[] coveredXs;
+        private double threshold;
+
+        private Workspace(int optionalCount, int coveredCount, boolean absolute)
+        {
+            this.residuals = new double[optionalCount];
+            this.smallestResiduals = new double[optionalCount];
+            this.coveredIndices = new int[coveredCount];
+            this.coveredYs = absolute ? new double[coveredCount] : null;
+            this.coveredXs = absolute ? new double[coveredCount] : null;
+        }
+    }
+
+    private class Search
+    {
+        private final double[] ys;
+        private final double[] xs;
+        private final int from;
+        private final int n;
+        private final int supportEnd;
+        private final int c;
+        private final boolean absolute;
+
+        private final boolean concentrationPossible;
+        //values of the terms of the model at the points, design[j][i - from] is the j-th term at the i-th point
+        private final double[][] design;
+
+        private Search(double[] ys, double[] xs, int from, int to, int supportLength, int c, boolean absolute)
+        {
+            this.ys = ys;
+            this.xs = xs;
+            this.from = from;
+            this.n = to - from;
+            this.supportEnd = from + supportLength;
+            this.c = c;
+            this.absolute = absolute;
+
+            int p = model.length;
+            this.concentrationPossible = supportLength + c >= p && c > 0;
+            this.design = new double[p][];
+
+            if(concentrationPossible && !absolute)
+            {
+                for(int j = 0; j < p; j++)
+                {
+                    double exponent = model[j];
+                    double[] term = new double[n];
+                    for(int i = 0; i < n; i++)
+                    {
+                        term[i] = exponent == 0 ? 1 : Math.pow(xs[from + i], exponent);
+                    }
+                    design[j] = term;
+                }
+            }
+        }
+
+        private Workspace createWorkspace()
+        {
+            int supportLength = supportEnd - from;
+            return new Workspace(n - supportLength, supportLength + c, absolute);
+        }
+
+        private List<Candidate> evaluateStarts(int evaluatedStartCount, boolean exhaustive)
+        {
+            Workspace workspace = createWorkspace();
+            List<Candidate> retained = new ArrayList<>();
+
+            for(int s = 0; s < evaluatedStartCount; s++)
+            {
+                FittedLinearUnivariateFunction exactFit = exhaustive ? ((OneParameterExactFitFactory)fitFactory).getExactFit(xs[from + s], ys[from + s])
+                        : fitFactory.getExactFitForRandomSubsetOfPoints(new Random(seed + s*SEED_INCREMENT), ys, xs, from, from + n);
+
+                if(exactFit != null)
+                {
+                    Candidate start = new Candidate(exactFit, null, evaluate(exactFit, null, workspace), s);
+                    retain(concentrate(start, INITIAL_CONCENTRATION_STEP_COUNT, workspace), retained);
+                }
+            }
+
+            return retained;
+        }
+
+        private Candidate concentrate(Candidate start, int maximalStepCount, Workspace workspace)
+        {
+            if(!concentrationPossible)
+            {
+                return start;
+            }
+
+            Candidate current = start;
+            evaluate(current.function, current.parameters, workspace);
+
+            for(int step = 0; step < maximalStepCount; step++)
+            {
+                int coveredCount = selectCovered(workspace);
+                Candidate next = absolute ? refitAbsoluteDeviations(workspace.coveredIndices, coveredCount, current, workspace)
+                        : refitSquares(workspace.coveredIndices, coveredCount, current, workspace);
+
+                if(next == null || !next.precedes(current))
+                {
+                    break;
+                }
+
+                current = next;
+            }
+
+            return current;
+        }
+
+        //fills the workspace with the residuals of the optional points and returns the objective function
+        private double evaluate(FittedLinearUnivariateFunction function, double[] parameters, Workspace workspace)
+        {
+            double supportCriterion = 0;
+            for(int i = from; i < supportEnd; i++)
+            {
+                supportCriterion += getResidual(i, function, parameters);
+            }
+
+            double[] residuals = workspace.residuals;
+            int optionalCount = residuals.length;
+            for(int i = 0; i < optionalCount; i++)
+            {
+                residuals[i] = getResidual(supportEnd + i, function, parameters);
+            }
+
+            if(c == 0)
+            {
+                workspace.threshold = Double.NEGATIVE_INFINITY;
+                return supportCriterion;
+            }
+
+            double[] smallest = workspace.smallestResiduals;
+            System.arraycopy(residuals, 0, smallest, 0, optionalCount);
+            Selector.sortSmallest(smallest, c);
+
+            double threshold = Double.NEGATIVE_INFINITY;
+            double trimmedCriterion = 0;
+            for(int i = 0; i < c; i++)
+            {
+                threshold = Math.max(threshold, smallest[i]);
+                trimmedCriterion += smallest[i];
+            }
+
+            workspace.threshold = threshold;
+
+            return supportCriterion + trimmedCriterion;
+        }
+
+        private double getResidual(int i, FittedLinearUnivariateFunction function, double[] parameters)
+        {
+            double fitted;
+            if(parameters != null)
+            {
+                fitted = 0;
+                for(int j = 0; j < model.length; j++)
+                {
+                    fitted += parameters[j]*design[j][i - from];
+                }
+            }
+            else
+            {
+                fitted = function.value(xs[i]);
+            }
+
+            double residual = ys[i] - fitted;
+
+            return absolute ? Math.abs(residual) : residual*residual;
+        }
+
+        //the support and the c optional points with the smallest residuals, in the order of indices
+        private int selectCovered(Workspace workspace)
+        {
+            int[] covered = workspace.coveredIndices;
+            int count = 0;
+
+            for(int i = from; i < supportEnd; i++)
+            {
+                covered[count++] = i;
+            }
+
+            double[] residuals = workspace.residuals;
+            double threshold = workspace.threshold;
+            int optionalCount = residuals.length;
+
+            int tiesAllowed = c;
+            for(int i = 0; i < optionalCount; i++)
+            {
+                if(residuals[i] < threshold)
+                {
+                    tiesAllowed--;
+                }
+            }
+
+            for(int i = 0; i < optionalCount; i++)
+            {
+                double residual = residuals[i];
+                if(residual < threshold || (residual == threshold && tiesAllowed-- > 0))
+                {
+                    covered[count++] = supportEnd + i;
+                }
+            }
+
+            return count;
+        }
+
+        //returns null if the fit fails or does not decrease the objective function, so that the parameters are copied only from the accepted fits
+        private Candidate refitSquares(int[] covered, int count, Candidate current, Workspace workspace)
+        {
+            int p = model.length;
+
+            //polynomials are fitted in the buffers of the regression workspace of the thread
+            if(polynomial)
+            {
+                RegressionWorkspace regressionWorkspace = RegressionWorkspace.getThreadWorkspace();
+                int deg = constant ? p - 1 : p;
+                regressionWorkspace.fit(ys, xs, covered, count, deg, constant);
+
+                return getImprovedCandidate(regressionWorkspace.getParameters(), p, current, workspace);
+            }
+
+            double[][] normalMatrix = new double[p][p];
+            double[] moments = new double[p];
+
+            for(int k = 0; k < count; k++)
+            {
+                int index = covered[k] - from;
+                double y = ys[covered[k]];
+
+                for(int a = 0; a < p; a++)
+                {
+                    double termA = design[a][index];
+                    moments[a] += termA*y;
+
+                    for(int b = 0; b <= a; b++)
+                    {
+                        normalMatrix[a][b] += termA*design[b][index];
+                    }
+                }
+            }
+
+            for(int a = 0; a < p; a++)
+            {
+                for(int b = a + 1; b < p; b++)
+                {
+                    normalMatrix[a][b] = normalMatrix[b][a];
+                }
+            }
+
+            double[] parameters = new QRDecompositionCustomized(normalMatrix, p, p).solveWithColumn(moments);
+
+            return getImprovedCandidate(parameters, p, current, workspace);
+        }
+
+        //the parameters may be longer than p, and may be overwritten after the method returns
+        private Candidate getImprovedCandidate(double[] parameters, int p, Candidate current, Workspace workspace)
+        {
+            for(int j = 0; j < p; j++)
+            {
+                double parameter = parameters[j];
+                if(Double.isNaN(parameter) || Double.isInfinite(parameter))
+                {
+                    return null;
+                }
+            }
+
+            //the start index is shared with the current candidate, so only a smaller objective function is an improvement
+            double criterion = evaluate(null, parameters, workspace);
+            if(!(criterion < current.criterion))
+            {
+                return null;
+            }
+
+            return new Candidate(null, Arrays.copyOf(parameters, p), criterion, current.startIndex);
+        }
+
+        private Candidate refitAbsoluteDeviations(int[] covered, int count, Candidate current, Workspace workspace)
+        {
+            double[] coveredYs = workspace.coveredYs;
+            double[] coveredXs = workspace.coveredXs;
+
+            for(int k = 0; k < count; k++)
+            {
+                coveredYs[k] = ys[covered[k]];
+                coveredXs[k] = xs[covered[k]];
+            }
+
+            FittedLinearUnivariateFunction function = L1Regression.findFit(coveredYs, coveredXs, 0, count, model).getBestFit();
+
+            if(function == null)
+            {
+                return null;
+            }
+
+            return new Candidate(function, null, evaluate(function, null, workspace), current.startIndex);
+        }
+    }
+}
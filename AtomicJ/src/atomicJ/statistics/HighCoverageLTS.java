@@ -79,6 +79,13 @@ public class HighCoverageLTS implements HighBreakdownEstimator
     }
 
 
+    public static HighCoverageLTS findFit(double[] ys, double[] xs, int deg, boolean constant, double k, int nstarts)
+    {
+        double minimalCoverage = MathUtilities.minimalCoverage(ys.length, deg + MathUtilities.boole(constant));       
+
+        return findFit(ys, xs, deg, constant, k, minimalCoverage, nstarts);
+    }
+
     public static HighCoverageLTS findFit(double[] ys, double[] xs, int deg, boolean constant, double k, double h1, int nstarts)
     {
         return findFit(ys, xs, 0, ys.length, deg, constant, k, h1, nstarts);
@@ -109,6 +116,71 @@ public class HighCoverageLTS implements HighBreakdownEstimator
         return new HighCoverageLTS(finalLTS, median);
     }
 
+    public static HighCoverageLTS findFit(FastLTS fastLTS, double[][] data, int from, int to, double k, double h1)
+    {
+        LinearRegressionEsimator firstReg = fastLTS.findFit(data, from, to, h1);
+        ResidualVector residuals = firstReg.getResiduals();
+
+        double[] absResiduals = residuals.getAbsoluteResiduals();
+        int n = absResiduals.length;
+        int p = fastLTS.getParameterCount();
+        int c = (int)Math.min(h1*n, n);    
+
+        Arrays.sort(absResiduals);
+        double limit = k*absResiduals[c - 1];
+        int initIndex = k >= 1 ? c: 0;
+        double count = ArrayUtilities.binarySearchAscending(absResiduals, initIndex, n, limit);
+
+        double h2 = count/n;
+
+        LTS finalLTS = fastLTS.findFit(data, from, to, h2);
+
+        int medianIndex = MathUtilities.robustMedianIndex(n, p);
+        double median = absResiduals[medianIndex];
+
+        return new HighCoverageLTS(finalLTS, median);
+    }
+
+    public static HighCoverageLTS findFit(FastLTS fastLTS, double[] ys, double[] xs, double k)
+    {
+        double minimalCoverage = MathUtilities.minimalCoverage(ys.length, fastLTS.getParameterCount());       
+
+        return findFit(fastLTS, ys, xs, 0, ys.length, k, minimalCoverage);
+    }
+
+    //fits the points from 'from' (inclusive) to 'to' (exclusive), without copying them
+    public static HighCoverageLTS findFit(FastLTS fastLTS, double[] ys, double[] xs, int from, int to, double k)
+    {
+        double minimalCoverage = MathUtilities.minimalCoverage(to - from, fastLTS.getParameterCount());       
+
+        return findFit(fastLTS, ys, xs, from, to, k, minimalCoverage);
+    }
+
+    public static HighCoverageLTS findFit(FastLTS fastLTS, double[] ys, double[] xs, int from, int to, double k, double h1)
+    {
+        LinearRegressionEsimator firstReg = fastLTS.findFit(ys, xs, from, to, h1);
+        ResidualVector residuals = firstReg.getResiduals();
+
+        double[] absResiduals = residuals.getAbsoluteResiduals();
+        int n = absResiduals.length;
+        int p = fastLTS.getParameterCount();
+        int c = (int)Math.min(h1*n, n);    
+
+        Arrays.sort(absResiduals);
+        double limit = k*absResiduals[c - 1];
+        int initIndex = k >= 1 ? c: 0;
+        double count = ArrayUtilities.binarySearchAscending(absResiduals, initIndex, n, limit);
+
+        double h2 = count/n;
+
+        LTS finalLTS = fastLTS.findFit(ys, xs, from, to, h2);
+
+        int medianIndex = MathUtilities.robustMedianIndex(n, p);
+        double median = absResiduals[medianIndex];
+
+        return new HighCoverageLTS(finalLTS, median);
+    }
+
     public static HighCoverageLTS findFit(double[] data, int deg, boolean constant, double k, double h1, int nstarts)
     { 
         LinearRegressionEsimator firstReg = LTS1DFactory.findFit(data, deg, constant, h1, nstarts);
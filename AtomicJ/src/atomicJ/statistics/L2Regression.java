@@ -61,40 +61,7 @@ public class L2Regression implements LinearRegressionEsimator
             return findObjectiveFunctionMinimumDeg3NoConstant(data, from, to);
         }
 
-        int n = to - from;
-        int p =  deg + MathUtilities.boole(constant); //Number of parameters
-
-        double[] design = new double[n*p]; 
-        double[] obs = new double[n];
-
-        int[] model = RegressionUtilities.getModelInt(deg, constant);   
-
-        for(int i = from; i<to; i++)
-        {
-            double[] pt = data[i];
-            double x = pt[0];
-            int j = (i - from)*p;
-            for(int exponent: model)
-            {
-                design[j++] = MathUtilities.intPow(x,exponent);
-            }
-            obs[i - from] = pt[1];
-        }
-
-        // D^T*D
-        QRDecompositionConcatenatedArray decomposition = new QRDecompositionConcatenatedArray(MathUtilities.multipyTransposeOfConcatenatedMatrixCByCSymmetryUsedConcatenated(design, n, p), p, p);
-        double[] parametersArray = decomposition.solveWithColumn(MathUtilities.multiplyTransposeOfConcatenatedMatrixAAndVector(design,n,p, obs));
-        double[] predictedResponses = MathUtilities.multiplyConcatenatedMatrixAndVector(design, n, p, parametersArray);
-
-        double ss = 0;
-
-        for(int i = 0; i<n; i++)
-        {
-            double dx = obs[i] - predictedResponses[i];
-            ss += dx*dx;
-        }
-
-        return ss;
+        return RegressionWorkspace.getThreadWorkspace().findObjectiveFunctionMinimum(data, from, to, deg, constant);
     }
 
     public static FittedLinearUnivariateFunction findFitFunction(double[][] data, int from, int to, int deg, boolean constant)
@@ -114,31 +81,10 @@ public class L2Regression implements LinearRegressionEsimator
             return findFitFunctionDeg3NoConstant(data, from, to);
         }
 
-        int n = to - from;
-        int p =  deg + MathUtilities.boole(constant); //Number of parameters
-
-        double[] design = new double[n*p]; 
-        double[] obs = new double[n];
-
-        int[] model = RegressionUtilities.getModelInt(deg, constant);   
-
-        for(int i = from; i<to; i++)
-        {
-            double[] pt = data[i];
-            double x = pt[0];
-            int j = (i - from)*p;
-            for(int exponent: model)
-            {
-                design[j++] = MathUtilities.intPow(x,exponent);
-            }
-            obs[i - from] = pt[1];
-        }
-
-        // D^T*D
-        QRDecompositionConcatenatedArray decomposition = new QRDecompositionConcatenatedArray(MathUtilities.multipyTransposeOfConcatenatedMatrixCByCSymmetryUsedConcatenated(design, n, p), p, p);
-        double[] parametersArray = decomposition.solveWithColumn(MathUtilities.multiplyTransposeOfConcatenatedMatrixAAndVector(design,n,p, obs));
+        RegressionWorkspace workspace = RegressionWorkspace.getThreadWorkspace();
+        int p = workspace.fit(data, from, to, deg, constant);
 
-        Polynomial fit = new Polynomial(parametersArray);
+        Polynomial fit = new Polynomial(workspace.copyParameters(p));
         return fit;
     }
 
@@ -164,39 +110,7 @@ public class L2Regression implements LinearRegressionEsimator
             return findObjectiveFunctionMinimumDeg3NoConstant(ys, xs, from, to);
         }
 
-        int n = to - from;
-        int p =  deg + MathUtilities.boole(constant); //Number of parameters
-
-        double[] design = new double[n*p]; 
-        double[] obs = new double[n];
-
-        int[] model = RegressionUtilities.getModelInt(deg, constant);   
-
-        for(int i = from; i<to; i++)
-        {
-            double x = xs[i];
-            int j = (i - from)*p;
-            for(int exponent: model)
-            {
-                design[j++] = MathUtilities.intPow(x,exponent);
-            }
-            obs[i - from] = ys[i];
-        }
-
-        // D^T*D
-        QRDecompositionConcatenatedArray decomposition = new QRDecompositionConcatenatedArray(MathUtilities.multipyTransposeOfConcatenatedMatrixCByCSymmetryUsedConcatenated(design, n, p), p, p);
-        double[] parametersArray = decomposition.solveWithColumn(MathUtilities.multiplyTransposeOfConcatenatedMatrixAAndVector(design,n,p, obs));
-        double[] predictedResponses = MathUtilities.multiplyConcatenatedMatrixAndVector(design, n, p, parametersArray);
-
-        double ss = 0;
-
-        for(int i = 0; i<n; i++)
-        {
-            double dx = obs[i] - predictedResponses[i];
-            ss += dx*dx;
-        }
-
-        return ss;
+        return RegressionWorkspace.getThreadWorkspace().findObjectiveFunctionMinimum(ys, xs, from, to, deg, constant);
     };
 
     public static FittedLinearUnivariateFunction findFitFunction(double[] ys, double[] xs, int deg, boolean constant)
@@ -221,30 +135,10 @@ public class L2Regression implements LinearRegressionEsimator
             return findFitFunctionDeg3NoConstant(ys, xs, from, to);
         }
 
-        int n = to - from;
-        int p =  deg + MathUtilities.boole(constant); //Number of parameters
-
-        double[] design = new double[n*p]; 
-        double[] obs = new double[n];
-
-        int[] model = RegressionUtilities.getModelInt(deg, constant);   
-
-        for(int i = from; i<to; i++)
-        {
-            double x = xs[i];
-            int j = (i - from)*p;
-            for(int exponent: model)
-            {
-                design[j++] = MathUtilities.intPow(x,exponent);
-            }
-            obs[i - from] = ys[i];
-        }
-
-        // D^T*D
-        QRDecompositionConcatenatedArray decomposition = new QRDecompositionConcatenatedArray(MathUtilities.multipyTransposeOfConcatenatedMatrixCByCSymmetryUsedConcatenated(design, n, p), p, p);
-        double[] parametersArray = decomposition.solveWithColumn(MathUtilities.multiplyTransposeOfConcatenatedMatrixAAndVector(design,n,p, obs));
+        RegressionWorkspace workspace = RegressionWorkspace.getThreadWorkspace();
+        int p = workspace.fit(ys, xs, from, to, deg, constant);
 
-        Polynomial fit = new Polynomial(parametersArray);
+        Polynomial fit = new Polynomial(workspace.copyParameters(p));
         return fit;
     };
 
@@ -1123,6 +1017,19 @@ public class L2Regression implements LinearRegressionEsimator
         return getFittedFunction(weightedDesign, wobs, degree, n, p);
     };
 
+    public static FittedLinearUnivariateFunction findFitedFunction(double[] ys, double[] xs, int from, int to, double[] weights, int degree)
+    {        
+        int n = to - from;
+        int p = degree + 1;
+
+        RegressionModel regModel = RegressionModel.getWeightedDesignAndWeightedObservations(ys, xs, from, to, weights, degree);
+
+        double[][] weightedDesign = regModel.getWeightedDesign();
+        double[] wobs = regModel.getWeightedObservations();
+
+        return getFittedFunction(weightedDesign, wobs, degree, n, p);
+    };
+
     public static FittedLinearUnivariateFunction findFitedFunction(double[] data, int from, int to, double[] weights, int degree)
     {
         int n = to - from;
@@ -289,6 +289,20 @@ public abstract class LTA implements HighBreakdownEstimator
         return findFit(fitFactory, ys,xs, from, to, h, nstarts);
     }
 
+    //does not modify data
+    //but passes them to LTA object uncopied
+    public static LTA findFit(FastLTS fastLTS, double[][] data, int from, int to, double h)
+    {
+        return fastLTS.findLTAFit(data, from, to, h);
+    }
+
+    //does not modify data
+    //but passes them to LTA object uncopied
+    public static LTA findFit(FastLTS fastLTS, double[] ys, double[] xs, int from, int to, double h)
+    {
+        return fastLTS.findLTAFit(ys, xs, from, to, h);
+    }
+
     //does not modify data
     //but passes them to LTA object uncopied
     public static LTA findFit(ExactFitFactory fitFactory, double[] ys, double[] xs, int from, int to, double h, int nstarts)
@@ -9,15 +9,27 @@ import atomicJ.utilities.MathUtilities;
 
 public class LocalRegression
 {
-    public static double[][] smooth(double[][] data, SpanGeometry spanGeometry, int windowWidthInPoints, int robustnessIters, double accuracy, int degree, LocalRegressionWeightFunction weightFunction)
+    private static final int MAX_MOMENT_FIT_DEGREE = 2;
+    private static final double SINGULARITY_TOLERANCE = 1e-12;
+
+    //returns the smoothed y coordinates; xs and ys are only read
+    public static double[] smooth(double[] ys, double[] xs, SpanGeometry spanGeometry, int windowWidthInPoints, int robustnessIters, double accuracy, int degree, LocalRegressionWeightFunction weightFunction)
     {
-        int n = data.length;
+        return smooth(ys, xs, spanGeometry, windowWidthInPoints, robustnessIters, accuracy, degree, 0, weightFunction);
+    }
+
+    //returns the smoothed y coordinates; xs and ys are only read. If delta is positive, the local polynomial is fitted only at the anchor points, as in the lowess of Cleveland:
+    //the next anchor is the last point whose distance from the previous anchor does not exceed delta, or the next point if there is no such point, and the first and the last points are always anchors.
+    //The smoothed values between the anchors are interpolated linearly. The xs should be ordered, either increasingly or decreasingly, when delta is positive
+    public static double[] smooth(double[] ys, double[] xs, SpanGeometry spanGeometry, int windowWidthInPoints, int robustnessIters, double accuracy, int degree, double delta, LocalRegressionWeightFunction weightFunction)
+    {
+        int n = ys.length;
 
         if (n < 3 || windowWidthInPoints < 2) {
-            return data;
+            return ys;
         }
 
-        double[][] smoothed = new double[n][2];
+        double[] smoothed = new double[n];
 
         double[] absResiduals = new double[n];
 
@@ -31,21 +43,28 @@ public class LocalRegression
             int ileft = 0;
             int iright = windowWidthInPoints - 1;
 
+            int lastAnchor = -1;
+
             for (int i = 0; i < n; ++i)
             {
-                double[] currentPoint = data[i];
-
-                double x = currentPoint[0];
-                double y = currentPoint[1];
+                //updates fitting range, also for the points which are not anchors, because the range of the next anchor is found from the current one
 
-                //updates fitting range
-
-                IndexRange indexRangeNew = spanGeometry.getNextRange(data, n, i, ileft, iright, windowWidthInPoints);
+                IndexRange indexRangeNew = spanGeometry.getNextRangeForXs(xs, n, i, ileft, iright, windowWidthInPoints);
                 ileft = indexRangeNew.getMinIndex();
                 iright = indexRangeNew.getMaxIndex();
 
-                double leftDistance = Math.abs(x - data[ileft][0]);
-                double rightDistance = Math.abs(data[iright][0] - x);
+                boolean anchor = delta <= 0 || lastAnchor < 0 || i == n - 1 || Math.abs(xs[i + 1] - xs[lastAnchor]) > delta;
+
+                if(!anchor)
+                {
+                    continue;
+                }
+
+                double x = xs[i];
+                double y = ys[i];
+
+                double leftDistance = Math.abs(x - xs[ileft]);
+                double rightDistance = Math.abs(xs[iright] - x);
 
                 double maxDistance = Math.max(leftDistance,rightDistance);
 
@@ -55,38 +74,58 @@ public class LocalRegression
                 {
                     for (int k = ileft, w = 0; k <= iright; ++k, ++w) //loop over whole bandwith
                     {
-                        double dist = Math.abs(x - data[k][0]); //absolute value of distance from center x to the current point of the bandwidth                
+                        double dist = Math.abs(x - xs[k]); //absolute value of distance from center x to the current point of the bandwidth                
 
                         weights[w] = weightFunction.value(dist/maxDistance) * robustnessWeights[k]; // weight
                     }
                 }
                 else
                 {
-                    weights = Arrays.copyOf(robustnessWeights, robustnessWeights.length);                  
+                    for (int k = ileft, w = 0; k <= iright; ++k, ++w)
+                    {
+                        weights[w] = robustnessWeights[k];
+                    }
                 }
 
                 //there must be one more points then the degree, because there is always a point with weight 0
                 int fitDegree = maxDistanceNonZero && (iright - ileft + 1) > degree + 1 ? degree : 0;
 
-                //                containsAtLeastNNonZero(weights, fitDegree + 1, 1e-9)
                 double fittedValue = y;
-                try
-                {
-                    fittedValue = L2Regression.findFitedFunction(data, ileft, iright + 1, weights, fitDegree).value(x); 
 
-                    if(Double.isNaN(fittedValue))
+                if(fitDegree <= MAX_MOMENT_FIT_DEGREE)
+                {
+                    double scale = maxDistanceNonZero ? maxDistance : 1;
+                    fittedValue = findLocalFitValue(ys, xs, ileft, iright + 1, weights, fitDegree, x, scale);
+                }
+                else
+                {
+                    try
                     {
-                        fittedValue = y;
+                        fittedValue = L2Regression.findFitedFunction(ys, xs, ileft, iright + 1, weights, fitDegree).value(x); 
                     }
+                    catch(Exception e) //happens when the rank of design matrix is too small, but I don't want to calculate it beforehand for performance reasons
+                    {
+                    }
+                }
+
+                if(Double.isNaN(fittedValue))
+                {
+                    fittedValue = y;
                 }
-                catch(Exception e) //happens when the rank of design matrix is too small, but I don't want to calculate it beforehand for performance reasons
+
+                smoothed[i] = fittedValue;
+
+                if(lastAnchor >= 0)
                 {
+                    interpolate(smoothed, xs, lastAnchor, i);
                 }
 
-                smoothed[i][0] = x;
-                smoothed[i][1] = fittedValue;
+                lastAnchor = i;
+            }
 
-                absResiduals[i] = Math.abs(y - fittedValue);
+            for (int i = 0; i < n; i++)
+            {
+                absResiduals[i] = Math.abs(ys[i] - smoothed[i]);
             }
 
             if (iter == robustnessIters) {
@@ -109,13 +148,101 @@ public class LocalRegression
         return smoothed;
     }
 
+    //fills the smoothed values between the anchors, which are already smoothed. The points with the same x as the left anchor get its value
+    private static void interpolate(double[] smoothed, double[] xs, int leftAnchor, int rightAnchor)
+    {
+        double xLeft = xs[leftAnchor];
+        double xRight = xs[rightAnchor];
+        double yLeft = smoothed[leftAnchor];
+        double yRight = smoothed[rightAnchor];
+
+        double slope = (xRight != xLeft) ? (yRight - yLeft)/(xRight - xLeft) : 0;
+
+        for (int j = leftAnchor + 1; j < rightAnchor; j++)
+        {
+            smoothed[j] = yLeft + slope*(xs[j] - xLeft);
+        }
+    }
+
+    //returns the value at x of the weighted least squares polynomial of degree 0, 1 or 2, or NaN if the polynomial cannot be found.
+    //The weighted moments of the distances from x, divided by the scale, are accumulated in one pass over the window, so that no arrays are created,
+    //and the value at x is the constant term of the polynomial in these distances, which is found from the normal equations by Cramer's rule
+    private static double findLocalFitValue(double[] ys, double[] xs, int from, int to, double[] weights, int degree, double x, double scale)
+    {
+        double s0 = 0;
+        double s1 = 0;
+        double s2 = 0;
+        double s3 = 0;
+        double s4 = 0;
+
+        double t0 = 0;
+        double t1 = 0;
+        double t2 = 0;
+
+        for (int k = from, w = 0; k < to; ++k, ++w)
+        {
+            double weight = weights[w];
+            double u = (xs[k] - x)/scale;
+
+            double wu = weight*u;
+            double wu2 = wu*u;
+            double wy = weight*ys[k];
+
+            s0 += weight;
+            s1 += wu;
+            s2 += wu2;
+            s3 += wu2*u;
+            s4 += wu2*u*u;
+
+            t0 += wy;
+            t1 += wy*u;
+            t2 += wy*u*u;
+        }
+
+        if(!(s0 > 0))
+        {
+            return Double.NaN;
+        }
+
+        if(degree == 0)
+        {
+            return t0/s0;
+        }
+
+        if(degree == 1)
+        {
+            double det = s0*s2 - s1*s1;
+
+            if(!(det > SINGULARITY_TOLERANCE*s0*s2))
+            {
+                return Double.NaN;
+            }
+
+            return (s2*t0 - s1*t1)/det;
+        }
+
+        //the cofactors of the first row of the normal matrix, which is symmetric
+        double c0 = s2*s4 - s3*s3;
+        double c1 = s2*s3 - s1*s4;
+        double c2 = s1*s3 - s2*s2;
+
+        double det = s0*c0 + s1*c1 + s2*c2;
+
+        if(!(det > SINGULARITY_TOLERANCE*s0*s2*s4))
+        {
+            return Double.NaN;
+        }
 
-    public static double[][] smooth(double[][] data, SpanGeometry spanGeometry, int bandwidthInPoints, int degree, int derivative, LocalRegressionWeightFunction weightFunction)
+        return (c0*t0 + c1*t1 + c2*t2)/det;
+    }
+
+    //returns the values of the derivative at xs; xs and ys are only read
+    public static double[] smooth(double[] ys, double[] xs, SpanGeometry spanGeometry, int bandwidthInPoints, int degree, int derivative, LocalRegressionWeightFunction weightFunction)
     {        
-        int n = data.length;
+        int n = ys.length;
         if(n == 0)
         {
-            return data;
+            return ys;
         }
 
         if(degree < derivative)
@@ -128,7 +255,7 @@ public class LocalRegression
             throw new IllegalArgumentException("Too few points available in bandwidth to calculate derivative");
         }
 
-        double[][] smoothed = new double[n][2];
+        double[] smoothed = new double[n];
 
         double[] weights = new double[bandwidthInPoints];        
 
@@ -137,19 +264,17 @@ public class LocalRegression
 
         for (int i = 0; i < n; ++i)
         {
-            double[] currentPoint = data[i];
-
-            double x = currentPoint[0];
-            double y = currentPoint[1];
+            double x = xs[i];
+            double y = ys[i];
 
             //updates fitting range
 
-            IndexRange indexRangeNew = spanGeometry.getNextRange(data, n, i, ileft, iright, bandwidthInPoints);
+            IndexRange indexRangeNew = spanGeometry.getNextRangeForXs(xs, n, i, ileft, iright, bandwidthInPoints);
             ileft = indexRangeNew.getMinIndex();
             iright = indexRangeNew.getMaxIndex();
 
-            double leftDistance = Math.abs(x - data[ileft][0]);
-            double rightDistance = Math.abs(data[iright][0] - x);
+            double leftDistance = Math.abs(x - xs[ileft]);
+            double rightDistance = Math.abs(xs[iright] - x);
 
             double maxDistance = Math.max(leftDistance,rightDistance);
 
@@ -159,7 +284,7 @@ public class LocalRegression
             {
                 for (int k = ileft, w = 0; k <= iright; ++k, ++w) //loop over whole bandwith
                 {
-                    double dist = Math.abs(x - data[k][0]); //absolute value of distance from center x to the current point of the bandwidth                
+                    double dist = Math.abs(x - xs[k]); //absolute value of distance from center x to the current point of the bandwidth                
                     weights[w] = weightFunction.value(dist/maxDistance); // weight
                 }
             }
@@ -169,13 +294,12 @@ public class LocalRegression
             double derValue = y;
             try
             {
-                derValue = L2Regression.findFitedFunction(data, ileft, iright + 1, weights, fitDegree).getDerivative(derivative).value(x);
+                derValue = L2Regression.findFitedFunction(ys, xs, ileft, iright + 1, weights, fitDegree).getDerivative(derivative).value(x);
             }
             catch(Exception e) //happens when the rank of design matrix is too small, but I don't want to calculate it beforehand for performance reasons
             {}
 
-            smoothed[i][0] = x;
-            smoothed[i][1] = derValue;
+            smoothed[i] = derValue;
         }
 
         return smoothed;
@@ -0,0 +1,484 @@
+
+/* 
+ * ===========================================================
+ * AtomicJ : a free application for analysis of AFM data
+ * ===========================================================
+ *
+ * (C) Copyright 2013-2022 by Paweł Hermanowicz
+ *
+ * 
+ * This program is free software; you can redistribute it and/or modify 
+ * it under the terms of the GNU General Public License as published by 
+ * the Free Software Foundation; either version 3 of the License, or (at your option) any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without 
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU 
+ * General Public License for more details.
+ * You should have received a copy of the GNU General Public License along with this program; if not, 
+ * see http://www.gnu.org/licenses/*/
+
+package atomicJ.statistics;
+
+import java.util.Arrays;
+import java.util.Comparator;
+
+import atomicJ.utilities.MathUtilities;
+import atomicJ.utilities.Validation;
+
+/*
+ * Prefix and suffix sums of the powers of the abscissae and of their products with the ordinates, used to find the residual sum of squares
+ * of the least squares fit of y - y0 to a combination of the powers of x0 - x, for any range of points and any origin (x0, y0) chosen among the points,
+ * in time which does not depend on the number of points in the range. The sums of the powers of x0 - x are obtained from the sums of the powers of x
+ * by binomial expansion. The coordinates are standardized, so that they lie between -1 and 1, which keeps the expansion accurate up to rounding errors
+ * relative to the spread of all points. The expansion of the sums over a few closely spaced points cancels catastrophically, so the sums over the ranges
+ * of at most DIRECT_ACCUMULATION_MAX_COUNT points are accumulated directly from the differences between the coordinates and the origin, at a cost which is still bounded.
+ * This is used by the contact point searches, which otherwise would have to fit the whole curve again for every trial contact point.
+ * The normal equations are solved in buffers owned by the table, so the queries create no objects, and a table must be used by one thread only.
+ */
+
+public class PowerSumTable
+{
+    private static final int DIRECT_ACCUMULATION_MAX_COUNT = 128;
+
+    private final int count;
+    private final int maxPower;
+    private final int maxWeightedPower;
+
+    private final double yScale;
+
+    //standardized coordinates
+    private final double[] xs;
+    private final double[] ys;
+
+    //prefixPowerSums[m][i] is the sum of x^m over the points with indices smaller than i, suffixPowerSums[m][i] is the sum over the points with indices not smaller than i
+    private final double[][] prefixPowerSums;
+    private final double[][] suffixPowerSums;
+    private final double[][] prefixWeightedPowerSums;
+    private final double[][] suffixWeightedPowerSums;
+    private final double[] prefixSquareSums;
+    private final double[] suffixSquareSums;
+
+    private final double[] rangePowerSums;
+    private final double[] rangeWeightedPowerSums;
+    //shiftedPowerSums[k] is the sum of (x0 - x)^k and shiftedWeightedPowerSums[k] the sum of (x0 - x)^k*(y - y0) over the fitted points
+    private final double[] shiftedPowerSums;
+    private final double[] shiftedWeightedPowerSums;
+    private final double[] normalMatrix;
+    private final double[] normalVector;
+    private final double[] parameters;
+    private final double[] rDiagonal;
+
+    public PowerSumTable(double[] xValues, double[] yValues, int maxModelExponent)
+    {
+        Validation.requireTwoArraysNonNullAndOfEqualLengthParameterName(xValues, yValues, "xValues", "yValues");
+
+        if(maxModelExponent < 0)
+        {
+            throw new IllegalArgumentException("Parameter 'maxModelExponent' must not be negative");
+        }
+
+        this.count = xValues.length;
+        this.maxPower = 2*maxModelExponent;
+        this.maxWeightedPower = maxModelExponent;
+
+        this.xs = standardize(xValues);
+        this.ys = standardize(yValues);
+        this.yScale = getScale(yValues, getMean(yValues));
+
+        this.prefixPowerSums = new double[maxPower + 1][count + 1];
+        this.suffixPowerSums = new double[maxPower + 1][count + 1];
+        this.prefixWeightedPowerSums = new double[maxWeightedPower + 1][count + 1];
+        this.suffixWeightedPowerSums = new double[maxWeightedPower + 1][count + 1];
+        this.prefixSquareSums = new double[count + 1];
+        this.suffixSquareSums = new double[count + 1];
+
+        int maxParameterCount = maxModelExponent + 1;
+        this.rangePowerSums = new double[maxPower + 1];
+        this.rangeWeightedPowerSums = new double[maxWeightedPower + 1];
+        this.shiftedPowerSums = new double[maxPower + 1];
+        this.shiftedWeightedPowerSums = new double[maxWeightedPower + 1];
+        this.normalMatrix = new double[maxParameterCount*maxParameterCount];
+        this.normalVector = new double[maxParameterCount];
+        this.parameters = new double[maxParameterCount];
+        this.rDiagonal = new double[maxParameterCount];
+
+        for(int i = 0; i<count; i++)
+        {
+            double x = xs[i];
+            double y = ys[i];
+
+            double power = 1;
+            for(int m = 0; m <= maxPower; m++)
+            {
+                prefixPowerSums[m][i + 1] = prefixPowerSums[m][i] + power;
+                if(m <= maxWeightedPower)
+                {
+                    prefixWeightedPowerSums[m][i + 1] = prefixWeightedPowerSums[m][i] + power*y;
+                }
+                power *= x;
+            }
+
+            prefixSquareSums[i + 1] = prefixSquareSums[i] + y*y;
+        }
+
+        for(int i = count - 1; i >= 0; i--)
+        {
+            double x = xs[i];
+            double y = ys[i];
+
+            double power = 1;
+            for(int m = 0; m <= maxPower; m++)
+            {
+                suffixPowerSums[m][i] = suffixPowerSums[m][i + 1] + power;
+                if(m <= maxWeightedPower)
+                {
+                    suffixWeightedPowerSums[m][i] = suffixWeightedPowerSums[m][i + 1] + power*y;
+                }
+                power *= x;
+            }
+
+            suffixSquareSums[i] = suffixSquareSums[i + 1] + y*y;
+        }
+    }
+
+    public int getCount()
+    {
+        return count;
+    }
+
+    public int getMaxModelExponent()
+    {
+        return maxWeightedPower;
+    }
+
+    //returns the residual sum of squares of the least squares fit of y_i - y_origin to the combination of (x_origin - x_i)^e,
+    //where the exponents e are the elements of the model, for the points with indices in the range [from, to)
+    public double getResidualSumOfSquares(int from, int to, int originIndex, int[] model)
+    {
+        if(from < 0 || to > count || from > to)
+        {
+            throw new IndexOutOfBoundsException("The range [" + from + ", " + to + ") is outside the table of " + count + " points");
+        }
+
+        double x0 = xs[originIndex];
+        double y0 = ys[originIndex];
+        double deviationSquareSum;
+
+        if(to - from <= DIRECT_ACCUMULATION_MAX_COUNT)
+        {
+            deviationSquareSum = accumulateShiftedSums(from, to, x0, y0, maxPower + 1, maxWeightedPower + 1, false);
+        }
+        else
+        {
+            double[] powerSums = rangePowerSums;
+            double[] weightedPowerSums = rangeWeightedPowerSums;
+
+            for(int m = 0; m <= maxPower; m++)
+            {
+                powerSums[m] = getRangeSum(prefixPowerSums[m], suffixPowerSums[m], from, to);
+            }
+            for(int m = 0; m <= maxWeightedPower; m++)
+            {
+                weightedPowerSums[m] = getRangeSum(prefixWeightedPowerSums[m], suffixWeightedPowerSums[m], from, to);
+            }
+
+            deviationSquareSum = getDeviationSquareSum(getRangeSum(prefixSquareSums, suffixSquareSums, from, to), weightedPowerSums[0], to - from, y0);
+            expandShiftedSums(powerSums, weightedPowerSums, maxPower + 1, maxWeightedPower + 1, x0, y0);
+        }
+
+        double rss = getResidualSumOfSquares(deviationSquareSum, model);
+
+        return yScale*yScale*rss;
+    }
+
+    //returns an array, whose j-th element is the residual sum of squares of the least squares fit of y_i - y_j to a*(x_j - x_i)^exponent for the points with indices not smaller than j,
+    //where the regressor is replaced by 0 for the points with x_i not smaller than x_j. The sums over these points are accumulated in a Fenwick tree indexed by the ranks of x,
+    //while j decreases, so all the sums are found in O(n log n) time
+    public double[] getSuffixResidualSumsOfSquaresForPositivePartPower(int exponent)
+    {
+        if(exponent < 0 || exponent > maxWeightedPower)
+        {
+            throw new IllegalArgumentException("Parameter 'exponent' must be between 0 and " + maxWeightedPower);
+        }
+
+        int[] ranks = getRanks(xs);
+        int rankCount = 0;
+        for(int rank : ranks)
+        {
+            rankCount = Math.max(rankCount, rank + 1);
+        }
+
+        int powerCount = 2*exponent + 1;
+        int weightedPowerCount = exponent + 1;
+        int width = powerCount + weightedPowerCount;
+
+        double[] tree = new double[(rankCount + 1)*width];
+        double[] sums = new double[width];
+        double[] powerSums = new double[powerCount];
+        double[] weightedPowerSums = new double[weightedPowerCount];
+        int[] model = new int[] {exponent};
+
+        double[] rsss = new double[count];
+
+        for(int j = count - 1; j >= 0; j--)
+        {
+            double x = xs[j];
+            double y = ys[j];
+
+            Arrays.fill(sums, 0);
+
+            double power = 1;
+            for(int m = 0; m < powerCount; m++)
+            {
+                sums[m] = power;
+                if(m < weightedPowerCount)
+                {
+                    sums[powerCount + m] = power*y;
+                }
+                power *= x;
+            }
+
+            for(int node = ranks[j] + 1; node <= rankCount; node += node & (-node))
+            {
+                int offset = node*width;
+                for(int k = 0; k < width; k++)
+                {
+                    tree[offset + k] += sums[k];
+                }
+            }
+
+            double deviationSquareSum;
+
+            if(count - j <= DIRECT_ACCUMULATION_MAX_COUNT)
+            {
+                deviationSquareSum = accumulateShiftedSums(j, count, x, y, powerCount, weightedPowerCount, true);
+            }
+            else
+            {
+                //the points with equal x have equal ranks, so the query of the ranks smaller than the rank of x_j includes only the points with positive regressors
+                Arrays.fill(sums, 0);
+                for(int node = ranks[j]; node > 0; node -= node & (-node))
+                {
+                    int offset = node*width;
+                    for(int k = 0; k < width; k++)
+                    {
+                        sums[k] += tree[offset + k];
+                    }
+                }
+
+                System.arraycopy(sums, 0, powerSums, 0, powerCount);
+                System.arraycopy(sums, powerCount, weightedPowerSums, 0, weightedPowerCount);
+
+                deviationSquareSum = getDeviationSquareSum(suffixSquareSums[j], suffixWeightedPowerSums[0][j], count - j, y);
+                expandShiftedSums(powerSums, weightedPowerSums, powerCount, weightedPowerCount, x, y);
+            }
+
+            //if all regressors are 0, the fit is undefined, as for the direct fit, which divides by the zero sum of their squares
+            rsss[j] = shiftedPowerSums[0] > 0 ? yScale*yScale*getResidualSumOfSquares(deviationSquareSum, model) : Double.NaN;
+        }
+
+        return rsss;
+    }
+
+    private double getRangeSum(double[] prefixSums, double[] suffixSums, int from, int to)
+    {
+        //the sums over the ranges which start at the first or end at the last point are read directly, so that they are not affected by cancellation
+        if(from == 0)
+        {
+            return prefixSums[to];
+        }
+        if(to == count)
+        {
+            return suffixSums[from];
+        }
+
+        return prefixSums[to] - prefixSums[from];
+    }
+
+    private static double getDeviationSquareSum(double squareSum, double sum, int n, double y0)
+    {
+        return Math.max(0, squareSum - 2*y0*sum + n*y0*y0);
+    }
+
+    //fills the shifted sums over the points with indices in the range [from, to) and returns the sum of (y - y0)^2 over these points.
+    //If only the positive part is requested, the points with x not smaller than x0 are left out of the shifted sums, but not out of the returned sum
+    private double accumulateShiftedSums(int from, int to, double x0, double y0, int powerCount, int weightedPowerCount, boolean positivePartOnly)
+    {
+        Arrays.fill(shiftedPowerSums, 0, powerCount, 0);
+        Arrays.fill(shiftedWeightedPowerSums, 0, weightedPowerCount, 0);
+
+        double deviationSquareSum = 0;
+
+        for(int i = from; i<to; i++)
+        {
+            double dy = ys[i] - y0;
+            deviationSquareSum += dy*dy;
+
+            double dx = x0 - xs[i];
+            if(positivePartOnly && !(dx > 0))
+            {
+                continue;
+            }
+
+            double power = 1;
+            for(int k = 0; k < powerCount; k++)
+            {
+                shiftedPowerSums[k] += power;
+                if(k < weightedPowerCount)
+                {
+                    shiftedWeightedPowerSums[k] += power*dy;
+                }
+                power *= dx;
+            }
+        }
+
+        return deviationSquareSum;
+    }
+
+    //powerSums[m] is the sum of x^m and weightedPowerSums[m] the sum of x^m*y over the fitted points
+    private void expandShiftedSums(double[] powerSums, double[] weightedPowerSums, int powerCount, int weightedPowerCount, double x0, double y0)
+    {
+        for(int k = 0; k < powerCount; k++)
+        {
+            shiftedPowerSums[k] = getShiftedPowerSum(powerSums, x0, k);
+        }
+        for(int k = 0; k < weightedPowerCount; k++)
+        {
+            shiftedWeightedPowerSums[k] = getShiftedPowerSum(weightedPowerSums, x0, k) - y0*shiftedPowerSums[k];
+        }
+    }
+
+    //solves the normal equations built from the shifted sums, the deviation square sum is the sum of (y - y0)^2 over the fitted points
+    private double getResidualSumOfSquares(double deviationSquareSum, int[] model)
+    {
+        int p = model.length;
+
+        if(p == 0)
+        {
+            return deviationSquareSum;
+        }
+
+        for(int a = 0; a<p; a++)
+        {
+            int ea = model[a];
+            normalVector[a] = shiftedWeightedPowerSums[ea];
+
+            for(int b = 0; b <= a; b++)
+            {
+                double element = shiftedPowerSums[ea + model[b]];
+                normalMatrix[a*p + b] = element;
+                normalMatrix[b*p + a] = element;
+            }
+
+            parameters[a] = normalVector[a];
+        }
+
+        QRDecompositionConcatenatedArray.solveInPlace(normalMatrix, parameters, rDiagonal, p);
+
+        double explained = 0;
+        for(int a = 0; a<p; a++)
+        {
+            explained += parameters[a]*normalVector[a];
+        }
+
+        return Math.max(0, deviationSquareSum - explained);
+    }
+
+    //returns the sum of (x0 - x)^k, from the sums of x^m for m not greater than k
+    private static double getShiftedPowerSum(double[] powerSums, double x0, int k)
+    {
+        double sum = 0;
+        double binomial = 1;
+
+        for(int m = 0; m <= k; m++)
+        {
+            double term = binomial*MathUtilities.intPow(x0, k - m)*powerSums[m];
+            sum += (m % 2 == 0) ? term : -term;
+
+            binomial = binomial*(k - m)/(m + 1);
+        }
+
+        return sum;
+    }
+
+    //dense ranks, equal values have equal ranks
+    private static int[] getRanks(final double[] values)
+    {
+        int n = values.length;
+
+        Integer[] order = new Integer[n];
+        for(int i = 0; i<n; i++)
+        {
+            order[i] = i;
+        }
+
+        Arrays.sort(order, new Comparator<Integer>()
+        {
+            @Override
+            public int compare(Integer i, Integer j)
+            {
+                return Double.compare(values[i], values[j]);
+            }
+        });
+
+        int[] ranks = new int[n];
+        int rank = -1;
+        double previous = Double.NaN;
+
+        for(int k = 0; k<n; k++)
+        {
+            int index = order[k];
+            double value = values[index];
+
+            if(k == 0 || value != previous)
+            {
+                rank++;
+                previous = value;
+            }
+
+            ranks[index] = rank;
+        }
+
+        return ranks;
+    }
+
+    private static double[] standardize(double[] values)
+    {
+        double mean = getMean(values);
+        double scale = getScale(values, mean);
+
+        int n = values.length;
+        double[] standardized = new double[n];
+
+        for(int i = 0; i<n; i++)
+        {
+            standardized[i] = (values[i] - mean)/scale;
+        }
+
+        return standardized;
+    }
+
+    private static double getMean(double[] values)
+    {
+        int n = values.length;
+
+        double sum = 0;
+        for(double value : values)
+        {
+            sum += value;
+        }
+
+        return n > 0 ? sum/n : 0;
+    }
+
+    //the largest absolute deviation from the mean, or 1 if all values are equal
+    private static double getScale(double[] values, double mean)
+    {
+        double scale = 0;
+        for(double value : values)
+        {
+            scale = Math.max(scale, Math.abs(value - mean));
+        }
+
+        return scale > 0 ? scale : 1;
+    }
+}
@@ -101,6 +101,65 @@ public class QRDecompositionConcatenatedArray implements java.io.Serializable {
 
 
 
+    //decomposes the square matrix A of order n, stored row after row, in place, and overwrites the first n elements of B with the solution of A*X = B.
+    //The diagonal of R is stored in rDiag, so no arrays are created, which matters for the small systems solved for every trial contact point
+    public static void solveInPlace(double[] A, double[] B, double[] rDiag, int n)
+    {
+        for (int k = 0; k < n; k++) 
+        {
+            double nrm = 0;
+            for (int i = k; i < n; i++) {
+                nrm = Maths.hypot(nrm,A[i*n + k]);
+            }
+
+            if (nrm != 0.0) {
+                if (A[k*n+k] < 0) {
+                    nrm = -nrm;
+                }
+                for (int i = k; i < n; i++) {
+                    A[i*n + k] /= nrm;
+                }
+                A[k*n + k] += 1.0;
+
+                for (int j = k+1; j < n; j++) {
+                    double s = 0.0; 
+                    for (int i = k; i < n; i++) {
+                        s += A[i*n+k]*A[i*n+j];
+                    }
+                    s = -s/A[k*n + k];
+                    for (int i = k; i < n; i++) {
+                        A[i*n + j] += s*A[i*n + k];
+                    }
+                }
+            }
+            rDiag[k] = -nrm;
+        }
+
+        for (int k = 0; k < n; k++)
+        {
+            double s = 0.0; 
+            for (int i = k; i < n; i++)
+            {
+                s += A[i*n+k]*B[i];
+            }
+            s = -s/A[k*n+k];
+            for (int i = k; i < n; i++)
+            {
+                B[i] += s*A[i*n+k];
+            }
+        }
+
+        for (int k = n-1; k >= 0; k--)
+        {
+            B[k] /= rDiag[k];
+
+            for (int i = 0; i < k; i++)
+            {
+                B[i] -= B[k]*A[i*n+k];
+            }
+        }
+    }
+
     public double[] solveWithColumn (double[] B) 
     {   
         double[] X = Arrays.copyOf(B, B.length);
@@ -13,15 +13,21 @@ public class QuantileSelector
 
 
     public QuantileSelector(double[] data, double[] quantileProbabilities)
+    {
+        this(data, quantileProbabilities, true);
+    }
+
+    //if copyData is false, the data array itself is partially sorted by the selection of the quantiles
+    private QuantileSelector(double[] data, double[] quantileProbabilities, boolean copyData)
     {
         this.quantileProbabilities = quantileProbabilities;
-        this.sortedData = Arrays.copyOf(data, data.length);
+        this.sortedData = copyData ? Arrays.copyOf(data, data.length) : data;
 
         int pCount  = quantileProbabilities.length;
         this.ranks = new int[pCount*2];
         this.quantiles = new double[pCount];        
 
-        buildQuantiles(data, quantileProbabilities);
+        buildQuantiles(sortedData, quantileProbabilities);
     }
 
     private void buildQuantiles(double[] data, double[] ps)
@@ -77,6 +83,12 @@ public class QuantileSelector
         }            
     }
 
+    //partitions the data array itself instead of its copy, for arrays which are not used by the caller afterwards
+    public static QuantileSelector getInPlaceInstance(double[] data, double[] quantileProbabilities)
+    {
+        return new QuantileSelector(data, quantileProbabilities, false);
+    }
+
     public double[] getQuantileProbabilities()
     {
         return quantileProbabilities;
@@ -492,6 +492,37 @@ public class RegressionModel
         return regModel;
     }
 
+    public static RegressionModel getWeightedDesignAndWeightedObservations(double[] ys, double[] xs, int from, int to, double[] weights, int degree)
+    {
+        int n = to - from;
+        int p =  degree + 1;
+
+        double[][] weightedDesign = new double[n][]; 
+        double[] wobs = new double[n];
+
+        for(int i = 0;i<n;i++)
+        {
+            double x = xs[i + from];
+            double y = ys[i + from];
+            double wSqrt = Math.sqrt(weights[i]);
+
+            double[] weightedDesignMatrixRow = new double[p];
+
+            for(int exp = 0; exp <= degree; exp++)
+            {
+                double basis = MathUtilities.intPow(x,exp);
+                weightedDesignMatrixRow[exp] = wSqrt*basis;
+            }
+
+            weightedDesign[i] = weightedDesignMatrixRow;
+            wobs[i] = wSqrt*y;
+        }
+
+        RegressionModel regModel = new RegressionModel(null, weightedDesign, null, wobs);
+
+        return regModel;
+    }
+
     public static RegressionModel getWeightedDesignAndWeightedObservations(double[] data, int from, int to, double[] weights, int degree)
     {
         int n = to - from;
@@ -0,0 +1,248 @@
+
+/* 
+ * ===========================================================
+ * AtomicJ : a free application for analysis of AFM data
+ * ===========================================================
+ *
+ * (C) Copyright 2013-2022 by Paweł Hermanowicz
+ *
+ * 
+ * This program is free software; you can redistribute it and/or modify 
+ * it under the terms of the GNU General Public License as published by 
+ * the Free Software Foundation; either version 3 of the License, or (at your option) any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without 
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU 
+ * General Public License for more details.
+ * You should have received a copy of the GNU General Public License along with this program; if not, 
+ * see http://www.gnu.org/licenses/*/
+
+package atomicJ.statistics;
+
+import java.util.Arrays;
+
+/*
+ * Buffers for the least squares fits of polynomials, which are reused by the successive fits, so that finding the objective function minimum creates no objects.
+ * The normal equations are accumulated in one pass over the points, so the buffers depend only on the number of parameters, and are solved by QR decomposition in place.
+ * The sums are accumulated in the same order as by the design matrix based methods of L2Regression, so the results do not change.
+ * A workspace must be used by one thread only. The static methods of L2Regression use the workspace of the calling thread, returned by getThreadWorkspace().
+ */
+
+public class RegressionWorkspace
+{
+    private static final ThreadLocal<RegressionWorkspace> THREAD_WORKSPACE = new ThreadLocal<RegressionWorkspace>()
+    {
+        @Override
+        protected RegressionWorkspace initialValue()
+        {
+            return new RegressionWorkspace(4);
+        }
+    };
+
+    private double[] normalMatrix;
+    private double[] normalVector;
+    private double[] rDiagonal;
+    private double[] powers;
+
+    public RegressionWorkspace(int maxParameterCount)
+    {
+        if(maxParameterCount < 0)
+        {
+            throw new IllegalArgumentException("Parameter 'maxParameterCount' must not be negative");
+        }
+
+        allocate(maxParameterCount);
+    }
+
+    public static RegressionWorkspace getThreadWorkspace()
+    {
+        return THREAD_WORKSPACE.get();
+    }
+
+    public int getMaxParameterCount()
+    {
+        return normalVector.length;
+    }
+
+    private void allocate(int parameterCount)
+    {
+        this.normalMatrix = new double[parameterCount*parameterCount];
+        this.normalVector = new double[parameterCount];
+        this.rDiagonal = new double[parameterCount];
+        this.powers = new double[parameterCount];
+    }
+
+    private void ensureCapacity(int parameterCount)
+    {
+        if(parameterCount > normalVector.length)
+        {
+            allocate(parameterCount);
+        }
+    }
+
+    //returns the parameters of the last fit, in the order of increasing exponents. The returned array is overwritten by the next fit, and may be longer than the number of parameters
+    public double[] getParameters()
+    {
+        return normalVector;
+    }
+
+    public double[] copyParameters(int parameterCount)
+    {
+        return Arrays.copyOf(normalVector, parameterCount);
+    }
+
+    //the polynomial has the exponents from 0 to deg if the constant is included, and from 1 to deg otherwise
+    public double findObjectiveFunctionMinimum(double[] ys, double[] xs, int from, int to, int deg, boolean constant)
+    {
+        int p = fit(ys, xs, from, to, deg, constant);
+        int firstExponent = constant ? 0 : 1;
+
+        double ss = 0;
+
+        for(int i = from; i<to; i++)
+        {
+            double dx = ys[i] - getPredictedResponse(xs[i], p, firstExponent);
+            ss += dx*dx;
+        }
+
+        return ss;
+    }
+
+    public double findObjectiveFunctionMinimum(double[][] data, int from, int to, int deg, boolean constant)
+    {
+        int p = fit(data, from, to, deg, constant);
+        int firstExponent = constant ? 0 : 1;
+
+        double ss = 0;
+
+        for(int i = from; i<to; i++)
+        {
+            double[] point = data[i];
+            double dx = point[1] - getPredictedResponse(point[0], p, firstExponent);
+            ss += dx*dx;
+        }
+
+        return ss;
+    }
+
+    //finds the parameters of the polynomial, which can be read by getParameters(), and returns their number
+    public int fit(double[] ys, double[] xs, int from, int to, int deg, boolean constant)
+    {
+        int p = beginFit(deg, constant);
+        int firstExponent = constant ? 0 : 1;
+
+        for(int i = from; i<to; i++)
+        {
+            addPoint(xs[i], ys[i], p, firstExponent);
+        }
+
+        solve(p);
+
+        return p;
+    }
+
+    public int fit(double[][] data, int from, int to, int deg, boolean constant)
+    {
+        int p = beginFit(deg, constant);
+        int firstExponent = constant ? 0 : 1;
+
+        for(int i = from; i<to; i++)
+        {
+            double[] point = data[i];
+            addPoint(point[0], point[1], p, firstExponent);
+        }
+
+        solve(p);
+
+        return p;
+    }
+
+    //fits the points with the given indices, e.g. the points covered by a concentration step of the least trimmed squares search
+    public int fit(double[] ys, double[] xs, int[] indices, int count, int deg, boolean constant)
+    {
+        int p = beginFit(deg, constant);
+        int firstExponent = constant ? 0 : 1;
+
+        for(int k = 0; k<count; k++)
+        {
+            int i = indices[k];
+            addPoint(xs[i], ys[i], p, firstExponent);
+        }
+
+        solve(p);
+
+        return p;
+    }
+
+    private int beginFit(int deg, boolean constant)
+    {
+        int p = constant ? deg + 1 : deg;
+
+        ensureCapacity(p);
+
+        Arrays.fill(normalMatrix, 0, p*p, 0);
+        Arrays.fill(normalVector, 0, p, 0);
+
+        return p;
+    }
+
+    private void addPoint(double x, double y, int p, int firstExponent)
+    {
+        fillPowers(x, p, firstExponent);
+
+        for(int j = 0; j<p; j++)
+        {
+            double power = powers[j];
+            int row = j*p;
+
+            //only the upper triangle is accumulated, the lower one is filled by solve()
+            for(int k = j; k<p; k++)
+            {
+                normalMatrix[row + k] += power*powers[k];
+            }
+
+            normalVector[j] += power*y;
+        }
+    }
+
+    private void solve(int p)
+    {
+        for(int j = 0; j<p; j++)
+        {
+            for(int k = 0; k<j; k++)
+            {
+                normalMatrix[j*p + k] = normalMatrix[k*p + j];
+            }
+        }
+
+        QRDecompositionConcatenatedArray.solveInPlace(normalMatrix, normalVector, rDiagonal, p);
+    }
+
+    private double getPredictedResponse(double x, int p, int firstExponent)
+    {
+        fillPowers(x, p, firstExponent);
+
+        double predicted = 0;
+        for(int j = 0; j<p; j++)
+        {
+            predicted += powers[j]*normalVector[j];
+        }
+
+        return predicted;
+    }
+
+    //the powers are found by repeated multiplication, as by MathUtilities.intPow()
+    private void fillPowers(double x, int p, int firstExponent)
+    {
+        double power = 1;
+        for(int e = 0; e<firstExponent; e++)
+        {
+            power *= x;
+        }
+
+        for(int j = 0; j<p; j++)
+        {
+            powers[j] = power;
+            power *= x;
+        }
+    }
+}
@@ -22,6 +22,20 @@ public enum SpanGeometry
             return new IndexRange(iLeftOld, iRightOld);
         }
 
+        @Override
+        public IndexRange getNextRangeForXs(double[] xs, int n, int i, int iLeftOld, int iRightOld, int windowWidth)
+        {
+            double x = xs[i];
+            int nextRight = iRightOld + 1;
+            if (nextRight < n && Math.abs(xs[nextRight] - x) <=  Math.abs(x - xs[iLeftOld])) //<=, for the same reason as in getNextRange(double[][], ...)
+            {
+                iLeftOld = iLeftOld + 1;
+                iRightOld = nextRight;
+            }
+
+            return new IndexRange(iLeftOld, iRightOld);
+        }
+
         @Override
         public IndexRange getRange(double[] data, int n, int i, int windowWidth)
         {            
@@ -254,6 +268,13 @@ public enum SpanGeometry
     public abstract IndexRange getNextRange(double[] data, int n, int i, int iLeftOld, int iRightOld, int windowWidth);
     public abstract IndexRange getNextRange(double[][] data, int n, int i, int iLeftOld, int iRightOld, int windowWidth);
 
+    //the same as getNextRange(double[][], ...), for the x coordinates of the points passed as a separate array
+    public IndexRange getNextRangeForXs(double[] xs, int n, int i, int iLeftOld, int iRightOld, int windowWidth)
+    {
+        //only the nearest neighbour geometry depends on the values of the x coordinates, not just on the indices
+        return getNextRange(xs, n, i, iLeftOld, iRightOld, windowWidth);
+    }
+
     public abstract IndexRange getKernelMinAndLength(int windowWidth);
 
     public static SpanGeometry getValue(String identifier)
@@ -297,6 +297,22 @@ public class Validation
         }
     }
 
+    public static void requireTwoArraysNonNullAndOfEqualLengthParameterName(float[] arrayA, float[] arrayB, String parameterAName, String parameterBName) 
+    {
+        if (arrayA == null)
+        {
+            throw new NullPointerException("The array " + parameterAName + " cannot be null");
+        }
+        if (arrayB == null)
+        {
+            throw new NullPointerException("The array " + parameterBName + " cannot be null");
+        }
+        if(arrayA.length != arrayB.length)
+        {
+            throw new IllegalArgumentException("The arrays " + parameterAName + " and " + parameterBName +" should be of the same length");
+        }
+    }
+
     public static void requireTwoArraysNonNullAndOfEqualLengthParameterName(int[] arrayA, int[] arrayB, String parameterAName, String parameterBName) 
     {
         if (arrayA == null)